@@ -10,17 +10,25 @@ class PublishPlugin : Plugin<Project> {
     override fun apply(project: Project) {
         with(project.pluginManager) {
             withPlugin("com.android.library") {
-                apply("guru.stefma.bintrayrelease")
-                (project.extensions.getByName("publish") as PublishExtension).apply {
-                    userOrg = "grandcentrix"
-                    uploadName = "ThirtyInch"
-                    website = "https://github.com/grandcentrix/ThirtyInch"
-                    desc = "a Model View Presenter library for Android"
-                }
-                (project.extensions.getByName("androidArtifact") as ArtifactsExtension).apply {
-                    artifactId = project.name
-                }
+                configurePublishing(project, "androidArtifact")
             }
+            // i.e. the annotation processor thirtyinch-compiler
+            withPlugin("java-library") {
+                configurePublishing(project, "javaArtifact")
+            }
+        }
+    }
+
+    private fun configurePublishing(project: Project, artifactExtensionName: String) {
+        project.pluginManager.apply("guru.stefma.bintrayrelease")
+        (project.extensions.getByName("publish") as PublishExtension).apply {
+            userOrg = "grandcentrix"
+            uploadName = "ThirtyInch"
+            website = "https://github.com/grandcentrix/ThirtyInch"
+            desc = "a Model View Presenter library for Android"
+        }
+        (project.extensions.getByName(artifactExtensionName) as ArtifactsExtension).apply {
+            artifactId = project.name
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link TiPresenter#sendToView(ViewAction)} with and without an attached view. The ui
+ * thread executor runs the actions directly on the calling thread.
+ * <p>
+ * Run with {@code ./gradlew :thirtyinch-benchmarks:jmh -Pjmh.includes=SendToView}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendToViewBenchmark {
+
+    private static final int ACTIONS_PER_DETACHED_INVOCATION = 100;
+
+    /**
+     * see {@link TiConfiguration.Builder#setSendToViewBatchingEnabled(boolean)}
+     */
+    @Param({"false", "true"})
+    public boolean mBatching;
+
+    /**
+     * see {@link TiConfiguration.Builder#setViewActionMetricsEnabled(boolean)}
+     */
+    @Param({"false", "true"})
+    public boolean mMetrics;
+
+    private ViewAction<TiView> mAction;
+
+    private TiPresenter<TiView> mAttachedPresenter;
+
+    private TiPresenter<TiView> mDetachedPresenter;
+
+    private final TiView mView = new TiView() {
+    };
+
+    @Benchmark
+    public void attached() {
+        mAttachedPresenter.sendToView(mAction);
+    }
+
+    /**
+     * Postpones the actions and executes them when the view attaches. The view is attached after
+     * a batch of actions, otherwise the postponed actions would pile up.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ACTIONS_PER_DETACHED_INVOCATION)
+    public void detached() {
+        for (int i = 0; i < ACTIONS_PER_DETACHED_INVOCATION; i++) {
+            mDetachedPresenter.sendToView(mAction);
+        }
+        mDetachedPresenter.attachView(mView);
+        mDetachedPresenter.detachView();
+    }
+
+    @Setup
+    public void setUp(final Blackhole blackhole) {
+        mAction = new ViewAction<TiView>() {
+            @Override
+            public void call(final TiView view) {
+                blackhole.consume(view);
+            }
+        };
+
+        mAttachedPresenter = createPresenter();
+        mAttachedPresenter.attachView(mView);
+
+        mDetachedPresenter = createPresenter();
+    }
+
+    private TiPresenter<TiView> createPresenter() {
+        final TiConfiguration config = new TiConfiguration.Builder()
+                .setSendToViewBatchingEnabled(mBatching)
+                .setViewActionMetricsEnabled(mMetrics)
+                .build();
+        final TiPresenter<TiView> presenter = new TiPresenter<TiView>(config) {
+        };
+        presenter.setUiThreadExecutor(new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                command.run();
+            }
+        });
+        presenter.create();
+        return presenter;
+    }
+}
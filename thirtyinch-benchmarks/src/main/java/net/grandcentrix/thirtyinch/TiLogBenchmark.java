@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of {@link TiLog} calls on the calling thread with string concatenation and
+ * with format arguments, for disabled logging, a synchronous logger and the
+ * {@link TiAsyncLogger}.
+ * <p>
+ * Run with {@code ./gradlew :thirtyinch-benchmarks:jmh -Pjmh.includes=TiLog}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TiLogBenchmark {
+
+    /**
+     * Consumes the message like a logger writing to logcat would, without the system call
+     */
+    private static class BlackholeLogger implements TiLog.Logger {
+
+        private final Blackhole mBlackhole;
+
+        BlackholeLogger(final Blackhole blackhole) {
+            mBlackhole = blackhole;
+        }
+
+        @Override
+        public void log(final int level, final String tag, final String msg) {
+            mBlackhole.consume(tag + ": " + msg);
+        }
+    }
+
+    @Param({"none", "sync", "async"})
+    public String logger;
+
+    private TiAsyncLogger mAsyncLogger;
+
+    private final Object mPresenter = new TiPresenter<TiView>() {
+    };
+
+    @Benchmark
+    public void concatenated() {
+        TiLog.v("TiLogBenchmark", "binding NEW view to Presenter " + mPresenter);
+    }
+
+    @Benchmark
+    public void formatArguments() {
+        TiLog.v("TiLogBenchmark", "binding NEW view to Presenter %s", mPresenter);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(final Blackhole blackhole) {
+        switch (logger) {
+            case "sync":
+                TiLog.setLogger(new BlackholeLogger(blackhole));
+                break;
+            case "async":
+                mAsyncLogger = new TiAsyncLogger.Builder(new BlackholeLogger(blackhole))
+                        .setBufferSize(4096)
+                        .build();
+                TiLog.setLogger(mAsyncLogger);
+                break;
+            default:
+                TiLog.setLogger(null);
+                break;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        TiLog.setLogger(null);
+        if (mAsyncLogger != null) {
+            mAsyncLogger.shutdown();
+            mAsyncLogger = null;
+        }
+    }
+}
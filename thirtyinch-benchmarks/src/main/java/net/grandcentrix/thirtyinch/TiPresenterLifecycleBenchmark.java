@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the lifecycle methods of the {@link TiPresenter} including the dispatch to
+ * {@link TiLifecycleObserver}s.
+ * <p>
+ * Run with {@code ./gradlew :thirtyinch-benchmarks:jmh -Pjmh.includes=TiPresenterLifecycle}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TiPresenterLifecycleBenchmark {
+
+    private static class BlackholeObserver implements TiLifecycleObserver {
+
+        private final Blackhole mBlackhole;
+
+        BlackholeObserver(final Blackhole blackhole) {
+            mBlackhole = blackhole;
+        }
+
+        @Override
+        public void onChange(final TiPresenter.State state,
+                final boolean hasLifecycleMethodBeenCalled) {
+            mBlackhole.consume(state);
+        }
+    }
+
+    private Blackhole mBlackhole;
+
+    private TiPresenter<TiView> mPresenter;
+
+    private final TiView mView = new TiView() {
+    };
+
+    @Benchmark
+    public void attachDetach() {
+        mPresenter.attachView(mView);
+        mPresenter.detachView();
+    }
+
+    @Benchmark
+    public TiPresenter<TiView> createAttachDetachDestroy() {
+        final TiPresenter<TiView> presenter = new TiPresenter<TiView>() {
+        };
+        presenter.addLifecycleObserver(new BlackholeObserver(mBlackhole));
+        presenter.create();
+        presenter.attachView(mView);
+        presenter.detachView();
+        presenter.destroy();
+        return presenter;
+    }
+
+    @Setup
+    public void setUp(final Blackhole blackhole) {
+        mBlackhole = blackhole;
+        mPresenter = new TiPresenter<TiView>() {
+        };
+        // observers as added by the rx and coroutine extensions and the UiThreadExecutorAutoBinder
+        for (int i = 0; i < 3; i++) {
+            mPresenter.addLifecycleObserver(new BlackholeObserver(blackhole));
+        }
+        mPresenter.create();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.callonmainthread;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import net.grandcentrix.thirtyinch.TiView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares posting a {@link CallOnMainThread} call from a background thread with the {@link
+ * MainThreadDispatcher} against the {@link LegacyCallOnMainThreadInvocationHandler} which
+ * allocates a {@link Runnable} for every call. The stubbed {@link android.os.Handler} runs the
+ * calls immediately, the interesting number is the allocation rate.
+ * <p>
+ * Run with {@code ./gradlew :thirtyinch-benchmarks:jmh -Pjmh.includes=CallOnMainThread
+ * -Pjmh.profiler=gc} and compare {@code gc.alloc.rate.norm}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallOnMainThreadBenchmark {
+
+    public interface BenchmarkView extends TiView {
+
+        @CallOnMainThread
+        void showText(String text);
+    }
+
+    private static class BlackholeView implements BenchmarkView {
+
+        private final Blackhole mBlackhole;
+
+        BlackholeView(final Blackhole blackhole) {
+            mBlackhole = blackhole;
+        }
+
+        @Override
+        public void showText(final String text) {
+            mBlackhole.consume(text);
+        }
+    }
+
+    private BenchmarkView mDispatcher;
+
+    private BenchmarkView mLegacy;
+
+    @Benchmark
+    public void dispatcher() {
+        mDispatcher.showText("Hello");
+    }
+
+    @Benchmark
+    public void legacy() {
+        mLegacy.showText("Hello");
+    }
+
+    @Setup
+    public void setUp(final Blackhole blackhole) {
+        final BlackholeView view = new BlackholeView(blackhole);
+        mLegacy = proxy(new LegacyCallOnMainThreadInvocationHandler<>(view));
+        mDispatcher = proxy(new CallOnMainThreadInvocationHandler<>(view));
+    }
+
+    private static BenchmarkView proxy(final InvocationHandler handler) {
+        return (BenchmarkView) Proxy.newProxyInstance(BenchmarkView.class.getClassLoader(),
+                new Class<?>[]{BenchmarkView.class}, handler);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.distinctuntilchanged;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link DistinctComparator}s for a list parameter of {@code mSize} strings which
+ * doesn't change. The parameter alternates between two equal lists as a presenter would create a
+ * new list for every update.
+ * <p>
+ * Run with {@code ./gradlew :thirtyinch-benchmarks:jmh -Pjmh.includes=DistinctComparator}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistinctComparatorBenchmark {
+
+    private static class VersionedList extends ArrayList<String> implements Versioned {
+
+        @Override
+        public long getVersion() {
+            return 0;
+        }
+    }
+
+    @Param({"10", "1000"})
+    public int mSize;
+
+    private final DistinctComparator mEquals = new EqualsComparator();
+
+    private final DistinctComparator mFingerprint = new FingerprintComparator();
+
+    private final DistinctComparator mHash = new HashComparator();
+
+    private int mCount;
+
+    private final Object[][] mParameters = new Object[2][];
+
+    private Object[] mVersionedParameters;
+
+    private final DistinctComparator mWeakEquals = new WeakEqualsComparator();
+
+    @Benchmark
+    public boolean equals() {
+        return mEquals.compareWith(mParameters[mCount++ & 1]);
+    }
+
+    @Benchmark
+    public boolean fingerprint() {
+        return mFingerprint.compareWith(mParameters[mCount++ & 1]);
+    }
+
+    @Benchmark
+    public boolean fingerprint_versioned() {
+        return mFingerprint.compareWith(mVersionedParameters);
+    }
+
+    @Benchmark
+    public boolean hash() {
+        return mHash.compareWith(mParameters[mCount++ & 1]);
+    }
+
+    @Setup
+    public void setUp() {
+        final List<String> list = new ArrayList<>();
+        final VersionedList versioned = new VersionedList();
+        for (int i = 0; i < mSize; i++) {
+            list.add("item " + i);
+            versioned.add("item " + i);
+        }
+        mParameters[0] = new Object[]{list};
+        mParameters[1] = new Object[]{new ArrayList<>(list)};
+        mVersionedParameters = new Object[]{versioned};
+    }
+
+    @Benchmark
+    public boolean weakEquals() {
+        return mWeakEquals.compareWith(mParameters[mCount++ & 1]);
+    }
+}
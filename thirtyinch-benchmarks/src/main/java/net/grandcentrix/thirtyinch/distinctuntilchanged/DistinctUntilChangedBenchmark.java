@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.distinctuntilchanged;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import net.grandcentrix.thirtyinch.TiView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the {@link DistinctUntilChangedInvocationHandler} using the precomputed {@link
+ * DistinctUntilChangedMethodTable} with the {@link LegacyDistinctUntilChangedInvocationHandler}
+ * which looks up the annotation and builds {@code Method#toGenericString()} on every call.
+ * <p>
+ * Run with {@code ./gradlew :thirtyinch-benchmarks:jmh -Pjmh.includes=DistinctUntilChanged}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistinctUntilChangedBenchmark {
+
+    public interface BenchmarkView extends TiView {
+
+        @DistinctUntilChanged
+        void showText(String text);
+
+        void showCount(int count);
+    }
+
+    private static class BlackholeView implements BenchmarkView {
+
+        private final Blackhole mBlackhole;
+
+        BlackholeView(final Blackhole blackhole) {
+            mBlackhole = blackhole;
+        }
+
+        @Override
+        public void showCount(final int count) {
+            mBlackhole.consume(count);
+        }
+
+        @Override
+        public void showText(final String text) {
+            mBlackhole.consume(text);
+        }
+    }
+
+    private int mCount;
+
+    private BenchmarkView mLegacy;
+
+    private BenchmarkView mMethodTable;
+
+    private final String[] mTexts = {"Hello", "World"};
+
+    @Setup
+    public void setUp(final Blackhole blackhole) {
+        final BlackholeView view = new BlackholeView(blackhole);
+        mLegacy = proxy(new LegacyDistinctUntilChangedInvocationHandler<>(view));
+        mMethodTable = proxy(new DistinctUntilChangedInvocationHandler<>(
+                view, BenchmarkView.class));
+    }
+
+    @Benchmark
+    public void legacy_changed() {
+        mLegacy.showText(mTexts[mCount++ & 1]);
+    }
+
+    @Benchmark
+    public void legacy_notAnnotated() {
+        mLegacy.showCount(mCount++);
+    }
+
+    @Benchmark
+    public void legacy_unchanged() {
+        mLegacy.showText(mTexts[0]);
+    }
+
+    @Benchmark
+    public void methodTable_changed() {
+        mMethodTable.showText(mTexts[mCount++ & 1]);
+    }
+
+    @Benchmark
+    public void methodTable_notAnnotated() {
+        mMethodTable.showCount(mCount++);
+    }
+
+    @Benchmark
+    public void methodTable_unchanged() {
+        mMethodTable.showText(mTexts[0]);
+    }
+
+    private static BenchmarkView proxy(final InvocationHandler handler) {
+        return (BenchmarkView) Proxy.newProxyInstance(BenchmarkView.class.getClassLoader(),
+                new Class<?>[]{BenchmarkView.class}, handler);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import net.grandcentrix.thirtyinch.TiLog;
+import net.grandcentrix.thirtyinch.TiPresenter;
+
+/**
+ * The {@link PresenterScope} before the introduction of the reverse index, kept as baseline for
+ * {@link PresenterScopeBenchmark}. Saving a presenter iterates over all saved presenters to
+ * detect duplicates.
+ */
+final class LegacyPresenterScope {
+
+    private final String TAG = LegacyPresenterScope.class.getSimpleName()
+            + "@" + Integer.toHexString(hashCode());
+
+    private final HashMap<String, TiPresenter> mStore = new HashMap<>();
+
+    public TiPresenter get(final String id) {
+        return mStore.get(id);
+    }
+
+    public TiPresenter remove(final String id) {
+        final TiPresenter presenter = mStore.remove(id);
+        TiLog.d(TAG, "remove " + id + " " + presenter);
+        return presenter;
+    }
+
+    public void save(final String id, final TiPresenter presenter) {
+        if (mStore.get(id) != null) {
+            throw new IllegalStateException("There is already a presenter saved with id "
+                    + id + " " + presenter);
+        }
+
+        for (final Map.Entry<String, TiPresenter> entry : mStore.entrySet()) {
+            if (entry.getValue().equals(presenter)) {
+                throw new IllegalStateException("Presenter is already saved with different id '"
+                        + entry.getKey() + "' " + presenter);
+            }
+        }
+
+        TiLog.d(TAG, "save " + id + " " + presenter);
+        mStore.put(id, presenter);
+    }
+}
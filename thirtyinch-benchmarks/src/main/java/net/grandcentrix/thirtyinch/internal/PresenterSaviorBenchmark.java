@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.internal;
+
+import android.app.Activity;
+import android.app.Application;
+import java.util.concurrent.TimeUnit;
+import net.grandcentrix.thirtyinch.TiPresenter;
+import net.grandcentrix.thirtyinch.TiView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures saving, recovering and freeing a presenter in the {@link PresenterSavior} for an
+ * Activity which already holds a given number of presenters. With a scope size of 1 the scope is
+ * created and removed for every saved presenter.
+ * <p>
+ * Run with {@code ./gradlew :thirtyinch-benchmarks:jmh -Pjmh.includes=PresenterSavior}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PresenterSaviorBenchmark {
+
+    /**
+     * number of presenters in the scope including the measured one
+     */
+    @Param({"1", "10", "60"})
+    public int mScopeSize;
+
+    private Activity mActivity;
+
+    private final TiPresenter<TiView> mPresenter = new TiPresenter<TiView>() {
+    };
+
+    private String mRecoverId;
+
+    private PresenterSavior mSavior;
+
+    @Benchmark
+    public TiPresenter recover() {
+        return mSavior.recover(mRecoverId, mActivity);
+    }
+
+    @Benchmark
+    public TiPresenter saveRecoverFree() {
+        final String id = mSavior.save(mPresenter, mActivity);
+        final TiPresenter recovered = mSavior.recover(id, mActivity);
+        mSavior.free(id, mActivity);
+        return recovered;
+    }
+
+    @Setup
+    public void setUp() {
+        mSavior = new PresenterSavior();
+        mActivity = new Activity(new Application());
+        for (int i = 0; i < mScopeSize - 1; i++) {
+            mRecoverId = mSavior.save(new TiPresenter<TiView>() {
+            }, mActivity);
+        }
+        if (mRecoverId == null) {
+            mRecoverId = "unknown";
+        }
+    }
+}
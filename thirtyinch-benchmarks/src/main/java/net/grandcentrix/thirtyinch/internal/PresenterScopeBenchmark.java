@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.internal;
+
+import java.util.concurrent.TimeUnit;
+import net.grandcentrix.thirtyinch.TiPresenter;
+import net.grandcentrix.thirtyinch.TiView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Saves and removes all presenters of a large scope, i.e. an Activity with many Fragments in a
+ * ViewPager which all get recreated after an orientation change. Compares the {@link
+ * PresenterScope} using a reverse index with the {@link LegacyPresenterScope} which iterates over
+ * all presenters on every save.
+ * <p>
+ * Run with {@code ./gradlew :thirtyinch-benchmarks:jmh -Pjmh.includes=PresenterScope}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PresenterScopeBenchmark {
+
+    @Param({"10", "60", "250"})
+    public int mPresenterCount;
+
+    private String[] mIds;
+
+    private TiPresenter[] mPresenters;
+
+    @Benchmark
+    public void legacySaveAndRemoveAll(final Blackhole blackhole) {
+        final LegacyPresenterScope scope = new LegacyPresenterScope();
+        for (int i = 0; i < mPresenterCount; i++) {
+            scope.save(mIds[i], mPresenters[i]);
+        }
+        for (int i = 0; i < mPresenterCount; i++) {
+            blackhole.consume(scope.remove(mIds[i]));
+        }
+    }
+
+    @Benchmark
+    public void saveAndRemoveAll(final Blackhole blackhole) {
+        final PresenterScope scope = new PresenterScope();
+        for (int i = 0; i < mPresenterCount; i++) {
+            scope.save(mIds[i], mPresenters[i]);
+        }
+        for (int i = 0; i < mPresenterCount; i++) {
+            blackhole.consume(scope.remove(mIds[i]));
+        }
+    }
+
+    @Setup
+    public void setup() {
+        mIds = new String[mPresenterCount];
+        mPresenters = new TiPresenter[mPresenterCount];
+        for (int i = 0; i < mPresenterCount; i++) {
+            mIds[i] = "presenter" + i;
+            mPresenters[i] = new TiPresenter<TiView>() {
+            };
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.internal;
+
+import java.util.concurrent.TimeUnit;
+import net.grandcentrix.thirtyinch.BindViewInterceptor;
+import net.grandcentrix.thirtyinch.TiLog;
+import net.grandcentrix.thirtyinch.TiPresenter;
+import net.grandcentrix.thirtyinch.TiView;
+import net.grandcentrix.thirtyinch.callonmainthread.CallOnMainThread;
+import net.grandcentrix.thirtyinch.callonmainthread.CallOnMainThreadInterceptor;
+import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctUntilChanged;
+import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctUntilChangedInterceptor;
+import net.grandcentrix.thirtyinch.logginginterceptor.LoggingInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link PresenterViewBinder#bindView(TiPresenter, TiViewProvider)} with 0 to 3
+ * interceptors, in the order a {@link net.grandcentrix.thirtyinch.TiActivity} with an additional
+ * {@link LoggingInterceptor} uses them. The interceptors wrap the view with a
+ * {@link java.lang.reflect.Proxy}, the thirtyinch-compiler doesn't run for the benchmarks.
+ * <p>
+ * Run with {@code ./gradlew :thirtyinch-benchmarks:jmh -Pjmh.includes=PresenterViewBinder}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PresenterViewBinderBenchmark {
+
+    public interface BenchmarkView extends TiView {
+
+        @CallOnMainThread
+        @DistinctUntilChanged
+        void showText(String text);
+    }
+
+    private static class BlackholeView implements BenchmarkView {
+
+        private final Blackhole mBlackhole;
+
+        BlackholeView(final Blackhole blackhole) {
+            mBlackhole = blackhole;
+        }
+
+        @Override
+        public void showText(final String text) {
+            mBlackhole.consume(text);
+        }
+    }
+
+    @Param({"0", "1", "2", "3"})
+    public int mInterceptorCount;
+
+    private PresenterViewBinder<BenchmarkView> mBinder;
+
+    private BenchmarkView mBoundView;
+
+    private int mCount;
+
+    private TiPresenter<BenchmarkView> mPresenter;
+
+    private final String[] mTexts = {"Hello", "World"};
+
+    private TiViewProvider<BenchmarkView> mViewProvider;
+
+    @Benchmark
+    public void bindCachedView() {
+        mBinder.bindView(mPresenter, mViewProvider);
+        mPresenter.detachView();
+    }
+
+    /**
+     * binds a new view instance, i.e. after a configuration change, and wraps it with all
+     * interceptors
+     */
+    @Benchmark
+    public void bindNewView() {
+        mBinder.invalidateView();
+        mBinder.bindView(mPresenter, mViewProvider);
+        mPresenter.detachView();
+    }
+
+    /**
+     * calls a method of the view wrapped by all interceptors
+     */
+    @Benchmark
+    public void callBoundView() {
+        mBoundView.showText(mTexts[mCount++ & 1]);
+    }
+
+    @Setup
+    public void setUp(final Blackhole blackhole) {
+        final BlackholeView view = new BlackholeView(blackhole);
+        mViewProvider = new TiViewProvider<BenchmarkView>() {
+            @Override
+            public BenchmarkView provideView() {
+                return view;
+            }
+        };
+
+        mBinder = new PresenterViewBinder<>(new TiLoggingTagProvider() {
+            @Override
+            public String getLoggingTag() {
+                return "PresenterViewBinderBenchmark";
+            }
+        });
+        final BindViewInterceptor[] interceptors = {
+                new CallOnMainThreadInterceptor(),
+                new DistinctUntilChangedInterceptor(),
+                new LoggingInterceptor(new TiLog.Logger() {
+                    @Override
+                    public void log(final int level, final String tag, final String msg) {
+                        blackhole.consume(msg);
+                    }
+                })
+        };
+        for (int i = 0; i < mInterceptorCount; i++) {
+            mBinder.addBindViewInterceptor(interceptors[i]);
+        }
+
+        mPresenter = new TiPresenter<BenchmarkView>() {
+        };
+        mPresenter.create();
+
+        mBinder.bindView(mPresenter, mViewProvider);
+        mBoundView = mPresenter.getView();
+        mPresenter.detachView();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.logginginterceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the formatting of view method invocations by the {@link LoggingInterceptor} for
+ * different kinds of parameters.
+ * <p>
+ * Run with {@code ./gradlew :thirtyinch-benchmarks:jmh -Pjmh.includes=LoggingInterceptor}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingInterceptorBenchmark {
+
+    private Object[] mArrayArgs;
+
+    private Object[] mListArgs;
+
+    private Object[] mLongStringArgs;
+
+    private Object[] mShortArgs;
+
+    @Benchmark
+    public String formatArray() {
+        return LoggingInterceptor.formatInvocation("showItems", mArrayArgs);
+    }
+
+    @Benchmark
+    public String formatList() {
+        return LoggingInterceptor.formatInvocation("showItems", mListArgs);
+    }
+
+    /**
+     * a parameter exceeding the maximum length which gets truncated
+     */
+    @Benchmark
+    public String formatLongString() {
+        return LoggingInterceptor.formatInvocation("showText", mLongStringArgs);
+    }
+
+    @Benchmark
+    public String formatNoArgs() {
+        return LoggingInterceptor.formatInvocation("showLoading", null);
+    }
+
+    @Benchmark
+    public String formatShortArgs() {
+        return LoggingInterceptor.formatInvocation("showText", mShortArgs);
+    }
+
+    @Setup
+    public void setUp() {
+        mShortArgs = new Object[]{"Hello World", 42};
+
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sb.append("Lorem ipsum ");
+        }
+        mLongStringArgs = new Object[]{sb.toString()};
+
+        final List<String> items = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            items.add("item" + i);
+        }
+        mListArgs = new Object[]{items};
+        mArrayArgs = new Object[]{items.toArray()};
+    }
+}
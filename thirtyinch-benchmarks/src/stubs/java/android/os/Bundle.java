@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.os;
+
+import java.util.HashMap;
+
+/**
+ * Minimal replacement of the android framework class to run the benchmarks on the JVM
+ */
+public final class Bundle {
+
+    private final HashMap<String, String> mStrings = new HashMap<>();
+
+    public String getString(final String key) {
+        return mStrings.get(key);
+    }
+
+    public void putString(final String key, final String value) {
+        mStrings.put(key, value);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.os;
+
+/**
+ * Minimal replacement of the android framework class to run the benchmarks on the JVM. Posted
+ * runnables and sent messages are executed immediately.
+ */
+public class Handler {
+
+    public interface Callback {
+
+        boolean handleMessage(Message msg);
+    }
+
+    private final Callback mCallback;
+
+    public Handler(final Looper looper) {
+        this(looper, null);
+    }
+
+    public Handler(final Looper looper, final Callback callback) {
+        mCallback = callback;
+    }
+
+    public void handleMessage(final Message msg) {
+    }
+
+    public final Message obtainMessage(final int what, final Object obj) {
+        final Message message = Message.obtain();
+        message.target = this;
+        message.what = what;
+        message.obj = obj;
+        return message;
+    }
+
+    public final boolean post(final Runnable r) {
+        // like on android the runnable is stored in a message and escapes
+        final Message message = Message.obtain();
+        message.target = this;
+        message.callback = r;
+        return sendMessage(message);
+    }
+
+    public final boolean sendMessage(final Message msg) {
+        if (msg.callback != null) {
+            msg.callback.run();
+        } else if (mCallback == null || !mCallback.handleMessage(msg)) {
+            handleMessage(msg);
+        }
+        msg.recycle();
+        return true;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.os;
+
+/**
+ * Minimal replacement of the android framework class to run the benchmarks on the JVM. Messages
+ * are pooled like on android so that they don't distort allocation measurements.
+ */
+public final class Message {
+
+    private static Message sPool;
+
+    public Object obj;
+
+    public int what;
+
+    Runnable callback;
+
+    Message next;
+
+    Handler target;
+
+    public static synchronized Message obtain() {
+        final Message message = sPool;
+        if (message == null) {
+            return new Message();
+        }
+        sPool = message.next;
+        message.next = null;
+        return message;
+    }
+
+    public void sendToTarget() {
+        target.sendMessage(this);
+    }
+
+    void recycle() {
+        callback = null;
+        obj = null;
+        what = 0;
+        target = null;
+        synchronized (Message.class) {
+            next = sPool;
+            sPool = this;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.view;
+
+/**
+ * Minimal replacement of the android framework class to run the benchmarks on the JVM. Frame
+ * callbacks are executed immediately.
+ */
+public final class Choreographer {
+
+    public interface FrameCallback {
+
+        void doFrame(long frameTimeNanos);
+    }
+
+    private static final Choreographer INSTANCE = new Choreographer();
+
+    public static Choreographer getInstance() {
+        return INSTANCE;
+    }
+
+    private Choreographer() {
+    }
+
+    public void postFrameCallback(final FrameCallback callback) {
+        callback.doFrame(System.nanoTime());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the delegate used by the {@code CallOnMainThreadInterceptor}. Calls of {@code void}
+ * methods annotated with {@code @CallOnMainThread} are posted to the main thread when called from
+ * a background thread, all other methods are called directly. Every posted method passes its index
+ * to identify its calls, the generated {@code dispatch()} switches over that index to call the
+ * method with the posted arguments on the main thread.
+ */
+final class CallOnMainThreadDelegateWriter extends DelegateWriter {
+
+    static final String ANNOTATION = "net.grandcentrix.thirtyinch.callonmainthread.CallOnMainThread";
+
+    CallOnMainThreadDelegateWriter() {
+        super("net.grandcentrix.thirtyinch.callonmainthread.AbstractCallOnMainThreadView",
+                "CallOnMainThread", "mView", "cancelPosted", "dispatch", "isMainThread",
+                "post");
+    }
+
+    /**
+     * @return the methods which are posted when called from a background thread
+     */
+    static List<ViewMethod> getPostedMethods(final ViewInterface view) {
+        final List<ViewMethod> methods = new ArrayList<>();
+        for (final ViewMethod method : view.getMethods()) {
+            if (method.isVoid() && method.getAnnotation(ANNOTATION) != null) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    @Override
+    List<ViewMethod> getInterceptedMethods(final ViewInterface view) {
+        return getPostedMethods(view);
+    }
+
+    @Override
+    boolean shouldGenerate(final ViewInterface view) {
+        return view.hasMethodAnnotatedWith(ANNOTATION);
+    }
+
+    @Override
+    void writeMembers(final StringBuilder sb, final ViewInterface view,
+            final List<ViewMethod> methods) {
+        final String target = view.getGeneratedClassName(getSuffix()) + ".this.mView";
+        sb.append("\n");
+        sb.append("    @Override\n");
+        sb.append("    @java.lang.SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        sb.append("    protected void dispatch(final int methodIndex,")
+                .append(" final java.lang.Object[] args) throws java.lang.Exception {\n");
+        sb.append("        switch (methodIndex) {\n");
+        for (int i = 0; i < methods.size(); i++) {
+            final ViewMethod method = methods.get(i);
+            sb.append("            case ").append(i).append(":\n");
+            sb.append("                ").append(target).append(".").append(method.getName())
+                    .append("(").append(method.getArgumentsFrom("args")).append(");\n");
+            sb.append("                return;\n");
+        }
+        sb.append("            default:\n");
+        sb.append("                throw new java.lang.IllegalArgumentException(")
+                .append("\"unknown method index \" + methodIndex);\n");
+        sb.append("        }\n");
+        sb.append("    }\n");
+    }
+
+    @Override
+    void writeMethodBody(final StringBuilder sb, final ViewInterface view,
+            final ViewMethod method, final int methodIndex, final String target) {
+        if (methodIndex < 0) {
+            writeForward(sb, method, target, "        ");
+            return;
+        }
+        sb.append("        if (isMainThread()) {\n");
+        sb.append("            cancelPosted(").append(methodIndex).append(");\n");
+        sb.append("            ").append(call(method, target)).append(";\n");
+        sb.append("        } else {\n");
+        // the call is sent as pooled message and runs dispatch() on the main thread
+        sb.append("            post(").append(methodIndex).append(", ");
+        if (method.getParameterCount() > 0) {
+            sb.append("new java.lang.Object[]{").append(method.getArguments()).append("}");
+        } else {
+            sb.append("null");
+        }
+        sb.append(");\n");
+        sb.append("        }\n");
+    }
+}
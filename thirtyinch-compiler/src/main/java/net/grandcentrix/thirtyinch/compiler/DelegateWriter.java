@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.compiler;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes the source of a view delegate for one {@code BindViewInterceptor}. The generated class
+ * extends a base class shipped with the interceptor, implements the {@code TiView} interface and
+ * forwards every call to the wrapped view without reflection.
+ */
+abstract class DelegateWriter {
+
+    private final String mBaseClass;
+
+    private final Set<String> mReservedNames;
+
+    private final String mSuffix;
+
+    /**
+     * @param baseClass     qualified name of the runtime base class of the generated delegates
+     * @param suffix        suffix of the generated class, has to match the suffix the interceptor
+     *                      uses at runtime for the lookup
+     * @param reservedNames members of the base class which must not clash with methods of the
+     *                      view interface
+     */
+    DelegateWriter(final String baseClass, final String suffix, final String... reservedNames) {
+        mBaseClass = baseClass;
+        mSuffix = suffix;
+        mReservedNames = new HashSet<>(Arrays.asList(reservedNames));
+    }
+
+    /**
+     * @return the name of a member of the base class which clashes with a method of the view
+     * interface or {@code null} if there is no conflict
+     */
+    String findNameClash(final ViewInterface view) {
+        for (final ViewMethod method : view.getMethods()) {
+            if (mReservedNames.contains(method.getName())) {
+                return method.getName();
+            }
+        }
+        return null;
+    }
+
+    String getBaseClass() {
+        return mBaseClass;
+    }
+
+    /**
+     * @return the methods the interceptor applies to, their position in the list is the index
+     * passed to {@link #writeMethodBody(StringBuilder, ViewInterface, ViewMethod, int, String)}
+     */
+    abstract List<ViewMethod> getInterceptedMethods(final ViewInterface view);
+
+    String getSuffix() {
+        return mSuffix;
+    }
+
+    /**
+     * @return {@code true} when the interceptor applies to the view, i.e. when at least one method
+     * is annotated
+     */
+    abstract boolean shouldGenerate(final ViewInterface view);
+
+    /**
+     * @return the complete source file of the delegate
+     */
+    String write(final ViewInterface view) {
+        final String className = view.getGeneratedClassName(mSuffix);
+        final String viewType = view.getTypeReference();
+
+        final StringBuilder sb = new StringBuilder();
+        sb.append("// Generated by thirtyinch-compiler. Do not modify!\n");
+        if (!view.getPackageName().isEmpty()) {
+            sb.append("package ").append(view.getPackageName()).append(";\n");
+        }
+        sb.append("\n");
+        sb.append(view.isPublic() ? "public " : "").append("final class ").append(className)
+                .append(view.getTypeParameterDeclaration()).append("\n");
+        sb.append("        extends ").append(mBaseClass).append("<").append(viewType).append(">\n");
+        sb.append("        implements ").append(viewType).append(" {\n");
+        final List<ViewMethod> intercepted = getInterceptedMethods(view);
+        final Map<ViewMethod, Integer> methodIndices = new IdentityHashMap<>();
+        for (int i = 0; i < intercepted.size(); i++) {
+            methodIndices.put(intercepted.get(i), i);
+        }
+        writeMembers(sb, view, intercepted);
+        sb.append("\n");
+        sb.append("    public ").append(className).append("(")
+                .append(getConstructorParameters(viewType)).append(") {\n");
+        sb.append("        ").append(getSuperCall(view)).append(";\n");
+        sb.append("    }\n");
+
+        for (final ViewMethod method : view.getMethods()) {
+            sb.append("\n");
+            sb.append("    @Override\n");
+            sb.append("    ").append(method.getSignature()).append(" {\n");
+            final Integer methodIndex = methodIndices.get(method);
+            writeMethodBody(sb, view, method, methodIndex != null ? methodIndex : -1,
+                    className + ".this.mView");
+            sb.append("    }\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * @return the parameters of the constructor, the first one has to be the wrapped view
+     */
+    String getConstructorParameters(final String viewType) {
+        return "final " + viewType + " view";
+    }
+
+    /**
+     * @return the call of the super constructor
+     */
+    String getSuperCall(final ViewInterface view) {
+        return "super(view)";
+    }
+
+    /**
+     * Writes the implementation of a view method forwarding the call to {@code target}
+     *
+     * @param methodIndex the index of the method in {@link #getInterceptedMethods(ViewInterface)}
+     *                    or {@code -1} when the interceptor doesn't apply to it
+     */
+    abstract void writeMethodBody(final StringBuilder sb, final ViewInterface view,
+            final ViewMethod method, final int methodIndex, final String target);
+
+    /**
+     * Hook to add fields or methods to the generated class
+     *
+     * @param intercepted the methods of {@link #getInterceptedMethods(ViewInterface)}
+     */
+    void writeMembers(final StringBuilder sb, final ViewInterface view,
+            final List<ViewMethod> intercepted) {
+    }
+
+    /**
+     * @return the plain call of the method on {@code target}, i.e. {@code
+     * MyView_Logging.this.mView.showText(text)}
+     */
+    static String call(final ViewMethod method, final String target) {
+        return target + "." + method.getName() + "(" + method.getArguments() + ")";
+    }
+
+    /**
+     * Writes the call of the method on {@code target} returning the result for non void methods
+     */
+    static void writeForward(final StringBuilder sb, final ViewMethod method,
+            final String target, final String indent) {
+        sb.append(indent).append(method.isVoid() ? "" : "return ")
+                .append(call(method, target)).append(";\n");
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.compiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+
+/**
+ * Writes the delegate used by the {@code DistinctUntilChangedInterceptor}. Every {@code void}
+ * method with at least one parameter annotated with {@code @DistinctUntilChanged} gets an index
+ * into the comparator array of the base class. The comparators are created with {@code new}
+ * instead of {@link Class#newInstance()}, methods with {@code @DistinctArgument} parameters get an
+ * {@code ArgumentComparator} with the strategies of their parameters.
+ */
+final class DistinctUntilChangedDelegateWriter extends DelegateWriter {
+
+    static final String ANNOTATION =
+            "net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctUntilChanged";
+
+    private static final String ARGUMENT_ANNOTATION =
+            "net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctArgument";
+
+    private static final String ARGUMENT_COMPARATOR =
+            "net.grandcentrix.thirtyinch.distinctuntilchanged.ArgumentComparator";
+
+    private static final String DEFAULT_COMPARATOR =
+            "net.grandcentrix.thirtyinch.distinctuntilchanged.HashComparator";
+
+    private static final String STRATEGY = ARGUMENT_ANNOTATION + ".Strategy.";
+
+    DistinctUntilChangedDelegateWriter() {
+        super("net.grandcentrix.thirtyinch.distinctuntilchanged.AbstractDistinctUntilChangedView",
+                "DistinctUntilChanged", "mView", "clearCache", "createComparator", "hasChanged",
+                "logDropped");
+    }
+
+    /**
+     * @return the qualified name of the comparator class defined by the annotation
+     */
+    static String getComparator(final AnnotationMirror annotation) {
+        final AnnotationValue value = getValue(annotation, "comparator");
+        // the value of a Class member is a TypeMirror, toString() renders the canonical name
+        return value == null ? DEFAULT_COMPARATOR : value.getValue().toString();
+    }
+
+    /**
+     * @return the qualified names of the {@code DistinctArgument.Strategy} constants of the
+     * parameters or {@code null} when no parameter is annotated
+     */
+    static List<String> getStrategies(final ViewMethod method) {
+        List<String> strategies = null;
+        for (int i = 0; i < method.getParameterCount(); i++) {
+            final AnnotationMirror annotation =
+                    method.getParameterAnnotation(i, ARGUMENT_ANNOTATION);
+            if (annotation == null) {
+                continue;
+            }
+            if (strategies == null) {
+                strategies = new ArrayList<>(
+                        Collections.nCopies(method.getParameterCount(), STRATEGY + "HASH"));
+            }
+            // the value of an enum member is the VariableElement of the constant
+            final VariableElement constant =
+                    (VariableElement) getValue(annotation, "value").getValue();
+            strategies.set(i, STRATEGY + constant.getSimpleName());
+        }
+        return strategies;
+    }
+
+    static boolean isLogDropped(final AnnotationMirror annotation) {
+        final AnnotationValue value = getValue(annotation, "logDropped");
+        return value != null && (Boolean) value.getValue();
+    }
+
+    /**
+     * @return the methods the interceptor applies to
+     */
+    static List<ViewMethod> getDistinctMethods(final ViewInterface view) {
+        final List<ViewMethod> methods = new ArrayList<>();
+        for (final ViewMethod method : view.getMethods()) {
+            if (method.isVoid() && method.getParameterCount() > 0
+                    && method.getAnnotation(ANNOTATION) != null) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    private static AnnotationValue getValue(final AnnotationMirror annotation,
+            final String name) {
+        for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : annotation.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    List<ViewMethod> getInterceptedMethods(final ViewInterface view) {
+        return getDistinctMethods(view);
+    }
+
+    @Override
+    boolean shouldGenerate(final ViewInterface view) {
+        return !getDistinctMethods(view).isEmpty();
+    }
+
+    @Override
+    String getSuperCall(final ViewInterface view) {
+        return "super(view, " + getDistinctMethods(view).size() + ")";
+    }
+
+    @Override
+    void writeMembers(final StringBuilder sb, final ViewInterface view,
+            final List<ViewMethod> methods) {
+        sb.append("\n");
+        sb.append("    @Override\n");
+        sb.append("    protected net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctComparator")
+                .append(" createComparator(final int methodIndex) {\n");
+        sb.append("        switch (methodIndex) {\n");
+        for (int i = 0; i < methods.size(); i++) {
+            final ViewMethod method = methods.get(i);
+            sb.append("            case ").append(i).append(":\n");
+            final List<String> strategies = getStrategies(method);
+            if (strategies != null) {
+                sb.append("                return new ").append(ARGUMENT_COMPARATOR).append("(")
+                        .append(ViewMethod.join(strategies)).append(");\n");
+            } else {
+                sb.append("                return new ")
+                        .append(getComparator(method.getAnnotation(ANNOTATION)))
+                        .append("();\n");
+            }
+        }
+        sb.append("            default:\n");
+        sb.append("                throw new java.lang.IllegalArgumentException(")
+                .append("\"unknown method index \" + methodIndex);\n");
+        sb.append("        }\n");
+        sb.append("    }\n");
+    }
+
+    @Override
+    void writeMethodBody(final StringBuilder sb, final ViewInterface view,
+            final ViewMethod method, final int methodIndex, final String target) {
+        if (methodIndex < 0) {
+            writeForward(sb, method, target, "        ");
+            return;
+        }
+        sb.append("        final java.lang.Object[] args$ = {").append(method.getArguments())
+                .append("};\n");
+        sb.append("        if (hasChanged(").append(methodIndex).append(", args$)) {\n");
+        sb.append("            ").append(call(method, target)).append(";\n");
+        if (isLogDropped(method.getAnnotation(ANNOTATION))) {
+            sb.append("        } else {\n");
+            sb.append("            logDropped(\"").append(method.getName()).append("\", args$);\n");
+        }
+        sb.append("        }\n");
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.compiler;
+
+import java.util.List;
+
+/**
+ * Writes the delegate used by the {@code LoggingInterceptor} of the {@code
+ * thirtyinch-logginginterceptor} module. Every method call is logged before calling through to the
+ * view.
+ */
+final class LoggingDelegateWriter extends DelegateWriter {
+
+    static final String BASE_CLASS =
+            "net.grandcentrix.thirtyinch.logginginterceptor.AbstractLoggingView";
+
+    LoggingDelegateWriter() {
+        super(BASE_CLASS, "Logging", "mView", "isLoggable", "log");
+    }
+
+    @Override
+    List<ViewMethod> getInterceptedMethods(final ViewInterface view) {
+        return view.getMethods();
+    }
+
+    @Override
+    boolean shouldGenerate(final ViewInterface view) {
+        // the interceptor logs all methods, not only annotated ones
+        return true;
+    }
+
+    @Override
+    String getConstructorParameters(final String viewType) {
+        return super.getConstructorParameters(viewType)
+                + ", final net.grandcentrix.thirtyinch.logginginterceptor.LoggingInterceptor"
+                + " interceptor";
+    }
+
+    @Override
+    String getSuperCall(final ViewInterface view) {
+        return "super(view, interceptor)";
+    }
+
+    @Override
+    void writeMethodBody(final StringBuilder sb, final ViewInterface view,
+            final ViewMethod method, final int methodIndex, final String target) {
+        // the arguments are only boxed when the call is logged
+        sb.append("        if (isLoggable(\"").append(method.getName()).append("\")) {\n");
+        sb.append("            log(\"").append(method.getName()).append("\"");
+        if (method.getParameterCount() > 0) {
+            sb.append(", new java.lang.Object[]{").append(method.getArguments()).append("}");
+        }
+        sb.append(");\n");
+        sb.append("        }\n");
+        writeForward(sb, method, target, "        ");
+    }
+}
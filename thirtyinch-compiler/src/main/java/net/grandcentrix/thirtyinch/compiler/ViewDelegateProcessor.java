@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.compiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates view delegates for the {@code TiView} interfaces of the compiled sources which have
+ * {@code @CallOnMainThread} or {@code @DistinctUntilChanged} methods. The interceptors ({@code CallOnMainThreadInterceptor}, {@code DistinctUntilChangedInterceptor} and
+ * {@code LoggingInterceptor}) prefer those generated delegates over a {@link
+ * java.lang.reflect.Proxy}, they call the view without reflection and without boxing the
+ * arguments of methods the interceptor doesn't touch.
+ * <p>
+ * Interfaces for which no delegate can be generated (private interfaces, methods clashing with
+ * members of the delegate base classes, inaccessible comparators) are skipped, the interceptors
+ * fall back to the {@link java.lang.reflect.Proxy} for them.
+ * <p>
+ * The processor is registered as {@code isolating} for the incremental compilation of Gradle, each
+ * delegate originates from exactly one interface. It only runs when one of the supported
+ * annotations is present in the compiled sources, interfaces without annotated methods (or which
+ * only inherit them) therefore don't get a delegate when they are compiled on their own.
+ */
+@SupportedAnnotationTypes({
+        CallOnMainThreadDelegateWriter.ANNOTATION,
+        DistinctUntilChangedDelegateWriter.ANNOTATION
+})
+public final class ViewDelegateProcessor extends AbstractProcessor {
+
+    private static final String TI_VIEW = "net.grandcentrix.thirtyinch.TiView";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations,
+            final RoundEnvironment roundEnv) {
+        final Elements elements = processingEnv.getElementUtils();
+        final Types types = processingEnv.getTypeUtils();
+
+        final TypeElement tiView = elements.getTypeElement(TI_VIEW);
+        if (tiView == null) {
+            // thirtyinch isn't on the classpath
+            return false;
+        }
+
+        final List<DelegateWriter> writers = new ArrayList<>();
+        writers.add(new CallOnMainThreadDelegateWriter());
+        writers.add(new DistinctUntilChangedDelegateWriter());
+        if (elements.getTypeElement(LoggingDelegateWriter.BASE_CLASS) != null) {
+            writers.add(new LoggingDelegateWriter());
+        }
+
+        final List<TypeElement> viewInterfaces = new ArrayList<>();
+        collectViewInterfaces(roundEnv.getRootElements(), types.erasure(tiView.asType()), types,
+                viewInterfaces);
+
+        for (final TypeElement type : viewInterfaces) {
+            final ViewInterface view = new ViewInterface(type, elements, types);
+            if (!view.hasMethodAnnotatedWith(CallOnMainThreadDelegateWriter.ANNOTATION)
+                    && !view.hasMethodAnnotatedWith(
+                    DistinctUntilChangedDelegateWriter.ANNOTATION)) {
+                // the processor doesn't run for such interfaces in incremental builds, don't
+                // generate delegates for them in full builds either
+                continue;
+            }
+            if (!ViewInterface.isAccessible(type)) {
+                note(type, "private interfaces are not supported");
+                continue;
+            }
+            for (final DelegateWriter writer : writers) {
+                if (writer.shouldGenerate(view) && canGenerate(writer, view)) {
+                    writeSourceFile(writer, view);
+                }
+            }
+        }
+
+        // never claim the annotations, other processors may want to see them
+        return false;
+    }
+
+    private boolean canGenerate(final DelegateWriter writer, final ViewInterface view) {
+        final String clash = writer.findNameClash(view);
+        if (clash != null) {
+            note(view.getType(), "method " + clash + "() clashes with a member of "
+                    + writer.getBaseClass());
+            return false;
+        }
+        if (writer instanceof DistinctUntilChangedDelegateWriter) {
+            final Elements elements = processingEnv.getElementUtils();
+            for (final ViewMethod method : DistinctUntilChangedDelegateWriter
+                    .getDistinctMethods(view)) {
+                if (DistinctUntilChangedDelegateWriter.getStrategies(method) != null) {
+                    // the comparator of the annotation isn't used
+                    continue;
+                }
+                final String comparator = DistinctUntilChangedDelegateWriter.getComparator(
+                        method.getAnnotation(DistinctUntilChangedDelegateWriter.ANNOTATION));
+                if (!isInstantiable(elements.getTypeElement(comparator))) {
+                    note(view.getType(), "comparator " + comparator
+                            + " requires a public no-arg constructor");
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void collectViewInterfaces(final Iterable<? extends Element> elements,
+            final TypeMirror tiView, final Types types, final List<TypeElement> out) {
+        for (final Element element : elements) {
+            if (!element.getKind().isClass() && !element.getKind().isInterface()) {
+                continue;
+            }
+            final TypeElement type = (TypeElement) element;
+            if (type.getKind() == ElementKind.INTERFACE
+                    && !type.getQualifiedName().contentEquals(TI_VIEW)
+                    && types.isAssignable(types.erasure(type.asType()), tiView)) {
+                out.add(type);
+            }
+            collectViewInterfaces(type.getEnclosedElements(), tiView, types, out);
+        }
+    }
+
+    /**
+     * @return {@code true} when the generated code is able to call {@code new Type()}
+     */
+    private static boolean isInstantiable(final TypeElement type) {
+        if (type == null || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        Element element = type;
+        while (element.getKind() != ElementKind.PACKAGE) {
+            if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        if (type.getNestingKind() == NestingKind.MEMBER
+                && type.getEnclosingElement().getKind().isClass()
+                && !type.getModifiers().contains(Modifier.STATIC)) {
+            // inner classes require an instance of the outer class
+            return false;
+        }
+        for (final ExecutableElement constructor : ElementFilter
+                .constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty()
+                    && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void note(final Element element, final String reason) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                "ThirtyInch doesn't generate view delegates for " + element + ": " + reason
+                        + ". A java.lang.reflect.Proxy will be used instead.", element);
+    }
+
+    private void writeSourceFile(final DelegateWriter writer, final ViewInterface view) {
+        final String simpleName = view.getGeneratedClassName(writer.getSuffix());
+        final String qualifiedName = view.getPackageName().isEmpty()
+                ? simpleName : view.getPackageName() + "." + simpleName;
+        try {
+            final JavaFileObject file = processingEnv.getFiler()
+                    .createSourceFile(qualifiedName, view.getType());
+            try (Writer out = file.openWriter()) {
+                out.write(writer.write(view));
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write " + qualifiedName + ": " + e.getMessage(), view.getType());
+        }
+    }
+}
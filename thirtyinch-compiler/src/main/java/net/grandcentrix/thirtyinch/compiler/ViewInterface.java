@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.compiler;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * A {@code TiView} interface with all its abstract and default methods, including the inherited
+ * ones.
+ */
+final class ViewInterface {
+
+    private final List<ViewMethod> mMethods = new ArrayList<>();
+
+    private final String mPackageName;
+
+    private final TypeElement mType;
+
+    ViewInterface(final TypeElement type, final Elements elements, final Types types) {
+        mType = type;
+        mPackageName = elements.getPackageOf(type).getQualifiedName().toString();
+
+        final DeclaredType declaredType = (DeclaredType) type.asType();
+        final Set<String> signatures = new HashSet<>();
+        for (final ExecutableElement method : ElementFilter
+                .methodsIn(elements.getAllMembers(type))) {
+            final TypeElement owner = (TypeElement) method.getEnclosingElement();
+            if (owner.getQualifiedName().contentEquals("java.lang.Object")
+                    || method.getModifiers().contains(Modifier.STATIC)
+                    || method.getModifiers().contains(Modifier.PRIVATE)) {
+                continue;
+            }
+            final ExecutableType methodType =
+                    (ExecutableType) types.asMemberOf(declaredType, method);
+
+            // the same method may be inherited from multiple super interfaces
+            final StringBuilder signature = new StringBuilder(method.getSimpleName());
+            for (final TypeMirror parameterType : methodType.getParameterTypes()) {
+                signature.append(",").append(types.erasure(parameterType));
+            }
+            if (signatures.add(signature.toString())) {
+                mMethods.add(new ViewMethod(method, methodType, types));
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} when a class in the same package is able to implement this interface
+     */
+    static boolean isAccessible(final TypeElement type) {
+        Element element = type;
+        while (element != null && element.getKind() != ElementKind.PACKAGE) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        return true;
+    }
+
+    /**
+     * @return the simple name of the generated class, i.e. {@code Outer_MyView_CallOnMainThread}
+     * for {@code Outer.MyView}
+     */
+    String getGeneratedClassName(final String suffix) {
+        final StringBuilder sb = new StringBuilder();
+        Element element = mType;
+        while (!(element instanceof PackageElement)) {
+            sb.insert(0, "_" + element.getSimpleName());
+            element = element.getEnclosingElement();
+        }
+        return sb.substring(1) + "_" + suffix;
+    }
+
+    List<ViewMethod> getMethods() {
+        return mMethods;
+    }
+
+    String getPackageName() {
+        return mPackageName;
+    }
+
+    TypeElement getType() {
+        return mType;
+    }
+
+    /**
+     * @return the type parameter declaration of the generated class or an empty string when the
+     * interface isn't generic
+     */
+    String getTypeParameterDeclaration() {
+        final List<? extends TypeParameterElement> typeParameters = mType.getTypeParameters();
+        if (typeParameters.isEmpty()) {
+            return "";
+        }
+        return ViewMethod.renderTypeParameters(typeParameters);
+    }
+
+    /**
+     * @return the reference to this interface inside the generated class, i.e. {@code
+     * com.example.MyView<T>}
+     */
+    String getTypeReference() {
+        final List<? extends TypeParameterElement> typeParameters = mType.getTypeParameters();
+        if (typeParameters.isEmpty()) {
+            return mType.getQualifiedName().toString();
+        }
+        final List<String> names = new ArrayList<>();
+        for (final TypeParameterElement typeParameter : typeParameters) {
+            names.add(typeParameter.getSimpleName().toString());
+        }
+        return mType.getQualifiedName() + "<" + ViewMethod.join(names) + ">";
+    }
+
+    boolean hasMethodAnnotatedWith(final String annotationName) {
+        for (final ViewMethod method : mMethods) {
+            if (method.getAnnotation(annotationName) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code true} when the interface is visible outside of its package
+     */
+    boolean isPublic() {
+        Element element = mType;
+        while (element != null && element.getKind() != ElementKind.PACKAGE) {
+            if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        return true;
+    }
+}
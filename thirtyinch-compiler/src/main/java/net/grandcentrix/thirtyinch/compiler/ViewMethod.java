@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.Types;
+
+/**
+ * A method of a {@code TiView} interface, resolved as member of that interface. Type variables of
+ * generic super interfaces are already replaced with their actual type arguments.
+ */
+final class ViewMethod {
+
+    /**
+     * the types the arguments are cast to when they are unpacked from an {@code Object[]}
+     */
+    private final List<String> mCastTypes = new ArrayList<>();
+
+    private final ExecutableElement mElement;
+
+    private final List<String> mParameterNames = new ArrayList<>();
+
+    private final ExecutableType mType;
+
+    ViewMethod(final ExecutableElement element, final ExecutableType type, final Types types) {
+        mElement = element;
+        mType = type;
+        final List<? extends VariableElement> parameters = element.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            final String name = parameters.get(i).getSimpleName().toString();
+            mParameterNames.add(name.isEmpty() ? "arg" + i : name);
+        }
+        for (final TypeMirror parameterType : type.getParameterTypes()) {
+            if (parameterType.getKind().isPrimitive()) {
+                mCastTypes.add(types.boxedClass((PrimitiveType) parameterType)
+                        .getQualifiedName().toString());
+            } else if (usesTypeParameter(parameterType, element.getTypeParameters())) {
+                // the type variables of the method aren't declared where the arguments are unpacked
+                mCastTypes.add(types.erasure(parameterType).toString());
+            } else {
+                mCastTypes.add(parameterType.toString());
+            }
+        }
+    }
+
+    /**
+     * @return the annotation with the given qualified name or {@code null}
+     */
+    AnnotationMirror getAnnotation(final String annotationName) {
+        return findAnnotation(mElement, annotationName);
+    }
+
+    /**
+     * @return the arguments to forward the call, i.e. {@code text, count}
+     */
+    String getArguments() {
+        return join(mParameterNames);
+    }
+
+    /**
+     * @return the arguments to forward the call unpacked from the {@code Object[]} named {@code
+     * array}, i.e. {@code (java.lang.String) args[0], (java.lang.Integer) args[1]}
+     */
+    String getArgumentsFrom(final String array) {
+        final List<String> arguments = new ArrayList<>();
+        for (int i = 0; i < mCastTypes.size(); i++) {
+            arguments.add("(" + mCastTypes.get(i) + ") " + array + "[" + i + "]");
+        }
+        return join(arguments);
+    }
+
+    ExecutableElement getElement() {
+        return mElement;
+    }
+
+    String getName() {
+        return mElement.getSimpleName().toString();
+    }
+
+    /**
+     * @return the annotation of the parameter with the given index or {@code null}
+     */
+    AnnotationMirror getParameterAnnotation(final int index, final String annotationName) {
+        return findAnnotation(mElement.getParameters().get(index), annotationName);
+    }
+
+    int getParameterCount() {
+        return mParameterNames.size();
+    }
+
+    /**
+     * @return the declaration of the overriding method, i.e. {@code public void showText(final
+     * java.lang.String text)}
+     */
+    String getSignature() {
+        final StringBuilder sb = new StringBuilder("public ");
+
+        final List<? extends TypeParameterElement> typeParameters = mElement.getTypeParameters();
+        if (!typeParameters.isEmpty()) {
+            sb.append(renderTypeParameters(typeParameters)).append(" ");
+        }
+
+        sb.append(mType.getReturnType()).append(" ").append(getName()).append("(");
+        final List<? extends TypeMirror> parameterTypes = mType.getParameterTypes();
+        for (int i = 0; i < parameterTypes.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            final TypeMirror type = parameterTypes.get(i);
+            sb.append("final ");
+            if (mElement.isVarArgs() && i == parameterTypes.size() - 1) {
+                sb.append(((ArrayType) type).getComponentType()).append("...");
+            } else {
+                sb.append(type);
+            }
+            sb.append(" ").append(mParameterNames.get(i));
+        }
+        sb.append(")");
+
+        final List<? extends TypeMirror> thrownTypes = mType.getThrownTypes();
+        if (!thrownTypes.isEmpty()) {
+            final List<String> thrown = new ArrayList<>();
+            for (final TypeMirror thrownType : thrownTypes) {
+                thrown.add(thrownType.toString());
+            }
+            sb.append(" throws ").append(join(thrown));
+        }
+        return sb.toString();
+    }
+
+    boolean hasThrownTypes() {
+        return !mType.getThrownTypes().isEmpty();
+    }
+
+    boolean isVoid() {
+        return mType.getReturnType().getKind() == TypeKind.VOID;
+    }
+
+    private static AnnotationMirror findAnnotation(final Element element,
+            final String annotationName) {
+        for (final AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            final TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    static String join(final List<String> parts) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < parts.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(parts.get(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return the type parameter declaration including the bounds, i.e. {@code <T extends
+     * java.lang.Number>}
+     */
+    static String renderTypeParameters(final List<? extends TypeParameterElement> typeParameters) {
+        final List<String> declarations = new ArrayList<>();
+        for (final TypeParameterElement typeParameter : typeParameters) {
+            final StringBuilder declaration =
+                    new StringBuilder(typeParameter.getSimpleName().toString());
+            final List<String> bounds = new ArrayList<>();
+            for (final TypeMirror bound : typeParameter.getBounds()) {
+                if (!bound.toString().equals("java.lang.Object")) {
+                    bounds.add(bound.toString());
+                }
+            }
+            if (!bounds.isEmpty()) {
+                declaration.append(" extends ");
+                for (int i = 0; i < bounds.size(); i++) {
+                    if (i > 0) {
+                        declaration.append(" & ");
+                    }
+                    declaration.append(bounds.get(i));
+                }
+            }
+            declarations.add(declaration.toString());
+        }
+        return "<" + join(declarations) + ">";
+    }
+
+    /**
+     * @return {@code true} when {@code type} refers to one of the {@code typeParameters}
+     */
+    private static boolean usesTypeParameter(final TypeMirror type,
+            final List<? extends TypeParameterElement> typeParameters) {
+        if (type == null || typeParameters.isEmpty()) {
+            return false;
+        }
+        switch (type.getKind()) {
+            case TYPEVAR:
+                return typeParameters.contains(((TypeVariable) type).asElement());
+            case ARRAY:
+                return usesTypeParameter(((ArrayType) type).getComponentType(), typeParameters);
+            case DECLARED:
+                for (final TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+                    if (usesTypeParameter(argument, typeParameters)) {
+                        return true;
+                    }
+                }
+                return false;
+            case WILDCARD:
+                final WildcardType wildcard = (WildcardType) type;
+                return usesTypeParameter(wildcard.getExtendsBound(), typeParameters)
+                        || usesTypeParameter(wildcard.getSuperBound(), typeParameters);
+            default:
+                return false;
+        }
+    }
+}
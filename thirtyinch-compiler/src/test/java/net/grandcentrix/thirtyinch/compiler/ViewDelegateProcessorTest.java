@@ -0,0 +1,388 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.compiler;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ViewDelegateProcessorTest {
+
+    /**
+     * minimal versions of the runtime classes the generated code depends on
+     */
+    private static final String[][] RUNTIME_SOURCES = {
+            {"net/grandcentrix/thirtyinch/TiView.java",
+                    "package net.grandcentrix.thirtyinch;\n"
+                            + "public interface TiView {}"},
+            {"net/grandcentrix/thirtyinch/callonmainthread/CallOnMainThread.java",
+                    "package net.grandcentrix.thirtyinch.callonmainthread;\n"
+                            + "public @interface CallOnMainThread {}"},
+            {"net/grandcentrix/thirtyinch/callonmainthread/AbstractCallOnMainThreadView.java",
+                    "package net.grandcentrix.thirtyinch.callonmainthread;\n"
+                            + "public abstract class AbstractCallOnMainThreadView<V> {\n"
+                            + "  protected final V mView;\n"
+                            + "  protected AbstractCallOnMainThreadView(V view) { mView = view; }\n"
+                            + "  protected final boolean isMainThread() { return true; }\n"
+                            + "  protected final void cancelPosted(int i) {}\n"
+                            + "  protected abstract void dispatch(int i, Object[] a)"
+                            + " throws Exception;\n"
+                            + "  protected final void post(int i, Object[] a) {}\n"
+                            + "}"},
+            {"net/grandcentrix/thirtyinch/distinctuntilchanged/DistinctComparator.java",
+                    "package net.grandcentrix.thirtyinch.distinctuntilchanged;\n"
+                            + "public interface DistinctComparator {\n"
+                            + "  boolean compareWith(Object[] newParameters);\n"
+                            + "}"},
+            {"net/grandcentrix/thirtyinch/distinctuntilchanged/HashComparator.java",
+                    "package net.grandcentrix.thirtyinch.distinctuntilchanged;\n"
+                            + "public class HashComparator implements DistinctComparator {\n"
+                            + "  public boolean compareWith(Object[] p) { return false; }\n"
+                            + "}"},
+            {"net/grandcentrix/thirtyinch/distinctuntilchanged/DistinctUntilChanged.java",
+                    "package net.grandcentrix.thirtyinch.distinctuntilchanged;\n"
+                            + "public @interface DistinctUntilChanged {\n"
+                            + "  Class<? extends DistinctComparator> comparator()"
+                            + " default HashComparator.class;\n"
+                            + "  boolean logDropped() default false;\n"
+                            + "}"},
+            {"net/grandcentrix/thirtyinch/distinctuntilchanged/DistinctArgument.java",
+                    "package net.grandcentrix.thirtyinch.distinctuntilchanged;\n"
+                            + "public @interface DistinctArgument {\n"
+                            + "  enum Strategy { IDENTITY, EQUALS, HASH, IGNORE }\n"
+                            + "  Strategy value();\n"
+                            + "}"},
+            {"net/grandcentrix/thirtyinch/distinctuntilchanged/ArgumentComparator.java",
+                    "package net.grandcentrix.thirtyinch.distinctuntilchanged;\n"
+                            + "public class ArgumentComparator implements DistinctComparator {\n"
+                            + "  public ArgumentComparator(DistinctArgument.Strategy... s) {}\n"
+                            + "  public boolean compareWith(Object[] p) { return false; }\n"
+                            + "}"},
+            {"net/grandcentrix/thirtyinch/distinctuntilchanged/AbstractDistinctUntilChangedView.java",
+                    "package net.grandcentrix.thirtyinch.distinctuntilchanged;\n"
+                            + "public abstract class AbstractDistinctUntilChangedView<V> {\n"
+                            + "  protected final V mView;\n"
+                            + "  protected AbstractDistinctUntilChangedView(V view, int count) {"
+                            + " mView = view; }\n"
+                            + "  protected abstract DistinctComparator createComparator(int i);\n"
+                            + "  protected final boolean hasChanged(int i, Object[] a) {"
+                            + " return true; }\n"
+                            + "  protected final void logDropped(String m, Object[] a) {}\n"
+                            + "}"},
+    };
+
+    @Rule
+    public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    private DiagnosticCollector<JavaFileObject> mDiagnostics;
+
+    private File mGeneratedDir;
+
+    private File mSourceDir;
+
+    @Before
+    public void setUp() throws Exception {
+        mSourceDir = mTemporaryFolder.newFolder("src");
+        mGeneratedDir = mTemporaryFolder.newFolder("generated");
+        for (final String[] source : RUNTIME_SOURCES) {
+            writeSource(source[0], source[1]);
+        }
+    }
+
+    @Test
+    public void callOnMainThread_postsAnnotatedVoidMethodsOnly() throws Exception {
+        writeSource("com/example/MyView.java", "package com.example;\n"
+                + "import net.grandcentrix.thirtyinch.TiView;\n"
+                + "import net.grandcentrix.thirtyinch.callonmainthread.CallOnMainThread;\n"
+                + "public interface MyView extends TiView {\n"
+                + "  @CallOnMainThread void showText(String text);\n"
+                + "  @CallOnMainThread int count();\n"
+                + "  void hideText();\n"
+                + "}");
+
+        assertThat(compile()).isTrue();
+
+        final String generated = readGenerated("com/example/MyView_CallOnMainThread.java");
+        assertThat(generated)
+                .contains("public final class MyView_CallOnMainThread")
+                .contains("extends net.grandcentrix.thirtyinch.callonmainthread"
+                        + ".AbstractCallOnMainThreadView<com.example.MyView>")
+                .contains("cancelPosted(0);")
+                .contains("post(0, new java.lang.Object[]{text});")
+                .contains("case 0:\n"
+                        + "                MyView_CallOnMainThread.this.mView.showText("
+                        + "(java.lang.String) args[0]);")
+                .contains("return MyView_CallOnMainThread.this.mView.count();");
+        // only showText is posted
+        assertThat(generated.split("post\\(").length).isEqualTo(2);
+        assertThat(generated.split("case ").length).isEqualTo(2);
+        assertThat(new File(mGeneratedDir, "com/example/MyView_DistinctUntilChanged.java"))
+                .doesNotExist();
+    }
+
+    @Test
+    public void distinctUntilChanged_createsAnnotatedComparators() throws Exception {
+        writeSource("com/example/MyComparator.java", "package com.example;\n"
+                + "import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctComparator;\n"
+                + "public class MyComparator implements DistinctComparator {\n"
+                + "  public boolean compareWith(Object[] p) { return false; }\n"
+                + "}");
+        writeSource("com/example/MyView.java", "package com.example;\n"
+                + "import net.grandcentrix.thirtyinch.TiView;\n"
+                + "import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctUntilChanged;\n"
+                + "public interface MyView extends TiView {\n"
+                + "  @DistinctUntilChanged void showText(String text);\n"
+                + "  @DistinctUntilChanged(comparator = MyComparator.class, logDropped = true)\n"
+                + "  void showItems(java.util.List<String> items, int... positions);\n"
+                + "  @DistinctUntilChanged void noArguments();\n"
+                + "}");
+
+        assertThat(compile()).isTrue();
+
+        final String generated = readGenerated("com/example/MyView_DistinctUntilChanged.java");
+        assertThat(generated)
+                .contains("super(view, 2);")
+                .contains("return new net.grandcentrix.thirtyinch.distinctuntilchanged"
+                        + ".HashComparator();")
+                .contains("return new com.example.MyComparator();")
+                .contains("final java.lang.Object[] args$ = {items, positions};")
+                .contains("logDropped(\"showItems\", args$);")
+                .contains("public void noArguments() {\n"
+                        + "        MyView_DistinctUntilChanged.this.mView.noArguments();");
+    }
+
+    @Test
+    public void distinctUntilChanged_createsArgumentComparators() throws Exception {
+        writeSource("com/example/MyView.java", "package com.example;\n"
+                + "import net.grandcentrix.thirtyinch.TiView;\n"
+                + "import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctArgument;\n"
+                + "import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctUntilChanged;\n"
+                + "import static net.grandcentrix.thirtyinch.distinctuntilchanged"
+                + ".DistinctArgument.Strategy.*;\n"
+                + "public interface MyView extends TiView {\n"
+                + "  @DistinctUntilChanged\n"
+                + "  void showUser(String name, @DistinctArgument(IDENTITY) Object avatar,\n"
+                + "      @DistinctArgument(IGNORE) long timestamp);\n"
+                + "}");
+
+        assertThat(compile()).isTrue();
+
+        final String strategy = "net.grandcentrix.thirtyinch.distinctuntilchanged"
+                + ".DistinctArgument.Strategy.";
+        assertThat(readGenerated("com/example/MyView_DistinctUntilChanged.java"))
+                .contains("return new net.grandcentrix.thirtyinch.distinctuntilchanged"
+                        + ".ArgumentComparator(" + strategy + "HASH, " + strategy + "IDENTITY, "
+                        + strategy + "IGNORE);");
+    }
+
+    @Test
+    public void genericInterfaces() throws Exception {
+        writeSource("com/example/BaseView.java", "package com.example;\n"
+                + "import net.grandcentrix.thirtyinch.TiView;\n"
+                + "import net.grandcentrix.thirtyinch.callonmainthread.CallOnMainThread;\n"
+                + "public interface BaseView<T> extends TiView {\n"
+                + "  @CallOnMainThread void show(T item);\n"
+                + "}");
+        writeSource("com/example/Screen.java", "package com.example;\n"
+                + "class Screen {\n"
+                + "  interface ItemView<N extends Number> extends BaseView<N> {\n"
+                + "    <R extends Comparable<R>> R convert(R value) throws java.io.IOException;\n"
+                + "    @net.grandcentrix.thirtyinch.callonmainthread.CallOnMainThread\n"
+                + "    <E extends CharSequence> void showAll(java.util.List<E> items, int count);\n"
+                + "  }\n"
+                + "}");
+
+        assertThat(compile()).isTrue();
+
+        final String generated = readGenerated("com/example/Screen_ItemView_CallOnMainThread.java");
+        assertThat(generated)
+                .startsWith("// Generated by thirtyinch-compiler. Do not modify!")
+                // package private like the interface
+                .contains("\nfinal class Screen_ItemView_CallOnMainThread<N extends "
+                        + "java.lang.Number>")
+                .contains("implements com.example.Screen.ItemView<N>")
+                .contains("public void show(final N item)")
+                .contains("public <R extends java.lang.Comparable<R>> R convert(final R value)"
+                        + " throws java.io.IOException")
+                .contains(".show((N) args[0]);")
+                // the type variables of the method are erased, primitives are boxed
+                .contains(".showAll((java.util.List) args[0], (java.lang.Integer) args[1]);");
+        assertThat(new File(mGeneratedDir, "com/example/BaseView_CallOnMainThread.java"))
+                .exists();
+    }
+
+    @Test
+    public void loggingDelegate_requiresLoggingInterceptorOnClasspath() throws Exception {
+        writeSource("com/example/MyView.java", "package com.example;\n"
+                + "import net.grandcentrix.thirtyinch.callonmainthread.CallOnMainThread;\n"
+                + "public interface MyView extends net.grandcentrix.thirtyinch.TiView {\n"
+                + "  @CallOnMainThread void showText(String text);\n"
+                + "}");
+
+        assertThat(compile()).isTrue();
+        assertThat(new File(mGeneratedDir, "com/example/MyView_Logging.java")).doesNotExist();
+
+        writeLoggingInterceptorSources();
+
+        assertThat(compile()).isTrue();
+        assertThat(readGenerated("com/example/MyView_Logging.java"))
+                .contains("if (isLoggable(\"showText\")) {\n"
+                        + "            log(\"showText\", new java.lang.Object[]{text});\n"
+                        + "        }\n"
+                        + "        MyView_Logging.this.mView.showText(text);");
+    }
+
+    @Test
+    public void skipInterfacesWithoutAnnotatedMethods() throws Exception {
+        writeLoggingInterceptorSources();
+        writeSource("com/example/MyView.java", "package com.example;\n"
+                + "public interface MyView extends net.grandcentrix.thirtyinch.TiView {\n"
+                + "  void showText(String text);\n"
+                + "}");
+        writeSource("com/example/OtherView.java", "package com.example;\n"
+                + "import net.grandcentrix.thirtyinch.callonmainthread.CallOnMainThread;\n"
+                + "public interface OtherView extends net.grandcentrix.thirtyinch.TiView {\n"
+                + "  @CallOnMainThread void showText(String text);\n"
+                + "}");
+
+        assertThat(compile()).isTrue();
+
+        // the result doesn't depend on which other sources are compiled
+        assertThat(new File(mGeneratedDir, "com/example/OtherView_Logging.java")).exists();
+        assertThat(new File(mGeneratedDir, "com/example/MyView_Logging.java")).doesNotExist();
+    }
+
+    @Test
+    public void skipUnsupportedInterfaces() throws Exception {
+        writeSource("com/example/Screen.java", "package com.example;\n"
+                + "import net.grandcentrix.thirtyinch.TiView;\n"
+                + "import net.grandcentrix.thirtyinch.callonmainthread.CallOnMainThread;\n"
+                + "import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctComparator;\n"
+                + "import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctUntilChanged;\n"
+                + "public class Screen {\n"
+                + "  private interface HiddenView extends TiView {\n"
+                + "    @CallOnMainThread void show();\n"
+                + "  }\n"
+                + "  public interface ClashingView extends TiView {\n"
+                + "    @CallOnMainThread void post(Runnable r);\n"
+                + "  }\n"
+                + "  class PrivateComparator implements DistinctComparator {\n"
+                + "    public boolean compareWith(Object[] p) { return false; }\n"
+                + "  }\n"
+                + "  public interface ComparatorView extends TiView {\n"
+                + "    @DistinctUntilChanged(comparator = PrivateComparator.class)\n"
+                + "    void show(String text);\n"
+                + "  }\n"
+                + "}");
+
+        assertThat(compile()).isTrue();
+
+        assertThat(mGeneratedDir.list()).isEmpty();
+        final List<String> notes = new ArrayList<>();
+        for (final Diagnostic<? extends JavaFileObject> diagnostic : mDiagnostics
+                .getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.NOTE) {
+                notes.add(diagnostic.getMessage(Locale.ENGLISH));
+            }
+        }
+        assertThat(notes).hasSize(3);
+        assertThat(notes.get(0)).contains("HiddenView: private interfaces are not supported");
+        assertThat(notes.get(1)).contains("ClashingView: method post() clashes");
+        assertThat(notes.get(2)).contains("PrivateComparator requires a public no-arg");
+    }
+
+    private boolean compile() throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        mDiagnostics = new DiagnosticCollector<>();
+        final StandardJavaFileManager fileManager =
+                compiler.getStandardFileManager(mDiagnostics, Locale.ENGLISH, null);
+        final List<File> sources = new ArrayList<>();
+        collectSources(mSourceDir, sources);
+        final File classesDir = mTemporaryFolder.newFolder();
+        final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager,
+                mDiagnostics, Arrays.asList("-d", classesDir.getPath(),
+                        "-s", mGeneratedDir.getPath()),
+                null, fileManager.getJavaFileObjectsFromFiles(sources));
+        task.setProcessors(Collections.singletonList(new ViewDelegateProcessor()));
+        final boolean success = task.call();
+        fileManager.close();
+        if (!success) {
+            System.err.println(mDiagnostics.getDiagnostics());
+        }
+        return success;
+    }
+
+    private static void collectSources(final File dir, final List<File> out) {
+        final File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (final File file : files) {
+            if (file.isDirectory()) {
+                collectSources(file, out);
+            } else if (file.getName().endsWith(".java")) {
+                out.add(file);
+            }
+        }
+    }
+
+    private String readGenerated(final String path) throws IOException {
+        return new String(Files.readAllBytes(new File(mGeneratedDir, path).toPath()),
+                Charset.forName("UTF-8"));
+    }
+
+    private void writeLoggingInterceptorSources() throws IOException {
+        writeSource("net/grandcentrix/thirtyinch/logginginterceptor/LoggingInterceptor.java",
+                "package net.grandcentrix.thirtyinch.logginginterceptor;\n"
+                        + "public class LoggingInterceptor {}");
+        writeSource("net/grandcentrix/thirtyinch/logginginterceptor/AbstractLoggingView.java",
+                "package net.grandcentrix.thirtyinch.logginginterceptor;\n"
+                        + "public abstract class AbstractLoggingView<V> {\n"
+                        + "  protected final V mView;\n"
+                        + "  protected AbstractLoggingView(V view,"
+                        + " LoggingInterceptor interceptor) { mView = view; }\n"
+                        + "  protected final boolean isLoggable(String m) { return true; }\n"
+                        + "  protected final void log(String m) {}\n"
+                        + "  protected final void log(String m, Object[] a) {}\n"
+                        + "}");
+    }
+
+    private void writeSource(final String path, final String source) throws IOException {
+        final File file = new File(mSourceDir, path);
+        //noinspection ResultOfMethodCallIgnored
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), source.getBytes(Charset.forName("UTF-8")));
+    }
+}
@@ -18,4 +18,17 @@ import net.grandcentrix.thirtyinch.TiView
  * ```
  */
 @SuppressLint("RestrictedApi")
-fun <V : TiView> TiPresenter<V>.deliverToView(block: V.() -> Unit) = sendToView { block(it) }
\ No newline at end of file
+fun <V : TiView> TiPresenter<V>.deliverToView(block: V.() -> Unit) = sendToView { block(it) }
+
+/**
+ * Will call the given [block] in [TiPresenter.sendToView] with a [key].
+ * Only the latest [block] sent with the same [key] is executed.
+ *
+ * Example:
+ * ```
+ * presenter.deliverToView("progress") { showProgress(progress) }
+ * ```
+ */
+@SuppressLint("RestrictedApi")
+fun <V : TiView> TiPresenter<V>.deliverToView(key: Any, block: V.() -> Unit) =
+        sendToView(key) { block(it) }
@@ -37,4 +37,14 @@ class TiPresenterTest {
         tiTestPresenter.attachView(mockView)
         verify(mockView).aViewMethod()
     }
-}
\ No newline at end of file
+
+    @Test
+    fun `test deliverToView with key only delivers the latest block`() = with(TestPresenter()) {
+        val tiTestPresenter = test()
+        deliverToView("key") { aViewMethod() }
+        deliverToView("key") { aViewMethod() }
+
+        tiTestPresenter.attachView(mockView)
+        verify(mockView, times(1)).aViewMethod()
+    }
+}
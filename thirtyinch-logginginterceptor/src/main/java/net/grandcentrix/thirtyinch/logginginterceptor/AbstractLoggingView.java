@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.logginginterceptor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import net.grandcentrix.thirtyinch.TiView;
+
+/**
+ * Base class of the logging view delegates generated by the {@code thirtyinch-compiler}
+ * annotation processor. A generated subclass implements the {@link TiView} interface, logs every
+ * call with {@link #log(String, Object[])} and calls through to the view without reflection.
+ * Calls are only logged when {@link #isLoggable(String)} returns {@code true}, the arguments
+ * aren't boxed otherwise. Level, sampling and rate limit are applied by the {@link
+ * LoggingInterceptor}.
+ *
+ * @param <V> the {@link TiView} interface
+ */
+public abstract class AbstractLoggingView<V extends TiView> {
+
+    /**
+     * suffix of the generated class names, i.e. {@code MyView_Logging}
+     */
+    public static final String GENERATED_CLASS_SUFFIX = "Logging";
+
+    protected final V mView;
+
+    private final LoggingInterceptor mInterceptor;
+
+    protected AbstractLoggingView(@NonNull final V view,
+            @NonNull final LoggingInterceptor interceptor) {
+        mView = view;
+        mInterceptor = interceptor;
+    }
+
+    @Override
+    public String toString() {
+        return "MethodLoggingDelegate@" + Integer.toHexString(this.hashCode()) + "-" + mView
+                .toString();
+    }
+
+    /**
+     * @return {@code true} when the invocation of {@code methodName} should be logged with
+     * {@link #log(String, Object[])}
+     */
+    protected final boolean isLoggable(@NonNull final String methodName) {
+        return mInterceptor.isLoggable(methodName);
+    }
+
+    protected final void log(@NonNull final String methodName) {
+        log(methodName, null);
+    }
+
+    protected final void log(@NonNull final String methodName, @Nullable final Object[] args) {
+        mInterceptor.logInvocation(methodName, args);
+    }
+}
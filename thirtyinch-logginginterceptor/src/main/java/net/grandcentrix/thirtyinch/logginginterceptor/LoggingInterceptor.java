@@ -15,40 +15,166 @@
 
 package net.grandcentrix.thirtyinch.logginginterceptor;
 
-import static net.grandcentrix.thirtyinch.util.AnnotationUtil.getInterfaceOfClassExtendingGivenInterface;
 
+import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import android.util.Log;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
+import java.util.Iterator;
 import java.util.List;
-import net.grandcentrix.thirtyinch.BindViewInterceptor;
+import java.util.concurrent.TimeUnit;
+import net.grandcentrix.thirtyinch.FusableBindViewInterceptor;
+import net.grandcentrix.thirtyinch.SelectiveBindViewInterceptor;
 import net.grandcentrix.thirtyinch.TiLog;
 import net.grandcentrix.thirtyinch.TiView;
 import net.grandcentrix.thirtyinch.util.AbstractInvocationHandler;
+import net.grandcentrix.thirtyinch.util.FusedInvocationHandler;
+import net.grandcentrix.thirtyinch.util.GeneratedViewFactory;
+import net.grandcentrix.thirtyinch.util.ViewClassInfo;
 
 /**
- * Logs all methods calls and parameters to the bound view interface.
+ * Logs all calls to the view. Invocations are only formatted when the logger logs the configured
+ * level (see {@link TiLog.LevelAwareLogger}) and when they pass the sampling and rate limit
+ * configured with the {@link Builder}. This keeps the interceptor cheap enough to stay enabled
+ * in production builds.
  */
-public class LoggingInterceptor implements BindViewInterceptor {
+public class LoggingInterceptor
+        implements FusableBindViewInterceptor, SelectiveBindViewInterceptor {
+
+    private static final class ArrayIterator implements Iterator<Object> {
+
+        private final Object[] mArray;
+
+        private int mIndex;
+
+        ArrayIterator(final Object[] array) {
+            mArray = array;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return mIndex < mArray.length;
+        }
+
+        @Override
+        public Object next() {
+            return mArray[mIndex++];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Builder for a {@link LoggingInterceptor} with custom level, sampling and rate limit
+     */
+    public static class Builder {
+
+        private int mLevel = Log.VERBOSE;
+
+        private TiLog.Logger mLogger = TiLog.TI_LOG;
+
+        private int mMaxLogsPerWindow = 0;
+
+        private int mMaxParamLength = MAX_LENGTH_OF_PARAM;
+
+        private int mSamplingInterval = 1;
+
+        private long mWindowNanos = 0;
+
+        public LoggingInterceptor build() {
+            return new LoggingInterceptor(this);
+        }
+
+        /**
+         * @param level the level of the log messages, one of {@link Log#VERBOSE}, {@link
+         *              Log#DEBUG}, {@link Log#INFO}, {@link Log#WARN}, {@link Log#ERROR}. Default
+         *              is {@link Log#VERBOSE}
+         */
+        public Builder setLevel(final int level) {
+            if (level < Log.VERBOSE || level > Log.ASSERT) {
+                throw new IllegalArgumentException("unknown log level " + level);
+            }
+            mLevel = level;
+            return this;
+        }
 
-    private final static class MethodLoggingInvocationHandler<V> extends AbstractInvocationHandler {
+        /**
+         * @param logger custom logger, {@link TiLog#LOGCAT} or {@link TiLog#NOOP} to disable
+         *               logging. Default is {@link TiLog#TI_LOG}
+         */
+        public Builder setLogger(@Nullable final TiLog.Logger logger) {
+            mLogger = logger == null ? TiLog.NOOP : logger;
+            return this;
+        }
 
         /**
-         * limit each argument instead of the complete string. This should limit the overall
-         * output to a reasonable length while showing all params
+         * Limits each argument instead of the complete message. Longer arguments are truncated
+         * and end with "…". Default is 240.
          */
-        private static final int MAX_LENGTH_OF_PARAM = 240;
+        public Builder setMaxParamLength(final int maxParamLength) {
+            if (maxParamLength < 1) {
+                throw new IllegalArgumentException("maxParamLength must be > 0");
+            }
+            mMaxParamLength = maxParamLength;
+            return this;
+        }
+
+        /**
+         * Logs at most {@code maxLogs} invocations of each view method per {@code period}, the
+         * other invocations are dropped. Disabled by default.
+         */
+        public Builder setRateLimit(final int maxLogs, final long period,
+                @NonNull final TimeUnit unit) {
+            if (maxLogs < 1) {
+                throw new IllegalArgumentException("maxLogs must be > 0");
+            }
+            if (period <= 0) {
+                throw new IllegalArgumentException("period must be > 0");
+            }
+            mMaxLogsPerWindow = maxLogs;
+            mWindowNanos = unit.toNanos(period);
+            return this;
+        }
+
+        /**
+         * Logs only the first and then every {@code interval}-th invocation of each view method.
+         * Default is {@code 1}, every invocation is logged.
+         */
+        public Builder setSamplingInterval(final int interval) {
+            if (interval < 1) {
+                throw new IllegalArgumentException("interval must be > 0");
+            }
+            mSamplingInterval = interval;
+            return this;
+        }
+    }
 
-        private TiLog.Logger mLogger;
+    private final static class MethodLoggingInvocationHandler<V> extends AbstractInvocationHandler
+            implements Hook {
+
+        private final LoggingInterceptor mInterceptor;
 
         private final V mView;
 
-        private MethodLoggingInvocationHandler(V view, @NonNull TiLog.Logger logger) {
+        private final Chain mViewChain;
+
+        private MethodLoggingInvocationHandler(V view,
+                @NonNull final LoggingInterceptor interceptor) {
             mView = view;
-            mLogger = logger;
+            mViewChain = new FusedInvocationHandler.ViewChain(view);
+            mInterceptor = interceptor;
+        }
+
+        @Override
+        public Object handle(final Chain next, final Method method, final Object[] args)
+                throws Throwable {
+            if (mInterceptor.isLoggable(method.getName())) {
+                mInterceptor.logInvocation(method.getName(), args);
+            }
+            return next.proceed(method, args);
         }
 
         @Override
@@ -61,93 +187,41 @@ public class LoggingInterceptor implements BindViewInterceptor {
         protected Object handleInvocation(final Object proxy, final Method method,
                 final Object[] args)
                 throws Throwable {
-
-            try {
-                mLogger.log(Log.VERBOSE, TAG, toString(method, args));
-                return method.invoke(mView, args);
-            } catch (InvocationTargetException e) {
-                throw e.getCause();
-            }
+            return handle(mViewChain, method, args);
         }
+    }
 
-        private static String parseParams(Object[] methodParams, int maxLenOfParam) {
-            StringBuilder builder = new StringBuilder();
-            for (int i = 0; i < methodParams.length; i++) {
-                final Object param = methodParams[i];
-
-                final String paramString;
-                if (param instanceof List) {
-                    final int size = ((List) param).size();
-                    final String stringPresentation = String.valueOf(param);
-                    paramString = "{" + param.getClass().getSimpleName()
-                            + "[" + size + "]"
-                            + "@" + Integer.toHexString(param.hashCode()) + "}"
-                            + " " + stringPresentation;
-                } else if (param instanceof Object[]) {
-                    final Object[] args = ((Object[]) param);
-                    final int size = args.length;
-
-                    final StringBuilder sb = new StringBuilder();
-                    sb.append("[");
-                    for (int j = 0; j < args.length; j++) {
-                        sb.append(String.valueOf(args[j]));
-                        if (j + 1 < args.length) {
-                            sb.append(", ");
-                        }
-                    }
-                    sb.append("]");
-
-                    paramString = "{" + param.getClass().getSimpleName()
-                            + "[" + size + "]"
-                            + "@" + Integer.toHexString(param.hashCode()) + "}"
-                            + " " + sb;
-                } else {
-                    paramString = String.valueOf(param);
-                }
-
-                if (paramString.length() <= maxLenOfParam) {
-                    builder.append(paramString);
-                } else {
-                    final String shortParam = paramString.substring(0,
-                            Math.min(paramString.length(), maxLenOfParam));
-                    builder.append(shortParam);
-                    // trim remaining whitespace at the end before appending ellipsis
-                    builder = new StringBuilder(builder.toString().trim());
-                    builder.append("…");
-                }
-                builder.append(", ");
-            }
+    static final String TAG = LoggingInterceptor.class.getSimpleName();
 
-            // remove last ", "
-            int length = builder.length();
-            builder.delete(length - 2, length);
+    private static final char ELLIPSIS = '…';
 
-            return builder.toString();
-        }
+    private static final GeneratedViewFactory GENERATED_VIEWS = new GeneratedViewFactory(
+            AbstractLoggingView.GENERATED_CLASS_SUFFIX, LoggingInterceptor.class);
 
-        private static String toString(@NonNull final Method method,
-                @Nullable final Object[] args) {
-            final StringBuilder sb = new StringBuilder(method.getName());
-            sb.append("(");
-            if (args != null && args.length > 0) {
-                final String paramsString = parseParams(args, MAX_LENGTH_OF_PARAM);
-                sb.append(paramsString);
-            }
-            sb.append(")");
-            return sb.toString();
-        }
-    }
+    /**
+     * limit each argument instead of the complete string. This should limit the overall
+     * output to a reasonable length while showing all params
+     */
+    private static final int MAX_LENGTH_OF_PARAM = 240;
 
-    private static final String TAG = LoggingInterceptor.class.getSimpleName();
+    private final int mLevel;
 
     private final TiLog.Logger mLogger;
 
+    private final int mMaxParamLength;
+
+    /**
+     * {@code null} when every invocation is logged
+     */
+    @Nullable
+    private final MethodLogSampler mSampler;
+
     /**
      * Logs all view interface method invocations to {@link TiLog}. You may have to enable
      * logging from {@link TiLog} or set your own logger with {@link LoggingInterceptor#LoggingInterceptor(TiLog.Logger)}
      */
     public LoggingInterceptor() {
-        this(TiLog.TI_LOG);
+        this(new Builder());
     }
 
     /**
@@ -157,36 +231,193 @@ public class LoggingInterceptor implements BindViewInterceptor {
      * @param logger custom logger, {@link TiLog#LOGCAT} or {@link TiLog#NOOP} to disable logging.
      */
     public LoggingInterceptor(@Nullable final TiLog.Logger logger) {
-        if (logger == null) {
-            mLogger = TiLog.NOOP;
+        this(new Builder().setLogger(logger));
+    }
+
+    private LoggingInterceptor(@NonNull final Builder builder) {
+        mLogger = builder.mLogger;
+        mLevel = builder.mLevel;
+        mMaxParamLength = builder.mMaxParamLength;
+        if (builder.mSamplingInterval > 1 || builder.mMaxLogsPerWindow > 0) {
+            mSampler = new MethodLogSampler(builder.mSamplingInterval,
+                    builder.mMaxLogsPerWindow, builder.mWindowNanos);
         } else {
-            mLogger = logger;
+            mSampler = null;
+        }
+    }
+
+    @Override
+    public boolean appliesTo(@NonNull final Class<?> viewInterface) {
+        // logs the calls of every view
+        return mLogger != TiLog.NOOP;
+    }
+
+    @Nullable
+    @Override
+    public Hook createHook(@NonNull final TiView view, @NonNull final Class<?> viewInterface) {
+        if (mLogger == TiLog.NOOP || GENERATED_VIEWS.getConstructor(viewInterface) != null) {
+            // nothing to log or the generated delegate is faster than a hook
+            return null;
         }
+        return new MethodLoggingInvocationHandler<>(view, this);
     }
 
     @Override
     public <V extends TiView> V intercept(final V view) {
         if (mLogger != TiLog.NOOP) {
             final V wrapped = wrap(view);
-            TiLog.v(TAG, "wrapping View " + view + " in " + wrapped);
+            TiLog.v(TAG, "wrapping View %s in %s", view, wrapped);
             return wrapped;
         }
         return view;
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * @return {@code true} when the level is enabled and the invocation of {@code methodName}
+     * passes the sampling and rate limit. Counts as an invocation for the sampling, call {@link
+     * #logInvocation(String, Object[])} exactly once when it returns {@code true}.
+     */
+    boolean isLoggable(@NonNull final String methodName) {
+        if (mLogger instanceof TiLog.LevelAwareLogger
+                && !((TiLog.LevelAwareLogger) mLogger).isLoggable(mLevel)) {
+            return false;
+        }
+        return mSampler == null || mSampler.sample(methodName, System.nanoTime());
+    }
+
+    /**
+     * Formats and logs the invocation of a view method, check {@link #isLoggable(String)} first
+     */
+    void logInvocation(@NonNull final String methodName, @Nullable final Object[] args) {
+        mLogger.log(mLevel, TAG, formatInvocation(methodName, args, mMaxParamLength));
+    }
+
     private <V extends TiView> V wrap(final V view) {
 
-        Class<?> foundInterfaceClass = getInterfaceOfClassExtendingGivenInterface(
-                view.getClass(), TiView.class);
+        final ViewClassInfo info = ViewClassInfo.of(view.getClass());
+        final Class<?> foundInterfaceClass = info.getViewInterface();
         if (foundInterfaceClass == null) {
             throw new IllegalStateException("the interface extending TiView could not be found");
         }
 
-        final V wrappedView = (V) Proxy.newProxyInstance(
-                foundInterfaceClass.getClassLoader(), new Class<?>[]{foundInterfaceClass},
-                new MethodLoggingInvocationHandler<>(view, mLogger));
+        // prefer the delegate generated by the thirtyinch-compiler, it doesn't use reflection
+        final V generated = GENERATED_VIEWS.newInstance(foundInterfaceClass, view, this);
+        if (generated != null) {
+            return generated;
+        }
+
+        return info.newProxy(new MethodLoggingInvocationHandler<>(view, this));
+    }
+
+    /**
+     * @return a readable representation of the method invocation, i.e. {@code showText(Hello)}
+     */
+    static String formatInvocation(@NonNull final String methodName,
+            @Nullable final Object[] args) {
+        return formatInvocation(methodName, args, MAX_LENGTH_OF_PARAM);
+    }
+
+    /**
+     * @param maxParamLength each argument is truncated after this number of characters
+     * @return a readable representation of the method invocation, i.e. {@code showText(Hello)}
+     */
+    static String formatInvocation(@NonNull final String methodName,
+            @Nullable final Object[] args, final int maxParamLength) {
+        final StringBuilder sb = new StringBuilder(methodName.length() + 32);
+        sb.append(methodName).append('(');
+        if (args != null) {
+            for (int i = 0; i < args.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                appendParam(sb, args[i], maxParamLength);
+            }
+        }
+        sb.append(')');
+        return sb.toString();
+    }
+
+    /**
+     * Appends as much of {@code text} as fits until {@code limit}
+     *
+     * @return {@code false} when the text was truncated
+     */
+    private static boolean appendLimited(final StringBuilder sb, final CharSequence text,
+            final int limit) {
+        final int remaining = limit - sb.length();
+        if (text.length() <= remaining) {
+            sb.append(text);
+            return true;
+        }
+        sb.append(text, 0, remaining);
+        return false;
+    }
 
-        return wrappedView;
+    /**
+     * Streams the representation of the param into {@code sb}. Lists and arrays are rendered
+     * element by element and rendering stops as soon as {@code maxLength} is exceeded.
+     */
+    private static void appendParam(final StringBuilder sb, final Object param,
+            final int maxLength) {
+        final int start = sb.length();
+        final int limit = start + maxLength;
+
+        final boolean complete;
+        if (param instanceof List) {
+            final List<?> list = (List<?>) param;
+            complete = appendHeader(sb, param, list.size(), limit)
+                    && appendElements(sb, list.iterator(), param, limit);
+        } else if (param instanceof Object[]) {
+            final Object[] array = (Object[]) param;
+            complete = appendHeader(sb, param, array.length, limit)
+                    && appendElements(sb, new ArrayIterator(array), null, limit);
+        } else if (param instanceof CharSequence) {
+            complete = appendLimited(sb, (CharSequence) param, limit);
+        } else {
+            complete = appendLimited(sb, String.valueOf(param), limit);
+        }
+
+        if (!complete) {
+            // trim remaining whitespace at the end before appending ellipsis
+            int end = sb.length();
+            while (end > start && Character.isWhitespace(sb.charAt(end - 1))) {
+                end--;
+            }
+            sb.setLength(end);
+            sb.append(ELLIPSIS);
+        }
+    }
+
+    /**
+     * renders the elements like {@link java.util.AbstractCollection#toString()}
+     */
+    private static boolean appendElements(final StringBuilder sb, final Iterator<?> elements,
+            @Nullable final Object self, final int limit) {
+        if (!appendLimited(sb, "[", limit)) {
+            return false;
+        }
+        boolean first = true;
+        while (elements.hasNext()) {
+            if (!first && !appendLimited(sb, ", ", limit)) {
+                return false;
+            }
+            first = false;
+            final Object element = elements.next();
+            final CharSequence text = element == self && self != null
+                    ? "(this Collection)" : String.valueOf(element);
+            if (!appendLimited(sb, text, limit)) {
+                return false;
+            }
+        }
+        return appendLimited(sb, "]", limit);
+    }
+
+    /**
+     * appends the type, size and identity, i.e. {@code {ArrayList[3]@1b6d3586} }
+     */
+    private static boolean appendHeader(final StringBuilder sb, final Object param,
+            final int size, final int limit) {
+        return appendLimited(sb, "{" + param.getClass().getSimpleName() + "[" + size + "]@"
+                + Integer.toHexString(param.hashCode()) + "} ", limit);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.logginginterceptor;
+
+import androidx.annotation.NonNull;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides per view method whether an invocation gets logged. Only every n-th invocation of a
+ * method is sampled and the sampled invocations are limited to a maximum number per time window.
+ */
+final class MethodLogSampler {
+
+    private static final class MethodState {
+
+        private long mInvocations;
+
+        private int mLogsInWindow;
+
+        private long mWindowStartNanos;
+
+        MethodState(final long nowNanos) {
+            mWindowStartNanos = nowNanos;
+        }
+    }
+
+    private final int mMaxLogsPerWindow;
+
+    private final ConcurrentHashMap<String, MethodState> mStates = new ConcurrentHashMap<>();
+
+    private final int mSamplingInterval;
+
+    private final long mWindowNanos;
+
+    /**
+     * @param samplingInterval log every n-th invocation of a method, {@code 1} logs all
+     * @param maxLogsPerWindow maximum number of logged invocations of a method per window,
+     *                         {@code 0} for no limit
+     * @param windowNanos      length of the rate limit window
+     */
+    MethodLogSampler(final int samplingInterval, final int maxLogsPerWindow,
+            final long windowNanos) {
+        mSamplingInterval = samplingInterval;
+        mMaxLogsPerWindow = maxLogsPerWindow;
+        mWindowNanos = windowNanos;
+    }
+
+    /**
+     * @return {@code true} when the invocation of the method should be logged
+     */
+    boolean sample(@NonNull final String methodName, final long nowNanos) {
+        MethodState state = mStates.get(methodName);
+        if (state == null) {
+            final MethodState newState = new MethodState(nowNanos);
+            state = mStates.putIfAbsent(methodName, newState);
+            if (state == null) {
+                state = newState;
+            }
+        }
+
+        //noinspection SynchronizationOnLocalVariableOrMethodParameter
+        synchronized (state) {
+            // sample the first invocation, then every n-th
+            if (state.mInvocations++ % mSamplingInterval != 0) {
+                return false;
+            }
+            if (mMaxLogsPerWindow > 0) {
+                if (nowNanos - state.mWindowStartNanos >= mWindowNanos) {
+                    state.mWindowStartNanos = nowNanos;
+                    state.mLogsInWindow = 0;
+                }
+                if (state.mLogsInWindow >= mMaxLogsPerWindow) {
+                    return false;
+                }
+                state.mLogsInWindow++;
+            }
+            return true;
+        }
+    }
+}
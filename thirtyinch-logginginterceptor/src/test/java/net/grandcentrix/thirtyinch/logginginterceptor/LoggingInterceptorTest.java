@@ -20,9 +20,11 @@ import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.*;
 
+import android.util.Log;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import net.grandcentrix.thirtyinch.TiLog;
 import net.grandcentrix.thirtyinch.TiView;
 import org.junit.*;
@@ -87,6 +89,73 @@ public class LoggingInterceptorTest {
 
     }
 
+    private static class CountingToString {
+
+        int mToStringCalls;
+
+        @Override
+        public String toString() {
+            mToStringCalls++;
+            return "counted";
+        }
+    }
+
+    @Test
+    public void testBuilderRejectsInvalidArguments() throws Exception {
+        final LoggingInterceptor.Builder builder = new LoggingInterceptor.Builder();
+        try {
+            builder.setSamplingInterval(0);
+            fail("did not throw");
+        } catch (IllegalArgumentException e) {
+            assertThat(e).hasMessageContaining("interval");
+        }
+        try {
+            builder.setRateLimit(0, 1, TimeUnit.SECONDS);
+            fail("did not throw");
+        } catch (IllegalArgumentException e) {
+            assertThat(e).hasMessageContaining("maxLogs");
+        }
+        try {
+            builder.setMaxParamLength(0);
+            fail("did not throw");
+        } catch (IllegalArgumentException e) {
+            assertThat(e).hasMessageContaining("maxParamLength");
+        }
+        try {
+            builder.setLevel(42);
+            fail("did not throw");
+        } catch (IllegalArgumentException e) {
+            assertThat(e).hasMessageContaining("42");
+        }
+    }
+
+    @Test
+    public void testCropLongList() throws Exception {
+
+        final TiLog.Logger logger = mock(TiLog.Logger.class);
+        final LoggingInterceptor loggingInterceptor = new LoggingInterceptor.Builder()
+                .setLogger(logger)
+                .setMaxParamLength(40)
+                .build();
+        final TestView view = loggingInterceptor.intercept(new TestViewImpl());
+
+        final List<CountingToString> list = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            list.add(new CountingToString());
+        }
+        view.singleArg(list);
+
+        final ArgumentCaptor<String> msgCaptor = ArgumentCaptor.forClass(String.class);
+        verify(logger).log(anyInt(), anyString(), msgCaptor.capture());
+        assertThat(msgCaptor.getValue())
+                .matches("singleArg\\(\\{ArrayList\\[100\\]@[\\da-f]{1,8}\\} \\[counted.*…\\)")
+                .hasSize("singleArg(".length() + 40 + "…)".length());
+
+        // rendering stopped when the limit was reached
+        assertThat(list.get(3).mToStringCalls).isEqualTo(0);
+        assertThat(list.get(99).mToStringCalls).isEqualTo(0);
+    }
+
     @Test
     public void testCropLongParams() throws Exception {
 
@@ -123,6 +192,32 @@ public class LoggingInterceptorTest {
         verify(logger, never()).log(anyInt(), anyString(), anyString());
     }
 
+    @Test
+    public void testDontFormatWhenLevelIsNotLoggable() throws Exception {
+
+        final TiLog.LevelAwareLogger logger = mock(TiLog.LevelAwareLogger.class);
+        when(logger.isLoggable(Log.VERBOSE)).thenReturn(false);
+        when(logger.isLoggable(Log.INFO)).thenReturn(true);
+
+        final TestView view = new LoggingInterceptor(logger).intercept(new TestViewImpl());
+        final CountingToString arg = new CountingToString();
+        view.singleArg(arg);
+
+        verify(logger, never()).log(anyInt(), anyString(), anyString());
+        assertThat(arg.mToStringCalls).isEqualTo(0);
+
+        // logs with enabled level
+        final TestView infoView = new LoggingInterceptor.Builder()
+                .setLogger(logger)
+                .setLevel(Log.INFO)
+                .build()
+                .intercept(new TestViewImpl());
+        infoView.singleArg(arg);
+
+        verify(logger).log(Log.INFO, LoggingInterceptor.TAG, "singleArg(counted)");
+        assertThat(arg.mToStringCalls).isEqualTo(1);
+    }
+
     @Test
     public void testFindTiViewInterfaceInComplexStructure() throws Exception {
         final LoggingInterceptor interceptor = new LoggingInterceptor();
@@ -294,6 +389,27 @@ public class LoggingInterceptorTest {
         assertThat(interceptView).isNotEqualTo(view).isNotSameAs(view);
     }
 
+    @Test
+    public void testRateLimitPerMethod() throws Exception {
+
+        final TiLog.Logger logger = mock(TiLog.Logger.class);
+        final TestView view = new LoggingInterceptor.Builder()
+                .setLogger(logger)
+                .setRateLimit(2, 1, TimeUnit.HOURS)
+                .build()
+                .intercept(new TestViewImpl());
+
+        for (int i = 0; i < 5; i++) {
+            view.singleArg(i);
+            view.doSomething();
+        }
+
+        final ArgumentCaptor<String> msgCaptor = ArgumentCaptor.forClass(String.class);
+        verify(logger, times(4)).log(anyInt(), anyString(), msgCaptor.capture());
+        assertThat(msgCaptor.getAllValues()).containsExactly(
+                "singleArg(0)", "doSomething()", "singleArg(1)", "doSomething()");
+    }
+
     @Test
     public void testReportErrorsCorrectly() throws Exception {
 
@@ -314,4 +430,25 @@ public class LoggingInterceptorTest {
         // make sure logging happened before the method was called
         assertThat(msgCaptor.getValue()).isEqualTo("throwUnexpected()");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSamplingIntervalPerMethod() throws Exception {
+
+        final TiLog.Logger logger = mock(TiLog.Logger.class);
+        final TestView view = new LoggingInterceptor.Builder()
+                .setLogger(logger)
+                .setSamplingInterval(3)
+                .build()
+                .intercept(new TestViewImpl());
+
+        for (int i = 0; i < 7; i++) {
+            view.singleArg(i);
+        }
+        view.doSomething();
+
+        final ArgumentCaptor<String> msgCaptor = ArgumentCaptor.forClass(String.class);
+        verify(logger, times(4)).log(anyInt(), anyString(), msgCaptor.capture());
+        assertThat(msgCaptor.getAllValues()).containsExactly(
+                "singleArg(0)", "singleArg(3)", "singleArg(6)", "doSomething()");
+    }
+}
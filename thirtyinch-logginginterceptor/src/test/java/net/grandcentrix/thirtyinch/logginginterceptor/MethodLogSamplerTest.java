@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.logginginterceptor;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.*;
+
+public class MethodLogSamplerTest {
+
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void rateLimitResetsAfterWindow() throws Exception {
+        final MethodLogSampler sampler = new MethodLogSampler(1, 2, WINDOW);
+
+        assertThat(sampler.sample("show", 0)).isTrue();
+        assertThat(sampler.sample("show", 10)).isTrue();
+        assertThat(sampler.sample("show", 20)).isFalse();
+        assertThat(sampler.sample("show", WINDOW - 1)).isFalse();
+
+        // new window
+        assertThat(sampler.sample("show", WINDOW)).isTrue();
+        assertThat(sampler.sample("show", WINDOW + 1)).isTrue();
+        assertThat(sampler.sample("show", WINDOW + 2)).isFalse();
+    }
+
+    @Test
+    public void samplingAndRateLimitCombined() throws Exception {
+        final MethodLogSampler sampler = new MethodLogSampler(2, 1, WINDOW);
+
+        assertThat(sampler.sample("show", 0)).isTrue();
+        // not sampled
+        assertThat(sampler.sample("show", 1)).isFalse();
+        // sampled but rate limited
+        assertThat(sampler.sample("show", 2)).isFalse();
+        assertThat(sampler.sample("show", 3)).isFalse();
+        // sampled in new window
+        assertThat(sampler.sample("show", WINDOW)).isTrue();
+    }
+
+    @Test
+    public void statePerMethod() throws Exception {
+        final MethodLogSampler sampler = new MethodLogSampler(1, 1, WINDOW);
+
+        assertThat(sampler.sample("showA", 0)).isTrue();
+        assertThat(sampler.sample("showA", 1)).isFalse();
+        assertThat(sampler.sample("showB", 2)).isTrue();
+    }
+}
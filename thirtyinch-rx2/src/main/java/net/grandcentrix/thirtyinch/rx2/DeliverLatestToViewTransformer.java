@@ -0,0 +1,389 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.rx2;
+
+import androidx.annotation.NonNull;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.FlowableTransformer;
+import io.reactivex.Maybe;
+import io.reactivex.MaybeSource;
+import io.reactivex.MaybeTransformer;
+import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
+import io.reactivex.ObservableTransformer;
+import io.reactivex.Observer;
+import io.reactivex.Single;
+import io.reactivex.SingleSource;
+import io.reactivex.SingleTransformer;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Function;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import net.grandcentrix.thirtyinch.Removable;
+import net.grandcentrix.thirtyinch.TiLifecycleObserver;
+import net.grandcentrix.thirtyinch.TiPresenter;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Delays emissions until the view of the presenter is attached and delivers only the latest value.
+ * See {@link RxTiPresenterUtils#deliverLatestToView(TiPresenter)}.
+ * <p>
+ * The latest value is kept in a single atomic slot and the view state is tracked with one {@link
+ * TiLifecycleObserver} per subscription, no objects are allocated per item. Every time the view
+ * attaches the latest value is delivered again, therefore {@code onComplete} of a {@link
+ * Observable} or {@link Flowable} source is never forwarded. Errors are forwarded immediately.
+ * <p>
+ * A {@link Flowable} respects the requests of the downstream: while there is no demand only the
+ * latest value is kept, like {@link Flowable#onBackpressureLatest()}. A {@link Single} or {@link
+ * Maybe} emits its value once the view is attached, an empty {@link Maybe} completes
+ * immediately.
+ *
+ * @param <T> a type of onNext value.
+ */
+public class DeliverLatestToViewTransformer<T> implements ObservableTransformer<T, T>,
+        FlowableTransformer<T, T>, SingleTransformer<T, T>, MaybeTransformer<T, T> {
+
+    /**
+     * Drain loop shared by the {@link Observable} and {@link Flowable} operators. The
+     * {@link AtomicInteger} counts the pending drain requests and serializes the emissions.
+     */
+    abstract static class LatestToView<T> extends AtomicInteger implements TiLifecycleObserver {
+
+        volatile boolean mCancelled;
+
+        private volatile boolean mDirty;
+
+        private volatile Throwable mError;
+
+        private final AtomicReference<T> mLatest = new AtomicReference<>();
+
+        private final TiPresenter mPresenter;
+
+        private volatile Removable mRemovable;
+
+        private volatile boolean mViewReady;
+
+        LatestToView(final TiPresenter presenter) {
+            mPresenter = presenter;
+        }
+
+        @Override
+        public void onChange(final TiPresenter.State state,
+                final boolean hasLifecycleMethodBeenCalled) {
+            final boolean viewReady = state == TiPresenter.State.VIEW_ATTACHED
+                    && hasLifecycleMethodBeenCalled;
+            if (viewReady == mViewReady) {
+                return;
+            }
+            mViewReady = viewReady;
+            if (viewReady && mLatest.get() != null) {
+                // deliver the latest value again to the newly attached view
+                mDirty = true;
+            }
+            drain();
+        }
+
+        /**
+         * Stops the emissions and releases the upstream and the lifecycle observer
+         */
+        public final void cancel() {
+            mCancelled = true;
+            final Removable removable = mRemovable;
+            if (removable != null) {
+                removable.remove();
+            }
+            cancelUpstream();
+        }
+
+        abstract void cancelUpstream();
+
+        final void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (mCancelled) {
+                    return;
+                }
+                final Throwable error = mError;
+                if (error != null) {
+                    cancel();
+                    emitError(error);
+                    return;
+                }
+                if (mViewReady && mDirty && hasDemand()) {
+                    // clear the flag before reading the slot, a concurrent value sets it again
+                    mDirty = false;
+                    emit(mLatest.get());
+                }
+                missed = addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        abstract void emit(final T value);
+
+        abstract void emitError(final Throwable error);
+
+        abstract boolean hasDemand();
+
+        /**
+         * Starts tracking the view state, has to be called before subscribing to the upstream to
+         * deliver synchronous emissions of the source to an already attached view
+         */
+        final void observeView() {
+            mViewReady = mPresenter.getState() == TiPresenter.State.VIEW_ATTACHED;
+            mRemovable = mPresenter.addLifecycleObserver(this);
+            if (mCancelled) {
+                mRemovable.remove();
+            }
+        }
+
+        final void onLatest(final T value) {
+            mLatest.set(value);
+            mDirty = true;
+            drain();
+        }
+
+        final void onUpstreamError(final Throwable error) {
+            mError = error;
+            drain();
+        }
+    }
+
+    static final class LatestToViewObserver<T> extends LatestToView<T>
+            implements Observer<T>, Disposable {
+
+        private final Observer<? super T> mDownstream;
+
+        private volatile Disposable mUpstream;
+
+        LatestToViewObserver(final Observer<? super T> downstream, final TiPresenter presenter) {
+            super(presenter);
+            mDownstream = downstream;
+        }
+
+        @Override
+        public void dispose() {
+            cancel();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return mCancelled;
+        }
+
+        @Override
+        public void onComplete() {
+            // never complete, the latest value is delivered again when the view attaches
+        }
+
+        @Override
+        public void onError(final Throwable e) {
+            onUpstreamError(e);
+        }
+
+        @Override
+        public void onNext(final T t) {
+            onLatest(t);
+        }
+
+        @Override
+        public void onSubscribe(final Disposable d) {
+            mUpstream = d;
+            if (mCancelled) {
+                d.dispose();
+            }
+        }
+
+        @Override
+        void cancelUpstream() {
+            final Disposable upstream = mUpstream;
+            if (upstream != null) {
+                upstream.dispose();
+            }
+        }
+
+        @Override
+        void emit(final T value) {
+            mDownstream.onNext(value);
+        }
+
+        @Override
+        void emitError(final Throwable error) {
+            mDownstream.onError(error);
+        }
+
+        @Override
+        boolean hasDemand() {
+            return true;
+        }
+    }
+
+    static final class LatestToViewSubscriber<T> extends LatestToView<T>
+            implements FlowableSubscriber<T>, Subscription {
+
+        private final Subscriber<? super T> mDownstream;
+
+        /**
+         * number of emitted items, only accessed inside the drain loop
+         */
+        private long mEmitted;
+
+        private final AtomicLong mRequested = new AtomicLong();
+
+        private volatile Subscription mUpstream;
+
+        LatestToViewSubscriber(final Subscriber<? super T> downstream,
+                final TiPresenter presenter) {
+            super(presenter);
+            mDownstream = downstream;
+        }
+
+        @Override
+        public void onComplete() {
+            // never complete, the latest value is delivered again when the view attaches
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            onUpstreamError(t);
+        }
+
+        @Override
+        public void onNext(final T t) {
+            onLatest(t);
+        }
+
+        @Override
+        public void onSubscribe(final Subscription s) {
+            mUpstream = s;
+            if (mCancelled) {
+                s.cancel();
+            } else {
+                // all values are conflated into the slot, the downstream demand is handled there
+                s.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                onUpstreamError(new IllegalArgumentException(
+                        "positive request amount required but it was " + n));
+                return;
+            }
+            for (; ; ) {
+                final long requested = mRequested.get();
+                if (requested == Long.MAX_VALUE) {
+                    break;
+                }
+                long updated = requested + n;
+                if (updated < 0) {
+                    updated = Long.MAX_VALUE;
+                }
+                if (mRequested.compareAndSet(requested, updated)) {
+                    break;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        void cancelUpstream() {
+            final Subscription upstream = mUpstream;
+            if (upstream != null) {
+                upstream.cancel();
+            }
+        }
+
+        @Override
+        void emit(final T value) {
+            mDownstream.onNext(value);
+            mEmitted++;
+        }
+
+        @Override
+        void emitError(final Throwable error) {
+            mDownstream.onError(error);
+        }
+
+        @Override
+        boolean hasDemand() {
+            final long requested = mRequested.get();
+            return requested == Long.MAX_VALUE || mEmitted != requested;
+        }
+    }
+
+    private final TiPresenter mPresenter;
+
+    /**
+     * @param presenter the presenter waiting for the view
+     */
+    public DeliverLatestToViewTransformer(@NonNull final TiPresenter presenter) {
+        mPresenter = presenter;
+    }
+
+    @Override
+    public ObservableSource<T> apply(final Observable<T> upstream) {
+        return new Observable<T>() {
+            @Override
+            protected void subscribeActual(final Observer<? super T> observer) {
+                final LatestToViewObserver<T> parent =
+                        new LatestToViewObserver<>(observer, mPresenter);
+                observer.onSubscribe(parent);
+                parent.observeView();
+                upstream.subscribe(parent);
+            }
+        };
+    }
+
+    @Override
+    public Publisher<T> apply(final Flowable<T> upstream) {
+        return new Flowable<T>() {
+            @Override
+            protected void subscribeActual(final Subscriber<? super T> subscriber) {
+                final LatestToViewSubscriber<T> parent =
+                        new LatestToViewSubscriber<>(subscriber, mPresenter);
+                subscriber.onSubscribe(parent);
+                parent.observeView();
+                upstream.subscribe(parent);
+            }
+        };
+    }
+
+    @Override
+    public SingleSource<T> apply(final Single<T> upstream) {
+        return upstream.toObservable().compose(this).firstOrError();
+    }
+
+    @Override
+    public MaybeSource<T> apply(final Maybe<T> upstream) {
+        return upstream.flatMap(new Function<T, MaybeSource<T>>() {
+            @Override
+            public MaybeSource<T> apply(final T value) throws Exception {
+                return Observable.just(value)
+                        .compose(DeliverLatestToViewTransformer.this)
+                        .firstElement();
+            }
+        });
+    }
+}
@@ -18,11 +18,7 @@ package net.grandcentrix.thirtyinch.rx2;
 import io.reactivex.Observable;
 import io.reactivex.ObservableEmitter;
 import io.reactivex.ObservableOnSubscribe;
-import io.reactivex.ObservableSource;
-import io.reactivex.ObservableTransformer;
 import io.reactivex.disposables.Disposable;
-import io.reactivex.functions.BiFunction;
-import io.reactivex.functions.Function;
 import net.grandcentrix.thirtyinch.Removable;
 import net.grandcentrix.thirtyinch.TiLifecycleObserver;
 import net.grandcentrix.thirtyinch.TiPresenter;
@@ -30,22 +26,6 @@ import net.grandcentrix.thirtyinch.TiView;
 
 public class RxTiPresenterUtils {
 
-    /**
-     * Wrapper for an emitted value, along with a record of whether or not the view was attached when the value was
-     * emitted.
-     */
-    private static class ViewReadyValue<T> {
-
-        T value;
-
-        boolean viewReady;
-
-        ViewReadyValue(final T t, final Boolean viewReady) {
-            this.value = t;
-            this.viewReady = viewReady;
-        }
-    }
-
     /**
      * Returns a transformer that will delay onNext, onError and onComplete emissions until a view
      * become available. getView() is guaranteed to be != null during all emissions, provided that this
@@ -54,46 +34,18 @@ public class RxTiPresenterUtils {
      * If this transformer receives a next value while the previous value has not been delivered,
      * the previous value will be dropped.
      * <p/>
-     * Use this operator when you need to show updatable data.
+     * Use this operator when you need to show updatable data. The returned transformer can be
+     * applied to {@link Observable}, {@link io.reactivex.Flowable}, {@link io.reactivex.Single}
+     * and {@link io.reactivex.Maybe}, a {@code Flowable} respects the back-pressure of the
+     * downstream.
      *
      * @param <T>       a type of onNext value.
      * @param presenter the presenter waiting for the view
      * @return the delaying operator.
      */
-    public static <T> ObservableTransformer<T, T> deliverLatestToView(
+    public static <T> DeliverLatestToViewTransformer<T> deliverLatestToView(
             final TiPresenter presenter) {
-        return new ObservableTransformer<T, T>() {
-            @Override
-            public ObservableSource<T> apply(final Observable<T> observable) {
-
-                // make sure we never complete
-                final Observable<T> source = observable.concatWith(Observable.<T>never());
-
-                // The order of the sources is important here! We want the viewReady emission to be captured first so that any synchronous
-                // source emissions are not skipped.
-                // See https://github.com/ReactiveX/RxJava/issues/5325
-                return Observable
-                        .combineLatest(isViewReady(presenter), source,
-                                new BiFunction<Boolean, T, ViewReadyValue<T>>() {
-                                    @Override
-                                    public ViewReadyValue<T> apply(final Boolean viewReady, final T t)
-                                            throws Exception {
-                                        return new ViewReadyValue<>(t, viewReady);
-                                    }
-                                })
-                        .flatMap(new Function<ViewReadyValue<T>, ObservableSource<T>>() {
-                            @Override
-                            public ObservableSource<T> apply(final ViewReadyValue<T> viewReadyValue)
-                                    throws Exception {
-                                if (viewReadyValue.viewReady) {
-                                    return Observable.just(viewReadyValue.value);
-                                } else {
-                                    return Observable.empty();
-                                }
-                            }
-                        });
-            }
-        };
+        return new DeliverLatestToViewTransformer<>(presenter);
     }
 
     /**
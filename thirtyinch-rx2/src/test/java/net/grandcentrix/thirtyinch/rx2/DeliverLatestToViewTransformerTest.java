@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.rx2;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import io.reactivex.Maybe;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.SingleSubject;
+import io.reactivex.subscribers.TestSubscriber;
+import net.grandcentrix.thirtyinch.TiPresenter;
+import net.grandcentrix.thirtyinch.TiView;
+import org.junit.*;
+
+public class DeliverLatestToViewTransformerTest {
+
+    private TiPresenter mPresenter;
+
+    private TiView mView;
+
+    @Before
+    public void setUp() throws Exception {
+        mView = mock(TiView.class);
+        mPresenter = new TiPresenter() {
+        };
+        mPresenter.create();
+    }
+
+    @Test
+    public void testDispose_RemovesUpstreamAndObserver() throws Exception {
+        final PublishSubject<Integer> source = PublishSubject.create();
+        final TestObserver<Integer> testObserver = source
+                .compose(new DeliverLatestToViewTransformer<Integer>(mPresenter))
+                .test();
+        source.onNext(1);
+
+        testObserver.dispose();
+        mPresenter.attachView(mView);
+
+        assertThat(source.hasObservers()).isFalse();
+        testObserver.assertEmpty();
+    }
+
+    @Test
+    public void testFlowable_DeliversLatestWhenRequested() throws Exception {
+        mPresenter.attachView(mView);
+
+        final PublishProcessor<Integer> source = PublishProcessor.create();
+        final TestSubscriber<Integer> testSubscriber = source
+                .compose(new DeliverLatestToViewTransformer<Integer>(mPresenter))
+                .test(0);
+
+        source.onNext(1);
+        source.onNext(2);
+        testSubscriber.assertEmpty();
+
+        testSubscriber.requestMore(1);
+        testSubscriber.assertValuesOnly(2);
+
+        source.onNext(3);
+        source.onNext(4);
+        testSubscriber.requestMore(5);
+        source.onNext(5);
+        testSubscriber.assertValuesOnly(2, 4, 5);
+    }
+
+    @Test
+    public void testFlowable_NoDemandWhenViewAttaches() throws Exception {
+        final PublishProcessor<Integer> source = PublishProcessor.create();
+        final TestSubscriber<Integer> testSubscriber = source
+                .compose(new DeliverLatestToViewTransformer<Integer>(mPresenter))
+                .test(1);
+
+        source.onNext(1);
+        testSubscriber.assertEmpty();
+
+        mPresenter.attachView(mView);
+        testSubscriber.assertValuesOnly(1);
+
+        mPresenter.detachView();
+        mPresenter.attachView(mView);
+        source.onNext(2);
+        testSubscriber.assertValuesOnly(1);
+
+        testSubscriber.requestMore(1);
+        testSubscriber.assertValuesOnly(1, 2);
+        testSubscriber.assertNotComplete();
+    }
+
+    @Test
+    public void testMaybe_Empty_CompletesImmediately() throws Exception {
+        final TestObserver<Integer> testObserver = Maybe.<Integer>empty()
+                .compose(new DeliverLatestToViewTransformer<Integer>(mPresenter))
+                .test();
+
+        testObserver.assertResult();
+    }
+
+    @Test
+    public void testMaybe_WaitsForView() throws Exception {
+        final TestObserver<Integer> testObserver = Maybe.just(1)
+                .compose(new DeliverLatestToViewTransformer<Integer>(mPresenter))
+                .test();
+        testObserver.assertEmpty();
+
+        mPresenter.attachView(mView);
+
+        testObserver.assertResult(1);
+    }
+
+    @Test
+    public void testObservable_ErrorIsForwardedImmediately() throws Exception {
+        final PublishSubject<Integer> source = PublishSubject.create();
+        final TestObserver<Integer> testObserver = source
+                .compose(new DeliverLatestToViewTransformer<Integer>(mPresenter))
+                .test();
+
+        final IllegalStateException error = new IllegalStateException();
+        source.onNext(1);
+        source.onError(error);
+
+        testObserver.assertFailure(IllegalStateException.class);
+    }
+
+    @Test
+    public void testSingle_WaitsForView() throws Exception {
+        final SingleSubject<Integer> source = SingleSubject.create();
+        final TestObserver<Integer> testObserver = source
+                .compose(new DeliverLatestToViewTransformer<Integer>(mPresenter))
+                .test();
+
+        source.onSuccess(1);
+        testObserver.assertEmpty();
+
+        mPresenter.attachView(mView);
+
+        testObserver.assertResult(1);
+        assertThat(source.hasObservers()).isFalse();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.lang.reflect.Method;
+
+/**
+ * A {@link BindViewInterceptor} which is able to contribute a {@link Hook} instead of wrapping
+ * the view in its own {@link java.lang.reflect.Proxy}. The
+ * {@link net.grandcentrix.thirtyinch.internal.PresenterViewBinder} runs the hooks of consecutive
+ * fusable interceptors in a single proxy which calls the view once, instead of nesting one proxy
+ * per interceptor.
+ * <p>
+ * Interceptors which only implement {@link BindViewInterceptor} keep working, they still wrap the
+ * view returned by the previous interceptor. For fused interceptors {@code
+ * getInterceptedViewOf(interceptor)} returns the shared proxy.
+ */
+public interface FusableBindViewInterceptor extends BindViewInterceptor {
+
+    /**
+     * The remaining hooks of a fused proxy, ending with the call of the view
+     */
+    interface Chain {
+
+        /**
+         * Continues the call with the next hook or calls the view
+         *
+         * @return the result of the view method
+         * @throws Throwable the exception thrown by the view method, not wrapped in a {@link
+         *                   java.lang.reflect.InvocationTargetException}
+         */
+        Object proceed(@NonNull Method method, @NonNull Object[] args) throws Throwable;
+    }
+
+    /**
+     * Handles a call of a view method. A hook may drop the call, change the arguments or defer
+     * the call to another thread by holding on to {@code next}.
+     */
+    interface Hook {
+
+        Object handle(@NonNull Chain next, @NonNull Method method, @NonNull Object[] args)
+                throws Throwable;
+    }
+
+    /**
+     * Creates the hook for a new view, it's used instead of {@link #intercept(TiView)}
+     *
+     * @param view          the view the hook will forward calls to, it may already be wrapped by
+     *                      other interceptors
+     * @param viewInterface the {@link TiView} interface implemented by {@code view}
+     * @return the hook or {@code null} to fall back to {@link #intercept(TiView)}, i.e. when the
+     * interceptor provides a faster, generated implementation for this interface
+     */
+    @Nullable
+    Hook createHook(@NonNull TiView view, @NonNull Class<?> viewInterface);
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A {@link BindViewInterceptor} which only changes the behavior of some {@link TiView}
+ * interfaces, i.e. the ones with annotated methods. The {@link
+ * net.grandcentrix.thirtyinch.internal.PresenterViewBinder} asks once per view interface and
+ * skips the interceptor for all other views, they aren't wrapped in a proxy doing nothing.
+ * <p>
+ * {@code getInterceptedViewOf(interceptor)} returns the view passed through a skipped
+ * interceptor, as if its {@link #intercept(TiView)} returned the view unchanged.
+ */
+public interface SelectiveBindViewInterceptor extends BindViewInterceptor {
+
+    /**
+     * @param viewInterface the {@link TiView} interface of the view about to be bound
+     * @return {@code false} when {@link #intercept(TiView)} wouldn't change the behavior of views
+     * implementing {@code viewInterface}, the result must not change for the same interface
+     */
+    boolean appliesTo(@NonNull Class<?> viewInterface);
+}
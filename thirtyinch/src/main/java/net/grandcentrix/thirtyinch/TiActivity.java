@@ -23,16 +23,16 @@ import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 import java.util.List;
 import java.util.concurrent.Executor;
+import net.grandcentrix.thirtyinch.internal.AsyncTiPresenterProvider;
 import net.grandcentrix.thirtyinch.internal.DelegatedTiActivity;
 import net.grandcentrix.thirtyinch.internal.InterceptableViewBinder;
 import net.grandcentrix.thirtyinch.internal.PresenterAccessor;
 import net.grandcentrix.thirtyinch.internal.PresenterSavior;
 import net.grandcentrix.thirtyinch.internal.TiActivityDelegate;
 import net.grandcentrix.thirtyinch.internal.TiLoggingTagProvider;
-import net.grandcentrix.thirtyinch.internal.TiPresenterProvider;
 import net.grandcentrix.thirtyinch.internal.TiViewProvider;
 import net.grandcentrix.thirtyinch.internal.UiThreadExecutor;
-import net.grandcentrix.thirtyinch.util.AnnotationUtil;
+import net.grandcentrix.thirtyinch.util.ViewClassInfo;
 
 /**
  * An Activity which has a {@link TiPresenter} to build the Model View Presenter architecture on
@@ -85,7 +85,7 @@ import net.grandcentrix.thirtyinch.util.AnnotationUtil;
  */
 public abstract class TiActivity<P extends TiPresenter<V>, V extends TiView>
         extends AppCompatActivity
-        implements TiPresenterProvider<P>, TiViewProvider<V>, DelegatedTiActivity,
+        implements AsyncTiPresenterProvider<P>, TiViewProvider<V>, DelegatedTiActivity,
         TiLoggingTagProvider, InterceptableViewBinder<V>, PresenterAccessor<P, V> {
 
     private final String TAG = this.getClass().getSimpleName()
@@ -101,7 +101,8 @@ public abstract class TiActivity<P extends TiPresenter<V>, V extends TiView>
     @Override
     protected void onCreate(final Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        mDelegate.onCreate_afterSuper(savedInstanceState);
+        mDelegate.onCreate_afterSuper(savedInstanceState,
+                TiPresenterWarmUp.getWarmUpId(getIntent().getExtras()));
     }
 
     @CallSuper
@@ -163,7 +164,10 @@ public abstract class TiActivity<P extends TiPresenter<V>, V extends TiView>
     }
 
     /**
-     * is {@code null} before {@link #onCreate(Bundle)}
+     * Is {@code null} before {@link #onCreate(Bundle)}. <b>Also {@code null} after {@code onCreate}
+     * while the presenter is created in the background</b> ({@link
+     * #providePresenterCreationExecutor()}) or a warmed up presenter is still being created, see
+     * {@link #onPresenterReady()}.
      */
     @Override
     public final P getPresenter() {
@@ -196,12 +200,36 @@ public abstract class TiActivity<P extends TiPresenter<V>, V extends TiView>
         mDelegate.onConfigurationChanged_afterSuper(newConfig);
     }
 
+    /**
+     * Called on the main thread once {@link #getPresenter()} returns the presenter, before the view
+     * gets bound. Usually from {@link #onCreate(Bundle)}, later when the presenter is created in
+     * the background ({@link #providePresenterCreationExecutor()}) or a warmed up presenter is
+     * still being created ({@link TiPresenterWarmUp}).
+     */
+    @Override
+    public void onPresenterReady() {
+
+    }
+
+    /**
+     * Override to create the presenter in the background. {@link #providePresenter()} and {@link
+     * TiPresenter#onCreate()} are called on the returned executor and the view is bound once the
+     * presenter is created. {@link #getPresenter()} returns {@code null} until then, see {@link
+     * #onPresenterReady()}.
+     *
+     * @return {@code null} to create the presenter synchronously in {@link #onCreate(Bundle)}
+     */
+    @Nullable
+    @Override
+    public Executor providePresenterCreationExecutor() {
+        return null;
+    }
+
     @SuppressWarnings("unchecked")
     @NonNull
     @Override
     public V provideView() {
-        final Class<?> foundViewInterface = AnnotationUtil
-                .getInterfaceOfClassExtendingGivenInterface(this.getClass(), TiView.class);
+        final Class<?> foundViewInterface = ViewClassInfo.of(getClass()).getViewInterface();
 
         if (foundViewInterface == null) {
             throw new IllegalArgumentException(
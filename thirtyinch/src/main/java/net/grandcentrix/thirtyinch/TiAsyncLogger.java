@@ -0,0 +1,489 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link TiLog.Logger} which moves the actual logging off the calling thread. Log calls write a
+ * record into a preallocated, lock-free ring buffer and return immediately. A background thread
+ * drains the records in batches and forwards them to the delegate logger in the order they were
+ * written.
+ * <p>
+ * <code>
+ * <pre>
+ * TiLog.setLogger(new TiAsyncLogger.Builder(TiLog.LOGCAT)
+ *         .setBufferSize(1024)
+ *         .setOverflowPolicy(TiAsyncLogger.OverflowPolicy.DROP)
+ *         .setFlushOnCrash(true)
+ *         .build());
+ * </pre>
+ * </code>
+ * <p>
+ * Messages passed as {@link TiLog.MessageSupplier} are built on the background thread. When a
+ * supplier or the delegate throws, the failure is logged with level {@link Log#ERROR} and the
+ * background thread continues with the next message.
+ */
+public final class TiAsyncLogger implements TiLog.LevelAwareLogger {
+
+    public static class Builder {
+
+        private int mBatchSize = 64;
+
+        private int mBufferSize = 512;
+
+        private final TiLog.Logger mDelegate;
+
+        private boolean mFlushOnCrash = false;
+
+        private OverflowPolicy mOverflowPolicy = OverflowPolicy.DROP;
+
+        /**
+         * @param delegate the logger receiving the records on the background thread
+         */
+        public Builder(@NonNull final TiLog.Logger delegate) {
+            //noinspection ConstantConditions
+            if (delegate == null) {
+                throw new IllegalArgumentException("delegate can't be null");
+            }
+            if (delegate == TiLog.TI_LOG) {
+                throw new IllegalArgumentException(
+                        "Recursion warning: You can't use TI_LOG as delegate of the async logger");
+            }
+            mDelegate = delegate;
+        }
+
+        /**
+         * Creates the logger and starts its background thread
+         */
+        public TiAsyncLogger build() {
+            final TiAsyncLogger logger = new TiAsyncLogger(this);
+            if (mFlushOnCrash) {
+                logger.installFlushOnCrash();
+            }
+            return logger;
+        }
+
+        /**
+         * @param batchSize the max number of records forwarded to the delegate before the
+         *                  background thread checks for a pending {@link #flush(long, TimeUnit)}
+         *                  again, defaults to 64
+         */
+        public Builder setBatchSize(final int batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("batchSize must be > 0");
+            }
+            mBatchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * @param bufferSize number of records the ring buffer holds, rounded up to the next power
+         *                   of two, defaults to 512
+         */
+        public Builder setBufferSize(final int bufferSize) {
+            if (bufferSize < 2 || bufferSize > 1 << 20) {
+                throw new IllegalArgumentException("bufferSize must be in [2, 2^20]");
+            }
+            mBufferSize = Integer.highestOneBit(bufferSize - 1) << 1;
+            return this;
+        }
+
+        /**
+         * When enabled the logger installs a default {@link Thread.UncaughtExceptionHandler}
+         * which writes all pending records before the previous handler crashes the app. Disabled
+         * by default.
+         */
+        public Builder setFlushOnCrash(final boolean flushOnCrash) {
+            mFlushOnCrash = flushOnCrash;
+            return this;
+        }
+
+        /**
+         * @param policy what to do when the ring buffer is full, defaults to
+         *               {@link OverflowPolicy#DROP}
+         */
+        public Builder setOverflowPolicy(@NonNull final OverflowPolicy policy) {
+            //noinspection ConstantConditions
+            if (policy == null) {
+                throw new IllegalArgumentException("policy can't be null");
+            }
+            mOverflowPolicy = policy;
+            return this;
+        }
+    }
+
+    /**
+     * Behavior of the logger when the background thread can't keep up and the ring buffer is
+     * full
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drops the new message. The number of dropped messages is logged with level
+         * {@link Log#WARN} once the buffer drained.
+         */
+        DROP,
+        /**
+         * Waits until the background thread freed a slot. Never loses messages but may stall the
+         * calling thread, including the main thread.
+         */
+        BLOCK,
+        /**
+         * Forwards the message to the delegate on the calling thread. Never loses messages but
+         * the message may appear out of order.
+         */
+        LOG_ON_CALLER
+    }
+
+    /**
+     * A delegate which additionally receives the time a message was logged, the background
+     * thread may forward it much later.
+     */
+    public interface TimestampedLogger extends TiLog.Logger {
+
+        /**
+         * @param timeMillis the {@link System#currentTimeMillis()} of the original log call
+         */
+        void log(final long timeMillis, final int level, final String tag, final String msg);
+    }
+
+    /**
+     * A slot of the ring buffer. Records are reused, only the message is released after it was
+     * written
+     */
+    private static final class Record {
+
+        int level;
+
+        /**
+         * {@link String} or {@link TiLog.MessageSupplier}
+         */
+        Object message;
+
+        String tag;
+
+        long timeMillis;
+    }
+
+    private static final String TAG = TiAsyncLogger.class.getSimpleName();
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final int mBatchSize;
+
+    private final TiLog.Logger mDelegate;
+
+    /**
+     * Number of records the delegate returned from. Lags behind {@link #mHead} while a record is
+     * written, only written by the background thread.
+     */
+    private volatile long mDelivered = 0;
+
+    private final AtomicLong mDropped = new AtomicLong();
+
+    /**
+     * Sequence of the next record the background thread reads. Only written by the background
+     * thread.
+     */
+    private volatile long mHead = 0;
+
+    private final int mMask;
+
+    private final OverflowPolicy mOverflowPolicy;
+
+    private final Record[] mRecords;
+
+    /**
+     * Vyukov style sequence per slot: {@code slot == position} when the slot is free for the
+     * producer claiming {@code position}, {@code slot == position + 1} when the record at
+     * {@code position} is published and can be read.
+     */
+    private final AtomicLongArray mSequences;
+
+    private volatile boolean mShutdown = false;
+
+    /**
+     * Sequence of the next slot a producer claims
+     */
+    private final AtomicLong mTail = new AtomicLong();
+
+    private final Thread mThread;
+
+    private volatile boolean mWaiting = false;
+
+    private TiAsyncLogger(final Builder builder) {
+        mDelegate = builder.mDelegate;
+        mBatchSize = builder.mBatchSize;
+        mOverflowPolicy = builder.mOverflowPolicy;
+
+        final int capacity = builder.mBufferSize;
+        mMask = capacity - 1;
+        mRecords = new Record[capacity];
+        mSequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            mRecords[i] = new Record();
+            mSequences.set(i, i);
+        }
+
+        mThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                drainLoop();
+            }
+        }, "TiAsyncLogger");
+        mThread.setDaemon(true);
+        mThread.start();
+    }
+
+    /**
+     * Blocks until all messages logged before this call were forwarded to the delegate or the
+     * timeout elapsed.
+     *
+     * @return {@code true} when all messages were written
+     */
+    public boolean flush(final long timeout, @NonNull final TimeUnit unit) {
+        final long target = mTail.get();
+        if (Thread.currentThread() == mThread) {
+            // called by the delegate, the background thread can't wait for itself
+            return mDelivered >= target;
+        }
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        // the slot is released before the delegate is called, wait until it returned
+        while (mDelivered < target) {
+            if (!mThread.isAlive()) {
+                return false;
+            }
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            LockSupport.unpark(mThread);
+            LockSupport.parkNanos(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isLoggable(final int level) {
+        return !(mDelegate instanceof TiLog.LevelAwareLogger)
+                || ((TiLog.LevelAwareLogger) mDelegate).isLoggable(level);
+    }
+
+    @Override
+    public void log(final int level, final String tag, final String msg) {
+        enqueue(level, tag, msg);
+    }
+
+    /**
+     * Logs a message which is built on the background thread. The supplier has to be thread-safe.
+     */
+    public void log(final int level, final String tag,
+            @NonNull final TiLog.MessageSupplier supplier) {
+        enqueue(level, tag, supplier);
+    }
+
+    /**
+     * Writes all pending messages and stops the background thread. Messages logged afterwards are
+     * forwarded on the calling thread. Replace the logger with
+     * {@link TiLog#setLogger(TiLog.Logger)} first, messages logged concurrently to the shutdown
+     * may be lost.
+     */
+    public void shutdown() {
+        mShutdown = true;
+        LockSupport.unpark(mThread);
+        boolean interrupted = false;
+        while (mThread.isAlive() && Thread.currentThread() != mThread) {
+            try {
+                mThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @VisibleForTesting
+    void installFlushOnCrash() {
+        final Thread.UncaughtExceptionHandler previous =
+                Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(final Thread t, final Throwable e) {
+                flush(1, TimeUnit.SECONDS);
+                if (previous != null) {
+                    previous.uncaughtException(t, e);
+                }
+            }
+        });
+    }
+
+    private void deliver(final long timeMillis, final int level, final String tag,
+            final Object message) {
+        final String msg = message instanceof TiLog.MessageSupplier
+                ? ((TiLog.MessageSupplier) message).get() : (String) message;
+        if (mDelegate instanceof TimestampedLogger) {
+            ((TimestampedLogger) mDelegate).log(timeMillis, level, tag, msg);
+        } else {
+            mDelegate.log(level, tag, msg);
+        }
+    }
+
+    /**
+     * Like {@link #deliver(long, int, String, Object)} but reports exceptions instead of
+     * stopping the background thread
+     */
+    private void deliverOnBackgroundThread(final long timeMillis, final int level,
+            final String tag, final Object message) {
+        try {
+            deliver(timeMillis, level, tag, message);
+        } catch (RuntimeException e) {
+            final StringWriter stackTrace = new StringWriter();
+            e.printStackTrace(new PrintWriter(stackTrace));
+            try {
+                mDelegate.log(Log.ERROR, TAG,
+                        "Unable to write a log message with tag " + tag + "\n" + stackTrace);
+            } catch (RuntimeException ignored) {
+                // the delegate is broken, nothing left to report the failure to
+            }
+        }
+    }
+
+    /**
+     * @return the number of forwarded records
+     */
+    private int drainBatch() {
+        int count = 0;
+        long head = mHead;
+        while (count < mBatchSize) {
+            final int index = (int) head & mMask;
+            if (mSequences.get(index) != head + 1) {
+                break;
+            }
+            final Record record = mRecords[index];
+            final int level = record.level;
+            final String tag = record.tag;
+            final Object message = record.message;
+            final long timeMillis = record.timeMillis;
+            record.tag = null;
+            record.message = null;
+            // release the slot before the potentially slow delegate call
+            mSequences.set(index, head + mMask + 1);
+            mHead = ++head;
+
+            deliverOnBackgroundThread(timeMillis, level, tag, message);
+            mDelivered = head;
+            count++;
+        }
+
+        final long dropped = mDropped.get();
+        if (count < mBatchSize && dropped > 0) {
+            mDropped.addAndGet(-dropped);
+            deliverOnBackgroundThread(System.currentTimeMillis(), Log.WARN, TAG, "Dropped "
+                    + dropped + " log messages, the buffer of the async logger was full");
+        }
+        return count;
+    }
+
+    private void drainLoop() {
+        while (true) {
+            if (drainBatch() > 0) {
+                continue;
+            }
+            if (mShutdown) {
+                // producers which saw mShutdown == false may still publish
+                if (mTail.get() == mHead) {
+                    return;
+                }
+                Thread.yield();
+                continue;
+            }
+            mWaiting = true;
+            if (!isEmpty()) {
+                mWaiting = false;
+                continue;
+            }
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            mWaiting = false;
+        }
+    }
+
+    private void enqueue(final int level, final String tag, final Object message) {
+        if (mShutdown) {
+            deliver(System.currentTimeMillis(), level, tag, message);
+            return;
+        }
+        long position = mTail.get();
+        while (true) {
+            final int index = (int) position & mMask;
+            final long difference = mSequences.get(index) - position;
+            if (difference == 0) {
+                if (mTail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = mTail.get();
+            } else if (difference < 0) {
+                // slot still holds the record from one lap before, the buffer is full
+                switch (mOverflowPolicy) {
+                    case DROP:
+                        mDropped.incrementAndGet();
+                        return;
+                    case LOG_ON_CALLER:
+                        deliver(System.currentTimeMillis(), level, tag, message);
+                        return;
+                    case BLOCK:
+                    default:
+                        if (!mThread.isAlive()) {
+                            deliver(System.currentTimeMillis(), level, tag, message);
+                            return;
+                        }
+                        LockSupport.unpark(mThread);
+                        Thread.yield();
+                        position = mTail.get();
+                        break;
+                }
+            } else {
+                // another producer claimed the slot
+                position = mTail.get();
+            }
+        }
+
+        final Record record = mRecords[(int) position & mMask];
+        record.level = level;
+        record.tag = tag;
+        record.message = message;
+        record.timeMillis = System.currentTimeMillis();
+        mSequences.set((int) position & mMask, position + 1);
+
+        if (mWaiting) {
+            LockSupport.unpark(mThread);
+        }
+    }
+
+    private boolean isEmpty() {
+        return mSequences.get((int) mHead & mMask) != mHead + 1;
+    }
+}
@@ -18,10 +18,14 @@ package net.grandcentrix.thirtyinch;
 import android.app.Activity;
 import android.app.Application;
 import android.os.Bundle;
+import androidx.annotation.NonNull;
 import net.grandcentrix.thirtyinch.callonmainthread.CallOnMainThread;
+import net.grandcentrix.thirtyinch.callonmainthread.FrameAlignedScheduler;
 import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctUntilChanged;
 import net.grandcentrix.thirtyinch.internal.PresenterSavior;
 import net.grandcentrix.thirtyinch.internal.TiPresenterProvider;
+import net.grandcentrix.thirtyinch.viewactionqueue.ViewActionQueue;
+import net.grandcentrix.thirtyinch.viewactionqueue.ViewActionQueues;
 
 /**
  * Configure how ThirtyInch should handle the {@link TiPresenter}.
@@ -100,6 +104,24 @@ public class TiConfiguration {
             return this;
         }
 
+        /**
+         * When enabled, calls of {@link CallOnMainThread} methods made from background threads
+         * aren't posted one by one to the main thread. They are collected by the {@link
+         * FrameAlignedScheduler} and run together at the beginning of the next frame, before
+         * layout. When a method of a view is called multiple times before the frame starts only
+         * the last call runs.
+         * <p>
+         * Several presenters updating their views at the same time then cause a single layout
+         * pass. Don't enable it for methods where every call matters, i.e. showing a Toast for
+         * each call.
+         * <p>
+         * default <code>false</code>
+         */
+        public Builder setFrameAlignedCallOnMainThreadEnabled(final boolean enabled) {
+            mConfig.mFrameAlignedCallOnMainThreadEnabled = enabled;
+            return this;
+        }
+
         /**
          * When enabled you can add the {@link DistinctUntilChanged} annotation to
          * <code>void</code> methods of your {@link TiView} with at least one argument.
@@ -169,6 +191,63 @@ public class TiConfiguration {
             return this;
         }
 
+        /**
+         * Defines how {@link TiPresenter#sendToView(ViewAction)} keeps actions while no view is
+         * attached. Each presenter gets its own queue created by the {@code factory}.
+         * <p>
+         * A presenter sending actions while the app is in background may collect thousands of
+         * outdated actions which are all executed when the view attaches again. Limit the queue
+         * with {@link ViewActionQueues#dropOldest(int)} or keep only the latest action of each
+         * kind with {@link ViewActionQueues#conflating()}.
+         * <p>
+         * default {@link ViewActionQueues#unbounded()}
+         */
+        public Builder setPostponedViewActionQueue(
+                @NonNull final ViewActionQueue.Factory factory) {
+            //noinspection ConstantConditions
+            if (factory == null) {
+                throw new IllegalArgumentException("factory can't be null");
+            }
+            mConfig.mPostponedViewActionQueueFactory = factory;
+            return this;
+        }
+
+        /**
+         * When enabled {@link TiPresenter#sendToView(ViewAction)} doesn't post every action
+         * separately to the UI thread while the view is attached. Actions are collected in a
+         * buffer of the presenter and a single task is posted which executes all actions sent
+         * until it runs in the order they have been sent.
+         * <p>
+         * A background job sending hundreds of small updates then causes a single message on the
+         * main {@link android.os.Looper} instead of one for each update. {@link
+         * TiPresenter#getCoalescedViewActionCount()} reports how many actions didn't require a
+         * separate post.
+         * <p>
+         * Actions still pending when the view detaches are executed when the next view attaches.
+         * <p>
+         * default <code>false</code>
+         */
+        public Builder setSendToViewBatchingEnabled(final boolean enabled) {
+            mConfig.mSendToViewBatchingEnabled = enabled;
+            return this;
+        }
+
+        /**
+         * When enabled the presenter measures the actions sent with {@link
+         * TiPresenter#sendToView(ViewAction)}: how long they wait until they run, how long they
+         * run on the UI thread, how many are replayed when the view attaches and which were the
+         * slowest. Read the results with {@link TiPresenter#getViewActionMetrics()}.
+         * <p>
+         * Every action is wrapped to remember when it was sent, enable it for debug builds or
+         * while investigating jank.
+         * <p>
+         * default <code>false</code>
+         */
+        public Builder setViewActionMetricsEnabled(final boolean enabled) {
+            mConfig.mViewActionMetricsEnabled = enabled;
+            return this;
+        }
+
     }
 
     public static final TiConfiguration DEFAULT = new Builder().build();
@@ -177,8 +256,16 @@ public class TiConfiguration {
 
     private boolean mDistinctUntilChangedInterceptorEnabled = true;
 
+    private boolean mFrameAlignedCallOnMainThreadEnabled = false;
+
+    private ViewActionQueue.Factory mPostponedViewActionQueueFactory = ViewActionQueues.unbounded();
+
     private boolean mRetainPresenter = true;
 
+    private boolean mSendToViewBatchingEnabled = false;
+
+    private boolean mViewActionMetricsEnabled = false;
+
     /**
      * use {@link Builder} to construct a configuration.
      */
@@ -203,7 +290,19 @@ public class TiConfiguration {
                 != that.mDistinctUntilChangedInterceptorEnabled) {
             return false;
         }
-        return mRetainPresenter == that.mRetainPresenter;
+        if (mFrameAlignedCallOnMainThreadEnabled != that.mFrameAlignedCallOnMainThreadEnabled) {
+            return false;
+        }
+        if (mRetainPresenter != that.mRetainPresenter) {
+            return false;
+        }
+        if (!mPostponedViewActionQueueFactory.equals(that.mPostponedViewActionQueueFactory)) {
+            return false;
+        }
+        if (mSendToViewBatchingEnabled != that.mSendToViewBatchingEnabled) {
+            return false;
+        }
+        return mViewActionMetricsEnabled == that.mViewActionMetricsEnabled;
 
     }
 
@@ -212,9 +311,18 @@ public class TiConfiguration {
         int result = (mCallOnMainThreadInterceptorEnabled ? 1 : 0);
         result = 31 * result + (mDistinctUntilChangedInterceptorEnabled ? 1 : 0);
         result = 31 * result + (mRetainPresenter ? 1 : 0);
+        result = 31 * result + (mSendToViewBatchingEnabled ? 1 : 0);
+        result = 31 * result + mPostponedViewActionQueueFactory.hashCode();
+        result = 31 * result + (mViewActionMetricsEnabled ? 1 : 0);
+        result = 31 * result + (mFrameAlignedCallOnMainThreadEnabled ? 1 : 0);
         return result;
     }
 
+    @NonNull
+    public ViewActionQueue.Factory getPostponedViewActionQueueFactory() {
+        return mPostponedViewActionQueueFactory;
+    }
+
     public boolean isCallOnMainThreadInterceptorEnabled() {
         return mCallOnMainThreadInterceptorEnabled;
     }
@@ -223,6 +331,18 @@ public class TiConfiguration {
         return mDistinctUntilChangedInterceptorEnabled;
     }
 
+    public boolean isFrameAlignedCallOnMainThreadEnabled() {
+        return mFrameAlignedCallOnMainThreadEnabled;
+    }
+
+    public boolean isSendToViewBatchingEnabled() {
+        return mSendToViewBatchingEnabled;
+    }
+
+    public boolean isViewActionMetricsEnabled() {
+        return mViewActionMetricsEnabled;
+    }
+
     public boolean shouldRetainPresenter() {
         return mRetainPresenter;
     }
@@ -25,21 +25,21 @@ import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatDialogFragment;
 import java.util.List;
 import java.util.concurrent.Executor;
+import net.grandcentrix.thirtyinch.internal.AsyncTiPresenterProvider;
 import net.grandcentrix.thirtyinch.internal.DelegatedTiFragment;
 import net.grandcentrix.thirtyinch.internal.InterceptableViewBinder;
 import net.grandcentrix.thirtyinch.internal.PresenterAccessor;
 import net.grandcentrix.thirtyinch.internal.PresenterSavior;
 import net.grandcentrix.thirtyinch.internal.TiFragmentDelegate;
 import net.grandcentrix.thirtyinch.internal.TiLoggingTagProvider;
-import net.grandcentrix.thirtyinch.internal.TiPresenterProvider;
 import net.grandcentrix.thirtyinch.internal.TiViewProvider;
 import net.grandcentrix.thirtyinch.internal.UiThreadExecutor;
-import net.grandcentrix.thirtyinch.util.AnnotationUtil;
 import net.grandcentrix.thirtyinch.util.BackstackReader;
+import net.grandcentrix.thirtyinch.util.ViewClassInfo;
 
 public abstract class TiDialogFragment<P extends TiPresenter<V>, V extends TiView>
         extends AppCompatDialogFragment
-        implements DelegatedTiFragment, TiPresenterProvider<P>, TiLoggingTagProvider,
+        implements DelegatedTiFragment, AsyncTiPresenterProvider<P>, TiLoggingTagProvider,
         TiViewProvider<V>, InterceptableViewBinder<V>, PresenterAccessor<P, V> {
 
     private final String TAG = this.getClass().getSimpleName()
@@ -53,7 +53,8 @@ public abstract class TiDialogFragment<P extends TiPresenter<V>, V extends TiVie
     @Override
     public void onCreate(final Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        mDelegate.onCreate_afterSuper(savedInstanceState);
+        mDelegate.onCreate_afterSuper(savedInstanceState,
+                TiPresenterWarmUp.getWarmUpId(getArguments()));
     }
 
     @CallSuper
@@ -129,6 +130,12 @@ public abstract class TiDialogFragment<P extends TiPresenter<V>, V extends TiVie
         return TAG;
     }
 
+    /**
+     * Is {@code null} before {@link #onCreate(Bundle)}. <b>Also {@code null} after {@code onCreate}
+     * while the presenter is created in the background</b> ({@link
+     * #providePresenterCreationExecutor()}) or a warmed up presenter is still being created, see
+     * {@link #onPresenterReady()}.
+     */
     @Override
     public final P getPresenter() {
         return mDelegate.getPresenter();
@@ -168,6 +175,31 @@ public abstract class TiDialogFragment<P extends TiPresenter<V>, V extends TiVie
         return isRemoving();
     }
 
+    /**
+     * Called on the main thread once {@link #getPresenter()} returns the presenter, before the view
+     * gets bound. Usually from {@link #onCreate(Bundle)}, later when the presenter is created in
+     * the background ({@link #providePresenterCreationExecutor()}) or a warmed up presenter is
+     * still being created ({@link TiPresenterWarmUp}).
+     */
+    @Override
+    public void onPresenterReady() {
+
+    }
+
+    /**
+     * Override to create the presenter in the background. {@link #providePresenter()} and {@link
+     * TiPresenter#onCreate()} are called on the returned executor and the view is bound once the
+     * presenter is created. {@link #getPresenter()} returns {@code null} until then, see {@link
+     * #onPresenterReady()}.
+     *
+     * @return {@code null} to create the presenter synchronously in {@link #onCreate(Bundle)}
+     */
+    @Nullable
+    @Override
+    public Executor providePresenterCreationExecutor() {
+        return null;
+    }
+
     /**
      * the default implementation assumes that the fragment is the view and implements the {@link
      * TiView} interface. Override this method for a different behaviour.
@@ -178,8 +210,7 @@ public abstract class TiDialogFragment<P extends TiPresenter<V>, V extends TiVie
     @NonNull
     public V provideView() {
 
-        final Class<?> foundViewInterface = AnnotationUtil
-                .getInterfaceOfClassExtendingGivenInterface(getClass(), TiView.class);
+        final Class<?> foundViewInterface = ViewClassInfo.of(getClass()).getViewInterface();
 
         if (foundViewInterface == null) {
             throw new IllegalArgumentException(
@@ -28,16 +28,16 @@ import android.view.View;
 import android.view.ViewGroup;
 import java.util.List;
 import java.util.concurrent.Executor;
+import net.grandcentrix.thirtyinch.internal.AsyncTiPresenterProvider;
 import net.grandcentrix.thirtyinch.internal.DelegatedTiFragment;
 import net.grandcentrix.thirtyinch.internal.InterceptableViewBinder;
 import net.grandcentrix.thirtyinch.internal.PresenterAccessor;
 import net.grandcentrix.thirtyinch.internal.PresenterSavior;
 import net.grandcentrix.thirtyinch.internal.TiFragmentDelegate;
 import net.grandcentrix.thirtyinch.internal.TiLoggingTagProvider;
-import net.grandcentrix.thirtyinch.internal.TiPresenterProvider;
 import net.grandcentrix.thirtyinch.internal.TiViewProvider;
 import net.grandcentrix.thirtyinch.internal.UiThreadExecutor;
-import net.grandcentrix.thirtyinch.util.AnnotationUtil;
+import net.grandcentrix.thirtyinch.util.ViewClassInfo;
 
 /**
  * An Fragment which has a {@link TiPresenter} to build the Model View Presenter architecture on
@@ -106,7 +106,7 @@ import net.grandcentrix.thirtyinch.util.AnnotationUtil;
  * @param <P> the Presenter type, must extend {@link TiPresenter}
  */
 public abstract class TiFragment<P extends TiPresenter<V>, V extends TiView> extends Fragment
-        implements DelegatedTiFragment, TiPresenterProvider<P>, TiLoggingTagProvider,
+        implements DelegatedTiFragment, AsyncTiPresenterProvider<P>, TiLoggingTagProvider,
         TiViewProvider<V>, InterceptableViewBinder<V>, PresenterAccessor<P, V> {
 
     private final String TAG = this.getClass().getSimpleName()
@@ -122,7 +122,8 @@ public abstract class TiFragment<P extends TiPresenter<V>, V extends TiView> ext
     @Override
     public void onCreate(final Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        mDelegate.onCreate_afterSuper(savedInstanceState);
+        mDelegate.onCreate_afterSuper(savedInstanceState,
+                TiPresenterWarmUp.getWarmUpId(getArguments()));
     }
 
     @CallSuper
@@ -199,7 +200,10 @@ public abstract class TiFragment<P extends TiPresenter<V>, V extends TiView> ext
     }
 
     /**
-     * is {@code null} before {@link #onCreate(Bundle)}
+     * Is {@code null} before {@link #onCreate(Bundle)}. <b>Also {@code null} after {@code onCreate}
+     * while the presenter is created in the background</b> ({@link
+     * #providePresenterCreationExecutor()}) or a warmed up presenter is still being created, see
+     * {@link #onPresenterReady()}.
      */
     @Override
     public final P getPresenter() {
@@ -240,6 +244,31 @@ public abstract class TiFragment<P extends TiPresenter<V>, V extends TiView> ext
         return isRemoving();
     }
 
+    /**
+     * Called on the main thread once {@link #getPresenter()} returns the presenter, before the view
+     * gets bound. Usually from {@link #onCreate(Bundle)}, later when the presenter is created in
+     * the background ({@link #providePresenterCreationExecutor()}) or a warmed up presenter is
+     * still being created ({@link TiPresenterWarmUp}).
+     */
+    @Override
+    public void onPresenterReady() {
+
+    }
+
+    /**
+     * Override to create the presenter in the background. {@link #providePresenter()} and {@link
+     * TiPresenter#onCreate()} are called on the returned executor and the view is bound once the
+     * presenter is created. {@link #getPresenter()} returns {@code null} until then, see {@link
+     * #onPresenterReady()}.
+     *
+     * @return {@code null} to create the presenter synchronously in {@link #onCreate(Bundle)}
+     */
+    @Nullable
+    @Override
+    public Executor providePresenterCreationExecutor() {
+        return null;
+    }
+
     /**
      * the default implementation assumes that the fragment is the view and implements the {@link
      * TiView} interface. Override this method for a different behaviour.
@@ -250,8 +279,7 @@ public abstract class TiFragment<P extends TiPresenter<V>, V extends TiView> ext
     @NonNull
     public V provideView() {
 
-        final Class<?> foundViewInterface = AnnotationUtil
-                .getInterfaceOfClassExtendingGivenInterface(getClass(), TiView.class);
+        final Class<?> foundViewInterface = ViewClassInfo.of(getClass()).getViewInterface();
 
         if (foundViewInterface == null) {
             throw new IllegalArgumentException(
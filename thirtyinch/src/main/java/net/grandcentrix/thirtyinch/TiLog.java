@@ -40,6 +40,31 @@ public class TiLog {
         void log(final int level, final String tag, final String msg);
     }
 
+    /**
+     * A {@link Logger} which knows which levels it logs. Callers check {@link #isLoggable(int)}
+     * before they build expensive log messages which would be dropped anyway.
+     */
+    public interface LevelAwareLogger extends Logger {
+
+        /**
+         * @param level one of {@link Log#VERBOSE}, {@link Log#DEBUG},{@link Log#INFO},
+         *              {@link Log#WARN},{@link Log#ERROR}
+         * @return {@code true} when messages of this level are logged
+         */
+        boolean isLoggable(final int level);
+    }
+
+    /**
+     * Builds a log message only when it is actually logged
+     */
+    public interface MessageSupplier {
+
+        /**
+         * @return the log message
+         */
+        String get();
+    }
+
     private static final String TAG = "ThirtyInch";
 
     /**
@@ -57,7 +82,12 @@ public class TiLog {
     /**
      * no-op version, doesn't log
      */
-    public static Logger NOOP = new Logger() {
+    public static Logger NOOP = new LevelAwareLogger() {
+        @Override
+        public boolean isLoggable(final int level) {
+            return false;
+        }
+
         @Override
         public void log(final int level, final String tag, final String msg) {
             // no-op
@@ -69,7 +99,12 @@ public class TiLog {
     /**
      * forward log to {@link TiLog} for logging
      */
-    public static Logger TI_LOG = new Logger() {
+    public static Logger TI_LOG = new LevelAwareLogger() {
+        @Override
+        public boolean isLoggable(final int level) {
+            return TiLog.isLoggable(level);
+        }
+
         @Override
         public void log(final int level, final String tag, final String msg) {
             TiLog.log(level, tag, msg);
@@ -82,24 +117,135 @@ public class TiLog {
         }
     }
 
+    /**
+     * Logs {@code String.format(format, arg1)}, formats only when {@link Log#DEBUG} is loggable
+     */
+    public static void d(final String tag, final String format, final Object arg1) {
+        final Logger logger = TiLog.logger;
+        if (isLoggable(logger, Log.DEBUG)) {
+            logger.log(Log.DEBUG, tag, format(format, arg1, null));
+        }
+    }
+
+    /**
+     * Logs {@code String.format(format, arg1, arg2)}, formats only when {@link Log#DEBUG} is
+     * loggable
+     */
+    public static void d(final String tag, final String format, final Object arg1,
+            final Object arg2) {
+        final Logger logger = TiLog.logger;
+        if (isLoggable(logger, Log.DEBUG)) {
+            logger.log(Log.DEBUG, tag, format(format, arg1, arg2));
+        }
+    }
+
+    /**
+     * Logs the message of the supplier, calls it only when {@link Log#DEBUG} is loggable
+     */
+    public static void d(final String tag, final MessageSupplier supplier) {
+        log(Log.DEBUG, tag, supplier);
+    }
+
     public static void e(final String tag, final String msg) {
         if (logger != null) {
             logger.log(Log.ERROR, tag, msg);
         }
     }
 
+    /**
+     * Logs {@code String.format(format, arg1)}, formats only when {@link Log#ERROR} is loggable
+     */
+    public static void e(final String tag, final String format, final Object arg1) {
+        final Logger logger = TiLog.logger;
+        if (isLoggable(logger, Log.ERROR)) {
+            logger.log(Log.ERROR, tag, format(format, arg1, null));
+        }
+    }
+
+    /**
+     * Logs {@code String.format(format, arg1, arg2)}, formats only when {@link Log#ERROR} is
+     * loggable
+     */
+    public static void e(final String tag, final String format, final Object arg1,
+            final Object arg2) {
+        final Logger logger = TiLog.logger;
+        if (isLoggable(logger, Log.ERROR)) {
+            logger.log(Log.ERROR, tag, format(format, arg1, arg2));
+        }
+    }
+
+    /**
+     * Logs the message of the supplier, calls it only when {@link Log#ERROR} is loggable
+     */
+    public static void e(final String tag, final MessageSupplier supplier) {
+        log(Log.ERROR, tag, supplier);
+    }
+
     public static void i(final String tag, final String msg) {
         if (logger != null) {
             logger.log(Log.INFO, tag, msg);
         }
     }
 
+    /**
+     * Logs {@code String.format(format, arg1)}, formats only when {@link Log#INFO} is loggable
+     */
+    public static void i(final String tag, final String format, final Object arg1) {
+        final Logger logger = TiLog.logger;
+        if (isLoggable(logger, Log.INFO)) {
+            logger.log(Log.INFO, tag, format(format, arg1, null));
+        }
+    }
+
+    /**
+     * Logs {@code String.format(format, arg1, arg2)}, formats only when {@link Log#INFO} is
+     * loggable
+     */
+    public static void i(final String tag, final String format, final Object arg1,
+            final Object arg2) {
+        final Logger logger = TiLog.logger;
+        if (isLoggable(logger, Log.INFO)) {
+            logger.log(Log.INFO, tag, format(format, arg1, arg2));
+        }
+    }
+
+    /**
+     * Logs the message of the supplier, calls it only when {@link Log#INFO} is loggable
+     */
+    public static void i(final String tag, final MessageSupplier supplier) {
+        log(Log.INFO, tag, supplier);
+    }
+
+    /**
+     * @return {@code true} when a logger is set which logs messages of the given level
+     * @see LevelAwareLogger
+     */
+    public static boolean isLoggable(final int level) {
+        return isLoggable(TiLog.logger, level);
+    }
+
     public static void log(final int level, final String tag, final String msg) {
         if (logger != null) {
             logger.log(level, tag, msg);
         }
     }
 
+    /**
+     * Logs the message of the supplier, calls it only when the level is loggable. A
+     * {@link TiAsyncLogger} calls the supplier on its background thread.
+     */
+    public static void log(final int level, final String tag, final MessageSupplier supplier) {
+        final Logger logger = TiLog.logger;
+        if (!isLoggable(logger, level)) {
+            return;
+        }
+        if (logger instanceof TiAsyncLogger) {
+            ((TiAsyncLogger) logger).log(level, tag, supplier);
+        } else {
+            logger.log(level, tag, supplier.get());
+        }
+    }
+
     /**
      * set a custom logger, {@code null} to disable logging
      * <p>
@@ -138,12 +284,106 @@ public class TiLog {
         }
     }
 
+    /**
+     * Logs {@code String.format(format, arg1)}, formats only when {@link Log#VERBOSE} is loggable
+     */
+    public static void v(final String tag, final String format, final Object arg1) {
+        final Logger logger = TiLog.logger;
+        if (isLoggable(logger, Log.VERBOSE)) {
+            logger.log(Log.VERBOSE, tag, format(format, arg1, null));
+        }
+    }
+
+    /**
+     * Logs {@code String.format(format, arg1, arg2)}, formats only when {@link Log#VERBOSE} is
+     * loggable
+     */
+    public static void v(final String tag, final String format, final Object arg1,
+            final Object arg2) {
+        final Logger logger = TiLog.logger;
+        if (isLoggable(logger, Log.VERBOSE)) {
+            logger.log(Log.VERBOSE, tag, format(format, arg1, arg2));
+        }
+    }
+
+    /**
+     * Logs the message of the supplier, calls it only when {@link Log#VERBOSE} is loggable
+     */
+    public static void v(final String tag, final MessageSupplier supplier) {
+        log(Log.VERBOSE, tag, supplier);
+    }
+
     public static void w(final String tag, final String msg) {
         if (logger != null) {
             logger.log(Log.WARN, tag, msg);
         }
     }
 
+    /**
+     * Logs {@code String.format(format, arg1)}, formats only when {@link Log#WARN} is loggable
+     */
+    public static void w(final String tag, final String format, final Object arg1) {
+        final Logger logger = TiLog.logger;
+        if (isLoggable(logger, Log.WARN)) {
+            logger.log(Log.WARN, tag, format(format, arg1, null));
+        }
+    }
+
+    /**
+     * Logs {@code String.format(format, arg1, arg2)}, formats only when {@link Log#WARN} is
+     * loggable
+     */
+    public static void w(final String tag, final String format, final Object arg1,
+            final Object arg2) {
+        final Logger logger = TiLog.logger;
+        if (isLoggable(logger, Log.WARN)) {
+            logger.log(Log.WARN, tag, format(format, arg1, arg2));
+        }
+    }
+
+    /**
+     * Logs the message of the supplier, calls it only when {@link Log#WARN} is loggable
+     */
+    public static void w(final String tag, final MessageSupplier supplier) {
+        log(Log.WARN, tag, supplier);
+    }
+
+    /**
+     * Fast path of {@link String#format(String, Object...)} for messages which only contain
+     * {@code %s} placeholders
+     */
+    static String format(final String format, final Object arg1, final Object arg2) {
+        final StringBuilder sb = new StringBuilder(format.length() + 32);
+        int argIndex = 0;
+        int start = 0;
+        int percent;
+        while ((percent = format.indexOf('%', start)) >= 0) {
+            sb.append(format, start, percent);
+            final char conversion = percent + 1 < format.length() ? format.charAt(percent + 1) : 0;
+            if (conversion == 's' && argIndex < 2) {
+                sb.append(argIndex++ == 0 ? arg1 : arg2);
+            } else if (conversion == '%') {
+                sb.append('%');
+            } else {
+                // flags, width, other conversions
+                return String.format(format, arg1, arg2);
+            }
+            start = percent + 2;
+        }
+        sb.append(format, start, format.length());
+        return sb.toString();
+    }
+
+    private static boolean isLoggable(@Nullable final Logger logger, final int level) {
+        if (logger == null) {
+            return false;
+        }
+        if (logger instanceof LevelAwareLogger) {
+            return ((LevelAwareLogger) logger).isLoggable(level);
+        }
+        return true;
+    }
+
     private TiLog() {
         throw new AssertionError("no instances");
     }
@@ -26,13 +26,20 @@ import androidx.annotation.RestrictTo;
 import androidx.annotation.VisibleForTesting;
 import androidx.fragment.app.Fragment;
 import android.widget.Toast;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import net.grandcentrix.thirtyinch.internal.OneTimeRemovable;
 import net.grandcentrix.thirtyinch.test.TiTestPresenter;
+import net.grandcentrix.thirtyinch.tracing.TiTracer;
+import net.grandcentrix.thirtyinch.tracing.TiTracing;
+import net.grandcentrix.thirtyinch.tracing.TimedViewAction;
+import net.grandcentrix.thirtyinch.tracing.ViewActionMetrics;
+import net.grandcentrix.thirtyinch.viewactionqueue.ViewActionQueue;
 
 /**
  * Represents the Presenter of the popular Model-View-Presenter design pattern. If used with {@link
@@ -68,13 +75,60 @@ public abstract class TiPresenter<V extends TiView> {
         DESTROYED
     }
 
+    /**
+     * Action sent with {@link #sendToView(Object, ViewAction)}, only executed when no newer action
+     * with the same key was sent in the meantime
+     */
+    private final class KeyedViewAction implements ViewAction<V> {
+
+        private final ViewAction<V> mAction;
+
+        private final Object mKey;
+
+        KeyedViewAction(@NonNull final Object key, @NonNull final ViewAction<V> action) {
+            mKey = key;
+            mAction = action;
+        }
+
+        @Override
+        public void call(final V view) {
+            if (mLatestKeyedViewActions.remove(mKey, this)) {
+                mAction.call(view);
+            } else {
+                TiLog.v(TAG, "dropping outdated action for key %s", mKey);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "KeyedViewAction{key=" + mKey + ", action=" + mAction + "}";
+        }
+
+        /**
+         * forgets this action after it was dropped by the {@link #mPostponedViewActions} queue
+         * without being executed
+         */
+        void discard() {
+            mLatestKeyedViewActions.remove(mKey, this);
+        }
+    }
+
+    private static final TiLifecycleObserver[] NO_OBSERVERS = new TiLifecycleObserver[0];
+
     private static TiConfiguration sDefaultConfig = TiConfiguration.DEFAULT;
 
     /**
-     * list of the added observers
+     * the added observers. Copy on write, the array is never modified but replaced when observers
+     * are added or removed. Dispatching a lifecycle event iterates over the current array without
+     * copying it.
      */
     @VisibleForTesting
-    final List<TiLifecycleObserver> mLifecycleObservers = new ArrayList<>();
+    volatile TiLifecycleObserver[] mLifecycleObservers = NO_OBSERVERS;
+
+    /**
+     * guards modifications of {@link #mLifecycleObservers}
+     */
+    private final Object mLifecycleObserversLock = new Object();
 
     private final String TAG = this.getClass().getSimpleName()
             + ":" + TiPresenter.class.getSimpleName()
@@ -87,11 +141,52 @@ public abstract class TiPresenter<V extends TiView> {
      */
     private boolean mCalled = true;
 
+    /**
+     * number of actions which were added to {@link #mPendingViewActions} while a drain task was
+     * already scheduled and therefore didn't cause a separate post to the UI thread
+     */
+    private final AtomicLong mCoalescedViewActionCount = new AtomicLong();
+
     private final TiConfiguration mConfig;
 
-    private LinkedBlockingQueue<ViewAction<V>> mPostponedViewActions = new LinkedBlockingQueue<>();
+    /**
+     * the latest not yet executed action for each key sent with {@link #sendToView(Object,
+     * ViewAction)}
+     */
+    @VisibleForTesting
+    final ConcurrentHashMap<Object, KeyedViewAction> mLatestKeyedViewActions =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Executes all {@link #mPendingViewActions} on the UI thread
+     */
+    private final Runnable mDrainPendingViewActions = new Runnable() {
+        @Override
+        public void run() {
+            drainPendingViewActions();
+        }
+    };
 
-    private State mState = State.INITIALIZED;
+    /**
+     * {@code true} while a task executing the {@link #mPendingViewActions} is posted but didn't
+     * start yet
+     */
+    private final AtomicBoolean mDrainScheduled = new AtomicBoolean(false);
+
+    /**
+     * actions sent while the view is attached waiting for the next drain task when {@link
+     * TiConfiguration#isSendToViewBatchingEnabled()}
+     */
+    private final ConcurrentLinkedQueue<ViewAction<V>> mPendingViewActions =
+            new ConcurrentLinkedQueue<>();
+
+    private final ViewActionQueue<V> mPostponedViewActions;
+
+    /**
+     * volatile, {@link #create()} may run on a background thread before the presenter is handed
+     * to the UI thread, see {@link net.grandcentrix.thirtyinch.internal.AsyncTiPresenterProvider}
+     */
+    private volatile State mState = State.INITIALIZED;
 
     /**
      * Executor for UI operations, must be set by the view implementation
@@ -101,6 +196,18 @@ public abstract class TiPresenter<V extends TiView> {
 
     private V mView;
 
+    /**
+     * measurements of the sent actions, {@code null} unless {@link
+     * TiConfiguration#isViewActionMetricsEnabled()}
+     */
+    @Nullable
+    private final ViewActionMetrics mViewActionMetrics;
+
+    /**
+     * number of executed drain tasks, see {@link TiConfiguration#isSendToViewBatchingEnabled()}
+     */
+    private final AtomicLong mViewActionBatchCount = new AtomicLong();
+
     public static void setDefaultConfig(final TiConfiguration config) {
         sDefaultConfig = config;
     }
@@ -116,6 +223,17 @@ public abstract class TiPresenter<V extends TiView> {
      */
     public TiPresenter(final TiConfiguration config) {
         mConfig = config;
+        mPostponedViewActions = config.getPostponedViewActionQueueFactory().create();
+        mPostponedViewActions.setOnDropListener(new ViewActionQueue.OnDropListener<V>() {
+            @Override
+            public void onDropped(@NonNull final ViewAction<V> action) {
+                final ViewAction<V> sentAction = TimedViewAction.unwrap(action);
+                if (sentAction instanceof TiPresenter.KeyedViewAction) {
+                    ((KeyedViewAction) sentAction).discard();
+                }
+            }
+        });
+        mViewActionMetrics = config.isViewActionMetricsEnabled() ? new ViewActionMetrics() : null;
     }
 
     /**
@@ -136,13 +254,19 @@ public abstract class TiPresenter<V extends TiView> {
                     + "They wont get any new events anyways.");
         }
 
-        mLifecycleObservers.add(observer);
+        synchronized (mLifecycleObserversLock) {
+            final TiLifecycleObserver[] observers = mLifecycleObservers;
+            final TiLifecycleObserver[] newObservers =
+                    Arrays.copyOf(observers, observers.length + 1);
+            newObservers[observers.length] = observer;
+            mLifecycleObservers = newObservers;
+        }
 
         return new OneTimeRemovable() {
 
             @Override
             public void onRemove() {
-                mLifecycleObservers.remove(observer);
+                removeLifecycleObserver(observer);
             }
         };
     }
@@ -181,16 +305,21 @@ public abstract class TiPresenter<V extends TiView> {
             throw new IllegalStateException("Presenter is not created, call #create() first");
         }
 
-        mView = view;
-        moveToState(State.VIEW_ATTACHED, false);
-        mCalled = false;
-        TiLog.v(TAG, "onAttachView(TiView)");
-        onAttachView(view);
-        if (!mCalled) {
-            throw new SuperNotCalledException("Presenter " + this
-                    + " did not call through to super.onAttachView(TiView)");
+        final TiTracer tracer = beginSection(TiTracer.Section.ATTACH_VIEW);
+        try {
+            mView = view;
+            moveToState(State.VIEW_ATTACHED, false);
+            mCalled = false;
+            TiLog.v(TAG, "onAttachView(TiView)");
+            onAttachView(view);
+            if (!mCalled) {
+                throw new SuperNotCalledException("Presenter " + this
+                        + " did not call through to super.onAttachView(TiView)");
+            }
+            moveToState(State.VIEW_ATTACHED, true);
+        } finally {
+            endSection(tracer, TiTracer.Section.ATTACH_VIEW);
         }
-        moveToState(State.VIEW_ATTACHED, true);
 
         sendPostponedActionsToView(view);
     }
@@ -207,15 +336,20 @@ public abstract class TiPresenter<V extends TiView> {
             TiLog.w(TAG, "not calling onCreate(), it was already called");
             return;
         }
-        moveToState(State.VIEW_DETACHED, false);
-        mCalled = false;
-        TiLog.v(TAG, "onCreate()");
-        onCreate();
-        if (!mCalled) {
-            throw new SuperNotCalledException("Presenter " + this
-                    + " did not call through to super.onCreate()");
+        final TiTracer tracer = beginSection(TiTracer.Section.CREATE);
+        try {
+            moveToState(State.VIEW_DETACHED, false);
+            mCalled = false;
+            TiLog.v(TAG, "onCreate()");
+            onCreate();
+            if (!mCalled) {
+                throw new SuperNotCalledException("Presenter " + this
+                        + " did not call through to super.onCreate()");
+            }
+            moveToState(State.VIEW_DETACHED, true);
+        } finally {
+            endSection(tracer, TiTracer.Section.CREATE);
         }
-        moveToState(State.VIEW_DETACHED, true);
     }
 
     /**
@@ -236,18 +370,25 @@ public abstract class TiPresenter<V extends TiView> {
             return;
         }
 
-        moveToState(State.DESTROYED, false);
-        mCalled = false;
-        TiLog.v(TAG, "onDestroy()");
-        onDestroy();
-        if (!mCalled) {
-            throw new SuperNotCalledException("Presenter " + this
-                    + " did not call through to super.onDestroy()");
+        final TiTracer tracer = beginSection(TiTracer.Section.DESTROY);
+        try {
+            moveToState(State.DESTROYED, false);
+            mCalled = false;
+            TiLog.v(TAG, "onDestroy()");
+            onDestroy();
+            if (!mCalled) {
+                throw new SuperNotCalledException("Presenter " + this
+                        + " did not call through to super.onDestroy()");
+            }
+            moveToState(State.DESTROYED, true);
+        } finally {
+            endSection(tracer, TiTracer.Section.DESTROY);
         }
-        moveToState(State.DESTROYED, true);
 
         // release everything, no new states will be posted
-        mLifecycleObservers.clear();
+        synchronized (mLifecycleObserversLock) {
+            mLifecycleObservers = NO_OBSERVERS;
+        }
     }
 
     /**
@@ -261,17 +402,28 @@ public abstract class TiPresenter<V extends TiView> {
             TiLog.v(TAG, "not calling onDetachView(), not woken up");
             return;
         }
-        moveToState(State.VIEW_DETACHED, false);
-        mCalled = false;
-        TiLog.v(TAG, "onDetachView()");
-        onDetachView();
-        if (!mCalled) {
-            throw new SuperNotCalledException("Presenter " + this
-                    + " did not call through to super.onDetachView()");
+        final TiTracer tracer = beginSection(TiTracer.Section.DETACH_VIEW);
+        try {
+            moveToState(State.VIEW_DETACHED, false);
+            mCalled = false;
+            TiLog.v(TAG, "onDetachView()");
+            onDetachView();
+            if (!mCalled) {
+                throw new SuperNotCalledException("Presenter " + this
+                        + " did not call through to super.onDetachView()");
+            }
+
+            moveToState(State.VIEW_DETACHED, true);
+            mView = null;
+        } finally {
+            endSection(tracer, TiTracer.Section.DETACH_VIEW);
         }
 
-        moveToState(State.VIEW_DETACHED, true);
-        mView = null;
+        // keep the order, batched actions which didn't run yet are sent to the next view first
+        ViewAction<V> action;
+        while ((action = mPendingViewActions.poll()) != null) {
+            postpone(action);
+        }
     }
 
     /**
@@ -282,6 +434,17 @@ public abstract class TiPresenter<V extends TiView> {
         return mConfig;
     }
 
+    /**
+     * Number of actions sent with {@link #sendToView(ViewAction)} which have been added to an
+     * already posted batch instead of causing a separate post to the UI thread.
+     *
+     * @return the count since the creation of this presenter, always {@code 0} when {@link
+     * TiConfiguration#isSendToViewBatchingEnabled()} is disabled
+     */
+    public long getCoalescedViewActionCount() {
+        return mCoalescedViewActionCount.get();
+    }
+
     /**
      * @return the current lifecycle state
      */
@@ -305,6 +468,26 @@ public abstract class TiPresenter<V extends TiView> {
         return mView;
     }
 
+    /**
+     * Number of tasks posted to the UI thread executing a batch of actions sent with {@link
+     * #sendToView(ViewAction)}.
+     *
+     * @return the count since the creation of this presenter, always {@code 0} when {@link
+     * TiConfiguration#isSendToViewBatchingEnabled()} is disabled
+     */
+    public long getViewActionBatchCount() {
+        return mViewActionBatchCount.get();
+    }
+
+    /**
+     * @return the measurements of the actions sent with {@link #sendToView(ViewAction)} or {@code
+     * null} when {@link TiConfiguration.Builder#setViewActionMetricsEnabled(boolean)} is disabled
+     */
+    @Nullable
+    public ViewActionMetrics getViewActionMetrics() {
+        return mViewActionMetrics;
+    }
+
     /**
      * Gets the currently attached view or throws an {@link IllegalStateException} if the view
      * is not attached. Use this method if you are sure that a view is currently attached to the
@@ -379,20 +562,82 @@ public abstract class TiPresenter<V extends TiView> {
      * for ideas.
      *
      * @see #sendPostponedActionsToView
+     * @see #sendToView(Object, ViewAction)
      * @see #onAttachView(TiView)
      */
     @RestrictTo(SUBCLASSES)
     public void sendToView(final ViewAction<V> action) {
+        final ViewAction<V> sentAction = mViewActionMetrics == null
+                ? action : new TimedViewAction<>(action, System.nanoTime());
         final V view = getView();
-        if (view != null) {
+        if (view != null && mConfig.isSendToViewBatchingEnabled()) {
+            mPendingViewActions.add(sentAction);
+            if (mDrainScheduled.compareAndSet(false, true)) {
+                try {
+                    runOnUiThread(mDrainPendingViewActions);
+                } catch (RuntimeException e) {
+                    mPendingViewActions.remove(sentAction);
+                    mDrainScheduled.set(false);
+                    throw e;
+                }
+            } else {
+                // the already scheduled drain task will execute this action
+                mCoalescedViewActionCount.incrementAndGet();
+            }
+        } else if (view != null) {
             runOnUiThread(new Runnable() {
                 @Override
                 public void run() {
-                    action.call(view);
+                    execute(sentAction, view, false);
                 }
             });
         } else {
-            mPostponedViewActions.add(action);
+            postpone(sentAction);
+        }
+    }
+
+    /**
+     * Executes the {@link ViewAction} when the view is available on the UI thread, like {@link
+     * #sendToView(ViewAction)}. Unlike {@link #sendToView(ViewAction)} only the latest action
+     * sent with an equal {@code key} will be executed:
+     * <ul>
+     * <li>While the view is detached only the latest action per key is kept and executed when
+     * the view attaches</li>
+     * <li>While the view is attached an action which didn't run yet (i.e. posted from a
+     * background thread) is dropped when a newer action with the same key is sent</li>
+     * </ul>
+     * This avoids replaying every intermediate state, like loading progress, after the view
+     * attaches again.
+     * <code>
+     * <pre>
+     * sendToView("progress", new ViewAction&lt;DownloadView&gt;() {
+     *     &#64;Override
+     *     public void call(final DownloadView view) {
+     *         view.showProgress(progress);
+     *     }
+     * });
+     * </pre>
+     * </code>
+     *
+     * @param key    identifies actions which replace each other, compared with {@link
+     *               Object#equals(Object)}
+     * @param action the action to execute
+     * @see #sendToView(ViewAction)
+     */
+    @RestrictTo(SUBCLASSES)
+    public void sendToView(@NonNull final Object key, final ViewAction<V> action) {
+        //noinspection ConstantConditions
+        if (key == null) {
+            throw new IllegalArgumentException("key can't be null");
+        }
+        final KeyedViewAction keyedAction = new KeyedViewAction(key, action);
+        mLatestKeyedViewActions.put(key, keyedAction);
+        if (getView() != null) {
+            sendToView(keyedAction);
+        } else if (mViewActionMetrics != null) {
+            mPostponedViewActions.offer(key, new TimedViewAction<>(keyedAction, System.nanoTime()));
+        } else {
+            mPostponedViewActions.offer(key, keyedAction);
         }
     }
 
@@ -474,9 +719,11 @@ public abstract class TiPresenter<V extends TiView> {
     }
 
     /**
-     * Gives access to the postponed actions while the view is not attached.
+     * Gives access to the postponed actions while the view is not attached. Actions are wrapped
+     * in a {@link TimedViewAction} when {@link TiConfiguration#isViewActionMetricsEnabled()}.
      *
      * @return the queued actions
+     * @see TiConfiguration.Builder#setPostponedViewActionQueue(ViewActionQueue.Factory)
      */
     protected Queue<ViewAction<V>> getQueuedViewActions() {
         return mPostponedViewActions;
@@ -539,6 +786,26 @@ public abstract class TiPresenter<V extends TiView> {
         mCalled = true;
     }
 
+    /**
+     * begins the section when a {@link TiTracer} is installed
+     *
+     * @return the tracer which has to end the section
+     */
+    @Nullable
+    private TiTracer beginSection(final TiTracer.Section section) {
+        final TiTracer tracer = TiTracing.getTracer();
+        if (tracer != null) {
+            tracer.beginSection(section, this);
+        }
+        return tracer;
+    }
+
+    private void endSection(@Nullable final TiTracer tracer, final TiTracer.Section section) {
+        if (tracer != null) {
+            tracer.endSection(section, this);
+        }
+    }
+
     /**
      * moves the presenter to the new state and validates the correctness of the transition
      *
@@ -591,36 +858,132 @@ public abstract class TiPresenter<V extends TiView> {
             mState = newState;
         }
 
-        if (mLifecycleObservers.size() > 0) {
-            // make a local copy to call all observers,
-            // even observers which will been removed by other observers which received this event
-            final List<TiLifecycleObserver> observers = new ArrayList<>(mLifecycleObservers);
+        // the array is never modified. All observers are called, even observers which will be
+        // removed by other observers which received this event
+        final TiLifecycleObserver[] observers = mLifecycleObservers;
+        if (observers.length > 0) {
             switch (newState) {
                 case INITIALIZED:
                 case VIEW_ATTACHED:
-                    for (int i = 0; i < observers.size(); i++) {
-                        observers.get(i).onChange(newState, hasLifecycleMethodBeenCalled);
+                    for (int i = 0; i < observers.length; i++) {
+                        observers[i].onChange(newState, hasLifecycleMethodBeenCalled);
                     }
                     break;
 
                 case VIEW_DETACHED:
                 case DESTROYED:
                     // reverse observer order for teardown events; first in, last out
-                    for (int i = observers.size() - 1; i >= 0; i--) {
-                        observers.get(i).onChange(newState, hasLifecycleMethodBeenCalled);
+                    for (int i = observers.length - 1; i >= 0; i--) {
+                        observers[i].onChange(newState, hasLifecycleMethodBeenCalled);
                     }
             }
         }
     }
 
+    /**
+     * Adds the action to the {@link #mPostponedViewActions}. Actions sent with {@link
+     * #sendToView(Object, ViewAction)} are offered with their key, they replace only the queued
+     * action with the same key.
+     */
+    private void postpone(@NonNull final ViewAction<V> action) {
+        final ViewAction<V> sentAction = TimedViewAction.unwrap(action);
+        if (sentAction instanceof TiPresenter.KeyedViewAction) {
+            final KeyedViewAction keyedAction = (KeyedViewAction) sentAction;
+            if (mLatestKeyedViewActions.get(keyedAction.mKey) != keyedAction) {
+                // outdated, a newer action with the same key must not be replaced
+                return;
+            }
+            mPostponedViewActions.offer(keyedAction.mKey, action);
+        } else {
+            mPostponedViewActions.add(action);
+        }
+    }
+
+    /**
+     * removes the first occurrence of the observer by replacing {@link #mLifecycleObservers}
+     */
+    private void removeLifecycleObserver(final TiLifecycleObserver observer) {
+        synchronized (mLifecycleObserversLock) {
+            final TiLifecycleObserver[] observers = mLifecycleObservers;
+            for (int i = 0; i < observers.length; i++) {
+                if (observers[i].equals(observer)) {
+                    final TiLifecycleObserver[] newObservers =
+                            new TiLifecycleObserver[observers.length - 1];
+                    System.arraycopy(observers, 0, newObservers, 0, i);
+                    System.arraycopy(observers, i + 1, newObservers, i,
+                            observers.length - i - 1);
+                    mLifecycleObservers = newObservers;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes all actions sent while the view is attached since the last drain. Runs on the UI
+     * thread. When the view got detached in the meantime the actions are postponed until the next
+     * view attaches.
+     */
+    private void drainPendingViewActions() {
+        // reset first, actions sent from now on schedule a new drain task
+        mDrainScheduled.set(false);
+        mViewActionBatchCount.incrementAndGet();
+        // only execute the current batch, actions sent by those actions run in the next task
+        final int count = mPendingViewActions.size();
+        for (int i = 0; i < count; i++) {
+            final ViewAction<V> action = mPendingViewActions.poll();
+            if (action == null) {
+                break;
+            }
+            final V view = getView();
+            if (view != null) {
+                execute(action, view, false);
+            } else {
+                postpone(action);
+            }
+        }
+    }
+
+    /**
+     * Calls the action and records its latency and duration when {@link #mViewActionMetrics} are
+     * enabled
+     */
+    private void execute(@NonNull final ViewAction<V> action, @NonNull final V view,
+            final boolean replayed) {
+        final ViewActionMetrics metrics = mViewActionMetrics;
+        if (metrics == null || !(action instanceof TimedViewAction)) {
+            action.call(view);
+            return;
+        }
+        final long start = System.nanoTime();
+        action.call(view);
+        final long duration = System.nanoTime() - start;
+        final TimedViewAction<V> timedAction = (TimedViewAction<V>) action;
+        metrics.recordExecution(timedAction.getAction(), start - timedAction.getSentNanos(),
+                duration, replayed);
+    }
+
     /**
      * Executes all postponed view actions
      *
      * @param view where the actions will be sent to
      */
     private void sendPostponedActionsToView(@NonNull final V view) {
+        if (mViewActionMetrics == null) {
+            while (!mPostponedViewActions.isEmpty()) {
+                mPostponedViewActions.poll().call(view);
+            }
+            return;
+        }
+
+        final long start = System.nanoTime();
+        int count = 0;
         while (!mPostponedViewActions.isEmpty()) {
-            mPostponedViewActions.poll().call(view);
+            execute(mPostponedViewActions.poll(), view, true);
+            count++;
+        }
+        if (count > 0) {
+            mViewActionMetrics.recordReplay(count, System.nanoTime() - start);
         }
     }
 }
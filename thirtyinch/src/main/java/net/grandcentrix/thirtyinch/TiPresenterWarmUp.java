@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch;
+
+import android.content.Intent;
+import android.os.Bundle;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.concurrent.Executor;
+import net.grandcentrix.thirtyinch.internal.PresenterSavior;
+import net.grandcentrix.thirtyinch.internal.TiPresenterProvider;
+
+/**
+ * Creates presenters with expensive {@link TiPresenter#onCreate()} work on a background thread
+ * before navigating to the {@link TiActivity} or {@link TiFragment} using them. This takes the
+ * presenter creation off the main thread and the critical path of starting the screen.
+ * <p>
+ * The id of the warmed up presenter is passed with the {@link Intent} of the Activity or the
+ * arguments of the Fragment. When the Activity or Fragment is created it uses the warmed up
+ * presenter instead of calling {@link TiPresenterProvider#providePresenter()}. When the executor
+ * didn't start the creation yet, the Activity or Fragment creates the presenter itself.
+ * <p>
+ * A presenter which is still being created blocks the main thread in {@code onCreate} for at
+ * most {@link #CLAIM_TIMEOUT_MILLIS}. Afterwards the Activity or Fragment keeps waiting for it
+ * without blocking and binds the view once it is created, {@code getPresenter()} returns
+ * {@code null} until then. Activities and Fragments which create their presenter in the background
+ * ({@code providePresenterCreationExecutor()}) never block the main thread.
+ * <p>
+ * Example:
+ * <code>
+ * <pre>
+ * final Intent intent = new Intent(context, DetailActivity.class);
+ * TiPresenterWarmUp.warmUp(intent, executor, new TiPresenterProvider&lt;DetailPresenter&gt;() {
+ *     &#064;NonNull
+ *     &#064;Override
+ *     public DetailPresenter providePresenter() {
+ *         return new DetailPresenter(repository);
+ *     }
+ * });
+ * startActivity(intent);
+ * </pre>
+ * </code>
+ * <p>
+ * A warmed up presenter which will never be used must be {@link #discard(String) discarded}.
+ */
+public final class TiPresenterWarmUp {
+
+    /**
+     * Max time the main thread waits for a warmed up presenter which is still being created
+     */
+    public static final long CLAIM_TIMEOUT_MILLIS = 100;
+
+    /**
+     * Key of the warm up id in the {@link Intent} extras of an Activity or the arguments of a
+     * Fragment
+     */
+    public static final String EXTRA_WARM_UP_ID = "net.grandcentrix.thirtyinch.WARM_UP_ID";
+
+    /**
+     * Destroys a warmed up presenter which will never be used or prevents its creation
+     *
+     * @param warmUpId the id returned by {@code warmUp}
+     */
+    public static void discard(@NonNull final String warmUpId) {
+        PresenterSavior.getInstance().discard(warmUpId);
+    }
+
+    /**
+     * @param extras the {@link Intent} extras of an Activity or the arguments of a Fragment
+     * @return the id of a warmed up presenter or {@code null}
+     */
+    @Nullable
+    public static String getWarmUpId(@Nullable final Bundle extras) {
+        return extras == null ? null : extras.getString(EXTRA_WARM_UP_ID);
+    }
+
+    /**
+     * Creates a presenter on the {@code executor}
+     *
+     * @return the id of the presenter, put it into the {@link Intent} extras or Fragment arguments
+     * with the key {@link #EXTRA_WARM_UP_ID}
+     */
+    @NonNull
+    public static String warmUp(@NonNull final Executor executor,
+            @NonNull final TiPresenterProvider<?> provider) {
+        return PresenterSavior.getInstance().warmUp(provider, executor);
+    }
+
+    /**
+     * Creates a presenter on the {@code executor} for the Activity started with {@code intent}
+     *
+     * @return the id of the presenter, already added to the {@code intent}
+     */
+    @NonNull
+    public static String warmUp(@NonNull final Intent intent, @NonNull final Executor executor,
+            @NonNull final TiPresenterProvider<?> provider) {
+        final String warmUpId = warmUp(executor, provider);
+        intent.putExtra(EXTRA_WARM_UP_ID, warmUpId);
+        return warmUpId;
+    }
+
+    /**
+     * Creates a presenter on the {@code executor} for the Fragment created with {@code
+     * arguments}
+     *
+     * @return the id of the presenter, already added to the {@code arguments}
+     */
+    @NonNull
+    public static String warmUp(@NonNull final Bundle arguments, @NonNull final Executor executor,
+            @NonNull final TiPresenterProvider<?> provider) {
+        final String warmUpId = warmUp(executor, provider);
+        arguments.putString(EXTRA_WARM_UP_ID, warmUpId);
+        return warmUpId;
+    }
+
+    private TiPresenterWarmUp() {
+        throw new AssertionError("no instances");
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.callonmainthread;
+
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import net.grandcentrix.thirtyinch.TiView;
+
+/**
+ * Base class of the {@link CallOnMainThread} view delegates generated by the {@code
+ * thirtyinch-compiler} annotation processor. A generated subclass implements the {@link TiView}
+ * interface and posts calls of annotated {@code void} methods to the main thread without
+ * reflection, just like {@link CallOnMainThreadInvocationHandler} does for the
+ * {@link java.lang.reflect.Proxy} based fallback. Every annotated method has an index which
+ * identifies its calls in the {@link FrameAlignedScheduler}.
+ * <p>
+ * A posted call only carries the method index and the arguments, it is sent to the main thread as
+ * pooled message of the {@link MainThreadDispatcher} which calls {@link #dispatch(int, Object[])}
+ * of the generated subclass.
+ *
+ * @param <V> the {@link TiView} interface
+ */
+public abstract class AbstractCallOnMainThreadView<V extends TiView> {
+
+    /**
+     * suffix of the generated class names, i.e. {@code MyView_CallOnMainThread}
+     */
+    public static final String GENERATED_CLASS_SUFFIX = "CallOnMainThread";
+
+    protected final V mView;
+
+    @Nullable
+    private FrameAlignedScheduler mScheduler;
+
+    protected AbstractCallOnMainThreadView(@NonNull final V view) {
+        mView = view;
+    }
+
+    /**
+     * Calls the method with the given index on the view, called on the main thread for calls
+     * posted from a background thread
+     *
+     * @param args the arguments of the call, {@code null} for methods without parameters
+     */
+    protected abstract void dispatch(int methodIndex, @Nullable Object[] args) throws Exception;
+
+    @Override
+    public String toString() {
+        return "MainThreadDelegate@" + Integer.toHexString(this.hashCode()) + "-" + mView
+                .toString();
+    }
+
+    /**
+     * Drops a call of the method which was posted from a background thread but didn't run yet,
+     * called before the method is called directly on the main thread
+     */
+    protected final void cancelPosted(final int methodIndex) {
+        if (mScheduler != null) {
+            mScheduler.cancel(this, methodIndex);
+        }
+    }
+
+    protected final boolean isMainThread() {
+        return Looper.getMainLooper() == Looper.myLooper();
+    }
+
+    /**
+     * Posts the call of the method to the main thread, called from a background thread
+     *
+     * @param args the arguments of the call, {@code null} for methods without parameters
+     */
+    protected final void post(final int methodIndex, @Nullable final Object[] args) {
+        final FrameAlignedScheduler scheduler = mScheduler;
+        if (scheduler != null) {
+            // the scheduler keeps the calls until the next frame, it requires a Runnable
+            scheduler.schedule(this, methodIndex, new Runnable() {
+                @Override
+                public void run() {
+                    runPosted(methodIndex, args);
+                }
+            });
+        } else {
+            MainThreadDispatcher.getInstance().dispatch(this, methodIndex, args);
+        }
+    }
+
+    /**
+     * Runs a posted call on the main thread. Checked exceptions can't be thrown from there, they
+     * are wrapped in a {@link RuntimeException} just like the {@link java.lang.reflect.Proxy}
+     * does.
+     */
+    final void runPosted(final int methodIndex, @Nullable final Object[] args) {
+        try {
+            dispatch(methodIndex, args);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    void setScheduler(@Nullable final FrameAlignedScheduler scheduler) {
+        mScheduler = scheduler;
+    }
+}
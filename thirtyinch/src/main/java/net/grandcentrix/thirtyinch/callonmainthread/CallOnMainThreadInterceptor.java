@@ -15,42 +15,82 @@
 
 package net.grandcentrix.thirtyinch.callonmainthread;
 
-import static net.grandcentrix.thirtyinch.util.AnnotationUtil.getInterfaceOfClassExtendingGivenInterface;
-import static net.grandcentrix.thirtyinch.util.AnnotationUtil.hasObjectMethodWithAnnotation;
-
-import java.lang.reflect.Proxy;
-import net.grandcentrix.thirtyinch.BindViewInterceptor;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import net.grandcentrix.thirtyinch.FusableBindViewInterceptor;
+import net.grandcentrix.thirtyinch.SelectiveBindViewInterceptor;
 import net.grandcentrix.thirtyinch.TiLog;
 import net.grandcentrix.thirtyinch.TiView;
+import net.grandcentrix.thirtyinch.util.GeneratedViewFactory;
+import net.grandcentrix.thirtyinch.util.ViewClassInfo;
+
+public class CallOnMainThreadInterceptor
+        implements FusableBindViewInterceptor, SelectiveBindViewInterceptor {
 
-public class CallOnMainThreadInterceptor implements BindViewInterceptor {
+    private static final GeneratedViewFactory GENERATED_VIEWS = new GeneratedViewFactory(
+            AbstractCallOnMainThreadView.GENERATED_CLASS_SUFFIX);
 
     private static final String TAG = CallOnMainThreadInterceptor.class.getSimpleName();
 
+    @Nullable
+    private final FrameAlignedScheduler mScheduler;
+
+    public CallOnMainThreadInterceptor() {
+        this(null);
+    }
+
+    /**
+     * @param scheduler collects the calls from background threads and runs them at the beginning
+     *                  of the next frame or {@code null} to post each call to the main thread
+     */
+    public CallOnMainThreadInterceptor(@Nullable final FrameAlignedScheduler scheduler) {
+        mScheduler = scheduler;
+    }
+
+    @Override
+    public boolean appliesTo(@NonNull final Class<?> viewInterface) {
+        return ViewClassInfo.of(viewInterface).hasMethodWithAnnotation(CallOnMainThread.class);
+    }
+
+    @Nullable
+    @Override
+    public Hook createHook(@NonNull final TiView view, @NonNull final Class<?> viewInterface) {
+        // the same lookup as appliesTo(), the interceptor must not disagree with its answer
+        if (!appliesTo(viewInterface) || GENERATED_VIEWS.getConstructor(viewInterface) != null) {
+            // nothing to do or the generated delegate is faster than a hook
+            return null;
+        }
+        return new CallOnMainThreadInvocationHandler<>(view, mScheduler);
+    }
+
     @Override
     public <V extends TiView> V intercept(final V view) {
         final V wrapped = wrap(view);
-        TiLog.v(TAG, "wrapping View " + view + " in " + wrapped);
+        TiLog.v(TAG, "wrapping View %s in %s", view, wrapped);
         return wrapped;
     }
 
-    @SuppressWarnings("unchecked")
     private <V extends TiView> V wrap(final V view) {
 
-        Class<?> foundInterfaceClass = getInterfaceOfClassExtendingGivenInterface(
-                view.getClass(), TiView.class);
+        final ViewClassInfo info = ViewClassInfo.of(view.getClass());
+        final Class<?> foundInterfaceClass = info.getViewInterface();
         if (foundInterfaceClass == null) {
             throw new IllegalStateException("the interface extending View could not be found");
         }
 
-        if (!hasObjectMethodWithAnnotation(view, CallOnMainThread.class)) {
+        if (!appliesTo(foundInterfaceClass)) {
             // not method has the annotation, returning original view
             // not creating a proxy
             return view;
         }
 
-        return (V) Proxy.newProxyInstance(
-                foundInterfaceClass.getClassLoader(), new Class<?>[]{foundInterfaceClass},
-                new CallOnMainThreadInvocationHandler<>(view));
+        // prefer the delegate generated by the thirtyinch-compiler, it doesn't use reflection
+        final V generated = GENERATED_VIEWS.newInstance(foundInterfaceClass, view);
+        if (generated != null) {
+            ((AbstractCallOnMainThreadView<?>) generated).setScheduler(mScheduler);
+            return generated;
+        }
+
+        return info.newProxy(new CallOnMainThreadInvocationHandler<>(view, mScheduler));
     }
 }
@@ -15,84 +15,115 @@
 
 package net.grandcentrix.thirtyinch.callonmainthread;
 
-import android.os.Handler;
 import android.os.Looper;
+import androidx.annotation.Nullable;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import net.grandcentrix.thirtyinch.FusableBindViewInterceptor.Chain;
+import net.grandcentrix.thirtyinch.FusableBindViewInterceptor.Hook;
 import net.grandcentrix.thirtyinch.TiView;
 import net.grandcentrix.thirtyinch.util.AbstractInvocationHandler;
+import net.grandcentrix.thirtyinch.util.FusedInvocationHandler;
 
-final class CallOnMainThreadInvocationHandler<V> extends AbstractInvocationHandler {
+final class CallOnMainThreadInvocationHandler<V> extends AbstractInvocationHandler
+        implements Hook {
 
-    private final Handler handler = new Handler(Looper.getMainLooper());
+    /**
+     * caches {@link #isPosted(Method)}, reading the annotation allocates on android
+     */
+    private static final ConcurrentHashMap<Method, Boolean> sPostedMethods =
+            new ConcurrentHashMap<>();
+
+    @Nullable
+    private final FrameAlignedScheduler mScheduler;
 
     private final V mView;
 
+    private final Chain mViewChain;
+
     public CallOnMainThreadInvocationHandler(V view) {
+        this(view, null);
+    }
+
+    public CallOnMainThreadInvocationHandler(V view,
+            @Nullable final FrameAlignedScheduler scheduler) {
         mView = view;
+        mViewChain = new FusedInvocationHandler.ViewChain(view);
+        mScheduler = scheduler;
     }
 
-    @Override
-    public String toString() {
-        return "MainThreadProxy@" + Integer.toHexString(this.hashCode()) + "-" + mView.toString();
+    /**
+     * @return {@code true} when calls of the method from a background thread have to be posted to
+     * the main thread
+     */
+    private static boolean isPosted(final Method method) {
+        final Boolean cached = sPostedMethods.get(method);
+        if (cached != null) {
+            return cached;
+        }
+        // only void methods of the View interface which are annotated are supported
+        final boolean posted = method.getReturnType().equals(Void.TYPE)
+                && TiView.class.isAssignableFrom(method.getDeclaringClass())
+                && method.getAnnotation(CallOnMainThread.class) != null;
+        sPostedMethods.put(method, posted);
+        return posted;
     }
 
     @Override
-    protected Object handleInvocation(final Object proxy, final Method method, final Object[] args)
+    public Object handle(final Chain next, final Method method, final Object[] args)
             throws Throwable {
-
-        try {
-            // If the method is a method from Object then defer to normal invocation.
-            final Class<?> declaringClass = method.getDeclaringClass();
-            if (declaringClass == Object.class) {
-                return method.invoke(this, args);
+        // simply call the method when already on the main thread
+        if (Looper.getMainLooper() == Looper.myLooper()) {
+            if (mScheduler != null) {
+                // a pending call from a background thread would overwrite this one
+                mScheduler.cancel(this, method);
             }
+            return next.proceed(method, args);
+        }
 
-            // simply call the method when already on the main thread
-            if (Looper.getMainLooper() == Looper.myLooper()) {
-                return method.invoke(mView, args);
-            }
+        if (!isPosted(method)) {
+            return next.proceed(method, args);
+        }
 
-            // only void methods are supported. Otherwise
-            if (!method.getReturnType().equals(Void.TYPE)) {
-                return method.invoke(mView, args);
+        // send calls on the Ui Thread
+        if (mScheduler == null) {
+            MainThreadDispatcher.getInstance().invoke(next, method, args);
+            return null;
+        }
+        final Runnable action = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    next.proceed(method, args);
+                } catch (Throwable e) {
+                    // To be consistent, the exception will be thrown, not caught and swallowed.
+                    // Sadly, this exception cannot be caught by wrapping the invoked method with try catch.
+                    e.printStackTrace();
+                    throw new RuntimeException(e);
+                }
             }
+        };
+        mScheduler.schedule(this, method, action);
+        return null;
+    }
 
-            // only methods of the View interface are supported
-            if (!TiView.class.isAssignableFrom(declaringClass)) {
-                return method.invoke(mView, args);
-            }
+    @Override
+    public String toString() {
+        return "MainThreadProxy@" + Integer.toHexString(this.hashCode()) + "-" + mView.toString();
+    }
 
-            final CallOnMainThread comtAnnotation =
-                    method.getAnnotation(CallOnMainThread.class);
-            // check if method is correct annotated
-            if (comtAnnotation == null) {
-                return method.invoke(mView, args);
+    @Override
+    protected Object handleInvocation(final Object proxy, final Method method, final Object[] args)
+            throws Throwable {
+        // If the method is a method from Object then defer to normal invocation.
+        if (method.getDeclaringClass() == Object.class) {
+            try {
+                return method.invoke(this, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
             }
-
-            // send calls on the Ui Thread
-            handler.post(new Runnable() {
-                @Override
-                public void run() {
-                    try {
-                        method.invoke(mView, args);
-                    } catch (InvocationTargetException e) {
-                        // To be consistent, the exception will be thrown, not caught and swallowed.
-                        // Sadly, this exception cannot be caught by wrapping the invoked method with try catch.
-                        e.printStackTrace();
-                        throw new RuntimeException(e.getCause());
-                    } catch (IllegalAccessException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
-            });
-            return null;
-
-        } catch (InvocationTargetException e) {
-            e.printStackTrace();
-            throw e.getCause();
-        } catch (IllegalAccessException e) {
-            throw e;
         }
+        return handle(mViewChain, method, args);
     }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.callonmainthread;
+
+import android.view.Choreographer;
+import androidx.annotation.NonNull;
+
+/**
+ * {@link FrameClock} of the main thread backed by the {@link Choreographer}. Callbacks run in the
+ * animation phase of a frame, before the views are measured and laid out.
+ */
+public class ChoreographerFrameClock implements FrameClock {
+
+    private final Choreographer mChoreographer;
+
+    /**
+     * Has to be created on the main thread, {@link Choreographer#getInstance()} returns the
+     * instance of the calling thread
+     */
+    public ChoreographerFrameClock() {
+        mChoreographer = Choreographer.getInstance();
+    }
+
+    @Override
+    public void postFrameCallback(@NonNull final Callback callback) {
+        mChoreographer.postFrameCallback(new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(final long frameTimeNanos) {
+                callback.doFrame(frameTimeNanos);
+            }
+        });
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.callonmainthread;
+
+import androidx.annotation.NonNull;
+import java.util.LinkedHashMap;
+
+/**
+ * Collects {@link CallOnMainThread} calls made from background threads and runs them together at
+ * the beginning of the next frame, before layout. Without it every call is a separate message
+ * on the main looper and calls arriving in the middle of a frame may cause an additional layout
+ * pass.
+ * <p>
+ * When a method of the same view is called again before the frame starts, only the last call
+ * runs (last write wins), at the position of the first one. Calls of different methods run in
+ * the order they were made. When a call throws, the remaining calls of the frame still run and
+ * the first exception is rethrown afterwards.
+ * <p>
+ * Enable it with {@code TiConfiguration.Builder#setFrameAlignedCallOnMainThreadEnabled(true)}.
+ */
+public class FrameAlignedScheduler implements FrameClock.Callback {
+
+    /**
+     * Identifies the pending call of a method, the target by identity and the key by {@link
+     * Object#equals(Object)}
+     */
+    private static final class CallKey {
+
+        private final Object mKey;
+
+        private final Object mTarget;
+
+        CallKey(@NonNull final Object target, @NonNull final Object key) {
+            mTarget = target;
+            mKey = key;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CallKey)) {
+                return false;
+            }
+            final CallKey other = (CallKey) o;
+            return mTarget == other.mTarget && mKey.equals(other.mKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(mTarget) + mKey.hashCode();
+        }
+    }
+
+    private static FrameAlignedScheduler sDefault;
+
+    private final FrameClock mClock;
+
+    private int mConflatedCallCount = 0;
+
+    private boolean mFrameScheduled = false;
+
+    /**
+     * the pending calls in the order of their first call, replaced and cancelled in O(1)
+     */
+    private LinkedHashMap<CallKey, Runnable> mPending = new LinkedHashMap<>();
+
+    private LinkedHashMap<CallKey, Runnable> mRunning = new LinkedHashMap<>();
+
+    public FrameAlignedScheduler(@NonNull final FrameClock clock) {
+        mClock = clock;
+    }
+
+    /**
+     * @return the scheduler shared by all views, aligned to the {@link ChoreographerFrameClock}.
+     * The first call has to happen on the main thread.
+     */
+    @NonNull
+    public static synchronized FrameAlignedScheduler getDefault() {
+        if (sDefault == null) {
+            sDefault = new FrameAlignedScheduler(new ChoreographerFrameClock());
+        }
+        return sDefault;
+    }
+
+    /**
+     * Removes the pending call of a method, used when the same method is called directly on the
+     * main thread. Otherwise the older pending call would overwrite the newer state.
+     *
+     * @param target the view the method belongs to
+     * @param key    identifies the method of the view
+     */
+    public void cancel(@NonNull final Object target, @NonNull final Object key) {
+        synchronized (this) {
+            mPending.remove(new CallKey(target, key));
+        }
+    }
+
+    @Override
+    public void doFrame(final long frameTimeNanos) {
+        final LinkedHashMap<CallKey, Runnable> running;
+        synchronized (this) {
+            running = mPending;
+            mPending = mRunning;
+            mRunning = running;
+            mFrameScheduled = false;
+        }
+        // calls made by the actions are collected for the next frame
+        RuntimeException firstException = null;
+        Error firstError = null;
+        for (final Runnable action : running.values()) {
+            // a failing call must not drop the calls of the other views
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                if (firstException == null && firstError == null) {
+                    firstException = e;
+                }
+            } catch (Error e) {
+                if (firstException == null && firstError == null) {
+                    firstError = e;
+                }
+            }
+        }
+        running.clear();
+        if (firstException != null) {
+            throw firstException;
+        }
+        if (firstError != null) {
+            throw firstError;
+        }
+    }
+
+    /**
+     * @return the number of calls which have been replaced by a newer call of the same method
+     * before they ran
+     */
+    public synchronized int getConflatedCallCount() {
+        return mConflatedCallCount;
+    }
+
+    /**
+     * Runs the {@code action} at the beginning of the next frame, replacing a pending action with
+     * the same {@code target} and {@code key}
+     *
+     * @param target the view the method belongs to, compared by identity
+     * @param key    identifies the method of the view, compared with {@link Object#equals(Object)}
+     */
+    public void schedule(@NonNull final Object target, @NonNull final Object key,
+            @NonNull final Runnable action) {
+        synchronized (this) {
+            // replacing an entry keeps its position, the last call runs where the first was
+            if (mPending.put(new CallKey(target, key), action) != null) {
+                mConflatedCallCount++;
+                return;
+            }
+            if (mFrameScheduled) {
+                return;
+            }
+            mFrameScheduled = true;
+        }
+        mClock.postFrameCallback(this);
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.callonmainthread;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Source of the display frames the {@link FrameAlignedScheduler} aligns view updates to. On a
+ * device frames come from the {@link ChoreographerFrameClock}, tests trigger them manually.
+ */
+public interface FrameClock {
+
+    interface Callback {
+
+        /**
+         * Called on the main thread when the next frame starts, before its layout
+         *
+         * @param frameTimeNanos start time of the frame in {@link System#nanoTime()} time base
+         */
+        void doFrame(long frameTimeNanos);
+    }
+
+    /**
+     * Calls the {@code callback} once at the beginning of the next frame. Can be called from any
+     * thread.
+     */
+    void postFrameCallback(@NonNull Callback callback);
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.callonmainthread;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import androidx.annotation.NonNull;
+import java.lang.reflect.Method;
+import net.grandcentrix.thirtyinch.FusableBindViewInterceptor.Chain;
+
+/**
+ * Runs calls of {@link CallOnMainThread} methods on the main thread with a single {@link Handler}
+ * shared by all views.
+ * <p>
+ * Calls of the {@link java.lang.reflect.Proxy} and of the generated {@link
+ * AbstractCallOnMainThreadView} delegates are sent as {@link Message}s carrying a pooled {@link
+ * Invocation} instead of an anonymous {@link Runnable} for each call. {@link Message}s are pooled
+ * by android, a steady stream of calls from a background thread therefore allocates nothing but
+ * the arguments array.
+ */
+final class MainThreadDispatcher implements Handler.Callback {
+
+    /**
+     * A method call waiting for the main thread
+     */
+    private static final class Invocation {
+
+        Object[] args;
+
+        Chain chain;
+
+        Method method;
+
+        int methodIndex;
+
+        Invocation next;
+
+        AbstractCallOnMainThreadView<?> view;
+    }
+
+    /**
+     * more carriers are only required when the main thread is busy, those are garbage collected
+     */
+    private static final int MAX_POOL_SIZE = 32;
+
+    private static final int MSG_INVOKE = 1;
+
+    private static MainThreadDispatcher sInstance;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper(), this);
+
+    private Invocation mPool;
+
+    private final Object mPoolLock = new Object();
+
+    private int mPoolSize = 0;
+
+    private MainThreadDispatcher() {
+    }
+
+    @NonNull
+    static synchronized MainThreadDispatcher getInstance() {
+        if (sInstance == null) {
+            sInstance = new MainThreadDispatcher();
+        }
+        return sInstance;
+    }
+
+    @Override
+    public boolean handleMessage(final Message msg) {
+        if (msg.what != MSG_INVOKE) {
+            return false;
+        }
+        final Invocation invocation = (Invocation) msg.obj;
+        final Chain chain = invocation.chain;
+        final Method method = invocation.method;
+        final Object[] args = invocation.args;
+        final AbstractCallOnMainThreadView<?> view = invocation.view;
+        final int methodIndex = invocation.methodIndex;
+        recycle(invocation);
+
+        if (view != null) {
+            view.runPosted(methodIndex, args);
+            return true;
+        }
+        try {
+            chain.proceed(method, args);
+        } catch (Throwable e) {
+            // To be consistent, the exception will be thrown, not caught and swallowed.
+            // Sadly, this exception cannot be caught by wrapping the invoked method with try catch.
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        return true;
+    }
+
+    /**
+     * Calls the method with the index of the generated {@code view} on the main thread
+     */
+    void dispatch(@NonNull final AbstractCallOnMainThreadView<?> view, final int methodIndex,
+            final Object[] args) {
+        final Invocation invocation = obtain();
+        invocation.view = view;
+        invocation.methodIndex = methodIndex;
+        invocation.args = args;
+        mHandler.obtainMessage(MSG_INVOKE, invocation).sendToTarget();
+    }
+
+    /**
+     * Continues the call of {@code method} with {@code chain} on the main thread
+     */
+    void invoke(@NonNull final Chain chain, @NonNull final Method method, final Object[] args) {
+        final Invocation invocation = obtain();
+        invocation.chain = chain;
+        invocation.method = method;
+        invocation.args = args;
+        mHandler.obtainMessage(MSG_INVOKE, invocation).sendToTarget();
+    }
+
+    @NonNull
+    private Invocation obtain() {
+        synchronized (mPoolLock) {
+            final Invocation invocation = mPool;
+            if (invocation != null) {
+                mPool = invocation.next;
+                invocation.next = null;
+                mPoolSize--;
+                return invocation;
+            }
+        }
+        return new Invocation();
+    }
+
+    private void recycle(@NonNull final Invocation invocation) {
+        invocation.chain = null;
+        invocation.method = null;
+        invocation.args = null;
+        invocation.view = null;
+        synchronized (mPoolLock) {
+            if (mPoolSize < MAX_POOL_SIZE) {
+                invocation.next = mPool;
+                mPool = invocation;
+                mPoolSize++;
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.distinctuntilchanged;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import java.util.Arrays;
+import net.grandcentrix.thirtyinch.TiLog;
+import net.grandcentrix.thirtyinch.TiView;
+
+/**
+ * Base class of the {@link DistinctUntilChanged} view delegates generated by the {@code
+ * thirtyinch-compiler} annotation processor. Every annotated method of the {@link TiView}
+ * interface gets an index, the generated subclass creates the {@link DistinctComparator} for
+ * each index and only calls through to the view when {@link #hasChanged(int, Object[])} returns
+ * {@code true}.
+ *
+ * @param <V> the {@link TiView} interface
+ */
+public abstract class AbstractDistinctUntilChangedView<V extends TiView> {
+
+    /**
+     * suffix of the generated class names, i.e. {@code MyView_DistinctUntilChanged}
+     */
+    public static final String GENERATED_CLASS_SUFFIX = "DistinctUntilChanged";
+
+    private static final String TAG = AbstractDistinctUntilChangedView.class.getSimpleName();
+
+    protected final V mView;
+
+    private final DistinctComparator[] mComparators;
+
+    /**
+     * @param view        the wrapped view
+     * @param methodCount number of methods annotated with {@link DistinctUntilChanged}
+     */
+    protected AbstractDistinctUntilChangedView(@NonNull final V view, final int methodCount) {
+        mView = view;
+        mComparators = new DistinctComparator[methodCount];
+    }
+
+    public void clearCache() {
+        Arrays.fill(mComparators, null);
+    }
+
+    @Override
+    public String toString() {
+        return "DistinctUntilChangedDelegate@"
+                + Integer.toHexString(this.hashCode()) + "-" + mView.toString();
+    }
+
+    /**
+     * @return a new instance of the comparator defined by the {@link DistinctUntilChanged}
+     * annotation of the method with the given index
+     */
+    @NonNull
+    protected abstract DistinctComparator createComparator(final int methodIndex);
+
+    /**
+     * @return {@code true} when the method should be called because the arguments changed since
+     * the last call
+     */
+    protected final boolean hasChanged(final int methodIndex, @NonNull final Object[] args) {
+        final DistinctComparator comparator = mComparators[methodIndex];
+        if (comparator == null) {
+            // detected first call to method, initialize the comparator with the arguments
+            final DistinctComparator newComparator = createComparator(methodIndex);
+            if (newComparator.compareWith(args)) {
+                throw new IllegalStateException("comparator returns 'true' at initialization.");
+            }
+            mComparators[methodIndex] = newComparator;
+            return true;
+        }
+        return !comparator.compareWith(args);
+    }
+
+    protected final void logDropped(@NonNull final String methodName,
+            @NonNull final Object[] args) {
+        if (TiLog.isLoggable(Log.DEBUG)) {
+            TiLog.d(TAG, "not calling " + methodName
+                    + " with args " + Arrays.toString(args) + "."
+                    + " Was already called with the same parameters before.");
+        }
+    }
+}
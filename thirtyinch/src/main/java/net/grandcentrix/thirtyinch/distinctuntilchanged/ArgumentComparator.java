@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.distinctuntilchanged;
+
+import androidx.annotation.NonNull;
+import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctArgument.Strategy;
+
+/**
+ * A {@link DistinctComparator} which compares every argument with its own {@link Strategy}. Used
+ * for {@link DistinctUntilChanged} methods with parameters annotated with {@link
+ * DistinctArgument}.
+ * <p>
+ * The last arguments, or their hash codes, are kept in one slot per parameter. Once an argument
+ * changed, the following arguments are no longer compared with {@link Object#equals(Object)}.
+ */
+public class ArgumentComparator implements DistinctComparator {
+
+    private boolean mInitialized = false;
+
+    private final int[] mLastHashes;
+
+    private final Object[] mLastValues;
+
+    private final Strategy[] mStrategies;
+
+    /**
+     * @param strategies the strategy of every parameter of the method
+     */
+    public ArgumentComparator(@NonNull final Strategy... strategies) {
+        mStrategies = strategies;
+        mLastValues = new Object[strategies.length];
+        mLastHashes = new int[strategies.length];
+    }
+
+    @Override
+    public boolean compareWith(final Object[] newParameters) {
+        if (newParameters.length != mStrategies.length) {
+            throw new IllegalArgumentException("expected " + mStrategies.length
+                    + " parameters but got " + newParameters.length);
+        }
+        boolean unchanged = mInitialized;
+        for (int i = 0; i < newParameters.length; i++) {
+            final Object parameter = newParameters[i];
+            switch (mStrategies[i]) {
+                case IDENTITY:
+                    unchanged &= parameter == mLastValues[i];
+                    mLastValues[i] = parameter;
+                    break;
+                case EQUALS:
+                    unchanged = unchanged && (parameter == null
+                            ? mLastValues[i] == null : parameter.equals(mLastValues[i]));
+                    mLastValues[i] = parameter;
+                    break;
+                case HASH:
+                    final int hash = parameter == null ? 0 : parameter.hashCode();
+                    unchanged &= hash == mLastHashes[i];
+                    mLastHashes[i] = hash;
+                    break;
+                case IGNORE:
+                default:
+                    break;
+            }
+        }
+        mInitialized = true;
+        return unchanged;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.distinctuntilchanged;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Defines how a parameter of a {@link DistinctUntilChanged} method is compared with the one of
+ * the last call. As soon as one parameter of a method is annotated, every parameter is compared
+ * on its own with an {@link ArgumentComparator} and the {@link DistinctUntilChanged#comparator()}
+ * is ignored. Parameters without annotation are compared with {@link Strategy#HASH}.
+ * <pre>
+ * <code>
+ * &#64;DistinctUntilChanged
+ * void showUser(String name, &#64;DistinctArgument(Strategy.IDENTITY) Bitmap avatar,
+ *         &#64;DistinctArgument(Strategy.IGNORE) long timestamp);
+ * </code>
+ * </pre>
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DistinctArgument {
+
+    enum Strategy {
+        /**
+         * Same instance, cheap for large immutable objects like bitmaps. Keeps a reference to
+         * the last argument.
+         */
+        IDENTITY,
+        /**
+         * {@link Object#equals(Object)}, keeps a reference to the last argument
+         */
+        EQUALS,
+        /**
+         * {@link Object#hashCode()} like the {@link HashComparator}
+         */
+        HASH,
+        /**
+         * Changes of this parameter never cause a call
+         */
+        IGNORE
+    }
+
+    Strategy value();
+}
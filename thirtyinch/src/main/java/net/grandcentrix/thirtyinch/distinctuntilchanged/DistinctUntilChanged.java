@@ -26,7 +26,9 @@ import net.grandcentrix.thirtyinch.TiView;
  * When added to a {@code void} method with at least one parameter inside a {@link TiView}, the
  * method implementation will only be called when the parameters change. A
  * {@link DistinctComparator} class is used to detect changes. By default it uses
- * {@link HashComparator}.
+ * {@link HashComparator}, use the {@link FingerprintComparator} to avoid {@code hashCode()}
+ * collisions of strings, boxed primitives, collections, maps and arrays or to compare large
+ * {@link Versioned} lists in O(1).
  */
 @Documented
 @Target(ElementType.METHOD)
@@ -15,18 +15,23 @@
 
 package net.grandcentrix.thirtyinch.distinctuntilchanged;
 
-import static net.grandcentrix.thirtyinch.util.AnnotationUtil.getInterfaceOfClassExtendingGivenInterface;
-import static net.grandcentrix.thirtyinch.util.AnnotationUtil.hasObjectMethodWithAnnotation;
-
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import java.lang.reflect.Proxy;
-import net.grandcentrix.thirtyinch.BindViewInterceptor;
+import net.grandcentrix.thirtyinch.FusableBindViewInterceptor;
+import net.grandcentrix.thirtyinch.SelectiveBindViewInterceptor;
 import net.grandcentrix.thirtyinch.TiLog;
 import net.grandcentrix.thirtyinch.TiView;
 import net.grandcentrix.thirtyinch.internal.InterceptableViewBinder;
+import net.grandcentrix.thirtyinch.util.FusedInvocationHandler;
+import net.grandcentrix.thirtyinch.util.GeneratedViewFactory;
+import net.grandcentrix.thirtyinch.util.ViewClassInfo;
+
+public class DistinctUntilChangedInterceptor
+        implements FusableBindViewInterceptor, SelectiveBindViewInterceptor {
 
-public class DistinctUntilChangedInterceptor implements BindViewInterceptor {
+    private static final GeneratedViewFactory GENERATED_VIEWS = new GeneratedViewFactory(
+            AbstractDistinctUntilChangedView.GENERATED_CLASS_SUFFIX);
 
     private static final String TAG = DistinctUntilChangedInterceptor.class.getSimpleName();
 
@@ -37,46 +42,79 @@ public class DistinctUntilChangedInterceptor implements BindViewInterceptor {
             return (DistinctUntilChangedInvocationHandler) Proxy.getInvocationHandler(view);
         } catch (ClassCastException e) {
             return null;
+        } catch (IllegalArgumentException e) {
+            // not a proxy
+            return null;
         }
     }
 
+    @SuppressWarnings("unchecked")
     public <V extends TiView> void clearCache(final InterceptableViewBinder<V> interceptable) {
         final TiView wrappedView = interceptable.getInterceptedViewOf(this);
-        if (wrappedView != null) {
-            final DistinctUntilChangedInvocationHandler<TiView> view
+        if (wrappedView instanceof AbstractDistinctUntilChangedView) {
+            ((AbstractDistinctUntilChangedView) wrappedView).clearCache();
+            TiLog.v(TAG, "cleared the distinctUntilChanged cache of %s", wrappedView);
+        } else if (wrappedView != null) {
+            DistinctUntilChangedInvocationHandler<TiView> view
                     = DistinctUntilChangedInterceptor.unwrap(wrappedView);
+            if (view == null) {
+                final Hook hook = FusedInvocationHandler.getHook(wrappedView, this);
+                if (hook instanceof DistinctUntilChangedInvocationHandler) {
+                    view = (DistinctUntilChangedInvocationHandler<TiView>) hook;
+                }
+            }
             if (view != null) {
                 view.clearCache();
-                TiLog.v(TAG, "cleared the distinctUntilChanged cache of " + view);
+                TiLog.v(TAG, "cleared the distinctUntilChanged cache of %s", view);
             }
         }
     }
 
+    @Override
+    public boolean appliesTo(@NonNull final Class<?> viewInterface) {
+        return ViewClassInfo.of(viewInterface).hasMethodWithAnnotation(DistinctUntilChanged.class);
+    }
+
+    @Nullable
+    @Override
+    public Hook createHook(@NonNull final TiView view, @NonNull final Class<?> viewInterface) {
+        // the same lookup as appliesTo(), the interceptor must not disagree with its answer
+        if (!appliesTo(viewInterface) || GENERATED_VIEWS.getConstructor(viewInterface) != null) {
+            // nothing to do or the generated delegate is faster than a hook
+            return null;
+        }
+        return new DistinctUntilChangedInvocationHandler<>(view, viewInterface);
+    }
+
     @Override
     public <V extends TiView> V intercept(final V view) {
         final V wrapped = wrap(view);
-        TiLog.v(TAG, "wrapping View " + view + " in " + wrapped);
+        TiLog.v(TAG, "wrapping View %s in %s", view, wrapped);
         return wrapped;
     }
 
-    @SuppressWarnings("unchecked")
     @NonNull
     public <V extends TiView> V wrap(@NonNull final V view) {
 
-        Class<?> foundInterfaceClass =
-                getInterfaceOfClassExtendingGivenInterface(view.getClass(), TiView.class);
+        final ViewClassInfo info = ViewClassInfo.of(view.getClass());
+        final Class<?> foundInterfaceClass = info.getViewInterface();
         if (foundInterfaceClass == null) {
             throw new IllegalStateException("the interface extending View could not be found");
         }
 
-        if (!hasObjectMethodWithAnnotation(view, DistinctUntilChanged.class)) {
+        if (!appliesTo(foundInterfaceClass)) {
             // not method has the annotation, returning original view
             // not creating a proxy
             return view;
         }
 
-        return (V) Proxy.newProxyInstance(
-                foundInterfaceClass.getClassLoader(), new Class<?>[]{foundInterfaceClass},
-                new DistinctUntilChangedInvocationHandler<>(view));
+        // prefer the delegate generated by the thirtyinch-compiler, it doesn't use reflection
+        final V generated = GENERATED_VIEWS.newInstance(foundInterfaceClass, view);
+        if (generated != null) {
+            return generated;
+        }
+
+        return info.newProxy(
+                new DistinctUntilChangedInvocationHandler<>(view, foundInterfaceClass));
     }
 }
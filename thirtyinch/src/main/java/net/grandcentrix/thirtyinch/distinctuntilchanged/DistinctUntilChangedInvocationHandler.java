@@ -15,30 +15,57 @@
 
 package net.grandcentrix.thirtyinch.distinctuntilchanged;
 
-import androidx.annotation.VisibleForTesting;
+import android.util.Log;
+import androidx.annotation.NonNull;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
-import java.util.HashMap;
+import net.grandcentrix.thirtyinch.FusableBindViewInterceptor.Chain;
+import net.grandcentrix.thirtyinch.FusableBindViewInterceptor.Hook;
 import net.grandcentrix.thirtyinch.TiLog;
-import net.grandcentrix.thirtyinch.TiView;
+import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctUntilChangedMethodTable.MethodDescriptor;
 import net.grandcentrix.thirtyinch.util.AbstractInvocationHandler;
+import net.grandcentrix.thirtyinch.util.FusedInvocationHandler;
 
-final class DistinctUntilChangedInvocationHandler<V> extends AbstractInvocationHandler {
+final class DistinctUntilChangedInvocationHandler<V> extends AbstractInvocationHandler
+        implements Hook {
 
     private static final String TAG = DistinctUntilChangedInvocationHandler.class.getSimpleName();
 
-    @VisibleForTesting
-    HashMap<String, DistinctComparator> mLatestMethodCalls = new HashMap<>();
+    /**
+     * comparators of the distinct methods, by {@link MethodDescriptor#index}
+     */
+    private DistinctComparator[] mComparators;
+
+    private final DistinctUntilChangedMethodTable mMethods;
 
     private final V mView;
 
+    private final Chain mViewChain;
+
     public DistinctUntilChangedInvocationHandler(V view) {
+        this(view, view.getClass());
+    }
+
+    /**
+     * @param viewInterface the interface implemented by the {@link java.lang.reflect.Proxy},
+     *                      its methods are resolved once for all handlers
+     */
+    public DistinctUntilChangedInvocationHandler(V view, @NonNull final Class<?> viewInterface) {
         mView = view;
+        mViewChain = new FusedInvocationHandler.ViewChain(view);
+        mMethods = DistinctUntilChangedMethodTable.of(viewInterface);
+        mComparators = new DistinctComparator[mMethods.size()];
     }
 
     public void clearCache() {
-        mLatestMethodCalls.clear();
+        Arrays.fill(mComparators, null);
+    }
+
+    @Override
+    public Object handle(final Chain next, final Method method, final Object[] args)
+            throws Throwable {
+        return handle(mMethods.get(method), next, method, args);
     }
 
     @Override
@@ -50,81 +77,65 @@ final class DistinctUntilChangedInvocationHandler<V> extends AbstractInvocationH
     @Override
     protected Object handleInvocation(final Object proxy, final Method method, final Object[] args)
             throws Throwable {
-
-        //noinspection TryWithIdenticalCatches
-        try {
+        final MethodDescriptor descriptor = mMethods.get(method);
+        if (descriptor.index == MethodDescriptor.INDEX_OBJECT_METHOD) {
             // If the method is a method from Object then defer to normal invocation.
-            final Class<?> declaringClass = method.getDeclaringClass();
-            if (declaringClass == Object.class) {
+            try {
                 return method.invoke(this, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
             }
+        }
+        return handle(descriptor, mViewChain, method, args);
+    }
 
-            // always call methods with zero arguments
-            if (args == null || args.length == 0) {
-                return method.invoke(mView, args);
-            }
+    private Object handle(final MethodDescriptor descriptor, final Chain next,
+            final Method method, final Object[] args) throws Throwable {
+        final int index = descriptor.index;
+        if (index < 0) {
+            // not annotated, not void or without arguments
+            return next.proceed(method, args);
+        }
 
-            // only void methods support distinctUntilChanged
-            if (!method.getReturnType().equals(Void.TYPE)) {
-                return method.invoke(mView, args);
-            }
+        if (index >= mComparators.length) {
+            // the method was resolved after this handler was created
+            mComparators = Arrays.copyOf(mComparators, mMethods.size());
+        }
 
-            // @DistinctUntilChanged is only valid on methods of the view interface extending View
-            if (!TiView.class.isAssignableFrom(declaringClass)) {
-                return method.invoke(mView, args);
-            }
+        final DistinctComparator comparator = mComparators[index];
+        if (comparator == null) {
+            // detected first call to method
 
-            final DistinctUntilChanged ducAnnotation =
-                    method.getAnnotation(DistinctUntilChanged.class);
+            // initialize a new comparator defined by the annotations
+            DistinctComparator newComparator = descriptor.newComparator();
 
-            // check if method is correct annotated
-            if (ducAnnotation == null) {
-                return method.invoke(mView, args);
+            // initialize the comparator with the already called parameters
+            // the comparator is now able to compare this call with the next one
+            if (newComparator.compareWith(args)) {
+                // when initializing the comparator with the first call it cannot return true
+                // which would mean the first call is the same as the previous call which
+                // never happened
+                throw new IllegalStateException("comparator returns 'true' at initialization.");
             }
+            // save for later usage
+            mComparators[index] = newComparator;
 
-            final String methodName = method.toGenericString();
-
-            final DistinctComparator comparator = mLatestMethodCalls.get(methodName);
-            if (comparator == null) {
-                // detected first call to method
-
-                // initialize a new comparator defined by the annotation
-                DistinctComparator newComparator = ducAnnotation.comparator().newInstance();
-
-                // initialize the comparator with the already called parameters
-                // the comparator is now able to compare this call with the next one
-                if (newComparator.compareWith(args)) {
-                    // when initializing the comparator with the first call it cannot return true
-                    // which would mean the first call is the same as the previous call which
-                    // never happened
-                    throw new IllegalStateException("comparator returns 'true' at initialization.");
-                }
-                // save for later usage
-                mLatestMethodCalls.put(methodName, newComparator);
-
-                // it's the first call to this method, call it
-                return method.invoke(mView, args);
-            }
+            // it's the first call to this method, call it
+            return next.proceed(method, args);
+        }
 
-            // compare with last called arguments
-            if (!comparator.compareWith(args)) {
-                // arguments changed, call the method
-                return method.invoke(mView, args);
-            } else {
-                // don't call the method, the data was already sent to the view
-                if (ducAnnotation.logDropped()) {
-                    TiLog.d(TAG, "not calling " + method
-                            + " with args " + Arrays.toString(args) + "."
-                            + " Was already called with the same parameters before.");
-                }
-                return null;
+        // compare with last called arguments
+        if (!comparator.compareWith(args)) {
+            // arguments changed, call the method
+            return next.proceed(method, args);
+        } else {
+            // don't call the method, the data was already sent to the view
+            if (descriptor.logDropped && TiLog.isLoggable(Log.DEBUG)) {
+                TiLog.d(TAG, "not calling " + method
+                        + " with args " + Arrays.toString(args) + "."
+                        + " Was already called with the same parameters before.");
             }
-
-        } catch (InvocationTargetException e) {
-            e.printStackTrace();
-            throw e.getCause();
-        } catch (IllegalAccessException e) {
-            throw e;
+            return null;
         }
     }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.distinctuntilchanged;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.grandcentrix.thirtyinch.TiView;
+import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctArgument.Strategy;
+
+/**
+ * Resolves every {@link Method} of a view class once to a {@link MethodDescriptor} so that
+ * {@link DistinctUntilChangedInvocationHandler} doesn't have to check the return type, the
+ * declaring class and the {@link DistinctUntilChanged} annotation on every call.
+ * <p>
+ * Tables are shared between all handlers of the same view class. Methods of the view interface are
+ * resolved when the table is created, all other methods (i.e. called via reflection on the
+ * implementation class) when they are called the first time.
+ */
+final class DistinctUntilChangedMethodTable {
+
+    /**
+     * What to do when a method is called
+     */
+    static final class MethodDescriptor {
+
+        /**
+         * Methods of {@link Object} are invoked on the handler
+         */
+        static final int INDEX_OBJECT_METHOD = -2;
+
+        /**
+         * Methods which are always called
+         */
+        static final int INDEX_PASS_THROUGH = -1;
+
+        @Nullable
+        final Class<? extends DistinctComparator> comparator;
+
+        /**
+         * index of the comparator of this method in the handler or one of the negative
+         * {@code INDEX_*} constants
+         */
+        final int index;
+
+        final boolean logDropped;
+
+        /**
+         * strategies of the parameters or {@code null} when no parameter is annotated with
+         * {@link DistinctArgument}
+         */
+        @Nullable
+        final Strategy[] strategies;
+
+        private MethodDescriptor(final int index,
+                @Nullable final Class<? extends DistinctComparator> comparator,
+                final boolean logDropped, @Nullable final Strategy[] strategies) {
+            this.index = index;
+            this.comparator = comparator;
+            this.logDropped = logDropped;
+            this.strategies = strategies;
+        }
+
+        /**
+         * @return a new comparator for a distinct method
+         */
+        @NonNull
+        DistinctComparator newComparator() throws IllegalAccessException, InstantiationException {
+            if (strategies != null) {
+                return new ArgumentComparator(strategies);
+            }
+            //noinspection ConstantConditions
+            return comparator.newInstance();
+        }
+    }
+
+    private static final MethodDescriptor OBJECT_METHOD =
+            new MethodDescriptor(MethodDescriptor.INDEX_OBJECT_METHOD, null, false, null);
+
+    private static final MethodDescriptor PASS_THROUGH =
+            new MethodDescriptor(MethodDescriptor.INDEX_PASS_THROUGH, null, false, null);
+
+    private static final ConcurrentHashMap<Class<?>, DistinctUntilChangedMethodTable> sTables
+            = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Method, MethodDescriptor> mDescriptors
+            = new ConcurrentHashMap<>();
+
+    private final AtomicInteger mNextIndex = new AtomicInteger();
+
+    private DistinctUntilChangedMethodTable(@NonNull final Class<?> viewClass) {
+        if (viewClass.isInterface()) {
+            // the methods a Proxy of this interface will call
+            for (final Method method : viewClass.getMethods()) {
+                get(method);
+            }
+        }
+    }
+
+    /**
+     * @return the shared table for the given view class
+     */
+    @NonNull
+    static DistinctUntilChangedMethodTable of(@NonNull final Class<?> viewClass) {
+        final DistinctUntilChangedMethodTable table = sTables.get(viewClass);
+        if (table != null) {
+            return table;
+        }
+        final DistinctUntilChangedMethodTable newTable =
+                new DistinctUntilChangedMethodTable(viewClass);
+        final DistinctUntilChangedMethodTable existing = sTables.putIfAbsent(viewClass, newTable);
+        return existing != null ? existing : newTable;
+    }
+
+    @NonNull
+    MethodDescriptor get(@NonNull final Method method) {
+        final MethodDescriptor descriptor = mDescriptors.get(method);
+        if (descriptor != null) {
+            return descriptor;
+        }
+        final MethodDescriptor newDescriptor = resolve(method);
+        final MethodDescriptor existing = mDescriptors.putIfAbsent(method, newDescriptor);
+        return existing != null ? existing : newDescriptor;
+    }
+
+    /**
+     * @return the number of indices given to distinct methods so far, the comparator array of a
+     * handler has to be at least that large
+     */
+    int size() {
+        return mNextIndex.get();
+    }
+
+    @NonNull
+    private MethodDescriptor resolve(@NonNull final Method method) {
+        final Class<?> declaringClass = method.getDeclaringClass();
+        if (declaringClass == Object.class) {
+            return OBJECT_METHOD;
+        }
+
+        // always call methods with zero arguments
+        // only void methods support distinctUntilChanged
+        // @DistinctUntilChanged is only valid on methods of the view interface extending View
+        if (method.getParameterTypes().length == 0
+                || !method.getReturnType().equals(Void.TYPE)
+                || !TiView.class.isAssignableFrom(declaringClass)) {
+            return PASS_THROUGH;
+        }
+
+        final DistinctUntilChanged ducAnnotation =
+                method.getAnnotation(DistinctUntilChanged.class);
+        if (ducAnnotation == null) {
+            return PASS_THROUGH;
+        }
+
+        // a lost race wastes an index, the handlers simply grow their arrays a bit more
+        return new MethodDescriptor(mNextIndex.getAndIncrement(), ducAnnotation.comparator(),
+                ducAnnotation.logDropped(), getStrategies(method));
+    }
+
+    /**
+     * @return the {@link DistinctArgument} strategies of the parameters or {@code null} when none
+     * is annotated
+     */
+    @Nullable
+    private static Strategy[] getStrategies(@NonNull final Method method) {
+        final Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        Strategy[] strategies = null;
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            for (final Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof DistinctArgument) {
+                    if (strategies == null) {
+                        strategies = new Strategy[parameterAnnotations.length];
+                        Arrays.fill(strategies, Strategy.HASH);
+                    }
+                    strategies[i] = ((DistinctArgument) annotation).value();
+                }
+            }
+        }
+        return strategies;
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.distinctuntilchanged;
+
+import androidx.annotation.VisibleForTesting;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * A {@link DistinctComparator} which keeps a fingerprint of the last parameters instead of the
+ * parameters themselves. The fingerprint of every parameter consists of
+ * <ul>
+ * <li>a 64-bit hash. Char sequences, collections, maps and arrays are hashed element by element,
+ * boxed primitives and enums by their value, other objects contribute their class and their
+ * 32-bit {@link Object#hashCode()}</li>
+ * <li>the size of char sequences, collections, maps and arrays</li>
+ * <li>for {@link Versioned} objects, their {@link System#identityHashCode(Object)} and version.
+ * Their content isn't hashed at all which makes the comparison O(1) even for large lists</li>
+ * </ul>
+ * No references to the parameters are kept and no allocations are required after the first call,
+ * unlike the {@link EqualsComparator} and the {@link WeakEqualsComparator}.
+ * <p>
+ * The fingerprint is a hash, not a copy, the comparison is therefore probabilistic:
+ * <ul>
+ * <li>Strings, boxed primitives, enums and collections, maps and arrays of those are compared by
+ * a 64-bit hash of their whole content. Unlike the {@link HashComparator} a collision of two
+ * {@code hashCode()}s, i.e. {@code "Aa"} and {@code "BB"}, doesn't drop a call. A call is only
+ * dropped for a collision of the 64-bit hashes.</li>
+ * <li>Other objects are only as distinct as their {@code hashCode()}. Two objects of the same
+ * class with equal {@code hashCode()}s are considered unchanged, just like with the {@link
+ * HashComparator}. Use the {@link EqualsComparator} when such a collision must not drop a
+ * call.</li>
+ * <li>{@link Versioned} objects are identified by {@link System#identityHashCode(Object)}, which
+ * isn't unique. A new instance is considered as change, even when it is equal to the last
+ * parameter, unless its identity hash code and version both match the last parameter.</li>
+ * </ul>
+ */
+public class FingerprintComparator implements DistinctComparator {
+
+    private static final int FIELDS_PER_PARAMETER = 2;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final long NO_SIZE = -1;
+
+    private long[] mLastFingerprint;
+
+    private long[] mNextFingerprint;
+
+    @Override
+    public boolean compareWith(final Object[] newParameters) {
+        long[] fingerprint = mNextFingerprint;
+        if (fingerprint == null
+                || fingerprint.length != newParameters.length * FIELDS_PER_PARAMETER) {
+            fingerprint = new long[newParameters.length * FIELDS_PER_PARAMETER];
+        }
+        for (int i = 0; i < newParameters.length; i++) {
+            final Object parameter = newParameters[i];
+            fingerprint[i * FIELDS_PER_PARAMETER] = hash(parameter);
+            fingerprint[i * FIELDS_PER_PARAMETER + 1] = sizeOf(parameter);
+        }
+
+        final boolean unchanged = Arrays.equals(fingerprint, mLastFingerprint);
+        // reuse the array of the previous call for the next one
+        mNextFingerprint = mLastFingerprint;
+        mLastFingerprint = fingerprint;
+        return unchanged;
+    }
+
+    /**
+     * @return a 64-bit hash of the value, consistent with {@link Object#equals(Object)} for
+     * char sequences, collections, maps and arrays. For other objects it is only as distinct as
+     * their {@link Object#hashCode()}
+     */
+    @VisibleForTesting
+    static long hash(final Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            // most common element type, checked before the slower interface type checks
+            return hashChars((String) value);
+        }
+        if (value instanceof Versioned) {
+            // the identity hash code isn't unique, see the class documentation
+            final long h = combine(FNV_OFFSET_BASIS, System.identityHashCode(value));
+            return mix(combine(h, ((Versioned) value).getVersion()));
+        }
+        if (value instanceof CharSequence) {
+            return hashChars((CharSequence) value);
+        }
+        if (value instanceof Set) {
+            // the iteration order of equal sets may differ
+            long h = 0;
+            for (final Object element : (Set<?>) value) {
+                h += mix(hash(element));
+            }
+            return mix(combine(FNV_OFFSET_BASIS, h));
+        }
+        if (value instanceof List && value instanceof RandomAccess) {
+            final List<?> list = (List<?>) value;
+            long h = FNV_OFFSET_BASIS;
+            for (int i = 0; i < list.size(); i++) {
+                h = combine(h, hash(list.get(i)));
+            }
+            return mix(h);
+        }
+        if (value instanceof Collection) {
+            long h = FNV_OFFSET_BASIS;
+            for (final Object element : (Collection<?>) value) {
+                h = combine(h, hash(element));
+            }
+            return mix(h);
+        }
+        if (value instanceof Map) {
+            long h = 0;
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                h += mix(combine(combine(FNV_OFFSET_BASIS, hash(entry.getKey())),
+                        hash(entry.getValue())));
+            }
+            return mix(combine(FNV_OFFSET_BASIS, h));
+        }
+        if (value.getClass().isArray()) {
+            return hashArray(value);
+        }
+        final long h = combine(FNV_OFFSET_BASIS, value.getClass().hashCode());
+        if (value instanceof Long) {
+            return mix(combine(h, (Long) value));
+        }
+        if (value instanceof Double) {
+            return mix(combine(h, Double.doubleToLongBits((Double) value)));
+        }
+        if (value instanceof Enum) {
+            // the hashCode() of enums is their identity hash code which isn't unique
+            return mix(combine(h, ((Enum<?>) value).ordinal()));
+        }
+        return mix(combine(h, value.hashCode()));
+    }
+
+    /**
+     * @return the size of char sequences, collections, maps and arrays or {@link #NO_SIZE}
+     */
+    private static long sizeOf(final Object value) {
+        if (value instanceof String) {
+            return ((String) value).length();
+        }
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).size();
+        }
+        if (value instanceof Map) {
+            return ((Map<?, ?>) value).size();
+        }
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length();
+        }
+        if (value != null && value.getClass().isArray()) {
+            return java.lang.reflect.Array.getLength(value);
+        }
+        return NO_SIZE;
+    }
+
+    /**
+     * Adds the value to the hash, the order of the combined values matters
+     */
+    private static long combine(final long hash, final long value) {
+        return (hash ^ mix(value)) * FNV_PRIME;
+    }
+
+    /**
+     * FNV-1a over the chars
+     */
+    private static long hashChars(final CharSequence chars) {
+        long h = FNV_OFFSET_BASIS;
+        final int length = chars.length();
+        for (int i = 0; i < length; i++) {
+            h = (h ^ chars.charAt(i)) * FNV_PRIME;
+        }
+        return mix(h);
+    }
+
+    private static long hashArray(final Object array) {
+        // arrays of different component types with the same values must not collide
+        long h = combine(FNV_OFFSET_BASIS, array.getClass().hashCode());
+        if (array instanceof Object[]) {
+            for (final Object element : (Object[]) array) {
+                h = combine(h, hash(element));
+            }
+        } else if (array instanceof int[]) {
+            for (final int element : (int[]) array) {
+                h = combine(h, element);
+            }
+        } else if (array instanceof long[]) {
+            for (final long element : (long[]) array) {
+                h = combine(h, element);
+            }
+        } else if (array instanceof byte[]) {
+            for (final byte element : (byte[]) array) {
+                h = combine(h, element);
+            }
+        } else if (array instanceof char[]) {
+            for (final char element : (char[]) array) {
+                h = combine(h, element);
+            }
+        } else if (array instanceof short[]) {
+            for (final short element : (short[]) array) {
+                h = combine(h, element);
+            }
+        } else if (array instanceof boolean[]) {
+            for (final boolean element : (boolean[]) array) {
+                h = combine(h, element ? 1 : 0);
+            }
+        } else if (array instanceof float[]) {
+            for (final float element : (float[]) array) {
+                h = combine(h, Float.floatToIntBits(element));
+            }
+        } else if (array instanceof double[]) {
+            for (final double element : (double[]) array) {
+                h = combine(h, Double.doubleToLongBits(element));
+            }
+        }
+        return mix(h);
+    }
+
+    /**
+     * Finalizer of the SplitMix64 generator, spreads every input bit over the whole result
+     */
+    private static long mix(final long value) {
+        long h = value;
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -22,7 +22,7 @@ import android.os.Bundle;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import net.grandcentrix.thirtyinch.TiLog;
 
 /**
@@ -51,7 +51,8 @@ public class ActivityInstanceObserver implements Application.ActivityLifecycleCa
 
     private ActivityFinishListener mListener;
 
-    private final HashMap<Activity, String> mScopeIdForActivity = new HashMap<>();
+    private final ConcurrentHashMap<Activity, String> mScopeIdForActivity =
+            new ConcurrentHashMap<>();
 
     public ActivityInstanceObserver(@NonNull final ActivityFinishListener listener) {
         mListener = listener;
@@ -81,8 +82,8 @@ public class ActivityInstanceObserver implements Application.ActivityLifecycleCa
 
     @Override
     public void onActivityDestroyed(final Activity activity) {
-        TiLog.v(TAG, "destroying " + activity);
-        TiLog.v(TAG, "isFinishing = " + activity.isFinishing());
+        TiLog.v(TAG, "destroying %s", activity);
+        TiLog.v(TAG, "isFinishing = %s", activity.isFinishing());
 
         if (activity.isFinishing()) {
             // detected Activity finish, no new Activity instance will be created
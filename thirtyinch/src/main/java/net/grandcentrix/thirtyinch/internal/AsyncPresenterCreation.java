@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.internal;
+
+import androidx.annotation.NonNull;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import net.grandcentrix.thirtyinch.TiLog;
+import net.grandcentrix.thirtyinch.TiPresenter;
+
+/**
+ * Hands a presenter created in the background to the UI thread, run it with {@link
+ * TiPresenterSavior.WarmUp#whenDone(Runnable)}. Every creation is its own token, a delegate
+ * ignores creations it doesn't wait for anymore.
+ */
+final class AsyncPresenterCreation<P extends TiPresenter> implements Runnable {
+
+    interface Callback<P extends TiPresenter> {
+
+        /**
+         * called on the UI thread with the {@link TiPresenter#create() created} presenter
+         */
+        void onPresenterCreated(@NonNull AsyncPresenterCreation<P> creation,
+                @NonNull P presenter);
+    }
+
+    private static final String TAG = AsyncPresenterCreation.class.getSimpleName();
+
+    private final Callback<P> mCallback;
+
+    private final Executor mUiThreadExecutor;
+
+    private final TiPresenterSavior.WarmUp mWarmUp;
+
+    AsyncPresenterCreation(@NonNull final TiPresenterSavior.WarmUp warmUp,
+            @NonNull final Executor uiThreadExecutor, @NonNull final Callback<P> callback) {
+        mWarmUp = warmUp;
+        mUiThreadExecutor = uiThreadExecutor;
+        mCallback = callback;
+    }
+
+    @NonNull
+    TiPresenterSavior.WarmUp getWarmUp() {
+        return mWarmUp;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void run() {
+        final P presenter;
+        try {
+            presenter = (P) mWarmUp.await(0, TimeUnit.NANOSECONDS);
+        } catch (final Throwable t) {
+            // fail on the UI thread like a presenter created synchronously, also for Errors.
+            // Otherwise the host would wait for the presenter forever
+            mUiThreadExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (t instanceof RuntimeException) {
+                        throw (RuntimeException) t;
+                    }
+                    if (t instanceof Error) {
+                        throw (Error) t;
+                    }
+                    throw new IllegalStateException("could not create the Presenter", t);
+                }
+            });
+            return;
+        }
+        if (presenter == null) {
+            // discarded or cancelled before it was created, nobody waits for it
+            return;
+        }
+        TiLog.v(TAG, "created Presenter in the background: %s", presenter);
+
+        mUiThreadExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                mCallback.onPresenterCreated(AsyncPresenterCreation.this, presenter);
+            }
+        });
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.internal;
+
+import androidx.annotation.Nullable;
+import java.util.concurrent.Executor;
+import net.grandcentrix.thirtyinch.TiPresenter;
+
+/**
+ * A {@link TiPresenterProvider} which may create the {@link TiPresenter} in the background. The
+ * delegates call {@link #providePresenter()} and {@link TiPresenter#create()} on the returned
+ * executor instead of the main thread and bind the view once the presenter is created. A host
+ * recreated after a configuration change takes over the presenter which is still being created.
+ * <p>
+ * <b>{@code getPresenter()} of the host returns {@code null} until the presenter is created</b>,
+ * {@code onPresenterReady()} of the host is called once it returns the presenter.
+ */
+public interface AsyncTiPresenterProvider<P extends TiPresenter> extends TiPresenterProvider<P> {
+
+    /**
+     * @return the executor creating the presenter or {@code null} to create it synchronously on
+     * the main thread
+     */
+    @Nullable
+    Executor providePresenterCreationExecutor();
+}
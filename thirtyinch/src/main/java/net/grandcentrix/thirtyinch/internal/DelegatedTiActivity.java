@@ -41,4 +41,10 @@ public interface DelegatedTiActivity {
      * @return {@link Activity#isFinishing()}
      */
     boolean isActivityFinishing();
+
+    /**
+     * Called on the main thread once the presenter is created and set up, before the view gets
+     * bound
+     */
+    void onPresenterReady();
 }
@@ -53,4 +53,9 @@ public interface DelegatedTiFragment {
      */
     boolean isFragmentRemoving();
 
+    /**
+     * Called on the main thread once the presenter is created and set up, before the view gets
+     * bound
+     */
+    void onPresenterReady();
 }
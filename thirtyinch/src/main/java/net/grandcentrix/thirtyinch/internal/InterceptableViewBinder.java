@@ -20,6 +20,7 @@ import androidx.annotation.Nullable;
 import java.util.List;
 import net.grandcentrix.thirtyinch.BindViewInterceptor;
 import net.grandcentrix.thirtyinch.Removable;
+import net.grandcentrix.thirtyinch.SelectiveBindViewInterceptor;
 import net.grandcentrix.thirtyinch.TiPresenter;
 import net.grandcentrix.thirtyinch.TiView;
 
@@ -51,7 +52,9 @@ public interface InterceptableViewBinder<V extends TiView> {
 
     /**
      * @param interceptor the interceptor which returned the {@link TiView}
-     * @return the cached result of {@link BindViewInterceptor#intercept(TiView)}
+     * @return the cached result of {@link BindViewInterceptor#intercept(TiView)}, the view passed
+     * through when a {@link SelectiveBindViewInterceptor} was skipped or {@code null} when no view
+     * is bound
      */
     @Nullable
     V getInterceptedViewOf(@NonNull final BindViewInterceptor interceptor);
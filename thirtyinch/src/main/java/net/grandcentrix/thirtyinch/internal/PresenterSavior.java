@@ -20,8 +20,18 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import net.grandcentrix.thirtyinch.TiLog;
 import net.grandcentrix.thirtyinch.TiPresenter;
 
@@ -42,6 +52,17 @@ import net.grandcentrix.thirtyinch.TiPresenter;
  * cases
  * and destroys and cleans the presenters to prevents leaks.
  * </p>
+ * <p>
+ * The savior is thread-safe. Presenters can be saved, recovered and freed from any thread, i.e.
+ * when presenters are created in the background. Presenters of different hosts don't block each
+ * other because every {@link PresenterScope} is locked individually. Only the creation and
+ * removal of scopes and the registration of the {@link ActivityInstanceObserver} share a lock.
+ * </p>
+ * <p>
+ * Presenters can be {@link #warmUp(TiPresenterProvider, Executor) warmed up} on a background
+ * thread before their host exists. They are parked without a host until a delegate claims them
+ * in {@code onCreate}.
+ * </p>
  */
 public class PresenterSavior implements TiPresenterSavior,
         ActivityInstanceObserver.ActivityFinishListener {
@@ -57,6 +78,135 @@ public class PresenterSavior implements TiPresenterSavior,
         }
     }
 
+    /**
+     * Creates a presenter ahead of time, see {@link #warmUp(TiPresenterProvider, Executor)}
+     */
+    private static final class WarmUpTask extends FutureTask<TiPresenter>
+            implements TiPresenterSavior.WarmUp {
+
+        private final AtomicBoolean mDiscarded;
+
+        /**
+         * actions of {@link #whenDone(Runnable)} waiting for the task, guarded by {@code this}
+         */
+        private final List<Runnable> mDoneActions = new ArrayList<>();
+
+        private final AtomicBoolean mReleased = new AtomicBoolean();
+
+        private final AtomicBoolean mStarted;
+
+        WarmUpTask(@NonNull final TiPresenterProvider<?> provider) {
+            this(provider, new AtomicBoolean(), new AtomicBoolean());
+        }
+
+        private WarmUpTask(@NonNull final TiPresenterProvider<?> provider,
+                @NonNull final AtomicBoolean discarded, @NonNull final AtomicBoolean started) {
+            super(new Callable<TiPresenter>() {
+                @Override
+                public TiPresenter call() throws Exception {
+                    if (!started.compareAndSet(false, true) || discarded.get()) {
+                        // cancelled by the claiming host or nobody will claim the presenter
+                        return null;
+                    }
+                    final TiPresenter presenter = provider.providePresenter();
+                    if (presenter.getState() != TiPresenter.State.INITIALIZED) {
+                        throw new IllegalStateException("Presenter not in initialized state. "
+                                + "Current state is " + presenter.getState() + ". "
+                                + "Presenter provided with #providePresenter() cannot be reused. "
+                                + "Always return a fresh instance!");
+                    }
+                    presenter.create();
+                    TiLog.v(TAG, "warmed up Presenter: %s", presenter);
+                    return presenter;
+                }
+            });
+            mDiscarded = discarded;
+            mStarted = started;
+        }
+
+        @Nullable
+        @Override
+        public TiPresenter await(final long timeout, @NonNull final TimeUnit unit) {
+            try {
+                return get(timeout, unit);
+            } catch (TimeoutException e) {
+                return null;
+            } catch (ExecutionException e) {
+                throw rethrow(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for the Presenter", e);
+            }
+        }
+
+        /**
+         * Prevents that the executor creates the presenter when it didn't start yet
+         *
+         * @return {@code true} when the presenter won't be created, {@code false} when the
+         * creation is running or done
+         */
+        boolean cancelIfNotStarted() {
+            return mStarted.compareAndSet(false, true);
+        }
+
+        /**
+         * Doesn't cancel the task, a running task would lose the created presenter
+         */
+        @Override
+        public void discard() {
+            mDiscarded.set(true);
+            if (isDone()) {
+                release();
+            }
+        }
+
+        @Override
+        public void whenDone(@NonNull final Runnable action) {
+            synchronized (this) {
+                if (!isDone()) {
+                    mDoneActions.add(action);
+                    return;
+                }
+            }
+            action.run();
+        }
+
+        @Override
+        protected void done() {
+            if (mDiscarded.get()) {
+                release();
+            }
+            final List<Runnable> actions;
+            synchronized (this) {
+                actions = new ArrayList<>(mDoneActions);
+                mDoneActions.clear();
+            }
+            for (final Runnable action : actions) {
+                action.run();
+            }
+        }
+
+        /**
+         * destroys the created presenter exactly once
+         */
+        private void release() {
+            if (!mReleased.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                final TiPresenter presenter = get();
+                if (presenter != null) {
+                    TiLog.v(TAG, "destroying discarded Presenter %s", presenter);
+                    presenter.destroy();
+                }
+            } catch (ExecutionException e) {
+                // the presenter wasn't created, nothing to destroy
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     private static PresenterSavior INSTANCE;
 
     private static final String TAG = PresenterSavior.class.getSimpleName();
@@ -67,7 +217,7 @@ public class PresenterSavior implements TiPresenterSavior,
     private static final boolean DEBUG = false;
 
     @VisibleForTesting
-    ActivityInstanceObserver mActivityInstanceObserver;
+    volatile ActivityInstanceObserver mActivityInstanceObserver;
 
     /**
      * Holds a scope for every Activity with one or more presenters. There is no direct mapping for
@@ -76,7 +226,33 @@ public class PresenterSavior implements TiPresenterSavior,
      * Activity which are used as keys here.
      */
     @VisibleForTesting
-    final HashMap<String, PresenterScope> mScopes = new HashMap<>();
+    final ConcurrentHashMap<String, PresenterScope> mScopes = new ConcurrentHashMap<>();
+
+    /**
+     * Presenters created by {@link #warmUp(TiPresenterProvider, Executor)} which aren't claimed by
+     * a host yet
+     */
+    @VisibleForTesting
+    final ConcurrentHashMap<String, WarmUpTask> mWarmPresenters = new ConcurrentHashMap<>();
+
+    /**
+     * source of the process unique part of the ids generated by {@link #generateId()}
+     */
+    private final AtomicLong mIdCounter = new AtomicLong();
+
+    /**
+     * Random prefix of all ids generated by this savior. Ids are persisted in the
+     * savedInstanceState {@link android.os.Bundle} and survive process death. The prefix prevents
+     * that an id of the previous process matches an id generated by the counter of the new process.
+     */
+    private final String mIdPrefix =
+            Long.toString(new Random().nextLong() & Long.MAX_VALUE, Character.MAX_RADIX);
+
+    /**
+     * guards the creation of new {@link PresenterScope}s and the (un-)registration of the
+     * {@link #mActivityInstanceObserver}
+     */
+    private final Object mScopeLock = new Object();
 
     /**
      * Access to the {@link PresenterSavior} singleton to save presenters across orientation changes
@@ -93,15 +269,53 @@ public class PresenterSavior implements TiPresenterSavior,
 
     }
 
+    @Override
+    @Nullable
+    public WarmUp claim(@NonNull final String warmUpId) {
+        final WarmUpTask task = mWarmPresenters.remove(warmUpId);
+        if (task == null || task.cancelIfNotStarted()) {
+            // the caller creates the presenter itself, faster than waiting for the executor
+            return null;
+        }
+        return task;
+    }
+
+    @NonNull
+    @Override
+    public WarmUp create(@NonNull final TiPresenterProvider<?> provider,
+            @NonNull final Executor executor) {
+        final WarmUpTask task = new WarmUpTask(provider);
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Discards a presenter created by {@link #warmUp(TiPresenterProvider, Executor)} which will
+     * never be claimed, i.e. because the navigation was cancelled. A not yet created presenter
+     * won't be created, a created presenter gets destroyed.
+     *
+     * @param warmUpId the id returned by {@code warmUp}
+     */
+    @Override
+    public void discard(@NonNull final String warmUpId) {
+        final WarmUpTask task = mWarmPresenters.remove(warmUpId);
+        if (task != null) {
+            task.discard();
+        }
+    }
+
     @Override
     public void free(final String presenterId, @NonNull final Object host) {
         final PresenterScope scope = getScope(host);
         if (scope != null) {
-            scope.remove(presenterId);
+            synchronized (scope) {
+                scope.remove(presenterId);
 
-            // cleanup empty PresenterScope
-            if (scope.isEmpty()) {
-                mScopes.values().remove(scope);
+                // cleanup empty PresenterScope
+                if (scope.isEmpty()) {
+                    scope.close();
+                    mScopes.values().remove(scope);
+                }
             }
         }
 
@@ -122,12 +336,18 @@ public class PresenterSavior implements TiPresenterSavior,
     @Override
     public void onActivityFinished(final Activity activity, final String hostId) {
         // First remove the scope, and don't leak it when the Activity got finished
-        final PresenterScope scope = mScopes.remove(hostId);
+        final PresenterScope scope = hostId == null ? null : mScopes.remove(hostId);
         unregisterActivityObserver(activity);
 
-        TiLog.d(TAG, "Activity is finishing, free remaining presenters " + activity);
+        TiLog.d(TAG, "Activity is finishing, free remaining presenters %s", activity);
         if (scope != null) {
-            for (final Map.Entry<String, TiPresenter> entry : scope.getAllMappings()) {
+            final List<Map.Entry<String, TiPresenter>> mappings;
+            synchronized (scope) {
+                // concurrent calls of #save(TiPresenter, Object) must not add presenters anymore
+                scope.close();
+                mappings = scope.getAllMappings();
+            }
+            for (final Map.Entry<String, TiPresenter> entry : mappings) {
                 final String presenterId = entry.getKey();
                 final TiPresenter presenter = entry.getValue();
 
@@ -142,11 +362,34 @@ public class PresenterSavior implements TiPresenterSavior,
                 }
                 scope.remove(presenterId);
             }
+            for (final String warmUpId : scope.getParkedIds()) {
+                // no-op for parked presenters claimed by a recreated host
+                discard(warmUpId);
+            }
         }
 
         printRemainingPresenter();
     }
 
+    @NonNull
+    @Override
+    public String park(@NonNull final WarmUp warmUp, @NonNull final Object host) {
+        final String warmUpId = generateId();
+        // all creations are created by this savior
+        mWarmPresenters.put(warmUpId, (WarmUpTask) warmUp);
+        while (true) {
+            final PresenterScope scope = getOrCreateScope(host);
+            synchronized (scope) {
+                if (!scope.isClosed()) {
+                    scope.park(warmUpId);
+                    break;
+                }
+            }
+            // the scope was closed concurrently, retry with a new scope
+        }
+        return warmUpId;
+    }
+
     @Override
     @Nullable
     public TiPresenter recover(final String presenterId, @NonNull final Object host) {
@@ -160,28 +403,17 @@ public class PresenterSavior implements TiPresenterSavior,
     @Override
     public String save(@NonNull final TiPresenter presenter, @NonNull final Object host) {
 
-        // hostId will be non null for new hosts
-        String hostId = null;
-
-        PresenterScope scope = getScope(host);
-        if (scope == null) {
-            // create a new scope
-            scope = new PresenterScope();
-            hostId = generateId(host);
-            mScopes.put(hostId, scope);
-        }
-        final String presenterId = generateId(presenter);
-        scope.save(presenterId, presenter);
-
-        if (hostId != null) {
-            // register host observer when a new host was detected
-            if (host instanceof Activity) {
-                final Activity activity = (Activity) host;
-                observeActivityFinish(activity, hostId);
-            } else {
-                // currently only Activity is supported as host
-                throw new IllegalHostException(host);
+        final String presenterId = generateId();
+        while (true) {
+            final PresenterScope scope = getOrCreateScope(host);
+            synchronized (scope) {
+                if (!scope.isClosed()) {
+                    scope.save(presenterId, presenter);
+                    break;
+                }
             }
+            // the scope was closed concurrently because it got empty or the Activity finished,
+            // retry with a new scope
         }
 
         printRemainingPresenter();
@@ -190,12 +422,73 @@ public class PresenterSavior implements TiPresenterSavior,
     }
 
     /**
-     * Generates a unique id for a given object
+     * Creates and {@link TiPresenter#create() creates} a presenter on the {@code executor} ahead of
+     * time, i.e. before navigating to the Activity or Fragment using it. The presenter isn't
+     * assigned to a host until {@link TiActivityDelegate} or {@link TiFragmentDelegate} claims it
+     * with the returned id.
+     * <p>
+     * A presenter which will never be claimed must be {@link #discard(String) discarded}.
+     *
+     * @param provider provides a new presenter, called on the {@code executor}
+     * @param executor runs the creation of the presenter
+     * @return the id to claim the presenter with
+     * @see net.grandcentrix.thirtyinch.TiPresenterWarmUp
+     */
+    @NonNull
+    public String warmUp(@NonNull final TiPresenterProvider<?> provider,
+            @NonNull final Executor executor) {
+        final String warmUpId = generateId();
+        final WarmUpTask task = new WarmUpTask(provider);
+        mWarmPresenters.put(warmUpId, task);
+        try {
+            executor.execute(task);
+        } catch (RuntimeException e) {
+            mWarmPresenters.remove(warmUpId);
+            throw e;
+        }
+        return warmUpId;
+    }
+
+    /**
+     * Generates a unique id for presenters and hosts, i.e. {@code 1y2p0ij32e8e7:2s}. The ids are
+     * guaranteed to be unique within this process and are very unlikely to collide with ids of
+     * previous processes thanks to the random prefix.
+     * <p>
+     * Ids are opaque strings. Ids saved by older versions (i.e. in a restored savedInstanceState)
+     * can't be recovered after process death anyway and are simply not found.
      */
-    private String generateId(final Object object) {
-        return object.getClass().getSimpleName()
-                + ":" + object.hashCode()
-                + ":" + System.nanoTime();
+    @VisibleForTesting
+    String generateId() {
+        return mIdPrefix + ":" + Long.toString(mIdCounter.incrementAndGet(), Character.MAX_RADIX);
+    }
+
+    /**
+     * retrieves the scope for a {@link Activity} and creates a new scope when the scope doesn't
+     * exist
+     */
+    @NonNull
+    private PresenterScope getOrCreateScope(final Object host) {
+        final PresenterScope existing = getScope(host);
+        if (existing != null) {
+            return existing;
+        }
+        synchronized (mScopeLock) {
+            // check again, another thread might have created the scope in the meantime
+            PresenterScope scope = getScope(host);
+            if (scope == null) {
+                if (!(host instanceof Activity)) {
+                    // currently only Activity is supported as host
+                    throw new IllegalHostException(host);
+                }
+                scope = new PresenterScope();
+                final String hostId = generateId();
+                mScopes.put(hostId, scope);
+
+                // register host observer when a new host was detected
+                observeActivityFinish((Activity) host, hostId);
+            }
+            return scope;
+        }
     }
 
     /**
@@ -203,7 +496,7 @@ public class PresenterSavior implements TiPresenterSavior,
      * doesn't exist
      */
     @Nullable
-    private synchronized PresenterScope getScope(final Object host) {
+    private PresenterScope getScope(final Object host) {
         if (host instanceof Activity) {
             final ActivityInstanceObserver detector = mActivityInstanceObserver;
             if (detector == null) {
@@ -246,39 +539,59 @@ public class PresenterSavior implements TiPresenterSavior,
                 presenters.addAll(entry.getValue().getAll());
             }
 
-            TiLog.d(TAG, "presenter count: " + presenters.size());
+            TiLog.d(TAG, "presenter count: %s", presenters.size());
             for (final TiPresenter presenter : presenters) {
-                TiLog.v(TAG, " - " + presenter);
+                TiLog.v(TAG, " - %s", presenter);
             }
         }
     }
 
+    /**
+     * @return the cause of a failed warm up to throw on the claiming thread, {@link Error}s are
+     * thrown directly
+     */
+    private static RuntimeException rethrow(@NonNull final ExecutionException e) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new RuntimeException(cause);
+    }
+
     /**
      * registers the {@link #mActivityInstanceObserver}
      */
     private ActivityInstanceObserver registerActivityObserver(final Activity activity) {
-        if (mActivityInstanceObserver == null) {
-            mActivityInstanceObserver = new ActivityInstanceObserver(this);
-            TiLog.v(TAG, "registering lifecycle callback");
-            activity.getApplication().registerActivityLifecycleCallbacks(mActivityInstanceObserver);
+        synchronized (mScopeLock) {
+            if (mActivityInstanceObserver == null) {
+                final ActivityInstanceObserver observer = new ActivityInstanceObserver(this);
+                TiLog.v(TAG, "registering lifecycle callback");
+                activity.getApplication().registerActivityLifecycleCallbacks(observer);
+                mActivityInstanceObserver = observer;
+            }
+            return mActivityInstanceObserver;
         }
-        return mActivityInstanceObserver;
     }
 
     /**
      * unregister {@link #mActivityInstanceObserver} when scopes are empty
      */
     private void unregisterActivityObserver(final Activity activity) {
-        if (mScopes.isEmpty()) {
-            // unregister detector because there are no presenters which could be recovered.
-            // next #save call will create a new one
-            if (mActivityInstanceObserver != null) {
-                if (DEBUG) {
-                    TiLog.v(TAG, "unregistering lifecycle callback");
+        synchronized (mScopeLock) {
+            if (mScopes.isEmpty()) {
+                // unregister detector because there are no presenters which could be recovered.
+                // next #save call will create a new one
+                if (mActivityInstanceObserver != null) {
+                    if (DEBUG) {
+                        TiLog.v(TAG, "unregistering lifecycle callback");
+                    }
+                    activity.getApplication()
+                            .unregisterActivityLifecycleCallbacks(mActivityInstanceObserver);
+                    mActivityInstanceObserver = null;
                 }
-                activity.getApplication()
-                        .unregisterActivityLifecycleCallbacks(mActivityInstanceObserver);
-                mActivityInstanceObserver = null;
             }
         }
     }
@@ -20,6 +20,8 @@ import androidx.annotation.NonNull;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import net.grandcentrix.thirtyinch.TiLog;
@@ -30,45 +32,104 @@ import net.grandcentrix.thirtyinch.TiPresenter;
  * {@link TiPresenter} (i.e. {@link android.app.Activity}) a corresponding {@link PresenterScope}
  * will be created.
  * It contains the {@link TiPresenter} of the Activity itself and of all of its Fragments.
+ * <p>
+ * All methods are synchronized on the scope instance which allows presenters of different hosts
+ * to be saved and freed concurrently. Once {@link #close() closed} a scope doesn't accept new
+ * presenters anymore.
+ * <p>
+ * An additional reverse index from presenter to id keeps {@link #save(String, TiPresenter)} and
+ * {@link #remove(String)} constant time, even for scopes with many Fragment presenters.
  */
 public class PresenterScope {
 
     private final String TAG = PresenterScope.class.getSimpleName()
             + "@" + Integer.toHexString(hashCode());
 
+    private boolean mClosed = false;
+
+    /**
+     * reverse index of {@link #mStore}, presenters are compared by identity
+     */
+    private final IdentityHashMap<TiPresenter, String> mIds = new IdentityHashMap<>();
+
+    /**
+     * ids of presenters {@link PresenterSavior#park(TiPresenterSavior.WarmUp, Object) parked}
+     * for a recreated host, they are discarded when the host finishes
+     */
+    private final HashSet<String> mParkedIds = new HashSet<>();
+
     private final HashMap<String, TiPresenter> mStore = new HashMap<>();
 
-    public TiPresenter get(final String id) {
+    /**
+     * Marks this scope as closed. It's not possible to save presenters in a closed scope, this
+     * prevents presenters from being saved in a scope which is about to be removed from the
+     * {@link PresenterSavior}
+     */
+    public synchronized void close() {
+        mClosed = true;
+    }
+
+    public synchronized TiPresenter get(final String id) {
         return mStore.get(id);
     }
 
     @NonNull
-    public List<TiPresenter> getAll() {
+    public synchronized List<TiPresenter> getAll() {
         return Collections.unmodifiableList(new ArrayList<>(mStore.values()));
     }
 
     @NonNull
-    public List<Map.Entry<String, TiPresenter>> getAllMappings() {
+    public synchronized List<Map.Entry<String, TiPresenter>> getAllMappings() {
         return Collections.unmodifiableList(new ArrayList<>(mStore.entrySet()));
     }
 
-    public boolean isEmpty() {
-        return mStore.isEmpty();
+    /**
+     * @return {@code true} when this scope got {@link #close() closed}
+     */
+    public synchronized boolean isClosed() {
+        return mClosed;
+    }
+
+    @NonNull
+    public synchronized List<String> getParkedIds() {
+        return Collections.unmodifiableList(new ArrayList<>(mParkedIds));
+    }
+
+    public synchronized boolean isEmpty() {
+        return mStore.isEmpty() && mParkedIds.isEmpty();
+    }
+
+    /**
+     * Remembers the id of a parked presenter until the scope gets removed
+     */
+    public synchronized void park(@NonNull final String warmUpId) {
+        if (mClosed) {
+            throw new IllegalStateException("Scope is already closed, can't park presenter "
+                    + warmUpId);
+        }
+        mParkedIds.add(warmUpId);
     }
 
-    public TiPresenter remove(@NonNull final String id) {
+    public synchronized TiPresenter remove(@NonNull final String id) {
         final TiPresenter presenter = mStore.remove(id);
-        TiLog.d(TAG, "remove " + id + " " + presenter);
+        if (presenter != null) {
+            mIds.remove(presenter);
+        }
+        TiLog.d(TAG, "remove %s %s", id, presenter);
         return presenter;
     }
 
-    public void save(@NonNull final String id, @NonNull final TiPresenter presenter) {
+    public synchronized void save(@NonNull final String id, @NonNull final TiPresenter presenter) {
         if (id == null) {
             throw new IllegalStateException("id must be non-null");
         }
         if (presenter == null) {
             throw new IllegalStateException("presenter must be non-null");
         }
+        if (mClosed) {
+            throw new IllegalStateException("Scope is already closed, can't save presenter "
+                    + id + " " + presenter);
+        }
 
         // overriding a presenter is not allowed, use remove before saving a presenter
         if (mStore.get(id) != null) {
@@ -77,18 +138,18 @@ public class PresenterScope {
         }
 
         // saving a presenter twice with a different id is not supported
-        for (final Map.Entry<String, TiPresenter> entry : mStore.entrySet()) {
-            if (entry.getValue().equals(presenter)) {
-                throw new IllegalStateException("Presenter is already saved with different id '"
-                        + entry.getKey() + "' " + presenter);
-            }
+        final String existingId = mIds.get(presenter);
+        if (existingId != null) {
+            throw new IllegalStateException("Presenter is already saved with different id '"
+                    + existingId + "' " + presenter);
         }
 
-        TiLog.d(TAG, "save " + id + " " + presenter);
+        TiLog.d(TAG, "save %s %s", id, presenter);
         mStore.put(id, presenter);
+        mIds.put(presenter, id);
     }
 
-    public int size() {
+    public synchronized int size() {
         return mStore.size();
     }
 
@@ -17,23 +17,49 @@ package net.grandcentrix.thirtyinch.internal;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import net.grandcentrix.thirtyinch.BindViewInterceptor;
+import net.grandcentrix.thirtyinch.FusableBindViewInterceptor;
+import net.grandcentrix.thirtyinch.FusableBindViewInterceptor.Hook;
 import net.grandcentrix.thirtyinch.Removable;
+import net.grandcentrix.thirtyinch.SelectiveBindViewInterceptor;
 import net.grandcentrix.thirtyinch.TiLog;
 import net.grandcentrix.thirtyinch.TiPresenter;
 import net.grandcentrix.thirtyinch.TiView;
+import net.grandcentrix.thirtyinch.util.FusedInvocationHandler;
+import net.grandcentrix.thirtyinch.util.ViewClassInfo;
 
 /**
  * Binds a {@link TiView} to a {@link TiPresenter} and allows {@link BindViewInterceptor}s to
- * pivot the view before attaching
+ * pivot the view before attaching. The hooks of consecutive {@link FusableBindViewInterceptor}s
+ * are fused into a single {@link Proxy}, {@link SelectiveBindViewInterceptor}s are skipped for
+ * views they don't apply to.
  *
  * @param <V> the {@link TiView}
  */
 public class PresenterViewBinder<V extends TiView> implements InterceptableViewBinder<V> {
 
+    /**
+     * The answer of {@link SelectiveBindViewInterceptor#appliesTo(Class)} for a view interface
+     */
+    private static final class Applicability {
+
+        final boolean applies;
+
+        final Class<?> viewInterface;
+
+        Applicability(final Class<?> viewInterface, final boolean applies) {
+            this.viewInterface = viewInterface;
+            this.applies = applies;
+        }
+    }
+
+    private final HashMap<SelectiveBindViewInterceptor, Applicability> mApplicability =
+            new HashMap<>();
+
     private List<BindViewInterceptor> mBindViewInterceptors = new ArrayList<>();
 
     private HashMap<BindViewInterceptor, V> mInterceptorViewOutput = new HashMap<>();
@@ -52,13 +78,26 @@ public class PresenterViewBinder<V extends TiView> implements InterceptableViewB
     @NonNull
     @Override
     public Removable addBindViewInterceptor(@NonNull final BindViewInterceptor interceptor) {
-        mBindViewInterceptors.add(interceptor);
+        return addBindViewInterceptor(mBindViewInterceptors.size(), interceptor);
+    }
+
+    /**
+     * Adds the interceptor at the given position, the interceptors from this position on move one
+     * position back. Allows adding the interceptors of a presenter created in the background at
+     * the same position as the ones of a synchronously created presenter.
+     */
+    @NonNull
+    Removable addBindViewInterceptor(final int index,
+            @NonNull final BindViewInterceptor interceptor) {
+        mBindViewInterceptors.add(index, interceptor);
         invalidateView();
 
         return new OneTimeRemovable() {
             @Override
             public void onRemove() {
                 mBindViewInterceptors.remove(interceptor);
+                //noinspection SuspiciousMethodCalls
+                mApplicability.remove(interceptor);
                 invalidateView();
             }
         };
@@ -71,16 +110,12 @@ public class PresenterViewBinder<V extends TiView> implements InterceptableViewB
     public void bindView(final TiPresenter<V> presenter, final TiViewProvider<V> viewProvider) {
         if (mLastView == null) {
             invalidateView();
-            V interceptedView = viewProvider.provideView();
-            for (final BindViewInterceptor interceptor : mBindViewInterceptors) {
-                interceptedView = interceptor.intercept(interceptedView);
-                mInterceptorViewOutput.put(interceptor, interceptedView);
-            }
-            mLastView = interceptedView;
-            TiLog.v(mLogTag.getLoggingTag(), "binding NEW view to Presenter " + mLastView);
+            mLastView = intercept(viewProvider.provideView());
+            TiLog.v(mLogTag.getLoggingTag(), "binding NEW view to Presenter %s", mLastView);
             presenter.attachView(mLastView);
         } else {
-            TiLog.v(mLogTag.getLoggingTag(), "binding the cached view to Presenter " + mLastView);
+            TiLog.v(mLogTag.getLoggingTag(), "binding the cached view to Presenter %s",
+                    mLastView);
             presenter.attachView(mLastView);
         }
     }
@@ -105,9 +140,119 @@ public class PresenterViewBinder<V extends TiView> implements InterceptableViewB
         return result;
     }
 
+    /**
+     * @return the number of added interceptors
+     */
+    int getInterceptorCount() {
+        return mBindViewInterceptors.size();
+    }
+
     @Override
     public void invalidateView() {
         mLastView = null;
         mInterceptorViewOutput.clear();
     }
+
+    /**
+     * @return {@code false} when the interceptor doesn't apply to the view interface and can be
+     * skipped, asks {@link SelectiveBindViewInterceptor}s once per view interface
+     */
+    private boolean appliesTo(final BindViewInterceptor interceptor,
+            @Nullable final Class<?> viewInterface) {
+        if (viewInterface == null || !(interceptor instanceof SelectiveBindViewInterceptor)) {
+            return true;
+        }
+        final SelectiveBindViewInterceptor selective = (SelectiveBindViewInterceptor) interceptor;
+        final Applicability cached = mApplicability.get(selective);
+        if (cached != null && cached.viewInterface == viewInterface) {
+            return cached.applies;
+        }
+        final boolean applies = selective.appliesTo(viewInterface);
+        mApplicability.put(selective, new Applicability(viewInterface, applies));
+        if (!applies) {
+            TiLog.v(mLogTag.getLoggingTag(), "skipping %s, it doesn't apply to %s",
+                    interceptor, viewInterface);
+        }
+        return applies;
+    }
+
+    /**
+     * Wraps the view in a single {@link Proxy} running the hooks of the collected interceptors
+     *
+     * @param skipped interceptors skipped in between the collected ones, the fused view passes
+     *                through them
+     */
+    private V fuse(final V view, final List<FusableBindViewInterceptor> interceptors,
+            final List<Hook> hooks, final List<BindViewInterceptor> skipped) {
+        if (hooks.isEmpty()) {
+            return view;
+        }
+        final FusedInvocationHandler handler = new FusedInvocationHandler(view,
+                interceptors.toArray(new FusableBindViewInterceptor[interceptors.size()]),
+                hooks.toArray(new Hook[hooks.size()]));
+        final V fusedView = ViewClassInfo.of(view.getClass()).newProxy(handler);
+        for (int i = 0; i < interceptors.size(); i++) {
+            mInterceptorViewOutput.put(interceptors.get(i), fusedView);
+        }
+        for (int i = 0; i < skipped.size(); i++) {
+            mInterceptorViewOutput.put(skipped.get(i), fusedView);
+        }
+        interceptors.clear();
+        hooks.clear();
+        skipped.clear();
+        return fusedView;
+    }
+
+    /**
+     * Passes the view through all interceptors. Consecutive {@link FusableBindViewInterceptor}s
+     * contribute a {@link Hook} and share one proxy, all other interceptors wrap the view on
+     * their own. {@link SelectiveBindViewInterceptor}s not applying to the view are skipped, the
+     * view passes through them unchanged.
+     */
+    private V intercept(final V view) {
+        final ArrayList<FusableBindViewInterceptor> fusedInterceptors = new ArrayList<>();
+        final ArrayList<Hook> hooks = new ArrayList<>();
+        final ArrayList<BindViewInterceptor> skipped = new ArrayList<>();
+        final Class<?> originalViewInterface = ViewClassInfo.of(view.getClass()).getViewInterface();
+
+        V interceptedView = view;
+        // the interface of interceptedView, only resolved for fusable interceptors
+        Class<?> viewInterface = null;
+        boolean viewInterfaceResolved = false;
+        for (int i = 0; i < mBindViewInterceptors.size(); i++) {
+            final BindViewInterceptor interceptor = mBindViewInterceptors.get(i);
+            if (!appliesTo(interceptor, originalViewInterface)) {
+                if (hooks.isEmpty()) {
+                    mInterceptorViewOutput.put(interceptor, interceptedView);
+                } else {
+                    // the view passing through is the fused view which doesn't exist yet
+                    skipped.add(interceptor);
+                }
+                continue;
+            }
+            if (interceptor instanceof FusableBindViewInterceptor) {
+                if (!viewInterfaceResolved) {
+                    viewInterface = ViewClassInfo.of(interceptedView.getClass())
+                            .getViewInterface();
+                    viewInterfaceResolved = true;
+                }
+                if (viewInterface != null) {
+                    final FusableBindViewInterceptor fusable =
+                            (FusableBindViewInterceptor) interceptor;
+                    final Hook hook = fusable.createHook(interceptedView, viewInterface);
+                    if (hook != null) {
+                        fusedInterceptors.add(fusable);
+                        hooks.add(hook);
+                        continue;
+                    }
+                }
+            }
+
+            interceptedView = fuse(interceptedView, fusedInterceptors, hooks, skipped);
+            interceptedView = interceptor.intercept(interceptedView);
+            mInterceptorViewOutput.put(interceptor, interceptedView);
+            viewInterfaceResolved = false;
+        }
+        return fuse(interceptedView, fusedInterceptors, hooks, skipped);
+    }
 }
@@ -22,15 +22,21 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import net.grandcentrix.thirtyinch.BindViewInterceptor;
 import net.grandcentrix.thirtyinch.Removable;
 import net.grandcentrix.thirtyinch.TiActivity;
 import net.grandcentrix.thirtyinch.TiConfiguration;
 import net.grandcentrix.thirtyinch.TiLog;
 import net.grandcentrix.thirtyinch.TiPresenter;
+import net.grandcentrix.thirtyinch.TiPresenterWarmUp;
 import net.grandcentrix.thirtyinch.TiView;
 import net.grandcentrix.thirtyinch.callonmainthread.CallOnMainThreadInterceptor;
+import net.grandcentrix.thirtyinch.callonmainthread.FrameAlignedScheduler;
 import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctUntilChangedInterceptor;
+import net.grandcentrix.thirtyinch.tracing.TiTracer;
+import net.grandcentrix.thirtyinch.tracing.TiTracing;
 
 /**
  * This delegate allows sharing the activity code between the {@link TiActivity} and {@code
@@ -43,6 +49,9 @@ import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctUntilChangedInte
 public class TiActivityDelegate<P extends TiPresenter<V>, V extends TiView>
         implements InterceptableViewBinder<V>, PresenterAccessor<P, V> {
 
+    @VisibleForTesting
+    static final String SAVED_STATE_PENDING_CREATION_ID = "pending_creation_id";
+
     @VisibleForTesting
     static final String SAVED_STATE_PRESENTER_ID = "presenter_id";
 
@@ -52,8 +61,29 @@ public class TiActivityDelegate<P extends TiPresenter<V>, V extends TiView>
      */
     private volatile boolean mActivityStarted = false;
 
+    /**
+     * position of the interceptors of the presenter configuration. They are added before the
+     * interceptors added after {@code onCreate}, also when the presenter is created in the
+     * background.
+     */
+    private int mConfigInterceptorsIndex;
+
     private final TiLoggingTagProvider mLogTag;
 
+    /**
+     * The creation of the presenter running in the background, {@code null} when the presenter
+     * isn't created by an {@link AsyncTiPresenterProvider}
+     */
+    @Nullable
+    private AsyncPresenterCreation<P> mPendingCreation;
+
+    /**
+     * The id the {@link #mPendingCreation} is parked with in the savior. Will be stored in the
+     * savedInstanceState to hand the creation over to the recreated Activity.
+     */
+    @Nullable
+    private String mPendingCreationId;
+
     /**
      * The presenter to which this activity will be attached as view when in the right state.
      */
@@ -109,6 +139,10 @@ public class TiActivityDelegate<P extends TiPresenter<V>, V extends TiView>
         return mViewBinder.getInterceptors(predicate);
     }
 
+    /**
+     * @return the presenter, {@code null} while it's created in the background by an {@link
+     * AsyncTiPresenterProvider}
+     */
     @Override
     public P getPresenter() {
         return mPresenter;
@@ -128,8 +162,18 @@ public class TiActivityDelegate<P extends TiPresenter<V>, V extends TiView>
         mViewBinder.invalidateView();
     }
 
-    @SuppressWarnings("unchecked")
     public void onCreate_afterSuper(final Bundle savedInstanceState) {
+        onCreate_afterSuper(savedInstanceState, null);
+    }
+
+    /**
+     * @param warmUpId id of a presenter created ahead of time with {@link
+     *                 PresenterSavior#warmUp(TiPresenterProvider, java.util.concurrent.Executor)}
+     *                 which is used instead of a new presenter, or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public void onCreate_afterSuper(final Bundle savedInstanceState,
+            @Nullable final String warmUpId) {
 
         // try to recover with the PresenterSavior
         if (savedInstanceState != null) {
@@ -140,12 +184,12 @@ public class TiActivityDelegate<P extends TiPresenter<V>, V extends TiView>
                 if (recoveredPresenterId != null) {
                     // recover with Savior
                     // this should always work.
-                    TiLog.v(mLogTag.getLoggingTag(),
-                            "try to recover Presenter with id: " + recoveredPresenterId);
+                    TiLog.v(mLogTag.getLoggingTag(), "try to recover Presenter with id: %s",
+                            recoveredPresenterId);
                     mPresenter = (P) mSavior
                             .recover(recoveredPresenterId, mTiActivity.getHostingContainer());
-                    TiLog.v(mLogTag.getLoggingTag(),
-                            "recovered Presenter from savior " + mPresenter);
+                    TiLog.v(mLogTag.getLoggingTag(), "recovered Presenter from savior %s",
+                            mPresenter);
                 } else {
                     TiLog.v(mLogTag.getLoggingTag(), "could not recover a Presenter from savior");
                 }
@@ -164,6 +208,51 @@ public class TiActivityDelegate<P extends TiPresenter<V>, V extends TiView>
             }
         }
 
+        // the presenter of the previous instance may still be created in the background
+        final String pendingCreationId = savedInstanceState == null
+                ? null : savedInstanceState.getString(SAVED_STATE_PENDING_CREATION_ID);
+        final String claimId = pendingCreationId != null ? pendingCreationId : warmUpId;
+
+        final Executor creationExecutor =
+                mPresenter == null ? getPresenterCreationExecutor() : null;
+
+        mConfigInterceptorsIndex = mViewBinder.getInterceptorCount();
+
+        if (mPresenter == null && claimId != null) {
+            final TiPresenterSavior.WarmUp warmUp = mSavior.claim(claimId);
+            if (warmUp != null) {
+                // use the presenter created ahead of time. Blocks the main thread for a limited
+                // time when it's still being created, hosts creating their presenters in the
+                // background don't block at all
+                final long timeout =
+                        creationExecutor == null ? TiPresenterWarmUp.CLAIM_TIMEOUT_MILLIS : 0;
+                mPresenter = (P) warmUp.await(timeout, TimeUnit.MILLISECONDS);
+                if (mPresenter == null) {
+                    // don't create a second presenter, the view gets bound once it's warmed up
+                    mPendingCreation = new AsyncPresenterCreation<>(warmUp,
+                            mTiActivity.getUiThreadExecutor(), createCreationCallback());
+                    TiLog.v(mLogTag.getLoggingTag(), "waiting for the warmed up Presenter");
+                    warmUp.whenDone(mPendingCreation);
+                    return;
+                }
+                TiLog.v(mLogTag.getLoggingTag(), "claimed warmed up Presenter: %s", mPresenter);
+                if (mPresenter.getConfig().shouldRetainPresenter()) {
+                    mPresenterId = mSavior.save(mPresenter, mTiActivity.getHostingContainer());
+                }
+            }
+        }
+
+        if (mPresenter == null && creationExecutor != null) {
+            // create the presenter in the background, the view gets bound once it's created
+            final TiPresenterSavior.WarmUp creation =
+                    mSavior.create(mPresenterProvider, creationExecutor);
+            mPendingCreation = new AsyncPresenterCreation<>(creation,
+                    mTiActivity.getUiThreadExecutor(), createCreationCallback());
+            TiLog.v(mLogTag.getLoggingTag(), "creating Presenter in the background");
+            creation.whenDone(mPendingCreation);
+            return;
+        }
+
         if (mPresenter == null) {
             // could not recover, create a new presenter
             mPresenter = mPresenterProvider.providePresenter();
@@ -173,7 +262,7 @@ public class TiActivityDelegate<P extends TiPresenter<V>, V extends TiView>
                         + "Presenter provided with #providePresenter() cannot be reused. "
                         + "Always return a fresh instance!");
             }
-            TiLog.v(mLogTag.getLoggingTag(), "created Presenter: " + mPresenter);
+            TiLog.v(mLogTag.getLoggingTag(), "created Presenter: %s", mPresenter);
             final TiConfiguration config = mPresenter.getConfig();
             if (config.shouldRetainPresenter()) {
                 mPresenterId = mSavior.save(mPresenter, mTiActivity.getHostingContainer());
@@ -181,21 +270,7 @@ public class TiActivityDelegate<P extends TiPresenter<V>, V extends TiView>
             mPresenter.create();
         }
 
-        final TiConfiguration config = mPresenter.getConfig();
-        if (config.isCallOnMainThreadInterceptorEnabled()) {
-            addBindViewInterceptor(new CallOnMainThreadInterceptor());
-        }
-
-        if (config.isDistinctUntilChangedInterceptorEnabled()) {
-            addBindViewInterceptor(new DistinctUntilChangedInterceptor());
-        }
-
-        //noinspection unchecked
-        final UiThreadExecutorAutoBinder uiThreadAutoBinder =
-                new UiThreadExecutorAutoBinder(mPresenter, mTiActivity.getUiThreadExecutor());
-
-        // bind ui thread to presenter when view is attached
-        mUiThreadBinderRemovable = mPresenter.addLifecycleObserver(uiThreadAutoBinder);
+        setUpPresenter();
     }
 
     public void onDestroy_afterSuper() {
@@ -206,11 +281,31 @@ public class TiActivityDelegate<P extends TiPresenter<V>, V extends TiView>
             mUiThreadBinderRemovable = null;
         }
 
+        if (mPresenter == null) {
+            final AsyncPresenterCreation<P> creation = mPendingCreation;
+            mPendingCreation = null;
+            if (mPendingCreationId != null && !(mTiActivity.isActivityFinishing())) {
+                // the recreated Activity claims the presenter
+                TiLog.v(mLogTag.getLoggingTag(), "Activity destroyed before the Presenter was "
+                        + "created, handing it over to the next Activity instance");
+                return;
+            }
+            TiLog.v(mLogTag.getLoggingTag(),
+                    "Activity destroyed before the Presenter was created, discarding it");
+            if (mPendingCreationId != null) {
+                mSavior.discard(mPendingCreationId);
+            }
+            if (creation != null) {
+                creation.getWarmUp().discard();
+            }
+            return;
+        }
+
         boolean destroyPresenter = false;
         if (mTiActivity.isActivityFinishing()) {
             destroyPresenter = true;
-            TiLog.v(mLogTag.getLoggingTag(),
-                    "Activity is finishing, destroying presenter " + mPresenter);
+            TiLog.v(mLogTag.getLoggingTag(), "Activity is finishing, destroying presenter %s",
+                    mPresenter);
         }
 
         if (!destroyPresenter &&
@@ -219,42 +314,144 @@ public class TiActivityDelegate<P extends TiPresenter<V>, V extends TiView>
             // will be created and the current presenter should be destroyed
             destroyPresenter = true;
             TiLog.v(mLogTag.getLoggingTag(),
-                    "presenter configured as not retaining, destroying " + mPresenter);
+                    "presenter configured as not retaining, destroying %s", mPresenter);
         }
 
         if (destroyPresenter) {
             mPresenter.destroy();
             mSavior.free(mPresenterId, mTiActivity.getHostingContainer());
         } else {
-            TiLog.v(mLogTag.getLoggingTag(), "not destroying " + mPresenter
-                    + " which will be reused by the next Activity instance, recreating...");
+            TiLog.v(mLogTag.getLoggingTag(), "not destroying %s which will be reused by the next "
+                    + "Activity instance, recreating...", mPresenter);
         }
     }
 
     public void onSaveInstanceState_afterSuper(final Bundle outState) {
         outState.putString(SAVED_STATE_PRESENTER_ID, mPresenterId);
+        if (mPendingCreation != null && mPendingCreationId == null) {
+            // keep the presenter created in the background for the recreated Activity
+            mPendingCreationId = mSavior.park(mPendingCreation.getWarmUp(),
+                    mTiActivity.getHostingContainer());
+        }
+        outState.putString(SAVED_STATE_PENDING_CREATION_ID, mPendingCreationId);
     }
 
     public void onStart_afterSuper() {
         mActivityStarted = true;
+        final P presenter = mPresenter;
+        if (presenter == null) {
+            // the view gets bound when the presenter created in the background arrives
+            return;
+        }
+        final TiTracer tracer = TiTracing.getTracer();
+        if (tracer != null) {
+            tracer.beginSection(TiTracer.Section.BIND_VIEW, presenter);
+        }
         // post to the UI queue to delay bindView until all queued work has finished
         mTiActivity.getUiThreadExecutor().execute(new Runnable() {
             @Override
             public void run() {
-                // check if still started. It happens that onStop got already called, specially
-                // when the Activity is not the top Activity and a configuration change happens
-                if (mActivityStarted) {
-                    mViewBinder.bindView(mPresenter, mViewProvider);
+                try {
+                    // check if still started. It happens that onStop got already called,
+                    // specially when the Activity is not the top Activity and a configuration
+                    // change happens
+                    if (mActivityStarted) {
+                        mViewBinder.bindView(mPresenter, mViewProvider);
+                    }
+                } finally {
+                    if (tracer != null) {
+                        tracer.endSection(TiTracer.Section.BIND_VIEW, presenter);
+                    }
                 }
             }
         });
     }
 
     public void onStop_afterSuper() {
-        mPresenter.detachView();
+        if (mPresenter != null) {
+            mPresenter.detachView();
+        }
     }
 
     public void onStop_beforeSuper() {
         mActivityStarted = false;
     }
+
+    private AsyncPresenterCreation.Callback<P> createCreationCallback() {
+        return new AsyncPresenterCreation.Callback<P>() {
+            @Override
+            public void onPresenterCreated(@NonNull final AsyncPresenterCreation<P> creation,
+                    @NonNull final P presenter) {
+                onPresenterCreatedAsync(creation, presenter);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private Executor getPresenterCreationExecutor() {
+        if (mPresenterProvider instanceof AsyncTiPresenterProvider) {
+            return ((AsyncTiPresenterProvider<P>) mPresenterProvider)
+                    .providePresenterCreationExecutor();
+        }
+        return null;
+    }
+
+    /**
+     * Receives the presenter created in the background on the UI thread and binds the view when
+     * the Activity is already started
+     */
+    private void onPresenterCreatedAsync(@NonNull final AsyncPresenterCreation<P> creation,
+            @NonNull final P presenter) {
+        if (creation != mPendingCreation) {
+            // the Activity got destroyed in the meantime, the presenter was discarded or handed
+            // over to the recreated Activity
+            return;
+        }
+        if (mPendingCreationId != null) {
+            // not needed by a recreated Activity anymore
+            mSavior.claim(mPendingCreationId);
+            mPendingCreationId = null;
+        }
+        mPendingCreation = null;
+        mPresenter = presenter;
+        TiLog.v(mLogTag.getLoggingTag(), "created Presenter: %s", mPresenter);
+        if (mPresenter.getConfig().shouldRetainPresenter()) {
+            mPresenterId = mSavior.save(mPresenter, mTiActivity.getHostingContainer());
+        }
+        setUpPresenter();
+
+        if (mActivityStarted) {
+            mViewBinder.bindView(mPresenter, mViewProvider);
+        }
+    }
+
+    /**
+     * adds the interceptors of the presenter configuration at {@link #mConfigInterceptorsIndex},
+     * binds the ui thread executor and notifies the host that the presenter is ready
+     */
+    private void setUpPresenter() {
+        // same position for presenters created synchronously or in the background, interceptors
+        // added in onCreate wrap the views of these interceptors
+        int index = Math.min(mConfigInterceptorsIndex, mViewBinder.getInterceptorCount());
+        final TiConfiguration config = mPresenter.getConfig();
+        if (config.isCallOnMainThreadInterceptorEnabled()) {
+            final FrameAlignedScheduler scheduler = config.isFrameAlignedCallOnMainThreadEnabled()
+                    ? FrameAlignedScheduler.getDefault() : null;
+            mViewBinder.addBindViewInterceptor(index++, new CallOnMainThreadInterceptor(scheduler));
+        }
+
+        if (config.isDistinctUntilChangedInterceptorEnabled()) {
+            mViewBinder.addBindViewInterceptor(index, new DistinctUntilChangedInterceptor());
+        }
+
+        //noinspection unchecked
+        final UiThreadExecutorAutoBinder uiThreadAutoBinder =
+                new UiThreadExecutorAutoBinder(mPresenter, mTiActivity.getUiThreadExecutor());
+
+        // bind ui thread to presenter when view is attached
+        mUiThreadBinderRemovable = mPresenter.addLifecycleObserver(uiThreadAutoBinder);
+
+        mTiActivity.onPresenterReady();
+    }
 }
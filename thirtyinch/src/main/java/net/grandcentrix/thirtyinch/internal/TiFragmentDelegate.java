@@ -22,6 +22,8 @@ import androidx.annotation.VisibleForTesting;
 import android.view.LayoutInflater;
 import android.view.ViewGroup;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import net.grandcentrix.thirtyinch.BindViewInterceptor;
 import net.grandcentrix.thirtyinch.Removable;
 import net.grandcentrix.thirtyinch.TiConfiguration;
@@ -29,9 +31,13 @@ import net.grandcentrix.thirtyinch.TiDialogFragment;
 import net.grandcentrix.thirtyinch.TiFragment;
 import net.grandcentrix.thirtyinch.TiLog;
 import net.grandcentrix.thirtyinch.TiPresenter;
+import net.grandcentrix.thirtyinch.TiPresenterWarmUp;
 import net.grandcentrix.thirtyinch.TiView;
 import net.grandcentrix.thirtyinch.callonmainthread.CallOnMainThreadInterceptor;
+import net.grandcentrix.thirtyinch.callonmainthread.FrameAlignedScheduler;
 import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctUntilChangedInterceptor;
+import net.grandcentrix.thirtyinch.tracing.TiTracer;
+import net.grandcentrix.thirtyinch.tracing.TiTracing;
 
 /**
  * This delegate allows sharing the fragment code between the {@link TiFragment},
@@ -42,6 +48,9 @@ import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctUntilChangedInte
 public class TiFragmentDelegate<P extends TiPresenter<V>, V extends TiView>
         implements InterceptableViewBinder<V>, PresenterAccessor<P, V> {
 
+    @VisibleForTesting
+    static final String SAVED_STATE_PENDING_CREATION_ID = "pending_creation_id";
+
     @VisibleForTesting
     static final String SAVED_STATE_PRESENTER_ID = "presenter_id";
 
@@ -52,8 +61,29 @@ public class TiFragmentDelegate<P extends TiPresenter<V>, V extends TiView>
 
     private volatile boolean mActivityStarted = false;
 
+    /**
+     * position of the interceptors of the presenter configuration. They are added before the
+     * interceptors added after {@code onCreate}, also when the presenter is created in the
+     * background.
+     */
+    private int mConfigInterceptorsIndex;
+
     private final TiLoggingTagProvider mLogTag;
 
+    /**
+     * The creation of the presenter running in the background, {@code null} when the presenter
+     * isn't created by an {@link AsyncTiPresenterProvider}
+     */
+    @Nullable
+    private AsyncPresenterCreation<P> mPendingCreation;
+
+    /**
+     * The id the {@link #mPendingCreation} is parked with in the savior. Will be stored in the
+     * savedInstanceState to hand the creation over to the recreated Fragment.
+     */
+    @Nullable
+    private String mPendingCreationId;
+
     private P mPresenter;
 
     private String mPresenterId;
@@ -102,6 +132,10 @@ public class TiFragmentDelegate<P extends TiPresenter<V>, V extends TiView>
         return mViewBinder.getInterceptors(predicate);
     }
 
+    /**
+     * @return the presenter, {@code null} while it's created in the background by an {@link
+     * AsyncTiPresenterProvider}
+     */
     @Override
     public P getPresenter() {
         return mPresenter;
@@ -123,13 +157,23 @@ public class TiFragmentDelegate<P extends TiPresenter<V>, V extends TiView>
         mViewBinder.invalidateView();
     }
 
-    @SuppressWarnings("unchecked")
     public void onCreate_afterSuper(final Bundle savedInstanceState) {
+        onCreate_afterSuper(savedInstanceState, null);
+    }
+
+    /**
+     * @param warmUpId id of a presenter created ahead of time with {@link
+     *                 PresenterSavior#warmUp(TiPresenterProvider, java.util.concurrent.Executor)}
+     *                 which is used instead of a new presenter, or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public void onCreate_afterSuper(final Bundle savedInstanceState,
+            @Nullable final String warmUpId) {
 
         if (mPresenter != null && mPresenter.isDestroyed()) {
             // let a new Presenter be created
-            TiLog.v(mLogTag.getLoggingTag(),
-                    "detected destroyed presenter, discard it " + mPresenter);
+            TiLog.v(mLogTag.getLoggingTag(), "detected destroyed presenter, discard it %s",
+                    mPresenter);
             mPresenter = null;
         }
 
@@ -139,8 +183,8 @@ public class TiFragmentDelegate<P extends TiPresenter<V>, V extends TiView>
             final String recoveredPresenterId = savedInstanceState
                     .getString(SAVED_STATE_PRESENTER_ID);
             if (recoveredPresenterId != null) {
-                TiLog.v(mLogTag.getLoggingTag(),
-                        "try to recover Presenter with id: " + recoveredPresenterId);
+                TiLog.v(mLogTag.getLoggingTag(), "try to recover Presenter with id: %s",
+                        recoveredPresenterId);
                 mPresenter = (P) mSavior
                         .recover(recoveredPresenterId, mTiFragment.getHostingContainer());
                 if (mPresenter != null) {
@@ -150,10 +194,55 @@ public class TiFragmentDelegate<P extends TiPresenter<V>, V extends TiView>
                     mSavior.free(recoveredPresenterId, mTiFragment.getHostingContainer());
                     mPresenterId = mSavior.save(mPresenter, mTiFragment.getHostingContainer());
                 }
-                TiLog.v(mLogTag.getLoggingTag(), "recovered Presenter " + mPresenter);
+                TiLog.v(mLogTag.getLoggingTag(), "recovered Presenter %s", mPresenter);
             }
         }
 
+        // the presenter of the previous instance may still be created in the background
+        final String pendingCreationId = savedInstanceState == null
+                ? null : savedInstanceState.getString(SAVED_STATE_PENDING_CREATION_ID);
+        final String claimId = pendingCreationId != null ? pendingCreationId : warmUpId;
+
+        final Executor creationExecutor =
+                mPresenter == null ? getPresenterCreationExecutor() : null;
+
+        mConfigInterceptorsIndex = mViewBinder.getInterceptorCount();
+
+        if (mPresenter == null && claimId != null) {
+            final TiPresenterSavior.WarmUp warmUp = mSavior.claim(claimId);
+            if (warmUp != null) {
+                // use the presenter created ahead of time. Blocks the main thread for a limited
+                // time when it's still being created, hosts creating their presenters in the
+                // background don't block at all
+                final long timeout =
+                        creationExecutor == null ? TiPresenterWarmUp.CLAIM_TIMEOUT_MILLIS : 0;
+                mPresenter = (P) warmUp.await(timeout, TimeUnit.MILLISECONDS);
+                if (mPresenter == null) {
+                    // don't create a second presenter, the view gets bound once it's warmed up
+                    mPendingCreation = new AsyncPresenterCreation<>(warmUp,
+                            mTiFragment.getUiThreadExecutor(), createCreationCallback());
+                    TiLog.v(mLogTag.getLoggingTag(), "waiting for the warmed up Presenter");
+                    warmUp.whenDone(mPendingCreation);
+                    return;
+                }
+                TiLog.v(mLogTag.getLoggingTag(), "claimed warmed up Presenter: %s", mPresenter);
+                if (mPresenter.getConfig().shouldRetainPresenter()) {
+                    mPresenterId = mSavior.save(mPresenter, mTiFragment.getHostingContainer());
+                }
+            }
+        }
+
+        if (mPresenter == null && creationExecutor != null) {
+            // create the presenter in the background, the view gets bound once it's created
+            final TiPresenterSavior.WarmUp creation =
+                    mSavior.create(mPresenterProvider, creationExecutor);
+            mPendingCreation = new AsyncPresenterCreation<>(creation,
+                    mTiFragment.getUiThreadExecutor(), createCreationCallback());
+            TiLog.v(mLogTag.getLoggingTag(), "creating Presenter in the background");
+            creation.whenDone(mPendingCreation);
+            return;
+        }
+
         if (mPresenter == null) {
             mPresenter = mPresenterProvider.providePresenter();
             if (mPresenter.getState() != TiPresenter.State.INITIALIZED) {
@@ -162,7 +251,7 @@ public class TiFragmentDelegate<P extends TiPresenter<V>, V extends TiView>
                         + "Presenter provided with #providePresenter() cannot be reused. "
                         + "Always return a fresh instance!");
             }
-            TiLog.v(mLogTag.getLoggingTag(), "created Presenter: " + mPresenter);
+            TiLog.v(mLogTag.getLoggingTag(), "created Presenter: %s", mPresenter);
             final TiConfiguration config = mPresenter.getConfig();
             if (config.shouldRetainPresenter()) {
                 mPresenterId = mSavior.save(mPresenter, mTiFragment.getHostingContainer());
@@ -170,25 +259,13 @@ public class TiFragmentDelegate<P extends TiPresenter<V>, V extends TiView>
             mPresenter.create();
         }
 
-        final TiConfiguration config = mPresenter.getConfig();
-        if (config.isCallOnMainThreadInterceptorEnabled()) {
-            addBindViewInterceptor(new CallOnMainThreadInterceptor());
-        }
-
-        if (config.isDistinctUntilChangedInterceptorEnabled()) {
-            addBindViewInterceptor(new DistinctUntilChangedInterceptor());
-        }
-
-        //noinspection unchecked
-        final UiThreadExecutorAutoBinder uiThreadAutoBinder =
-                new UiThreadExecutorAutoBinder(mPresenter, mTiFragment.getUiThreadExecutor());
-
-        // bind ui thread to presenter when view is attached
-        mUiThreadBinderRemovable = mPresenter.addLifecycleObserver(uiThreadAutoBinder);
+        setUpPresenter();
     }
 
     public void onDestroyView_beforeSuper() {
-        mPresenter.detachView();
+        if (mPresenter != null) {
+            mPresenter.detachView();
+        }
     }
 
     public void onDestroy_afterSuper() {
@@ -199,6 +276,28 @@ public class TiFragmentDelegate<P extends TiPresenter<V>, V extends TiView>
             mUiThreadBinderRemovable = null;
         }
 
+        if (mPresenter == null) {
+            final AsyncPresenterCreation<P> creation = mPendingCreation;
+            mPendingCreation = null;
+            final boolean removed =
+                    !mTiFragment.isFragmentInBackstack() && mTiFragment.isFragmentRemoving();
+            if (mPendingCreationId != null && !removed) {
+                // the recreated Fragment claims the presenter
+                TiLog.v(mLogTag.getLoggingTag(), "Fragment destroyed before the Presenter was "
+                        + "created, handing it over to the next Fragment instance");
+                return;
+            }
+            TiLog.v(mLogTag.getLoggingTag(),
+                    "Fragment destroyed before the Presenter was created, discarding it");
+            if (mPendingCreationId != null) {
+                mSavior.discard(mPendingCreationId);
+            }
+            if (creation != null) {
+                creation.getWarmUp().discard();
+            }
+            return;
+        }
+
         boolean destroyPresenter = false;
 
         if (!mTiFragment.isFragmentInBackstack()) {
@@ -208,7 +307,7 @@ public class TiFragmentDelegate<P extends TiPresenter<V>, V extends TiView>
                 destroyPresenter = true;
                 TiLog.v(mLogTag.getLoggingTag(),
                         "Fragment was removed and is not managed by the FragmentManager anymore."
-                                + " Also destroy " + mPresenter);
+                                + " Also destroy %s", mPresenter);
             }
         } else {
             TiLog.v(mLogTag.getLoggingTag(), "fragment is in backstack");
@@ -220,31 +319,51 @@ public class TiFragmentDelegate<P extends TiPresenter<V>, V extends TiView>
             // will be created and the current presenter should be destroyed
             destroyPresenter = true;
             TiLog.v(mLogTag.getLoggingTag(),
-                    "presenter configured as not retaining, destroying " + mPresenter);
+                    "presenter configured as not retaining, destroying %s", mPresenter);
         }
 
         if (destroyPresenter) {
             mPresenter.destroy();
             mSavior.free(mPresenterId, mTiFragment.getHostingContainer());
         } else {
-            TiLog.v(mLogTag.getLoggingTag(), "not destroying " + mPresenter
-                    + " which will be reused by a future Fragment instance");
+            TiLog.v(mLogTag.getLoggingTag(),
+                    "not destroying %s which will be reused by a future Fragment instance",
+                    mPresenter);
         }
     }
 
     public void onSaveInstanceState_afterSuper(final Bundle outState) {
         outState.putString(SAVED_STATE_PRESENTER_ID, mPresenterId);
+        if (mPendingCreation != null && mPendingCreationId == null) {
+            // keep the presenter created in the background for the recreated Fragment
+            mPendingCreationId = mSavior.park(mPendingCreation.getWarmUp(),
+                    mTiFragment.getHostingContainer());
+        }
+        outState.putString(SAVED_STATE_PENDING_CREATION_ID, mPendingCreationId);
     }
 
     public void onStart_afterSuper() {
         mActivityStarted = true;
 
-        if (isUiPossible()) {
+        // without presenter the view gets bound when the presenter created in the background
+        // arrives
+        final P presenter = mPresenter;
+        if (presenter != null && isUiPossible()) {
+            final TiTracer tracer = TiTracing.getTracer();
+            if (tracer != null) {
+                tracer.beginSection(TiTracer.Section.BIND_VIEW, presenter);
+            }
             mTiFragment.getUiThreadExecutor().execute(new Runnable() {
                 @Override
                 public void run() {
-                    if (isUiPossible() && mActivityStarted) {
-                        mViewBinder.bindView(mPresenter, mViewProvider);
+                    try {
+                        if (isUiPossible() && mActivityStarted) {
+                            mViewBinder.bindView(mPresenter, mViewProvider);
+                        }
+                    } finally {
+                        if (tracer != null) {
+                            tracer.endSection(TiTracer.Section.BIND_VIEW, presenter);
+                        }
                     }
                 }
             });
@@ -253,7 +372,9 @@ public class TiFragmentDelegate<P extends TiPresenter<V>, V extends TiView>
 
     public void onStop_beforeSuper() {
         mActivityStarted = false;
-        mPresenter.detachView();
+        if (mPresenter != null) {
+            mPresenter.detachView();
+        }
     }
 
     @Override
@@ -268,8 +389,86 @@ public class TiFragmentDelegate<P extends TiPresenter<V>, V extends TiView>
                 + "{presenter=" + presenter + "}";
     }
 
+    private AsyncPresenterCreation.Callback<P> createCreationCallback() {
+        return new AsyncPresenterCreation.Callback<P>() {
+            @Override
+            public void onPresenterCreated(@NonNull final AsyncPresenterCreation<P> creation,
+                    @NonNull final P presenter) {
+                onPresenterCreatedAsync(creation, presenter);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private Executor getPresenterCreationExecutor() {
+        if (mPresenterProvider instanceof AsyncTiPresenterProvider) {
+            return ((AsyncTiPresenterProvider<P>) mPresenterProvider)
+                    .providePresenterCreationExecutor();
+        }
+        return null;
+    }
+
     private boolean isUiPossible() {
         return mTiFragment.isFragmentAdded() && !mTiFragment.isFragmentDetached();
     }
 
+    /**
+     * Receives the presenter created in the background on the UI thread and binds the view when
+     * the Fragment is already started
+     */
+    private void onPresenterCreatedAsync(@NonNull final AsyncPresenterCreation<P> creation,
+            @NonNull final P presenter) {
+        if (creation != mPendingCreation) {
+            // the Fragment got destroyed in the meantime, the presenter was discarded or handed
+            // over to the recreated Fragment
+            return;
+        }
+        if (mPendingCreationId != null) {
+            // not needed by a recreated Fragment anymore
+            mSavior.claim(mPendingCreationId);
+            mPendingCreationId = null;
+        }
+        mPendingCreation = null;
+        mPresenter = presenter;
+        TiLog.v(mLogTag.getLoggingTag(), "created Presenter: %s", mPresenter);
+        if (mPresenter.getConfig().shouldRetainPresenter()) {
+            mPresenterId = mSavior.save(mPresenter, mTiFragment.getHostingContainer());
+        }
+        setUpPresenter();
+
+        if (isUiPossible() && mActivityStarted) {
+            mViewBinder.bindView(mPresenter, mViewProvider);
+        }
+    }
+
+    /**
+     * adds the interceptors of the presenter configuration at {@link #mConfigInterceptorsIndex},
+     * binds the ui thread executor and notifies the host that the presenter is ready
+     */
+    private void setUpPresenter() {
+        // same position for presenters created synchronously or in the background, interceptors
+        // added in onCreate wrap the views of these interceptors
+        int index = Math.min(mConfigInterceptorsIndex, mViewBinder.getInterceptorCount());
+        final TiConfiguration config = mPresenter.getConfig();
+        if (config.isCallOnMainThreadInterceptorEnabled()) {
+            final FrameAlignedScheduler scheduler = config.isFrameAlignedCallOnMainThreadEnabled()
+                    ? FrameAlignedScheduler.getDefault() : null;
+            mViewBinder.addBindViewInterceptor(index++, new CallOnMainThreadInterceptor(scheduler));
+        }
+
+        if (config.isDistinctUntilChangedInterceptorEnabled()) {
+            mViewBinder.addBindViewInterceptor(index, new DistinctUntilChangedInterceptor());
+        }
+
+        //noinspection unchecked
+        final UiThreadExecutorAutoBinder uiThreadAutoBinder =
+                new UiThreadExecutorAutoBinder(mPresenter, mTiFragment.getUiThreadExecutor());
+
+        // bind ui thread to presenter when view is attached
+        mUiThreadBinderRemovable = mPresenter.addLifecycleObserver(uiThreadAutoBinder);
+
+        mTiFragment.onPresenterReady();
+    }
+
 }
\ No newline at end of file
@@ -20,6 +20,8 @@ import android.app.Activity;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import net.grandcentrix.thirtyinch.TiPresenter;
 
 /**
@@ -28,6 +30,61 @@ import net.grandcentrix.thirtyinch.TiPresenter;
  */
 public interface TiPresenterSavior {
 
+    /**
+     * A presenter which is created in the background, either ahead of time with {@link
+     * PresenterSavior#warmUp} or for a host with {@link #create(TiPresenterProvider, Executor)}
+     */
+    interface WarmUp {
+
+        /**
+         * Waits at most {@code timeout} for the presenter
+         *
+         * @return the {@link TiPresenter#create() created} presenter or {@code null} if it wasn't
+         * created in time
+         * @throws RuntimeException the exception thrown while the presenter was created
+         */
+        @Nullable
+        TiPresenter await(long timeout, @NonNull TimeUnit unit);
+
+        /**
+         * Destroys the presenter once it is created, nobody will use it
+         */
+        void discard();
+
+        /**
+         * Runs {@code action} on the thread which finished the creation of the presenter or
+         * immediately if it's already finished
+         */
+        void whenDone(@NonNull Runnable action);
+    }
+
+    /**
+     * Takes a presenter created ahead of time with {@link PresenterSavior#warmUp}. A creation
+     * which didn't start yet is cancelled, the caller creates the presenter itself then.
+     *
+     * @param warmUpId the id returned by {@code warmUp}
+     * @return the running or finished creation of the presenter or {@code null} if no presenter is
+     * waiting for this id (i.e. it was already claimed) or its creation didn't start yet
+     */
+    @Nullable
+    WarmUp claim(@NonNull String warmUpId);
+
+    /**
+     * Creates a presenter on the {@code executor} for a host which binds it once it's created
+     *
+     * @return the creation, {@link #park(WarmUp, Object) park} it when the host is recreated before
+     * the presenter is created
+     */
+    @NonNull
+    WarmUp create(@NonNull TiPresenterProvider<?> provider, @NonNull Executor executor);
+
+    /**
+     * Destroys a presenter created in the background which will never be claimed
+     *
+     * @param warmUpId the id returned by {@link #park(WarmUp, Object)} or {@code warmUp}
+     */
+    void discard(@NonNull String warmUpId);
+
     /**
      * Frees a certain presenter from the store.
      *
@@ -36,6 +93,17 @@ public interface TiPresenterSavior {
      */
     void free(String presenterId, @NonNull Object host);
 
+    /**
+     * Hands a presenter which is still created in the background over to the next instance of the
+     * recreated {@code host}, which {@link #claim(String) claims} it with the returned id. Parked
+     * presenters are discarded when the host finishes.
+     *
+     * @param host host of the presenter, see {@link #save(TiPresenter, Object)}
+     * @return the id to claim the presenter with
+     */
+    @NonNull
+    String park(@NonNull WarmUp warmUp, @NonNull Object host);
+
     /**
      * Gets a presenter from the store.
      *
@@ -16,11 +16,10 @@
 package net.grandcentrix.thirtyinch.internal;
 
 import androidx.annotation.NonNull;
-import net.grandcentrix.thirtyinch.TiActivity;
 import net.grandcentrix.thirtyinch.TiView;
 
 /**
- * The {@link TiActivity} itself doesn't not have to implement
+ * The {@link net.grandcentrix.thirtyinch.TiActivity} itself doesn't not have to implement
  * the {@link TiView} even though it's the default implementation. This interface allows the
  * possible separation.
  */
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.tracing;
+
+import android.os.Build;
+import android.os.Trace;
+import androidx.annotation.NonNull;
+import java.util.concurrent.ConcurrentHashMap;
+import net.grandcentrix.thirtyinch.TiPresenter;
+
+/**
+ * Emits the synchronous sections as {@link Trace} sections, i.e. {@code
+ * Ti:LoginPresenter#attachView}, which show up in systrace and the Android Studio profiler.
+ * <p>
+ * {@link TiTracer.Section#isAsync() Async} sections are skipped, {@link Trace} sections can't span
+ * multiple messages of the main thread. Does nothing before API 18.
+ */
+public class AndroidTraceTracer implements TiTracer {
+
+    /**
+     * max length of a section name accepted by {@link Trace#beginSection(String)}
+     */
+    private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+    private static final boolean TRACE_AVAILABLE =
+            Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+
+    private final ConcurrentHashMap<Class<?>, String[]> mSectionNames =
+            new ConcurrentHashMap<>();
+
+    @Override
+    public void beginSection(@NonNull final Section section,
+            @NonNull final TiPresenter<?> presenter) {
+        if (TRACE_AVAILABLE && !section.isAsync()) {
+            Trace.beginSection(getSectionName(section, presenter.getClass()));
+        }
+    }
+
+    @Override
+    public void endSection(@NonNull final Section section,
+            @NonNull final TiPresenter<?> presenter) {
+        if (TRACE_AVAILABLE && !section.isAsync()) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * @return the cached name of the section for the presenter class
+     */
+    @NonNull
+    String getSectionName(@NonNull final Section section,
+            @NonNull final Class<?> presenterClass) {
+        String[] names = mSectionNames.get(presenterClass);
+        if (names == null) {
+            names = createSectionNames(presenterClass);
+            mSectionNames.put(presenterClass, names);
+        }
+        return names[section.ordinal()];
+    }
+
+    private static String[] createSectionNames(@NonNull final Class<?> presenterClass) {
+        String className = presenterClass.getSimpleName();
+        if (className.isEmpty()) {
+            // anonymous class
+            className = presenterClass.getName();
+            className = className.substring(className.lastIndexOf('.') + 1);
+        }
+        final Section[] sections = Section.values();
+        final String[] names = new String[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            final String name = "Ti:" + className + "#" + sections[i].getLabel();
+            names[i] = name.length() <= MAX_SECTION_NAME_LENGTH
+                    ? name : name.substring(name.length() - MAX_SECTION_NAME_LENGTH);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.tracing;
+
+import androidx.annotation.NonNull;
+import java.util.Locale;
+
+/**
+ * Records the distribution of non negative values, i.e. durations in nanoseconds, in a fixed
+ * amount of memory. Values are grouped in log-linear buckets, each power of two is split into 8
+ * buckets. Percentiles are therefore approximated with an error of at most 12.5%, count, min,
+ * max and mean are exact.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class Histogram {
+
+    /**
+     * values below are recorded exactly, values above are split into this many buckets per power
+     * of two
+     */
+    private static final int SUB_BUCKETS = 8;
+
+    private static final int SUB_BUCKET_BITS = 3;
+
+    private final long[] mBuckets = new long[getBucketIndex(Long.MAX_VALUE) + 1];
+
+    private long mCount = 0;
+
+    private long mMax = 0;
+
+    private long mMin = Long.MAX_VALUE;
+
+    private long mTotal = 0;
+
+    /**
+     * @return number of recorded values
+     */
+    public synchronized long getCount() {
+        return mCount;
+    }
+
+    /**
+     * @return the largest recorded value, 0 when empty
+     */
+    public synchronized long getMax() {
+        return mMax;
+    }
+
+    public synchronized double getMean() {
+        return mCount == 0 ? 0 : (double) mTotal / mCount;
+    }
+
+    /**
+     * @return the smallest recorded value, 0 when empty
+     */
+    public synchronized long getMin() {
+        return mCount == 0 ? 0 : mMin;
+    }
+
+    /**
+     * @param percentile in the range [0, 100], i.e. {@code 99.9}
+     * @return an upper bound of the given percentile of the recorded values, at most the max
+     * value, 0 when empty
+     */
+    public synchronized long getPercentile(final double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be in [0, 100]");
+        }
+        if (mCount == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * mCount));
+        long seen = 0;
+        for (int i = 0; i < mBuckets.length; i++) {
+            seen += mBuckets[i];
+            if (seen >= rank) {
+                return Math.min(Math.max(getBucketUpperBound(i), mMin), mMax);
+            }
+        }
+        return mMax;
+    }
+
+    /**
+     * @return sum of all recorded values
+     */
+    public synchronized long getTotal() {
+        return mTotal;
+    }
+
+    public synchronized void record(final long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value must be >= 0 but was " + value);
+        }
+        mBuckets[getBucketIndex(value)]++;
+        mCount++;
+        mTotal += value;
+        if (value < mMin) {
+            mMin = value;
+        }
+        if (value > mMax) {
+            mMax = value;
+        }
+    }
+
+    public synchronized void reset() {
+        for (int i = 0; i < mBuckets.length; i++) {
+            mBuckets[i] = 0;
+        }
+        mCount = 0;
+        mTotal = 0;
+        mMin = Long.MAX_VALUE;
+        mMax = 0;
+    }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US,
+                "Histogram{count=%d, min=%d, mean=%.1f, p50=%d, p90=%d, p99=%d, max=%d}",
+                mCount, getMin(), getMean(), getPercentile(50), getPercentile(90),
+                getPercentile(99), mMax);
+    }
+
+    static int getBucketIndex(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long getBucketUpperBound(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long subBucket = index % SUB_BUCKETS;
+        final int shift = exponent - SUB_BUCKET_BITS;
+        final long lowerBound = (SUB_BUCKETS + subBucket) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.tracing;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import net.grandcentrix.thirtyinch.TiPresenter;
+
+/**
+ * Measures the duration of every section with {@link System#nanoTime()} and records it in a
+ * {@link Histogram} per presenter class and section. Intended for tests and debug builds:
+ * <p>
+ * <code>
+ * <pre>
+ * final InMemoryTracer tracer = new InMemoryTracer();
+ * TiTracing.setTracer(tracer);
+ * // run the screen
+ * final Histogram attach = tracer.getHistogram(LoginPresenter.class, Section.ATTACH_VIEW);
+ * assertThat(attach.getPercentile(99)).isLessThan(TimeUnit.MILLISECONDS.toNanos(16));
+ * </pre>
+ * </code>
+ */
+public class InMemoryTracer implements TiTracer {
+
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private final HashMap<Class<?>, Histogram[]> mHistograms = new HashMap<>();
+
+    /**
+     * start time of the running sections per presenter, indexed by {@link Section#ordinal()}
+     */
+    private final IdentityHashMap<TiPresenter<?>, long[]> mStartTimes = new IdentityHashMap<>();
+
+    @Override
+    public synchronized void beginSection(@NonNull final Section section,
+            @NonNull final TiPresenter<?> presenter) {
+        long[] startTimes = mStartTimes.get(presenter);
+        if (startTimes == null) {
+            startTimes = new long[Section.values().length];
+            Arrays.fill(startTimes, NOT_STARTED);
+            mStartTimes.put(presenter, startTimes);
+        }
+        startTimes[section.ordinal()] = nanoTime();
+    }
+
+    @Override
+    public synchronized void endSection(@NonNull final Section section,
+            @NonNull final TiPresenter<?> presenter) {
+        final long endTime = nanoTime();
+        final long[] startTimes = mStartTimes.get(presenter);
+        if (startTimes == null || startTimes[section.ordinal()] == NOT_STARTED) {
+            // began before this tracer was installed
+            return;
+        }
+        final long duration = endTime - startTimes[section.ordinal()];
+        startTimes[section.ordinal()] = NOT_STARTED;
+        if (isIdle(startTimes)) {
+            // don't leak the presenter
+            mStartTimes.remove(presenter);
+        }
+
+        final Class<?> presenterClass = presenter.getClass();
+        Histogram[] histograms = mHistograms.get(presenterClass);
+        if (histograms == null) {
+            histograms = new Histogram[Section.values().length];
+            mHistograms.put(presenterClass, histograms);
+        }
+        Histogram histogram = histograms[section.ordinal()];
+        if (histogram == null) {
+            histogram = new Histogram();
+            histograms[section.ordinal()] = histogram;
+        }
+        histogram.record(Math.max(0, duration));
+    }
+
+    /**
+     * @return the durations of the section in nanoseconds or {@code null} if the section never
+     * ended for the presenter class
+     */
+    @Nullable
+    public synchronized Histogram getHistogram(@NonNull final Class<?> presenterClass,
+            @NonNull final Section section) {
+        final Histogram[] histograms = mHistograms.get(presenterClass);
+        return histograms == null ? null : histograms[section.ordinal()];
+    }
+
+    /**
+     * @return all presenter classes with at least one recorded section
+     */
+    @NonNull
+    public synchronized List<Class<?>> getPresenterClasses() {
+        return new ArrayList<>(mHistograms.keySet());
+    }
+
+    /**
+     * drops all recorded durations and running sections
+     */
+    public synchronized void reset() {
+        mHistograms.clear();
+        mStartTimes.clear();
+    }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        final StringBuilder sb = new StringBuilder("InMemoryTracer{");
+        for (final Map.Entry<Class<?>, Histogram[]> entry : mHistograms.entrySet()) {
+            final Histogram[] histograms = entry.getValue();
+            for (final Section section : Section.values()) {
+                final Histogram histogram = histograms[section.ordinal()];
+                if (histogram != null) {
+                    sb.append("\n  ").append(entry.getKey().getName()).append("#")
+                            .append(section.getLabel()).append(": ").append(histogram);
+                }
+            }
+        }
+        return sb.append("\n}").toString();
+    }
+
+    @VisibleForTesting
+    long nanoTime() {
+        return System.nanoTime();
+    }
+
+    private static boolean isIdle(final long[] startTimes) {
+        for (final long startTime : startTimes) {
+            if (startTime != NOT_STARTED) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.tracing;
+
+import androidx.annotation.NonNull;
+import net.grandcentrix.thirtyinch.TiPresenter;
+
+/**
+ * Receives begin and end events of the presenter lifecycle to measure how long each step takes.
+ * Install an implementation with {@link TiTracing#setTracer(TiTracer)}.
+ * <p>
+ * Synchronous sections begin and end on the same thread, directly nested in each other. An
+ * {@link Section#isAsync() async} section may end on a later message of the main thread.
+ * <p>
+ * Events are delivered on the thread the lifecycle method is called, usually the main thread.
+ * Implementations have to be fast and must not throw.
+ *
+ * @see AndroidTraceTracer
+ * @see InMemoryTracer
+ */
+public interface TiTracer {
+
+    enum Section {
+        /**
+         * {@link TiPresenter#create()} including {@link TiPresenter#onCreate()} and the
+         * lifecycle observers
+         */
+        CREATE("create", false),
+        /**
+         * {@link TiPresenter#attachView(net.grandcentrix.thirtyinch.TiView)} including
+         * {@code onAttachView} and the lifecycle observers
+         */
+        ATTACH_VIEW("attachView", false),
+        /**
+         * {@link TiPresenter#detachView()} including {@code onDetachView} and the lifecycle
+         * observers
+         */
+        DETACH_VIEW("detachView", false),
+        /**
+         * {@link TiPresenter#destroy()} including {@code onDestroy} and the lifecycle observers
+         */
+        DESTROY("destroy", false),
+        /**
+         * From {@code onStart} of the Activity or Fragment until the view is attached. Contains
+         * the wait for the posted bind, the view interceptors and {@link #ATTACH_VIEW}
+         */
+        BIND_VIEW("bindView", true);
+
+        private final boolean mAsync;
+
+        private final String mLabel;
+
+        Section(final String label, final boolean async) {
+            mLabel = label;
+            mAsync = async;
+        }
+
+        /**
+         * @return a short name of the section, i.e. {@code attachView}
+         */
+        @NonNull
+        public String getLabel() {
+            return mLabel;
+        }
+
+        /**
+         * @return {@code true} when the section spans multiple messages of the main thread and
+         * other sections may begin and end in between
+         */
+        public boolean isAsync() {
+            return mAsync;
+        }
+    }
+
+    void beginSection(@NonNull Section section, @NonNull TiPresenter<?> presenter);
+
+    void endSection(@NonNull Section section, @NonNull TiPresenter<?> presenter);
+}
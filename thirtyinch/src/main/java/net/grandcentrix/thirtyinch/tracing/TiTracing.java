@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.tracing;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Holds the {@link TiTracer} ThirtyInch reports the presenter lifecycle to. Without a tracer the
+ * instrumentation is a single field read per lifecycle step.
+ * <p>
+ * <code>
+ * <pre>
+ * if (BuildConfig.DEBUG) {
+ *     TiTracing.setTracer(new AndroidTraceTracer());
+ * }
+ * </pre>
+ * </code>
+ */
+public final class TiTracing {
+
+    private static TiTracer tracer;
+
+    /**
+     * @return the installed tracer or {@code null}
+     */
+    @Nullable
+    public static TiTracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * set the tracer receiving the lifecycle events, {@code null} to disable tracing. Install the
+     * tracer before the first presenter is created, sections already begun are not reported to a
+     * new tracer.
+     */
+    public static void setTracer(@Nullable final TiTracer tracer) {
+        TiTracing.tracer = tracer;
+    }
+
+    private TiTracing() {
+        throw new AssertionError("no instances");
+    }
+}
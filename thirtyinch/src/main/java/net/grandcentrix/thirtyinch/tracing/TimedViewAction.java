@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.tracing;
+
+import androidx.annotation.NonNull;
+import net.grandcentrix.thirtyinch.TiConfiguration;
+import net.grandcentrix.thirtyinch.TiView;
+import net.grandcentrix.thirtyinch.ViewAction;
+
+/**
+ * A {@link ViewAction} remembering when it was sent. Used by the presenter when {@link
+ * TiConfiguration#isViewActionMetricsEnabled()}, {@link
+ * net.grandcentrix.thirtyinch.viewactionqueue.ViewActionQueue}s may contain these wrappers.
+ *
+ * @see #unwrap(ViewAction)
+ */
+public final class TimedViewAction<V extends TiView> implements ViewAction<V> {
+
+    private final ViewAction<V> mAction;
+
+    private final long mSentNanos;
+
+    public TimedViewAction(@NonNull final ViewAction<V> action, final long sentNanos) {
+        mAction = action;
+        mSentNanos = sentNanos;
+    }
+
+    /**
+     * @return the wrapped action if the given action is a {@link TimedViewAction}, otherwise the
+     * action itself
+     */
+    @NonNull
+    public static <V extends TiView> ViewAction<V> unwrap(@NonNull final ViewAction<V> action) {
+        if (action instanceof TimedViewAction) {
+            return ((TimedViewAction<V>) action).mAction;
+        }
+        return action;
+    }
+
+    @Override
+    public void call(final V view) {
+        mAction.call(view);
+    }
+
+    @NonNull
+    public ViewAction<V> getAction() {
+        return mAction;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} when the action was sent
+     */
+    public long getSentNanos() {
+        return mSentNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "TimedViewAction{action=" + mAction + "}";
+    }
+}
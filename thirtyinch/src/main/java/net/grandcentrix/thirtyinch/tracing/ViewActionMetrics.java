@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.tracing;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import net.grandcentrix.thirtyinch.TiConfiguration;
+
+/**
+ * Measurements of the actions sent with {@link net.grandcentrix.thirtyinch.TiPresenter#sendToView}
+ * of a single presenter, collected when {@link TiConfiguration#isViewActionMetricsEnabled()}.
+ * All durations are in nanoseconds.
+ * <p>
+ * Replayed actions are the actions postponed while no view was attached and executed in a
+ * single burst when the next view attaches. Dispatched actions were sent while the view was
+ * attached and posted to the UI thread.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class ViewActionMetrics {
+
+    /**
+     * A slow execution of an action on the UI thread
+     */
+    public static final class SlowAction {
+
+        private final String mDescription;
+
+        private final long mDurationNanos;
+
+        private final boolean mReplayed;
+
+        SlowAction(final String description, final long durationNanos, final boolean replayed) {
+            mDescription = description;
+            mDurationNanos = durationNanos;
+            mReplayed = replayed;
+        }
+
+        /**
+         * @return {@link Object#toString()} of the action, the action itself isn't kept
+         */
+        @NonNull
+        public String getDescription() {
+            return mDescription;
+        }
+
+        public long getDurationNanos() {
+            return mDurationNanos;
+        }
+
+        /**
+         * @return {@code true} when the action was postponed and replayed when the view attached
+         */
+        public boolean isReplayed() {
+            return mReplayed;
+        }
+
+        @Override
+        public String toString() {
+            return "SlowAction{" + mDescription + ", " + mDurationNanos + "ns"
+                    + (mReplayed ? ", replayed" : "") + "}";
+        }
+    }
+
+    /**
+     * number of the slowest actions which are kept
+     */
+    public static final int MAX_SLOW_ACTIONS = 10;
+
+    private final Histogram mDispatchLatency = new Histogram();
+
+    private final Histogram mExecutionTime = new Histogram();
+
+    private int mMaxQueueDepth = 0;
+
+    private final Histogram mReplayBurstDuration = new Histogram();
+
+    private final Histogram mReplayBurstSize = new Histogram();
+
+    private final Histogram mReplayLatency = new Histogram();
+
+    /**
+     * sorted by duration, slowest first
+     */
+    private final ArrayList<SlowAction> mSlowestActions = new ArrayList<>();
+
+    /**
+     * @return time from sending an action while the view was attached until it started on the UI
+     * thread
+     */
+    @NonNull
+    public Histogram getDispatchLatency() {
+        return mDispatchLatency;
+    }
+
+    /**
+     * @return time each action ran on the UI thread, replayed and dispatched
+     */
+    @NonNull
+    public Histogram getExecutionTime() {
+        return mExecutionTime;
+    }
+
+    /**
+     * @return the largest number of postponed actions replayed at once
+     */
+    public synchronized int getMaxQueueDepth() {
+        return mMaxQueueDepth;
+    }
+
+    /**
+     * @return total time of each replay burst, the time the UI thread was blocked by a replay
+     */
+    @NonNull
+    public Histogram getReplayBurstDuration() {
+        return mReplayBurstDuration;
+    }
+
+    /**
+     * @return number of actions per replay burst
+     */
+    @NonNull
+    public Histogram getReplayBurstSize() {
+        return mReplayBurstSize;
+    }
+
+    /**
+     * @return time from sending an action while no view was attached until it was replayed
+     */
+    @NonNull
+    public Histogram getReplayLatency() {
+        return mReplayLatency;
+    }
+
+    /**
+     * @return the {@link #MAX_SLOW_ACTIONS} slowest actions, slowest first
+     */
+    @NonNull
+    public synchronized List<SlowAction> getSlowestActions() {
+        return Collections.unmodifiableList(new ArrayList<>(mSlowestActions));
+    }
+
+    /**
+     * Records the execution of an action
+     *
+     * @param action        the executed action, only used for the description of slow actions
+     * @param latencyNanos  time from sending until the execution started
+     * @param durationNanos time the action ran
+     * @param replayed      {@code true} when the action was postponed
+     */
+    public void recordExecution(@NonNull final Object action, final long latencyNanos,
+            final long durationNanos, final boolean replayed) {
+        (replayed ? mReplayLatency : mDispatchLatency).record(Math.max(0, latencyNanos));
+        mExecutionTime.record(Math.max(0, durationNanos));
+        synchronized (this) {
+            final int size = mSlowestActions.size();
+            if (size == MAX_SLOW_ACTIONS
+                    && mSlowestActions.get(size - 1).mDurationNanos >= durationNanos) {
+                // not among the slowest, the common case
+                return;
+            }
+            int index = 0;
+            while (index < size && mSlowestActions.get(index).mDurationNanos >= durationNanos) {
+                index++;
+            }
+            mSlowestActions.add(index,
+                    new SlowAction(String.valueOf(action), durationNanos, replayed));
+            if (mSlowestActions.size() > MAX_SLOW_ACTIONS) {
+                mSlowestActions.remove(MAX_SLOW_ACTIONS);
+            }
+        }
+    }
+
+    /**
+     * Records a replay of the postponed actions when a view attached
+     *
+     * @param count         number of replayed actions
+     * @param durationNanos time all actions ran
+     */
+    public void recordReplay(final int count, final long durationNanos) {
+        mReplayBurstSize.record(count);
+        mReplayBurstDuration.record(Math.max(0, durationNanos));
+        synchronized (this) {
+            mMaxQueueDepth = Math.max(mMaxQueueDepth, count);
+        }
+    }
+
+    public synchronized void reset() {
+        mDispatchLatency.reset();
+        mExecutionTime.reset();
+        mReplayBurstDuration.reset();
+        mReplayBurstSize.reset();
+        mReplayLatency.reset();
+        mMaxQueueDepth = 0;
+        mSlowestActions.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ViewActionMetrics{"
+                + "\n  dispatchLatency=" + mDispatchLatency
+                + "\n  replayLatency=" + mReplayLatency
+                + "\n  executionTime=" + mExecutionTime
+                + "\n  replayBurstSize=" + mReplayBurstSize
+                + "\n  replayBurstDuration=" + mReplayBurstDuration
+                + "\n  maxQueueDepth=" + mMaxQueueDepth
+                + "\n  slowestActions=" + mSlowestActions
+                + "\n}";
+    }
+}
@@ -17,7 +17,6 @@ package net.grandcentrix.thirtyinch.util;
 
 import androidx.annotation.Nullable;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Method;
 
 public class AnnotationUtil {
 
@@ -48,17 +47,12 @@ public class AnnotationUtil {
         return null;
     }
 
+    /**
+     * @return {@code true} when a method of an interface implemented by {@code o} is annotated
+     * with {@code annotation}, the result is cached per class in {@link ViewClassInfo}
+     */
     public static <T extends Annotation> boolean hasObjectMethodWithAnnotation(final Object o,
             final Class<T> annotation) {
-        final Class<?>[] interfaces = o.getClass().getInterfaces();
-        for (final Class<?> anInterface : interfaces) {
-            for (final Method method : anInterface.getMethods()) {
-                if (method.getAnnotation(annotation) != null) {
-                    return true;
-                }
-            }
-
-        }
-        return false;
+        return ViewClassInfo.of(o.getClass()).hasMethodWithAnnotation(annotation);
     }
 }
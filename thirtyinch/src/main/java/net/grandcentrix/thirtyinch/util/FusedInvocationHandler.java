@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import net.grandcentrix.thirtyinch.FusableBindViewInterceptor;
+import net.grandcentrix.thirtyinch.FusableBindViewInterceptor.Chain;
+import net.grandcentrix.thirtyinch.FusableBindViewInterceptor.Hook;
+
+/**
+ * The {@link java.lang.reflect.InvocationHandler} of a single {@link Proxy} running the {@link
+ * Hook}s of multiple {@link FusableBindViewInterceptor}s. The chain is built once, a call
+ * passes all hooks and calls the view with a single {@link Method#invoke(Object, Object...)}.
+ */
+public final class FusedInvocationHandler extends AbstractInvocationHandler {
+
+    /**
+     * The end of every chain, calls the method of the view
+     */
+    public static final class ViewChain implements Chain {
+
+        private final Object mView;
+
+        public ViewChain(@NonNull final Object view) {
+            mView = view;
+        }
+
+        @Override
+        public Object proceed(@NonNull final Method method, @NonNull final Object[] args)
+                throws Throwable {
+            if (!method.isAccessible()) {
+                // the view interface may be package private, this class isn't in its package
+                method.setAccessible(true);
+            }
+            try {
+                return method.invoke(mView, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static final class Link implements Chain {
+
+        private final Hook mHook;
+
+        private final Chain mNext;
+
+        Link(final Hook hook, final Chain next) {
+            mHook = hook;
+            mNext = next;
+        }
+
+        @Override
+        public Object proceed(@NonNull final Method method, @NonNull final Object[] args)
+                throws Throwable {
+            return mHook.handle(mNext, method, args);
+        }
+    }
+
+    private final Chain mChain;
+
+    private final Hook[] mHooks;
+
+    private final FusableBindViewInterceptor[] mInterceptors;
+
+    private final Object mView;
+
+    /**
+     * @param view         the view called at the end of the chain
+     * @param interceptors the fused interceptors in the order they were added, like nested
+     *                     proxies the hook of the last interceptor runs first
+     * @param hooks        the hooks created by {@code interceptors}, same order
+     */
+    public FusedInvocationHandler(@NonNull final Object view,
+            @NonNull final FusableBindViewInterceptor[] interceptors,
+            @NonNull final Hook[] hooks) {
+        if (interceptors.length != hooks.length) {
+            throw new IllegalArgumentException("every interceptor requires a hook");
+        }
+        mView = view;
+        mInterceptors = interceptors;
+        mHooks = hooks;
+
+        Chain chain = new ViewChain(view);
+        for (final Hook hook : hooks) {
+            chain = new Link(hook, chain);
+        }
+        mChain = chain;
+    }
+
+    /**
+     * @return the hook of {@code interceptor} when {@code view} is a fused proxy containing it,
+     * {@code null} otherwise
+     */
+    @Nullable
+    public static Hook getHook(@NonNull final Object view,
+            @NonNull final FusableBindViewInterceptor interceptor) {
+        if (!Proxy.isProxyClass(view.getClass())) {
+            return null;
+        }
+        final Object handler = Proxy.getInvocationHandler(view);
+        if (!(handler instanceof FusedInvocationHandler)) {
+            return null;
+        }
+        return ((FusedInvocationHandler) handler).getHook(interceptor);
+    }
+
+    /**
+     * @return the hook of {@code interceptor} or {@code null} if it isn't part of this chain
+     */
+    @Nullable
+    public Hook getHook(@NonNull final FusableBindViewInterceptor interceptor) {
+        for (int i = 0; i < mInterceptors.length; i++) {
+            if (mInterceptors[i] == interceptor) {
+                return mHooks[i];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "FusedProxy@" + Integer.toHexString(this.hashCode()) + "-" + mView.toString();
+    }
+
+    @Override
+    protected Object handleInvocation(final Object proxy, final Method method, final Object[] args)
+            throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            try {
+                return method.invoke(this, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+        return mChain.proceed(method, args);
+    }
+}
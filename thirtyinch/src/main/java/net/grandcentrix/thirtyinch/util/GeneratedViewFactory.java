@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+
+/**
+ * Looks up and instantiates the view delegates generated by the {@code thirtyinch-compiler}
+ * annotation processor. For a {@link net.grandcentrix.thirtyinch.TiView} interface {@code
+ * com.example.Outer.MyView} and the suffix {@code CallOnMainThread} the generated class is named
+ * {@code com.example.Outer_MyView_CallOnMainThread}.
+ * <p>
+ * When no generated class exists (the processor isn't configured, the interface is private, ...)
+ * {@link #newInstance(Class, Object...)} returns {@code null} and the caller falls back to a
+ * {@link java.lang.reflect.Proxy}. Lookups, including misses, are cached per interface.
+ */
+public final class GeneratedViewFactory {
+
+    private final HashMap<Class<?>, Constructor<?>> mConstructors = new HashMap<>();
+
+    private final Class<?>[] mAdditionalParameterTypes;
+
+    private final String mSuffix;
+
+    /**
+     * @param suffix                   suffix of the generated class name, i.e. {@code
+     *                                 CallOnMainThread}
+     * @param additionalParameterTypes the parameter types of the constructor of the generated
+     *                                 class following the first parameter, the wrapped view
+     */
+    public GeneratedViewFactory(@NonNull final String suffix,
+            @NonNull final Class<?>... additionalParameterTypes) {
+        mSuffix = suffix;
+        mAdditionalParameterTypes = additionalParameterTypes;
+    }
+
+    /**
+     * @return the name of the class generated for {@code viewInterface}
+     */
+    @NonNull
+    public static String getGeneratedClassName(@NonNull final Class<?> viewInterface,
+            @NonNull final String suffix) {
+        final String name = viewInterface.getName();
+        final int packageEnd = name.lastIndexOf('.');
+        final String packagePrefix = packageEnd < 0 ? "" : name.substring(0, packageEnd + 1);
+        final String binaryName = name.substring(packageEnd + 1).replace('$', '_');
+        return packagePrefix + binaryName + "_" + suffix;
+    }
+
+    /**
+     * @return the constructor of the generated class for the given interface or {@code null} if
+     * no class was generated
+     */
+    @Nullable
+    public synchronized Constructor<?> getConstructor(@NonNull final Class<?> viewInterface) {
+        if (mConstructors.containsKey(viewInterface)) {
+            return mConstructors.get(viewInterface);
+        }
+        final Constructor<?> constructor = findConstructor(viewInterface);
+        mConstructors.put(viewInterface, constructor);
+        return constructor;
+    }
+
+    /**
+     * Creates a new instance of the generated class for {@code viewInterface}
+     *
+     * @param args constructor arguments, the view followed by the additional parameters of this
+     *             factory
+     * @return the generated delegate or {@code null} if no class was generated
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public <V> V newInstance(@NonNull final Class<?> viewInterface, final Object... args) {
+        final Constructor<?> constructor = getConstructor(viewInterface);
+        if (constructor == null) {
+            return null;
+        }
+        try {
+            return (V) constructor.newInstance(args);
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (InstantiationException e) {
+            throw new RuntimeException(e);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Nullable
+    private Constructor<?> findConstructor(@NonNull final Class<?> viewInterface) {
+        final Class<?> generatedClass;
+        try {
+            generatedClass = Class.forName(getGeneratedClassName(viewInterface, mSuffix), false,
+                    viewInterface.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        if (!viewInterface.isAssignableFrom(generatedClass)) {
+            // a class with a clashing name, not generated by ThirtyInch
+            return null;
+        }
+        try {
+            final Class<?>[] parameterTypes = new Class<?>[mAdditionalParameterTypes.length + 1];
+            parameterTypes[0] = viewInterface;
+            System.arraycopy(mAdditionalParameterTypes, 0, parameterTypes, 1,
+                    mAdditionalParameterTypes.length);
+            final Constructor<?> constructor = generatedClass.getConstructor(parameterTypes);
+            // the generated class has the same visibility as the (maybe package private) interface
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
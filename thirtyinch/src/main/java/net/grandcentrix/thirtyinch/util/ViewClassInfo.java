@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ConcurrentHashMap;
+import net.grandcentrix.thirtyinch.TiView;
+
+/**
+ * Reflection metadata of a view class, resolved once per process and shared by all interceptors.
+ * Binding a new instance of an already known view class, i.e. after a configuration change,
+ * doesn't walk the class hierarchy or scan the methods of its interfaces again.
+ * <p>
+ * The view class may also be a {@link TiView} interface, its info describes the interface
+ * itself.
+ */
+public final class ViewClassInfo {
+
+    private static final ConcurrentHashMap<Class<?>, ViewClassInfo> sInfos
+            = new ConcurrentHashMap<>();
+
+    /**
+     * annotations found on a method of {@link #mInterfaces}, {@code Boolean.FALSE} for misses
+     */
+    private final ConcurrentHashMap<Class<? extends Annotation>, Boolean> mAnnotations
+            = new ConcurrentHashMap<>();
+
+    /**
+     * the interfaces directly implemented by the view class or the view interface itself
+     */
+    private final Class<?>[] mInterfaces;
+
+    /**
+     * constructor of the {@link Proxy} class of {@link #mViewInterface}, created lazily
+     */
+    @Nullable
+    private volatile Constructor<?> mProxyConstructor;
+
+    @Nullable
+    private final Class<?> mViewInterface;
+
+    private ViewClassInfo(@NonNull final Class<?> viewClass) {
+        if (viewClass.isInterface()) {
+            // the view interface itself, i.e. passed to SelectiveBindViewInterceptor#appliesTo
+            mViewInterface = TiView.class.isAssignableFrom(viewClass) ? viewClass : null;
+            mInterfaces = new Class<?>[]{viewClass};
+        } else {
+            mViewInterface = AnnotationUtil.getInterfaceOfClassExtendingGivenInterface(
+                    viewClass, TiView.class);
+            mInterfaces = viewClass.getInterfaces();
+        }
+    }
+
+    /**
+     * @return the shared info of the given view class
+     */
+    @NonNull
+    public static ViewClassInfo of(@NonNull final Class<?> viewClass) {
+        final ViewClassInfo info = sInfos.get(viewClass);
+        if (info != null) {
+            return info;
+        }
+        final ViewClassInfo newInfo = new ViewClassInfo(viewClass);
+        final ViewClassInfo existing = sInfos.putIfAbsent(viewClass, newInfo);
+        return existing != null ? existing : newInfo;
+    }
+
+    /**
+     * @return the interface extending {@link TiView} implemented by the view class or {@code
+     * null} when it doesn't implement one
+     * @see AnnotationUtil#getInterfaceOfClassExtendingGivenInterface(Class, Class)
+     */
+    @Nullable
+    public Class<?> getViewInterface() {
+        return mViewInterface;
+    }
+
+    /**
+     * @return {@code true} when a method of an interface implemented by the view class is
+     * annotated with {@code annotation}
+     * @see AnnotationUtil#hasObjectMethodWithAnnotation(Object, Class)
+     */
+    public boolean hasMethodWithAnnotation(@NonNull final Class<? extends Annotation> annotation) {
+        final Boolean cached = mAnnotations.get(annotation);
+        if (cached != null) {
+            return cached;
+        }
+        final boolean found = findMethodWithAnnotation(annotation);
+        mAnnotations.put(annotation, found);
+        return found;
+    }
+
+    /**
+     * Creates a {@link Proxy} implementing the view interface, the proxy class and its
+     * constructor are looked up once
+     *
+     * @throws IllegalStateException when the view class doesn't implement a {@link TiView}
+     *                               interface
+     */
+    @SuppressWarnings("unchecked")
+    @NonNull
+    public <V> V newProxy(@NonNull final InvocationHandler handler) {
+        Constructor<?> constructor = mProxyConstructor;
+        if (constructor == null) {
+            if (mViewInterface == null) {
+                throw new IllegalStateException(
+                        "the interface extending TiView could not be found");
+            }
+            try {
+                constructor = Proxy.getProxyClass(mViewInterface.getClassLoader(), mViewInterface)
+                        .getConstructor(InvocationHandler.class);
+            } catch (NoSuchMethodException e) {
+                throw new RuntimeException(e);
+            }
+            // the view interface may be package private
+            constructor.setAccessible(true);
+            mProxyConstructor = constructor;
+        }
+        try {
+            return (V) constructor.newInstance(handler);
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (InstantiationException e) {
+            throw new RuntimeException(e);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private boolean findMethodWithAnnotation(
+            @NonNull final Class<? extends Annotation> annotation) {
+        for (final Class<?> anInterface : mInterfaces) {
+            for (final Method method : anInterface.getMethods()) {
+                if (method.getAnnotation(annotation) != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.viewactionqueue;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import net.grandcentrix.thirtyinch.TiView;
+import net.grandcentrix.thirtyinch.ViewAction;
+import net.grandcentrix.thirtyinch.tracing.TimedViewAction;
+
+/**
+ * Keeps only the latest action per key. A newer action with the same key replaces the older one
+ * and moves to the end of the queue, so the order of the remaining actions matches the order
+ * they have been sent.
+ * <p>
+ * By default the key is the class of the action. Every anonymous {@link ViewAction} declared in
+ * the presenter has its own class, the latest call of each {@code sendToView(...)} statement
+ * survives. Override {@link #keyOf(ViewAction)} for a different grouping. Actions offered with an
+ * explicit key via {@link #offer(Object, ViewAction)} use that key instead.
+ *
+ * @see ViewActionQueues#conflating()
+ */
+public class ConflatingViewActionQueue<V extends TiView> extends AbstractQueue<ViewAction<V>>
+        implements ViewActionQueue<V> {
+
+    private final LinkedHashMap<Object, ViewAction<V>> mActions = new LinkedHashMap<>();
+
+    @Nullable
+    private OnDropListener<V> mOnDropListener;
+
+    private long mReplacedCount;
+
+    @Override
+    public synchronized void clear() {
+        if (mOnDropListener != null) {
+            for (final ViewAction<V> action : mActions.values()) {
+                mOnDropListener.onDropped(action);
+            }
+        }
+        mActions.clear();
+    }
+
+    /**
+     * @return the number of actions replaced by a newer action with the same key
+     */
+    public synchronized long getReplacedCount() {
+        return mReplacedCount;
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return mActions.isEmpty();
+    }
+
+    /**
+     * @return an iterator over a snapshot of the queued actions which doesn't support {@link
+     * Iterator#remove()}
+     */
+    @NonNull
+    @Override
+    public synchronized Iterator<ViewAction<V>> iterator() {
+        return new ArrayList<>(mActions.values()).iterator();
+    }
+
+    @Override
+    public boolean offer(@NonNull final ViewAction<V> action) {
+        //noinspection ConstantConditions
+        if (action == null) {
+            throw new NullPointerException("action == null");
+        }
+        // group by the sent action, not by the wrapper used for the view action metrics
+        return offer(keyOf(TimedViewAction.unwrap(action)), action);
+    }
+
+    @Override
+    public synchronized boolean offer(@NonNull final Object key,
+            @NonNull final ViewAction<V> action) {
+        //noinspection ConstantConditions
+        if (action == null) {
+            throw new NullPointerException("action == null");
+        }
+        // remove first to move the key to the end of the queue
+        final ViewAction<V> replaced = mActions.remove(key);
+        if (replaced != null) {
+            mReplacedCount++;
+            if (mOnDropListener != null) {
+                mOnDropListener.onDropped(replaced);
+            }
+        }
+        mActions.put(key, action);
+        return true;
+    }
+
+    @Override
+    public synchronized ViewAction<V> peek() {
+        if (mActions.isEmpty()) {
+            return null;
+        }
+        return mActions.values().iterator().next();
+    }
+
+    @Override
+    public synchronized ViewAction<V> poll() {
+        if (mActions.isEmpty()) {
+            return null;
+        }
+        final Iterator<ViewAction<V>> iterator = mActions.values().iterator();
+        final ViewAction<V> action = iterator.next();
+        iterator.remove();
+        return action;
+    }
+
+    @Override
+    public synchronized void setOnDropListener(@Nullable final OnDropListener<V> listener) {
+        mOnDropListener = listener;
+    }
+
+    @Override
+    public synchronized int size() {
+        return mActions.size();
+    }
+
+    /**
+     * @return the key of the given action, actions with equal keys replace each other
+     */
+    @NonNull
+    protected Object keyOf(@NonNull final ViewAction<V> action) {
+        return action.getClass();
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.viewactionqueue;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import net.grandcentrix.thirtyinch.TiView;
+import net.grandcentrix.thirtyinch.ViewAction;
+
+/**
+ * Keeps the latest {@code capacity} actions in a ring buffer. When the buffer is full the oldest
+ * action is dropped to make room for the new one, offering never fails.
+ * <p>
+ * Use it when only the latest actions matter, i.e. progress updates, and a detached presenter
+ * shouldn't collect an unlimited number of actions. An action offered with a key via {@link
+ * #offer(Object, ViewAction)} replaces the queued action with the same key.
+ *
+ * @see ViewActionQueues#dropOldest(int)
+ */
+public class DropOldestViewActionQueue<V extends TiView> extends AbstractQueue<ViewAction<V>>
+        implements ViewActionQueue<V> {
+
+    private final ViewAction[] mBuffer;
+
+    /**
+     * key of the action at the same position in {@link #mBuffer} or {@code null}
+     */
+    private final Object[] mKeys;
+
+    private long mDroppedCount;
+
+    /**
+     * index of the oldest action
+     */
+    private int mHead;
+
+    @Nullable
+    private OnDropListener<V> mOnDropListener;
+
+    private int mSize;
+
+    public DropOldestViewActionQueue(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity has to be at least 1, was " + capacity);
+        }
+        mBuffer = new ViewAction[capacity];
+        mKeys = new Object[capacity];
+    }
+
+    @Override
+    public synchronized void clear() {
+        for (int i = 0; i < mSize; i++) {
+            if (mOnDropListener != null) {
+                mOnDropListener.onDropped(get(i));
+            }
+            mBuffer[(mHead + i) % mBuffer.length] = null;
+            mKeys[(mHead + i) % mBuffer.length] = null;
+        }
+        mHead = 0;
+        mSize = 0;
+    }
+
+    public int getCapacity() {
+        return mBuffer.length;
+    }
+
+    /**
+     * @return the number of actions dropped because the buffer was full
+     */
+    public synchronized long getDroppedCount() {
+        return mDroppedCount;
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    /**
+     * @return an iterator over a snapshot of the queued actions which doesn't support {@link
+     * Iterator#remove()}
+     */
+    @NonNull
+    @Override
+    public synchronized Iterator<ViewAction<V>> iterator() {
+        final List<ViewAction<V>> snapshot = new ArrayList<>(mSize);
+        for (int i = 0; i < mSize; i++) {
+            snapshot.add(get(i));
+        }
+        return snapshot.iterator();
+    }
+
+    @Override
+    public synchronized boolean offer(@NonNull final ViewAction<V> action) {
+        //noinspection ConstantConditions
+        if (action == null) {
+            throw new NullPointerException("action == null");
+        }
+        add(null, action);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean offer(@NonNull final Object key,
+            @NonNull final ViewAction<V> action) {
+        //noinspection ConstantConditions
+        if (action == null) {
+            throw new NullPointerException("action == null");
+        }
+        for (int i = 0; i < mSize; i++) {
+            if (key.equals(mKeys[(mHead + i) % mBuffer.length])) {
+                final ViewAction<V> replaced = get(i);
+                removeAt(i);
+                if (mOnDropListener != null) {
+                    mOnDropListener.onDropped(replaced);
+                }
+                // keys are unique, there is no other action to replace
+                break;
+            }
+        }
+        add(key, action);
+        return true;
+    }
+
+    @Override
+    public synchronized ViewAction<V> peek() {
+        return mSize == 0 ? null : get(0);
+    }
+
+    @Override
+    public synchronized ViewAction<V> poll() {
+        if (mSize == 0) {
+            return null;
+        }
+        final ViewAction<V> action = get(0);
+        mBuffer[mHead] = null;
+        mKeys[mHead] = null;
+        mHead = (mHead + 1) % mBuffer.length;
+        mSize--;
+        return action;
+    }
+
+    @Override
+    public synchronized void setOnDropListener(@Nullable final OnDropListener<V> listener) {
+        mOnDropListener = listener;
+    }
+
+    @Override
+    public synchronized int size() {
+        return mSize;
+    }
+
+    private void add(final Object key, final ViewAction<V> action) {
+        if (mSize == mBuffer.length) {
+            // full, overwrite the oldest action
+            final ViewAction<V> dropped = get(0);
+            mBuffer[mHead] = action;
+            mKeys[mHead] = key;
+            mHead = (mHead + 1) % mBuffer.length;
+            mDroppedCount++;
+            if (mOnDropListener != null) {
+                mOnDropListener.onDropped(dropped);
+            }
+        } else {
+            final int tail = (mHead + mSize) % mBuffer.length;
+            mBuffer[tail] = action;
+            mKeys[tail] = key;
+            mSize++;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ViewAction<V> get(final int index) {
+        return mBuffer[(mHead + index) % mBuffer.length];
+    }
+
+    /**
+     * removes the action at the given position, the following actions move one position forward
+     */
+    private void removeAt(final int index) {
+        for (int i = index; i < mSize - 1; i++) {
+            final int to = (mHead + i) % mBuffer.length;
+            final int from = (mHead + i + 1) % mBuffer.length;
+            mBuffer[to] = mBuffer[from];
+            mKeys[to] = mKeys[from];
+        }
+        final int last = (mHead + mSize - 1) % mBuffer.length;
+        mBuffer[last] = null;
+        mKeys[last] = null;
+        mSize--;
+    }
+}
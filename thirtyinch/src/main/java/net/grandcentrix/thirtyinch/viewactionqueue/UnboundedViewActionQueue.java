@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.viewactionqueue;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import net.grandcentrix.thirtyinch.TiView;
+import net.grandcentrix.thirtyinch.ViewAction;
+
+/**
+ * Keeps all actions without limit, the default policy. Backed by a lock-free {@link
+ * ConcurrentLinkedQueue}, offering from many threads never blocks.
+ * <p>
+ * Actions offered with a key via {@link #offer(Object, ViewAction)} are indexed by their key.
+ * A newer action with the same key marks the queued one as replaced instead of searching and
+ * removing it, replaced actions are skipped when polling.
+ *
+ * @see ViewActionQueues#unbounded()
+ */
+public class UnboundedViewActionQueue<V extends TiView> extends AbstractQueue<ViewAction<V>>
+        implements ViewActionQueue<V> {
+
+    /**
+     * Queue entry of an action offered with a key
+     */
+    private static final class KeyedEntry<V extends TiView> {
+
+        final ViewAction<V> mAction;
+
+        final Object mKey;
+
+        volatile boolean mReplaced;
+
+        KeyedEntry(final Object key, final ViewAction<V> action) {
+            mKey = key;
+            mAction = action;
+        }
+    }
+
+    /**
+     * Iterates over the actions which have not been replaced
+     */
+    private class ActionIterator implements Iterator<ViewAction<V>> {
+
+        private final Iterator<Object> mEntries = mQueue.iterator();
+
+        private ViewAction<V> mNext = findNext();
+
+        @Override
+        public boolean hasNext() {
+            return mNext != null;
+        }
+
+        @Override
+        public ViewAction<V> next() {
+            if (mNext == null) {
+                throw new NoSuchElementException();
+            }
+            final ViewAction<V> next = mNext;
+            mNext = findNext();
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+
+        private ViewAction<V> findNext() {
+            while (mEntries.hasNext()) {
+                final ViewAction<V> action = unwrap(mEntries.next());
+                if (action != null) {
+                    return action;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * the latest entry for each key
+     */
+    private final ConcurrentHashMap<Object, KeyedEntry<V>> mKeyedEntries =
+            new ConcurrentHashMap<>();
+
+    @Nullable
+    private volatile OnDropListener<V> mOnDropListener;
+
+    /**
+     * contains {@link ViewAction}s and {@link KeyedEntry}s
+     */
+    private final ConcurrentLinkedQueue<Object> mQueue = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void clear() {
+        final OnDropListener<V> listener = mOnDropListener;
+        if (listener == null) {
+            mQueue.clear();
+            mKeyedEntries.clear();
+            return;
+        }
+        Object entry;
+        while ((entry = mQueue.poll()) != null) {
+            final ViewAction<V> action = unwrap(entry);
+            if (entry instanceof KeyedEntry) {
+                mKeyedEntries.remove(((KeyedEntry) entry).mKey, entry);
+            }
+            if (action != null) {
+                listener.onDropped(action);
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return peek() == null;
+    }
+
+    /**
+     * @return a weakly consistent iterator which doesn't support {@link Iterator#remove()}
+     */
+    @NonNull
+    @Override
+    public Iterator<ViewAction<V>> iterator() {
+        return new ActionIterator();
+    }
+
+    @Override
+    public boolean offer(@NonNull final ViewAction<V> action) {
+        return mQueue.offer(action);
+    }
+
+    @Override
+    public boolean offer(@NonNull final Object key, @NonNull final ViewAction<V> action) {
+        //noinspection ConstantConditions
+        if (action == null) {
+            throw new NullPointerException("action == null");
+        }
+        final KeyedEntry<V> entry = new KeyedEntry<>(key, action);
+        final KeyedEntry<V> replaced = mKeyedEntries.put(key, entry);
+        if (replaced != null) {
+            replaced.mReplaced = true;
+            final OnDropListener<V> listener = mOnDropListener;
+            if (listener != null) {
+                listener.onDropped(replaced.mAction);
+            }
+        }
+        return mQueue.offer(entry);
+    }
+
+    @Override
+    public ViewAction<V> peek() {
+        while (true) {
+            final Object head = mQueue.peek();
+            if (head == null) {
+                return null;
+            }
+            final ViewAction<V> action = unwrap(head);
+            if (action != null) {
+                return action;
+            }
+            // drop the replaced entry, unless another thread already polled it
+            mQueue.remove(head);
+        }
+    }
+
+    @Override
+    public ViewAction<V> poll() {
+        Object head;
+        while ((head = mQueue.poll()) != null) {
+            if (head instanceof KeyedEntry) {
+                @SuppressWarnings("unchecked") final KeyedEntry<V> entry = (KeyedEntry<V>) head;
+                if (entry.mReplaced) {
+                    continue;
+                }
+                mKeyedEntries.remove(entry.mKey, entry);
+                return entry.mAction;
+            }
+            //noinspection unchecked
+            return (ViewAction<V>) head;
+        }
+        return null;
+    }
+
+    @Override
+    public void setOnDropListener(@Nullable final OnDropListener<V> listener) {
+        mOnDropListener = listener;
+    }
+
+    /**
+     * Traverses the queue, prefer {@link #isEmpty()}
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (final Object entry : mQueue) {
+            if (unwrap(entry) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the action of the queue entry or {@code null} if it was replaced
+     */
+    @SuppressWarnings("unchecked")
+    private ViewAction<V> unwrap(final Object entry) {
+        if (entry instanceof KeyedEntry) {
+            final KeyedEntry<V> keyedEntry = (KeyedEntry<V>) entry;
+            return keyedEntry.mReplaced ? null : keyedEntry.mAction;
+        }
+        return (ViewAction<V>) entry;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.viewactionqueue;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.Queue;
+import net.grandcentrix.thirtyinch.TiConfiguration;
+import net.grandcentrix.thirtyinch.TiPresenter;
+import net.grandcentrix.thirtyinch.TiView;
+import net.grandcentrix.thirtyinch.ViewAction;
+
+/**
+ * Holds the {@link ViewAction}s sent with {@link TiPresenter#sendToView(ViewAction)} while no
+ * view is attached. They are polled and executed in order when the next view attaches.
+ * <p>
+ * Implementations decide what happens when many actions pile up, i.e. while the app is in
+ * background and a data stream keeps sending updates. Actions may be dropped or replaced by newer
+ * ones. Offering and polling has to be thread safe, actions are sent from any thread.
+ * <p>
+ * Configure the queue of a presenter with
+ * {@link TiConfiguration.Builder#setPostponedViewActionQueue(Factory)}, predefined policies are
+ * available in {@link ViewActionQueues}.
+ *
+ * @param <V> the {@link TiView} of the presenter
+ */
+public interface ViewActionQueue<V extends TiView> extends Queue<ViewAction<V>> {
+
+    /**
+     * Creates a new {@link ViewActionQueue} for every {@link TiPresenter}
+     */
+    interface Factory {
+
+        @NonNull
+        <V extends TiView> ViewActionQueue<V> create();
+    }
+
+    /**
+     * Notified about actions which leave the queue without being polled
+     */
+    interface OnDropListener<V extends TiView> {
+
+        /**
+         * called for an action which was replaced by a newer one, evicted to make room for a new
+         * action or removed by {@link #clear()}. It will never be executed.
+         */
+        void onDropped(@NonNull ViewAction<V> action);
+    }
+
+    /**
+     * Inserts the action at the end of the queue and removes a queued action previously offered
+     * with an equal key. Used by {@link TiPresenter#sendToView(Object, ViewAction)}.
+     *
+     * @param key    identifies actions which replace each other, i.e. a constant for a loading
+     *               state
+     * @param action the action to execute
+     * @return {@code true} when the action was added
+     */
+    boolean offer(@NonNull Object key, @NonNull ViewAction<V> action);
+
+    /**
+     * @param listener notified about dropped actions, {@code null} to remove it
+     */
+    void setOnDropListener(@Nullable OnDropListener<V> listener);
+}
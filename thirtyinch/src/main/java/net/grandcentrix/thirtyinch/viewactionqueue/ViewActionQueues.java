@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.viewactionqueue;
+
+import androidx.annotation.NonNull;
+import net.grandcentrix.thirtyinch.TiConfiguration;
+import net.grandcentrix.thirtyinch.TiView;
+
+/**
+ * Predefined {@link ViewActionQueue} policies for {@link
+ * TiConfiguration.Builder#setPostponedViewActionQueue(ViewActionQueue.Factory)}
+ * <code>
+ * <pre>
+ * new TiConfiguration.Builder()
+ *     .setPostponedViewActionQueue(ViewActionQueues.dropOldest(50))
+ *     .build();
+ * </pre>
+ * </code>
+ */
+public final class ViewActionQueues {
+
+    private static final class DropOldestFactory implements ViewActionQueue.Factory {
+
+        private final int mCapacity;
+
+        DropOldestFactory(final int capacity) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException(
+                        "capacity has to be at least 1, was " + capacity);
+            }
+            mCapacity = capacity;
+        }
+
+        @NonNull
+        @Override
+        public <V extends TiView> ViewActionQueue<V> create() {
+            return new DropOldestViewActionQueue<>(mCapacity);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DropOldestFactory)) {
+                return false;
+            }
+            return mCapacity == ((DropOldestFactory) o).mCapacity;
+        }
+
+        @Override
+        public int hashCode() {
+            return mCapacity;
+        }
+
+        @Override
+        public String toString() {
+            return "dropOldest(" + mCapacity + ")";
+        }
+    }
+
+    private static final ViewActionQueue.Factory CONFLATING = new ViewActionQueue.Factory() {
+        @NonNull
+        @Override
+        public <V extends TiView> ViewActionQueue<V> create() {
+            return new ConflatingViewActionQueue<>();
+        }
+
+        @Override
+        public String toString() {
+            return "conflating()";
+        }
+    };
+
+    private static final ViewActionQueue.Factory UNBOUNDED = new ViewActionQueue.Factory() {
+        @NonNull
+        @Override
+        public <V extends TiView> ViewActionQueue<V> create() {
+            return new UnboundedViewActionQueue<>();
+        }
+
+        @Override
+        public String toString() {
+            return "unbounded()";
+        }
+    };
+
+    /**
+     * Keeps only the latest action of each {@link ConflatingViewActionQueue#keyOf key}
+     *
+     * @see ConflatingViewActionQueue
+     */
+    @NonNull
+    public static ViewActionQueue.Factory conflating() {
+        return CONFLATING;
+    }
+
+    /**
+     * Keeps the latest {@code capacity} actions, drops the oldest ones
+     *
+     * @see DropOldestViewActionQueue
+     */
+    @NonNull
+    public static ViewActionQueue.Factory dropOldest(final int capacity) {
+        return new DropOldestFactory(capacity);
+    }
+
+    /**
+     * Keeps all actions, the default
+     *
+     * @see UnboundedViewActionQueue
+     */
+    @NonNull
+    public static ViewActionQueue.Factory unbounded() {
+        return UNBOUNDED;
+    }
+
+    private ViewActionQueues() {
+        throw new AssertionError("no instances");
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import net.grandcentrix.thirtyinch.viewactionqueue.ViewActionQueues;
+import org.junit.*;
+import org.mockito.*;
+
+public class SendToViewBatchingTest {
+
+    private class TestPresenter extends TiPresenter<TestView> {
+
+        TestPresenter(final TiConfiguration config) {
+            super(config);
+        }
+    }
+
+    private interface TestView extends TiView {
+
+        void show(int i);
+    }
+
+    /**
+     * Collects the posted tasks like the main thread Handler does until {@link #runAll()} is
+     * called
+     */
+    private static class PostingExecutor implements Executor {
+
+        final List<Runnable> mPosted = new ArrayList<>();
+
+        @Override
+        public void execute(@NonNull final Runnable command) {
+            mPosted.add(command);
+        }
+
+        void runAll() {
+            final List<Runnable> posted = new ArrayList<>(mPosted);
+            mPosted.clear();
+            for (final Runnable runnable : posted) {
+                runnable.run();
+            }
+        }
+    }
+
+    private PostingExecutor mExecutor;
+
+    private TestPresenter mPresenter;
+
+    private TestView mView;
+
+    @Test
+    public void actionsSentWhileDrainingArePostedAgain() throws Exception {
+        mPresenter.attachView(mView);
+
+        mPresenter.sendToView(new ViewAction<TestView>() {
+            @Override
+            public void call(final TestView view) {
+                view.show(1);
+                mPresenter.sendToView(show(2));
+            }
+        });
+        mExecutor.runAll();
+        verify(mView).show(1);
+        verify(mView, never()).show(2);
+        assertThat(mExecutor.mPosted).hasSize(1);
+
+        mExecutor.runAll();
+        verify(mView).show(2);
+        assertThat(mPresenter.getViewActionBatchCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void disabledByDefault() throws Exception {
+        assertThat(TiConfiguration.DEFAULT.isSendToViewBatchingEnabled()).isFalse();
+
+        final TestPresenter presenter = new TestPresenter(TiConfiguration.DEFAULT);
+        presenter.setUiThreadExecutor(mExecutor);
+        presenter.create();
+        presenter.attachView(mView);
+
+        presenter.sendToView(show(1));
+        presenter.sendToView(show(2));
+
+        assertThat(mExecutor.mPosted).hasSize(2);
+        assertThat(presenter.getCoalescedViewActionCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void pendingActionsArePostponedWhenTheViewDetaches() throws Exception {
+        mPresenter.attachView(mView);
+        mPresenter.sendToView(show(1));
+        mPresenter.detachView();
+        mPresenter.sendToView(show(2));
+
+        assertThat(mPresenter.getQueuedViewActions()).hasSize(2);
+        mExecutor.runAll();
+        verifyZeroInteractions(mView);
+
+        mPresenter.attachView(mView);
+
+        final InOrder inOrder = inOrder(mView);
+        inOrder.verify(mView).show(1);
+        inOrder.verify(mView).show(2);
+    }
+
+    @Test
+    public void pendingKeyedActionsKeepTheirKeyWhenTheViewDetaches() throws Exception {
+        final TestPresenter presenter = new TestPresenter(new TiConfiguration.Builder()
+                .setSendToViewBatchingEnabled(true)
+                .setPostponedViewActionQueue(ViewActionQueues.conflating())
+                .build());
+        presenter.setUiThreadExecutor(mExecutor);
+        presenter.create();
+        presenter.attachView(mView);
+
+        presenter.sendToView("a", show(1));
+        presenter.sendToView("b", show(2));
+        presenter.detachView();
+
+        // not conflated by the class of the keyed action
+        assertThat(presenter.getQueuedViewActions()).hasSize(2);
+        mExecutor.runAll();
+
+        presenter.attachView(mView);
+        final InOrder inOrder = inOrder(mView);
+        inOrder.verify(mView).show(1);
+        inOrder.verify(mView).show(2);
+        assertThat(presenter.mLatestKeyedViewActions).isEmpty();
+    }
+
+    @Test
+    public void postsOnceForMultipleActions() throws Exception {
+        mPresenter.attachView(mView);
+
+        for (int i = 0; i < 200; i++) {
+            mPresenter.sendToView(show(i));
+        }
+
+        assertThat(mExecutor.mPosted).hasSize(1);
+        assertThat(mPresenter.getCoalescedViewActionCount()).isEqualTo(199);
+        verifyZeroInteractions(mView);
+
+        mExecutor.runAll();
+
+        final InOrder inOrder = inOrder(mView);
+        for (int i = 0; i < 200; i++) {
+            inOrder.verify(mView).show(i);
+        }
+        assertThat(mPresenter.getViewActionBatchCount()).isEqualTo(1);
+
+        // the next action schedules a new batch
+        mPresenter.sendToView(show(200));
+        assertThat(mExecutor.mPosted).hasSize(1);
+        assertThat(mPresenter.getCoalescedViewActionCount()).isEqualTo(199);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        mExecutor = new PostingExecutor();
+        mView = mock(TestView.class);
+        mPresenter = new TestPresenter(new TiConfiguration.Builder()
+                .setSendToViewBatchingEnabled(true)
+                .build());
+        mPresenter.setUiThreadExecutor(mExecutor);
+        mPresenter.create();
+    }
+
+    private static ViewAction<TestView> show(final int i) {
+        return new ViewAction<TestView>() {
+            @Override
+            public void call(final TestView view) {
+                view.show(i);
+            }
+        };
+    }
+}
@@ -20,12 +20,15 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import net.grandcentrix.thirtyinch.viewactionqueue.ViewActionQueues;
 import org.junit.*;
 import org.mockito.*;
 
@@ -33,6 +36,12 @@ public class SendToViewTest {
 
     private class TestPresenter extends TiPresenter<TestView> {
 
+        TestPresenter() {
+        }
+
+        TestPresenter(final TiConfiguration config) {
+            super(config);
+        }
     }
 
     private interface TestView extends TiView {
@@ -89,6 +98,148 @@ public class SendToViewTest {
         inOrder.verify(view).doSomething2();
     }
 
+    @Test
+    public void keyed_attachedDropsPendingActionsWithSameKey() throws Exception {
+        final TestPresenter presenter = new TestPresenter();
+        presenter.create();
+        final List<Runnable> posted = new ArrayList<>();
+        presenter.setUiThreadExecutor(new Executor() {
+            @Override
+            public void execute(@NonNull final Runnable command) {
+                posted.add(command);
+            }
+        });
+        final TestView view = mock(TestView.class);
+        presenter.attachView(view);
+
+        presenter.sendToView("key", new ViewAction<TestView>() {
+            @Override
+            public void call(final TestView view) {
+                view.doSomething1();
+            }
+        });
+        presenter.sendToView("key", new ViewAction<TestView>() {
+            @Override
+            public void call(final TestView view) {
+                view.doSomething2();
+            }
+        });
+        presenter.sendToView("other", new ViewAction<TestView>() {
+            @Override
+            public void call(final TestView view) {
+                view.doSomething3();
+            }
+        });
+
+        for (final Runnable runnable : posted) {
+            runnable.run();
+        }
+
+        verify(view, never()).doSomething1();
+        final InOrder inOrder = inOrder(view);
+        inOrder.verify(view).doSomething2();
+        inOrder.verify(view).doSomething3();
+    }
+
+    @Test
+    public void keyed_detachedKeepsLatestActionPerKey() throws Exception {
+        final TestPresenter presenter = new TestPresenter();
+        presenter.create();
+        presenter.setUiThreadExecutor(mImmediatelySameThread);
+
+        presenter.sendToView("key", new ViewAction<TestView>() {
+            @Override
+            public void call(final TestView view) {
+                view.doSomething1();
+            }
+        });
+        presenter.sendToView(new ViewAction<TestView>() {
+            @Override
+            public void call(final TestView view) {
+                view.doSomething3();
+            }
+        });
+        presenter.sendToView("key", new ViewAction<TestView>() {
+            @Override
+            public void call(final TestView view) {
+                view.doSomething2();
+            }
+        });
+        assertThat(presenter.getQueuedViewActions()).hasSize(2);
+
+        final TestView view = mock(TestView.class);
+        presenter.attachView(view);
+
+        final InOrder inOrder = inOrder(view);
+        inOrder.verify(view).doSomething3();
+        inOrder.verify(view).doSomething2();
+        verifyNoMoreInteractions(view);
+        assertThat(presenter.getQueuedViewActions()).isEmpty();
+    }
+
+    @Test
+    public void keyed_droppedActionIsForgotten() throws Exception {
+        final TestPresenter presenter = new TestPresenter(new TiConfiguration.Builder()
+                .setPostponedViewActionQueue(ViewActionQueues.dropOldest(1))
+                .build());
+        presenter.create();
+        presenter.setUiThreadExecutor(mImmediatelySameThread);
+
+        presenter.sendToView("key", new ViewAction<TestView>() {
+            @Override
+            public void call(final TestView view) {
+                view.doSomething1();
+            }
+        });
+        assertThat(presenter.mLatestKeyedViewActions).hasSize(1);
+
+        // evicts the keyed action
+        presenter.sendToView(new ViewAction<TestView>() {
+            @Override
+            public void call(final TestView view) {
+                view.doSomething2();
+            }
+        });
+        assertThat(presenter.mLatestKeyedViewActions).isEmpty();
+    }
+
+    @Test
+    public void postponedViewActionQueueFromConfig() throws Exception {
+        final TestPresenter presenter = new TestPresenter(new TiConfiguration.Builder()
+                .setPostponedViewActionQueue(ViewActionQueues.dropOldest(2))
+                .build());
+        presenter.create();
+        presenter.setUiThreadExecutor(mImmediatelySameThread);
+
+        presenter.sendToView(new ViewAction<TestView>() {
+            @Override
+            public void call(final TestView view) {
+                view.doSomething1();
+            }
+        });
+        presenter.sendToView(new ViewAction<TestView>() {
+            @Override
+            public void call(final TestView view) {
+                view.doSomething2();
+            }
+        });
+        presenter.sendToView(new ViewAction<TestView>() {
+            @Override
+            public void call(final TestView view) {
+                view.doSomething3();
+            }
+        });
+        assertThat(presenter.getQueuedViewActions()).hasSize(2);
+
+        final TestView view = mock(TestView.class);
+        presenter.attachView(view);
+
+        final InOrder inOrder = inOrder(view);
+        inOrder.verify(view).doSomething2();
+        inOrder.verify(view).doSomething3();
+        verifyNoMoreInteractions(view);
+    }
+
     @Test
     public void testSendToViewRunsOnTheMainThread() throws Exception {
 
@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch;
+
+import static org.assertj.core.api.Assertions.*;
+
+import android.util.Log;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.*;
+
+public class TiAsyncLoggerTest {
+
+    /**
+     * Collects the messages, optionally blocks on the first message until released
+     */
+    private static class RecordingLogger implements TiLog.Logger {
+
+        final List<String> mMessages = Collections.synchronizedList(new ArrayList<String>());
+
+        final List<Thread> mThreads = Collections.synchronizedList(new ArrayList<Thread>());
+
+        final CountDownLatch mFirstReceived = new CountDownLatch(1);
+
+        final CountDownLatch mRelease;
+
+        RecordingLogger(final boolean blockFirst) {
+            mRelease = new CountDownLatch(blockFirst ? 1 : 0);
+        }
+
+        @Override
+        public void log(final int level, final String tag, final String msg) {
+            mMessages.add(tag + ": " + msg);
+            mThreads.add(Thread.currentThread());
+            if (mFirstReceived.getCount() == 0) {
+                return;
+            }
+            mFirstReceived.countDown();
+            try {
+                mRelease.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private TiAsyncLogger mLogger;
+
+    @After
+    public void tearDown() throws Exception {
+        TiLog.setLogger(null);
+        if (mLogger != null) {
+            mLogger.shutdown();
+        }
+    }
+
+    @Test
+    public void blockWhenFull() throws Exception {
+        final RecordingLogger delegate = new RecordingLogger(true);
+        mLogger = new TiAsyncLogger.Builder(delegate)
+                .setBufferSize(4)
+                .setOverflowPolicy(TiAsyncLogger.OverflowPolicy.BLOCK)
+                .build();
+
+        mLogger.log(Log.INFO, "tag", "first");
+        assertThat(delegate.mFirstReceived.await(5, TimeUnit.SECONDS)).isTrue();
+
+        final CountDownLatch done = new CountDownLatch(1);
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 10; i++) {
+                    mLogger.log(Log.INFO, "tag", "msg" + i);
+                }
+                done.countDown();
+            }
+        }).start();
+
+        // producer waits for the blocked delegate
+        assertThat(done.await(100, TimeUnit.MILLISECONDS)).isFalse();
+
+        delegate.mRelease.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(mLogger.flush(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(delegate.mMessages).hasSize(11);
+        assertThat(delegate.mMessages.get(10)).isEqualTo("tag: msg9");
+    }
+
+    @Test
+    public void dropWhenFull() throws Exception {
+        final RecordingLogger delegate = new RecordingLogger(true);
+        mLogger = new TiAsyncLogger.Builder(delegate)
+                .setBufferSize(16)
+                .build();
+
+        mLogger.log(Log.INFO, "tag", "first");
+        assertThat(delegate.mFirstReceived.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 20; i++) {
+            mLogger.log(Log.INFO, "tag", "msg" + i);
+        }
+
+        delegate.mRelease.countDown();
+        assertThat(mLogger.flush(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(delegate.mMessages).hasSize(18);
+        assertThat(delegate.mMessages.get(16)).isEqualTo("tag: msg15");
+        assertThat(delegate.mMessages.get(17)).isEqualTo(
+                "TiAsyncLogger: Dropped 4 log messages, the buffer of the async logger was full");
+    }
+
+    @Test
+    public void flushOnCrash() throws Exception {
+        final Thread.UncaughtExceptionHandler previous =
+                Thread.getDefaultUncaughtExceptionHandler();
+        final RecordingLogger delegate = new RecordingLogger(false);
+        final List<String> messagesOnCrash = new ArrayList<>();
+        Thread.setDefaultUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(final Thread t, final Throwable e) {
+                messagesOnCrash.addAll(delegate.mMessages);
+            }
+        });
+        try {
+            mLogger = new TiAsyncLogger.Builder(delegate)
+                    .setFlushOnCrash(true)
+                    .build();
+            for (int i = 0; i < 100; i++) {
+                mLogger.log(Log.ERROR, "tag", "msg" + i);
+            }
+
+            Thread.getDefaultUncaughtExceptionHandler()
+                    .uncaughtException(Thread.currentThread(), new RuntimeException("crash"));
+
+            assertThat(messagesOnCrash).hasSize(100);
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(previous);
+        }
+    }
+
+    @Test
+    public void flushWaitsUntilTheDelegateReturned() throws Exception {
+        final RecordingLogger delegate = new RecordingLogger(true);
+        mLogger = new TiAsyncLogger.Builder(delegate).build();
+
+        mLogger.log(Log.INFO, "tag", "slow");
+        // the record left the buffer but the delegate didn't return yet
+        assertThat(delegate.mFirstReceived.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(mLogger.flush(50, TimeUnit.MILLISECONDS)).isFalse();
+
+        delegate.mRelease.countDown();
+        assertThat(mLogger.flush(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void forwardInOrderFromMultipleThreads() throws Exception {
+        final RecordingLogger delegate = new RecordingLogger(false);
+        mLogger = new TiAsyncLogger.Builder(delegate)
+                .setBufferSize(8)
+                .setOverflowPolicy(TiAsyncLogger.OverflowPolicy.BLOCK)
+                .build();
+        TiLog.setLogger(mLogger);
+
+        final int threads = 4;
+        final int messages = 2000;
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            final String tag = "t" + t;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < messages; i++) {
+                        TiLog.v(tag, String.valueOf(i));
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(mLogger.flush(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(delegate.mMessages).hasSize(threads * messages);
+        final int[] next = new int[threads];
+        for (final String message : delegate.mMessages) {
+            final int thread = message.charAt(1) - '0';
+            assertThat(message).isEqualTo("t" + thread + ": " + next[thread]++);
+        }
+    }
+
+    @Test
+    public void isLoggableDelegates() throws Exception {
+        mLogger = new TiAsyncLogger.Builder(new RecordingLogger(false)).build();
+        assertThat(mLogger.isLoggable(Log.VERBOSE)).isTrue();
+        mLogger.shutdown();
+
+        mLogger = new TiAsyncLogger.Builder(TiLog.NOOP).build();
+        assertThat(mLogger.isLoggable(Log.ERROR)).isFalse();
+
+        TiLog.setLogger(mLogger);
+        assertThat(TiLog.isLoggable(Log.ERROR)).isFalse();
+    }
+
+    @Test
+    public void logOnCallerWhenFull() throws Exception {
+        final RecordingLogger delegate = new RecordingLogger(true);
+        mLogger = new TiAsyncLogger.Builder(delegate)
+                .setBufferSize(2)
+                .setOverflowPolicy(TiAsyncLogger.OverflowPolicy.LOG_ON_CALLER)
+                .build();
+
+        mLogger.log(Log.INFO, "tag", "first");
+        assertThat(delegate.mFirstReceived.await(5, TimeUnit.SECONDS)).isTrue();
+        mLogger.log(Log.INFO, "tag", "a");
+        mLogger.log(Log.INFO, "tag", "b");
+        mLogger.log(Log.INFO, "tag", "c");
+        delegate.mRelease.countDown();
+
+        assertThat(mLogger.flush(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(delegate.mMessages).containsExactlyInAnyOrder(
+                "tag: first", "tag: a", "tag: b", "tag: c");
+        assertThat(delegate.mThreads.get(delegate.mMessages.indexOf("tag: c")))
+                .isSameAs(Thread.currentThread());
+    }
+
+    @Test
+    public void failingSupplierIsReported() throws Exception {
+        final RecordingLogger delegate = new RecordingLogger(false);
+        mLogger = new TiAsyncLogger.Builder(delegate).build();
+
+        mLogger.log(Log.DEBUG, "tag", "before");
+        mLogger.log(Log.DEBUG, "tag", new TiLog.MessageSupplier() {
+            @Override
+            public String get() {
+                throw new IllegalStateException("broken supplier");
+            }
+        });
+        mLogger.log(Log.DEBUG, "tag", "after");
+        assertThat(mLogger.flush(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(delegate.mMessages).hasSize(3);
+        assertThat(delegate.mMessages.get(0)).isEqualTo("tag: before");
+        assertThat(delegate.mMessages.get(1))
+                .startsWith("TiAsyncLogger: Unable to write a log message with tag tag")
+                .contains("broken supplier");
+        assertThat(delegate.mMessages.get(2)).isEqualTo("tag: after");
+    }
+
+    @Test
+    public void supplierIsCalledOnBackgroundThread() throws Exception {
+        final RecordingLogger delegate = new RecordingLogger(false);
+        mLogger = new TiAsyncLogger.Builder(delegate).build();
+
+        final Thread[] supplierThread = new Thread[1];
+        mLogger.log(Log.DEBUG, "tag", new TiLog.MessageSupplier() {
+            @Override
+            public String get() {
+                supplierThread[0] = Thread.currentThread();
+                return "lazy";
+            }
+        });
+        assertThat(mLogger.flush(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(delegate.mMessages).containsExactly("tag: lazy");
+        assertThat(supplierThread[0]).isNotSameAs(Thread.currentThread()).isNotNull();
+    }
+}
@@ -35,6 +35,80 @@ public class TiLogTest {
         TiLog.log(Log.VERBOSE, "tag", "msg");
     }
 
+    @Test
+    public void dontFormatWhenNotLoggable() throws Exception {
+        final int[] toStringCalls = {0};
+        final Object arg = new Object() {
+            @Override
+            public String toString() {
+                toStringCalls[0]++;
+                return "arg";
+            }
+        };
+        final TiLog.MessageSupplier supplier = mock(TiLog.MessageSupplier.class);
+
+        TiLog.setLogger(null);
+        TiLog.v("tag", "%s", arg);
+        TiLog.d("tag", "%s %s", arg, arg);
+        TiLog.i("tag", supplier);
+        TiLog.log(Log.WARN, "tag", supplier);
+
+        final TiLog.LevelAwareLogger logger = mock(TiLog.LevelAwareLogger.class);
+        when(logger.isLoggable(Log.ERROR)).thenReturn(true);
+        TiLog.setLogger(logger);
+        TiLog.v("tag", "%s", arg);
+        TiLog.w("tag", "%s %s", arg, arg);
+        TiLog.d("tag", supplier);
+
+        verifyZeroInteractions(supplier);
+        verify(logger, never()).log(anyInt(), anyString(), anyString());
+        assertThat(toStringCalls[0]).isEqualTo(0);
+    }
+
+    @Test
+    public void formatArguments() throws Exception {
+        final TiLog.Logger logger = mock(TiLog.Logger.class);
+        TiLog.setLogger(logger);
+
+        TiLog.v("tag", "a %s", 1);
+        TiLog.d("tag", "a %s b %s", 1, "2");
+        TiLog.i("tag", "%s%% done", 50);
+        TiLog.w("tag", "%03d %s", 7, "x");
+        TiLog.e("tag", new TiLog.MessageSupplier() {
+            @Override
+            public String get() {
+                return "supplied";
+            }
+        });
+
+        verify(logger).log(Log.VERBOSE, "tag", "a 1");
+        verify(logger).log(Log.INFO, "tag", "50% done");
+        verify(logger).log(Log.WARN, "tag", "007 x");
+        verify(logger).log(Log.DEBUG, "tag", "a 1 b 2");
+        verify(logger).log(Log.ERROR, "tag", "supplied");
+    }
+
+    @Test
+    public void isLoggable() throws Exception {
+        TiLog.setLogger(null);
+        assertThat(TiLog.isLoggable(Log.ERROR)).isFalse();
+        assertThat(((TiLog.LevelAwareLogger) TiLog.TI_LOG).isLoggable(Log.ERROR)).isFalse();
+
+        // plain loggers log everything
+        TiLog.setLogger(mock(TiLog.Logger.class));
+        assertThat(TiLog.isLoggable(Log.VERBOSE)).isTrue();
+        assertThat(((TiLog.LevelAwareLogger) TiLog.TI_LOG).isLoggable(Log.VERBOSE)).isTrue();
+
+        final TiLog.LevelAwareLogger logger = mock(TiLog.LevelAwareLogger.class);
+        when(logger.isLoggable(Log.WARN)).thenReturn(true);
+        TiLog.setLogger(logger);
+        assertThat(TiLog.isLoggable(Log.VERBOSE)).isFalse();
+        assertThat(TiLog.isLoggable(Log.WARN)).isTrue();
+
+        TiLog.setLogger(TiLog.NOOP);
+        assertThat(TiLog.isLoggable(Log.ERROR)).isFalse();
+    }
+
     @Test
     public void logDToLogger() throws Exception {
         final TiLog.Logger logger = mock(TiLog.Logger.class);
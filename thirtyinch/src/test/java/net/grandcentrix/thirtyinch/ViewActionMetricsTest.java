@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import net.grandcentrix.thirtyinch.tracing.TimedViewAction;
+import net.grandcentrix.thirtyinch.tracing.ViewActionMetrics;
+import net.grandcentrix.thirtyinch.viewactionqueue.ViewActionQueues;
+import org.junit.*;
+
+public class ViewActionMetricsTest {
+
+    private class TestPresenter extends TiPresenter<TestView> {
+
+        TestPresenter(final TiConfiguration config) {
+            super(config);
+        }
+    }
+
+    private interface TestView extends TiView {
+
+        void show(int i);
+    }
+
+    /**
+     * Collects the posted tasks like the main thread Handler does until {@link #runAll()} is
+     * called
+     */
+    private static class PostingExecutor implements Executor {
+
+        final List<Runnable> mPosted = new ArrayList<>();
+
+        @Override
+        public void execute(@NonNull final Runnable command) {
+            mPosted.add(command);
+        }
+
+        void runAll() {
+            final List<Runnable> posted = new ArrayList<>(mPosted);
+            mPosted.clear();
+            for (final Runnable runnable : posted) {
+                runnable.run();
+            }
+        }
+    }
+
+    private PostingExecutor mExecutor;
+
+    private TestView mView;
+
+    @Test
+    public void conflatingQueueGroupsBySentAction() throws Exception {
+        final TestPresenter presenter = createPresenter(new TiConfiguration.Builder()
+                .setViewActionMetricsEnabled(true)
+                .setPostponedViewActionQueue(ViewActionQueues.conflating()));
+
+        for (int i = 0; i < 3; i++) {
+            presenter.sendToView(show(i));
+        }
+        presenter.sendToView(new ViewAction<TestView>() {
+            @Override
+            public void call(final TestView view) {
+                view.show(10);
+            }
+        });
+        presenter.attachView(mView);
+
+        verify(mView).show(2);
+        verify(mView).show(10);
+        verifyNoMoreInteractions(mView);
+        assertThat(presenter.getViewActionMetrics().getMaxQueueDepth()).isEqualTo(2);
+    }
+
+    @Test
+    public void disabledByDefault() throws Exception {
+        final TestPresenter presenter = createPresenter(new TiConfiguration.Builder());
+        assertThat(presenter.getViewActionMetrics()).isNull();
+
+        presenter.sendToView(show(1));
+        assertThat(presenter.getQueuedViewActions().peek())
+                .isNotInstanceOf(TimedViewAction.class);
+    }
+
+    @Test
+    public void measureDispatchedActions() throws Exception {
+        final TestPresenter presenter = createPresenter(new TiConfiguration.Builder()
+                .setViewActionMetricsEnabled(true)
+                .setSendToViewBatchingEnabled(true));
+        presenter.attachView(mView);
+
+        presenter.sendToView(show(1));
+        presenter.sendToView(show(2));
+        presenter.sendToView("key", show(3));
+        mExecutor.runAll();
+
+        verify(mView).show(1);
+        verify(mView).show(2);
+        verify(mView).show(3);
+        final ViewActionMetrics metrics = presenter.getViewActionMetrics();
+        assertThat(metrics.getDispatchLatency().getCount()).isEqualTo(3);
+        assertThat(metrics.getExecutionTime().getCount()).isEqualTo(3);
+        assertThat(metrics.getReplayLatency().getCount()).isEqualTo(0);
+        assertThat(metrics.getReplayBurstSize().getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void measureReplayBurst() throws Exception {
+        final TestPresenter presenter = createPresenter(new TiConfiguration.Builder()
+                .setViewActionMetricsEnabled(true));
+
+        presenter.sendToView(show(1));
+        presenter.sendToView(new ViewAction<TestView>() {
+            @Override
+            public void call(final TestView view) {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                view.show(2);
+            }
+
+            @Override
+            public String toString() {
+                return "slow action";
+            }
+        });
+        presenter.sendToView("key", show(3));
+        presenter.attachView(mView);
+
+        verify(mView).show(1);
+        verify(mView).show(2);
+        verify(mView).show(3);
+        final ViewActionMetrics metrics = presenter.getViewActionMetrics();
+        assertThat(metrics.getReplayLatency().getCount()).isEqualTo(3);
+        assertThat(metrics.getExecutionTime().getCount()).isEqualTo(3);
+        assertThat(metrics.getReplayBurstSize().getCount()).isEqualTo(1);
+        assertThat(metrics.getReplayBurstSize().getMax()).isEqualTo(3);
+        assertThat(metrics.getReplayBurstDuration().getMax()).isGreaterThanOrEqualTo(5_000_000);
+        assertThat(metrics.getMaxQueueDepth()).isEqualTo(3);
+
+        final List<ViewActionMetrics.SlowAction> slowest = metrics.getSlowestActions();
+        assertThat(slowest).hasSize(3);
+        assertThat(slowest.get(0).getDescription()).isEqualTo("slow action");
+        assertThat(slowest.get(0).getDurationNanos()).isGreaterThanOrEqualTo(5_000_000);
+        assertThat(slowest.get(0).isReplayed()).isTrue();
+        assertThat(slowest.get(1).getDescription() + slowest.get(2).getDescription())
+                .contains("KeyedViewAction{key=key");
+    }
+
+    @Test
+    public void pendingActionsAreReplayedWhenViewDetached() throws Exception {
+        final TestPresenter presenter = createPresenter(new TiConfiguration.Builder()
+                .setViewActionMetricsEnabled(true)
+                .setSendToViewBatchingEnabled(true));
+        presenter.attachView(mView);
+        presenter.sendToView(show(1));
+        presenter.detachView();
+        mExecutor.runAll();
+
+        presenter.attachView(mView);
+
+        verify(mView).show(1);
+        final ViewActionMetrics metrics = presenter.getViewActionMetrics();
+        assertThat(metrics.getReplayLatency().getCount()).isEqualTo(1);
+        assertThat(metrics.getDispatchLatency().getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void slowestActionsAreLimited() throws Exception {
+        final ViewActionMetrics metrics = new ViewActionMetrics();
+        for (int i = 1; i <= 25; i++) {
+            metrics.recordExecution("action" + i, 0, i % 2 == 0 ? i : 100 - i, false);
+        }
+
+        final List<ViewActionMetrics.SlowAction> slowest = metrics.getSlowestActions();
+        assertThat(slowest).hasSize(ViewActionMetrics.MAX_SLOW_ACTIONS);
+        assertThat(slowest.get(0).getDescription()).isEqualTo("action1");
+        assertThat(slowest.get(0).getDurationNanos()).isEqualTo(99);
+        assertThat(slowest.get(9).getDurationNanos()).isEqualTo(81);
+
+        metrics.reset();
+        assertThat(metrics.getSlowestActions()).isEmpty();
+        assertThat(metrics.getExecutionTime().getCount()).isEqualTo(0);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        mExecutor = new PostingExecutor();
+        mView = mock(TestView.class);
+    }
+
+    private TestPresenter createPresenter(final TiConfiguration.Builder config) {
+        final TestPresenter presenter = new TestPresenter(config.build());
+        presenter.setUiThreadExecutor(mExecutor);
+        presenter.create();
+        return presenter;
+    }
+
+    private static ViewAction<TestView> show(final int i) {
+        return new ViewAction<TestView>() {
+            @Override
+            public void call(final TestView view) {
+                view.show(i);
+            }
+        };
+    }
+}
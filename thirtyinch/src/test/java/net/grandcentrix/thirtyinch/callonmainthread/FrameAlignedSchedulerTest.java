@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.callonmainthread;
+
+import static org.assertj.core.api.Assertions.*;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.*;
+
+public class FrameAlignedSchedulerTest {
+
+    private static class ManualFrameClock implements FrameClock {
+
+        final List<Callback> mCallbacks = new ArrayList<>();
+
+        @Override
+        public void postFrameCallback(@NonNull final Callback callback) {
+            mCallbacks.add(callback);
+        }
+
+        void frame() {
+            final List<Callback> callbacks = new ArrayList<>(mCallbacks);
+            mCallbacks.clear();
+            for (final Callback callback : callbacks) {
+                callback.doFrame(System.nanoTime());
+            }
+        }
+    }
+
+    private final List<String> mCalls = new ArrayList<>();
+
+    private final ManualFrameClock mClock = new ManualFrameClock();
+
+    private final FrameAlignedScheduler mScheduler = new FrameAlignedScheduler(mClock);
+
+    private final Object mView = new Object();
+
+    @Test
+    public void cancel() throws Exception {
+        mScheduler.schedule(mView, "a", call("a1"));
+        mScheduler.schedule(mView, "b", call("b1"));
+        mScheduler.cancel(mView, "a");
+
+        mClock.frame();
+        assertThat(mCalls).containsExactly("b1");
+    }
+
+    @Test
+    public void failingCallDoesNotDropTheOthers() throws Exception {
+        final IllegalStateException failure = new IllegalStateException("first");
+        mScheduler.schedule(mView, "a", call("a1"));
+        mScheduler.schedule(mView, "b", new Runnable() {
+            @Override
+            public void run() {
+                throw failure;
+            }
+        });
+        mScheduler.schedule(mView, "c", new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException("second");
+            }
+        });
+        mScheduler.schedule(mView, "d", call("d1"));
+
+        try {
+            mClock.frame();
+            fail("did not throw");
+        } catch (IllegalStateException e) {
+            assertThat(e).isSameAs(failure);
+        }
+        assertThat(mCalls).containsExactly("a1", "d1");
+
+        // the scheduler keeps working
+        mScheduler.schedule(mView, "a", call("a2"));
+        mClock.frame();
+        assertThat(mCalls).containsExactly("a1", "d1", "a2");
+    }
+
+    @Test
+    public void lastCallWinsPerMethod() throws Exception {
+        mScheduler.schedule(mView, "a", call("a1"));
+        mScheduler.schedule(mView, "b", call("b1"));
+        mScheduler.schedule(mView, "a", call("a2"));
+
+        mClock.frame();
+        // a keeps its position
+        assertThat(mCalls).containsExactly("a2", "b1");
+        assertThat(mScheduler.getConflatedCallCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void runAllCallsInOneFrame() throws Exception {
+        final Object otherView = new Object();
+        mScheduler.schedule(mView, "a", call("a1"));
+        mScheduler.schedule(otherView, "a", call("other a1"));
+        assertThat(mCalls).isEmpty();
+        assertThat(mClock.mCallbacks).hasSize(1);
+
+        mClock.frame();
+        assertThat(mCalls).containsExactly("a1", "other a1");
+        assertThat(mScheduler.getConflatedCallCount()).isZero();
+
+        // nothing pending, no frame requested
+        assertThat(mClock.mCallbacks).isEmpty();
+    }
+
+    @Test
+    public void sameKeyOfEqualViews_runsBoth() throws Exception {
+        // views are compared by identity, not with equals()
+        final List<String> view1 = new ArrayList<>();
+        final List<String> view2 = new ArrayList<>();
+        mScheduler.schedule(view1, "a", call("a1"));
+        mScheduler.schedule(view2, "a", call("a2"));
+        mScheduler.cancel(new ArrayList<String>(), "a");
+
+        mClock.frame();
+        assertThat(mCalls).containsExactly("a1", "a2");
+        assertThat(mScheduler.getConflatedCallCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void scheduleWhileRunning_runsInNextFrame() throws Exception {
+        mScheduler.schedule(mView, "a", new Runnable() {
+            @Override
+            public void run() {
+                mCalls.add("a1");
+                mScheduler.schedule(mView, "a", call("a2"));
+            }
+        });
+
+        mClock.frame();
+        assertThat(mCalls).containsExactly("a1");
+
+        mClock.frame();
+        assertThat(mCalls).containsExactly("a1", "a2");
+    }
+
+    private Runnable call(final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                mCalls.add(name);
+            }
+        };
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.distinctuntilchanged;
+
+import static net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctArgument.Strategy.*;
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.*;
+
+public class ArgumentComparatorTest {
+
+    @Test
+    public void equals() throws Exception {
+        final ArgumentComparator comparator = new ArgumentComparator(EQUALS);
+        assertThat(comparator.compareWith(new Object[]{new String("a")})).isFalse();
+        assertThat(comparator.compareWith(new Object[]{new String("a")})).isTrue();
+        assertThat(comparator.compareWith(new Object[]{null})).isFalse();
+        assertThat(comparator.compareWith(new Object[]{null})).isTrue();
+        assertThat(comparator.compareWith(new Object[]{"b"})).isFalse();
+    }
+
+    @Test
+    public void hash() throws Exception {
+        final ArgumentComparator comparator = new ArgumentComparator(HASH);
+        assertThat(comparator.compareWith(new Object[]{"a"})).isFalse();
+        assertThat(comparator.compareWith(new Object[]{"a"})).isTrue();
+        assertThat(comparator.compareWith(new Object[]{"b"})).isFalse();
+    }
+
+    @Test
+    public void identity() throws Exception {
+        final ArgumentComparator comparator = new ArgumentComparator(IDENTITY);
+        final String a = new String("a");
+        assertThat(comparator.compareWith(new Object[]{a})).isFalse();
+        assertThat(comparator.compareWith(new Object[]{a})).isTrue();
+        // equal but not the same
+        assertThat(comparator.compareWith(new Object[]{new String("a")})).isFalse();
+    }
+
+    @Test
+    public void ignore() throws Exception {
+        final ArgumentComparator comparator = new ArgumentComparator(HASH, IGNORE);
+        assertThat(comparator.compareWith(new Object[]{"a", 1})).isFalse();
+        assertThat(comparator.compareWith(new Object[]{"a", 2})).isTrue();
+        assertThat(comparator.compareWith(new Object[]{"b", 3})).isFalse();
+    }
+
+    @Test
+    public void initialize() throws Exception {
+        final ArgumentComparator comparator = new ArgumentComparator(IGNORE);
+        assertThat(comparator.compareWith(new Object[]{"a"})).isFalse();
+        assertThat(comparator.compareWith(new Object[]{"b"})).isTrue();
+    }
+
+    @Test
+    public void skipEqualsWhenAlreadyChanged() throws Exception {
+        final Object noEquals = new Object() {
+            @Override
+            public boolean equals(final Object obj) {
+                throw new AssertionError("should not be compared");
+            }
+        };
+        final ArgumentComparator comparator = new ArgumentComparator(IDENTITY, EQUALS);
+        assertThat(comparator.compareWith(new Object[]{"a", noEquals})).isFalse();
+        assertThat(comparator.compareWith(new Object[]{"b", noEquals})).isFalse();
+    }
+
+    @Test
+    public void wrongNumberOfParameters() throws Exception {
+        final ArgumentComparator comparator = new ArgumentComparator(HASH, HASH);
+        try {
+            comparator.compareWith(new Object[]{"a"});
+            fail("did not throw");
+        } catch (IllegalArgumentException e) {
+            assertThat(e).hasMessageContaining("expected 2 parameters but got 1");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.distinctuntilchanged;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import net.grandcentrix.thirtyinch.TiView;
+import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctArgument.Strategy;
+import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctUntilChangedMethodTable.MethodDescriptor;
+import org.junit.*;
+
+public class DistinctUntilChangedMethodTableTest {
+
+    private interface ArgumentView extends TiView {
+
+        @DistinctUntilChanged
+        void showUser(String name, @DistinctArgument(Strategy.IDENTITY) Object avatar,
+                @DistinctArgument(Strategy.IGNORE) long timestamp);
+    }
+
+    private interface TestView extends TiView {
+
+        @DistinctUntilChanged
+        void hash(String s);
+
+        @DistinctUntilChanged(comparator = EqualsComparator.class, logDropped = true)
+        void equals(String s);
+
+        void notAnnotated(String s);
+
+        @DistinctUntilChanged
+        String nonVoid(String s);
+
+        @DistinctUntilChanged
+        void noArgs();
+    }
+
+    @Test
+    public void argumentStrategies() throws Exception {
+        final DistinctUntilChangedMethodTable table =
+                DistinctUntilChangedMethodTable.of(ArgumentView.class);
+
+        final MethodDescriptor showUser = table.get(ArgumentView.class
+                .getMethod("showUser", String.class, Object.class, long.class));
+        assertThat(showUser.strategies)
+                .containsExactly(Strategy.HASH, Strategy.IDENTITY, Strategy.IGNORE);
+        assertThat(showUser.newComparator()).isInstanceOf(ArgumentComparator.class);
+
+        final MethodDescriptor hash = DistinctUntilChangedMethodTable.of(TestView.class)
+                .get(TestView.class.getMethod("hash", String.class));
+        assertThat(hash.strategies).isNull();
+        assertThat(hash.newComparator()).isInstanceOf(HashComparator.class);
+    }
+
+    @Test
+    public void resolvesAnnotatedVoidMethodsWithArguments() throws Exception {
+        final DistinctUntilChangedMethodTable table =
+                DistinctUntilChangedMethodTable.of(TestView.class);
+
+        final MethodDescriptor hash = table.get(TestView.class.getMethod("hash", String.class));
+        final MethodDescriptor equals =
+                table.get(TestView.class.getMethod("equals", String.class));
+
+        assertThat(hash.index).isGreaterThanOrEqualTo(0);
+        assertThat(hash.comparator).isEqualTo(HashComparator.class);
+        assertThat(hash.logDropped).isFalse();
+        assertThat(equals.index).isGreaterThanOrEqualTo(0).isNotEqualTo(hash.index);
+        assertThat(equals.comparator).isEqualTo(EqualsComparator.class);
+        assertThat(equals.logDropped).isTrue();
+        assertThat(table.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void passThroughOtherMethods() throws Exception {
+        final DistinctUntilChangedMethodTable table =
+                DistinctUntilChangedMethodTable.of(TestView.class);
+
+        for (final String name : new String[]{"notAnnotated", "nonVoid"}) {
+            assertThat(table.get(TestView.class.getMethod(name, String.class)).index)
+                    .isEqualTo(MethodDescriptor.INDEX_PASS_THROUGH);
+        }
+        assertThat(table.get(TestView.class.getMethod("noArgs")).index)
+                .isEqualTo(MethodDescriptor.INDEX_PASS_THROUGH);
+        assertThat(table.get(Object.class.getMethod("toString")).index)
+                .isEqualTo(MethodDescriptor.INDEX_OBJECT_METHOD);
+    }
+
+    @Test
+    public void sharedPerViewClass() throws Exception {
+        final DistinctUntilChangedMethodTable table =
+                DistinctUntilChangedMethodTable.of(TestView.class);
+        assertThat(DistinctUntilChangedMethodTable.of(TestView.class)).isSameAs(table);
+
+        // resolved only once
+        final Method method = TestView.class.getMethod("hash", String.class);
+        assertThat(table.get(method)).isSameAs(table.get(method));
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.distinctuntilchanged;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import org.junit.*;
+
+public class FingerprintComparatorTest {
+
+    private static class Point {
+
+        private final int mX;
+
+        private final int mY;
+
+        Point(final int x, final int y) {
+            mX = x;
+            mY = y;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * mX + mY;
+        }
+    }
+
+    private enum State {
+        IDLE, LOADING
+    }
+
+    private static class VersionedList extends ArrayList<String> implements Versioned {
+
+        private long mVersion = 0;
+
+        @Override
+        public boolean add(final String s) {
+            mVersion++;
+            return super.add(s);
+        }
+
+        @Override
+        public long getVersion() {
+            return mVersion;
+        }
+
+        @Override
+        public int hashCode() {
+            throw new AssertionError("the content of a versioned object must not be hashed");
+        }
+    }
+
+    private final FingerprintComparator mComparator = new FingerprintComparator();
+
+    @Test
+    public void different() throws Exception {
+        assertThat(mComparator.compareWith(new Object[]{"arg1"})).isFalse();
+        assertThat(mComparator.compareWith(new Object[]{"arg2"})).isFalse();
+    }
+
+    @Test
+    public void differentNumberOfParameters() throws Exception {
+        assertThat(mComparator.compareWith(new Object[]{"arg1"})).isFalse();
+        assertThat(mComparator.compareWith(new Object[]{"arg1", null})).isFalse();
+        assertThat(mComparator.compareWith(new Object[]{"arg1", null})).isTrue();
+        assertThat(mComparator.compareWith(new Object[]{"arg1"})).isFalse();
+    }
+
+    @Test
+    public void differentTypes() throws Exception {
+        assertThat(mComparator.compareWith(new Object[]{1})).isFalse();
+        assertThat(mComparator.compareWith(new Object[]{1L})).isFalse();
+        assertThat(mComparator.compareWith(new Object[]{new int[]{1}})).isFalse();
+        assertThat(mComparator.compareWith(new Object[]{new long[]{1}})).isFalse();
+    }
+
+    @Test
+    public void equalCollections() throws Exception {
+        assertThat(mComparator.compareWith(new Object[]{new ArrayList<>(Arrays.asList("a", "b"))}))
+                .isFalse();
+        assertThat(mComparator.compareWith(new Object[]{new LinkedList<>(Arrays.asList("a", "b"))}))
+                .isTrue();
+
+        assertThat(mComparator.compareWith(new Object[]{new HashSet<>(Arrays.asList("a", "b"))}))
+                .isFalse();
+        assertThat(mComparator.compareWith(new Object[]{new HashSet<>(Arrays.asList("b", "a"))}))
+                .isTrue();
+
+        final Map<String, Integer> map = new HashMap<>();
+        map.put("a", 1);
+        assertThat(mComparator.compareWith(new Object[]{map})).isFalse();
+        assertThat(mComparator.compareWith(new Object[]{Collections.singletonMap("a", 1)}))
+                .isTrue();
+        assertThat(mComparator.compareWith(new Object[]{Collections.singletonMap("a", 2)}))
+                .isFalse();
+    }
+
+    @Test
+    public void enums() throws Exception {
+        assertThat(mComparator.compareWith(new Object[]{State.IDLE})).isFalse();
+        assertThat(mComparator.compareWith(new Object[]{State.IDLE})).isTrue();
+        assertThat(mComparator.compareWith(new Object[]{State.LOADING})).isFalse();
+    }
+
+    @Test
+    public void hashCodeCollision() throws Exception {
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        assertThat(Arrays.asList("Aa", "BB").hashCode())
+                .isEqualTo(Arrays.asList("BB", "Aa").hashCode());
+
+        assertThat(mComparator.compareWith(new Object[]{"Aa"})).isFalse();
+        assertThat(mComparator.compareWith(new Object[]{"BB"})).isFalse();
+
+        assertThat(mComparator.compareWith(new Object[]{Arrays.asList("Aa", "Aa")})).isFalse();
+        assertThat(mComparator.compareWith(new Object[]{Arrays.asList("BB", "BB")})).isFalse();
+
+        assertThat(mComparator.compareWith(new Object[]{"Aa", "BB"})).isFalse();
+        assertThat(mComparator.compareWith(new Object[]{"BB", "Aa"})).isFalse();
+    }
+
+    @Test
+    public void hashCodeCollisionOfOtherObjects() throws Exception {
+        // other objects are only as distinct as their hashCode(), as documented
+        assertThat(new Point(0, 31).hashCode()).isEqualTo(new Point(1, 0).hashCode());
+
+        assertThat(mComparator.compareWith(new Object[]{new Point(0, 31)})).isFalse();
+        assertThat(mComparator.compareWith(new Object[]{new Point(1, 0)})).isTrue();
+    }
+
+    @Test
+    public void initialize() throws Exception {
+        assertThat(mComparator.compareWith(new Object[]{"arg1"})).isFalse();
+    }
+
+    @Test
+    public void mutatedList() throws Exception {
+        final List<String> list = new ArrayList<>(Arrays.asList("a", "b"));
+        assertThat(mComparator.compareWith(new Object[]{list})).isFalse();
+        list.set(1, "c");
+        assertThat(mComparator.compareWith(new Object[]{list})).isFalse();
+        list.add("d");
+        assertThat(mComparator.compareWith(new Object[]{list})).isFalse();
+        assertThat(mComparator.compareWith(new Object[]{list})).isTrue();
+    }
+
+    @Test
+    public void same() throws Exception {
+        assertThat(mComparator.compareWith(new Object[]{"arg1", 1, null})).isFalse();
+        assertThat(mComparator.compareWith(new Object[]{"arg1", 1, null})).isTrue();
+        assertThat(mComparator.compareWith(new Object[]{"arg1", 1, null})).isTrue();
+    }
+
+    @Test
+    public void versioned() throws Exception {
+        final VersionedList list = new VersionedList();
+        assertThat(mComparator.compareWith(new Object[]{list})).isFalse();
+        assertThat(mComparator.compareWith(new Object[]{list})).isTrue();
+
+        list.add("a");
+        assertThat(mComparator.compareWith(new Object[]{list})).isFalse();
+        assertThat(mComparator.compareWith(new Object[]{list})).isTrue();
+
+        // the version of the new instance is the same but it's a different object
+        final VersionedList other = new VersionedList();
+        other.add("a");
+        assertThat(mComparator.compareWith(new Object[]{other})).isFalse();
+    }
+
+    @Test
+    public void versionedInsideList() throws Exception {
+        final VersionedList versioned = new VersionedList();
+        final List<Object> list = Arrays.<Object>asList("title", versioned);
+        assertThat(mComparator.compareWith(new Object[]{list})).isFalse();
+        assertThat(mComparator.compareWith(new Object[]{list})).isTrue();
+
+        versioned.add("a");
+        assertThat(mComparator.compareWith(new Object[]{list})).isFalse();
+    }
+}
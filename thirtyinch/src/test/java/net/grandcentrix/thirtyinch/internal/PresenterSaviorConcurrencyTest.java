@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import android.app.Activity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import net.grandcentrix.thirtyinch.TiPresenter;
+import org.junit.*;
+
+/**
+ * Saves, recovers and frees presenters from many threads at the same time
+ */
+public class PresenterSaviorConcurrencyTest {
+
+    private static final int ACTIVITIES = 4;
+
+    private static final int ITERATIONS = 2000;
+
+    private static final int THREADS = 8;
+
+    private ExecutorService mExecutor;
+
+    @Test
+    public void saveRecoverAndFreeFromManyThreads() throws Exception {
+        final TestPresenterSavior savior = new TestPresenterSavior();
+
+        // the mocks are stubbed on the test thread, Mockito doesn't support concurrent stubbing
+        final List<Activity> activities = new ArrayList<>();
+        for (int i = 0; i < ACTIVITIES; i++) {
+            activities.add(new HostingActivity().getMockActivityInstance());
+        }
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Void>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            // multiple threads share the same Activity and therefore the same scope
+            final Activity activity = activities.get(i % ACTIVITIES);
+            results.add(mExecutor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    for (int j = 0; j < ITERATIONS; j++) {
+                        final TiPresenter presenter = new TiPresenter() {
+                        };
+                        final String id = savior.save(presenter, activity);
+                        assertThat(savior.recover(id, activity)).isSameAs(presenter);
+
+                        savior.free(id, activity);
+                        assertThat(savior.recover(id, activity)).isNull();
+                    }
+                    return null;
+                }
+            }));
+        }
+        start.countDown();
+
+        for (final Future<Void> result : results) {
+            // rethrows assertion errors and exceptions of the worker threads
+            result.get(30, TimeUnit.SECONDS);
+        }
+
+        assertThat(savior.getPresenterCount()).isEqualTo(0);
+        assertThat(savior.mScopes).isEmpty();
+        assertThat(savior.mActivityInstanceObserver).isNull();
+    }
+
+    @Test
+    public void saveWhileOtherPresentersOfTheSameActivityAreFreed() throws Exception {
+        final TestPresenterSavior savior = new TestPresenterSavior();
+        final Activity activity = new HostingActivity().getMockActivityInstance();
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<List<String>>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            final boolean keepPresenters = i % 2 == 0;
+            results.add(mExecutor.submit(new Callable<List<String>>() {
+                @Override
+                public List<String> call() throws Exception {
+                    start.await();
+                    final List<String> kept = new ArrayList<>();
+                    for (int j = 0; j < ITERATIONS / 10; j++) {
+                        final String id = savior.save(new TiPresenter() {
+                        }, activity);
+                        if (keepPresenters) {
+                            kept.add(id);
+                        } else {
+                            savior.free(id, activity);
+                        }
+                    }
+                    return kept;
+                }
+            }));
+        }
+        start.countDown();
+
+        final List<String> keptIds = new ArrayList<>();
+        for (final Future<List<String>> result : results) {
+            keptIds.addAll(result.get(30, TimeUnit.SECONDS));
+        }
+
+        // no presenter got lost in a scope which was removed concurrently
+        assertThat(savior.getPresenterCount()).isEqualTo(keptIds.size());
+        assertThat(savior.mScopes).hasSize(1);
+        for (final String id : keptIds) {
+            assertThat(savior.recover(id, activity)).isNotNull();
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        mExecutor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mExecutor.shutdownNow();
+    }
+}
@@ -21,7 +21,14 @@ import static org.mockito.Mockito.*;
 
 import android.os.Bundle;
 import androidx.annotation.NonNull;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import net.grandcentrix.thirtyinch.TiPresenter;
 import org.junit.*;
 import org.mockito.invocation.*;
@@ -222,6 +229,24 @@ public class PresenterSaviorTest {
         assertThat(savior.getPresenterCount()).isEqualTo(1);
     }
 
+    @Test
+    public void generateUniqueIds() throws Exception {
+        final TestPresenterSavior savior = new TestPresenterSavior();
+
+        final Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            assertThat(ids.add(savior.generateId())).isTrue();
+        }
+
+        // ids are short
+        assertThat(savior.generateId().length()).isLessThanOrEqualTo(20);
+
+        // a different savior, i.e. after process death, generates different ids
+        final TestPresenterSavior savior2 = new TestPresenterSavior();
+        final String id = savior2.generateId();
+        assertThat(ids).doesNotContain(id);
+    }
+
     @Test
     public void ignoreWhenActivityChangesConfiguration() throws Exception {
         final TestPresenterSavior savior = new TestPresenterSavior();
@@ -284,6 +309,26 @@ public class PresenterSaviorTest {
         assertThat(recover).isEqualTo(presenter);
     }
 
+    @Test
+    public void recoverLegacyId() throws Exception {
+        final TestPresenterSavior savior = new TestPresenterSavior();
+
+        final HostingActivity hostingActivity = new HostingActivity();
+        final TiPresenter presenter = new TiPresenter() {
+        };
+        final String id = savior.save(presenter, hostingActivity.getMockActivityInstance());
+
+        // ids of older versions restored from the savedInstanceState are not found
+        final TiPresenter recovered = savior.recover("TiPresenter:12345:987654321",
+                hostingActivity.getMockActivityInstance());
+        assertThat(recovered).isNull();
+
+        // and can be freed without side effects
+        savior.free("TiPresenter:12345:987654321", hostingActivity.getMockActivityInstance());
+        assertThat(savior.recover(id, hostingActivity.getMockActivityInstance()))
+                .isSameAs(presenter);
+    }
+
     @Test
     public void recoverUnsupportedHost() throws Exception {
         final TestPresenterSavior savior = new TestPresenterSavior();
@@ -364,6 +409,202 @@ public class PresenterSaviorTest {
         doAnswer(getFromMap()).when(mSavedState).getString(anyString());
     }
 
+    @Test
+    public void warmUpClaim() throws Exception {
+        final TestPresenterSavior savior = new TestPresenterSavior();
+        final TiPresenter presenter = new TiPresenter() {
+        };
+
+        final String warmUpId = savior.warmUp(providerOf(presenter), directExecutor());
+        assertThat(presenter.getState()).isEqualTo(TiPresenter.State.VIEW_DETACHED);
+
+        assertThat(savior.claim(warmUpId).await(0, TimeUnit.MILLISECONDS)).isSameAs(presenter);
+        // can only be claimed once
+        assertThat(savior.claim(warmUpId)).isNull();
+        assertThat(savior.mWarmPresenters).isEmpty();
+    }
+
+    @Test
+    public void warmUpClaimBeforeExecutorRuns() throws Exception {
+        final TestPresenterSavior savior = new TestPresenterSavior();
+        final TiPresenter presenter = new TiPresenter() {
+        };
+        final ArrayList<Runnable> pending = new ArrayList<>();
+
+        final String warmUpId = savior.warmUp(providerOf(presenter), queueExecutor(pending));
+        assertThat(presenter.getState()).isEqualTo(TiPresenter.State.INITIALIZED);
+
+        // cancelled, the claiming host creates its presenter itself
+        assertThat(savior.claim(warmUpId)).isNull();
+        assertThat(savior.mWarmPresenters).isEmpty();
+
+        // the executor doesn't create it anymore
+        pending.get(0).run();
+        assertThat(presenter.getState()).isEqualTo(TiPresenter.State.INITIALIZED);
+    }
+
+    @Test
+    public void warmUpClaimWhileCreating() throws Exception {
+        final TestPresenterSavior savior = new TestPresenterSavior();
+        final TiPresenter presenter = new TiPresenter() {
+        };
+        final CountDownLatch providing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final TiPresenterProvider<TiPresenter> slowProvider =
+                new TiPresenterProvider<TiPresenter>() {
+                    @NonNull
+                    @Override
+                    public TiPresenter providePresenter() {
+                        providing.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                        return presenter;
+                    }
+                };
+
+        final String warmUpId = savior.warmUp(slowProvider, new Executor() {
+            @Override
+            public void execute(@NonNull final Runnable command) {
+                new Thread(command).start();
+            }
+        });
+        assertThat(providing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        final TiPresenterSavior.WarmUp warmUp = savior.claim(warmUpId);
+        assertThat(warmUp).isNotNull();
+        assertThat(savior.mWarmPresenters).isEmpty();
+
+        // doesn't wait longer than the timeout
+        assertThat(warmUp.await(10, TimeUnit.MILLISECONDS)).isNull();
+        final CountDownLatch done = new CountDownLatch(1);
+        warmUp.whenDone(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        });
+
+        // the running creation is kept, not discarded
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(warmUp.await(0, TimeUnit.MILLISECONDS)).isSameAs(presenter);
+        assertThat(presenter.getState()).isEqualTo(TiPresenter.State.VIEW_DETACHED);
+
+        // runs immediately when already done
+        final CountDownLatch doneLate = new CountDownLatch(1);
+        warmUp.whenDone(new Runnable() {
+            @Override
+            public void run() {
+                doneLate.countDown();
+            }
+        });
+        assertThat(doneLate.getCount()).isZero();
+    }
+
+    @Test
+    public void warmUpDiscard() throws Exception {
+        final TestPresenterSavior savior = new TestPresenterSavior();
+        final TiPresenter presenter = new TiPresenter() {
+        };
+
+        final String warmUpId = savior.warmUp(providerOf(presenter), directExecutor());
+        savior.discard(warmUpId);
+
+        assertThat(presenter.isDestroyed()).isTrue();
+        assertThat(savior.claim(warmUpId)).isNull();
+    }
+
+    @Test
+    public void warmUpDiscardBeforeExecutorRuns() throws Exception {
+        final TestPresenterSavior savior = new TestPresenterSavior();
+        final TiPresenter presenter = new TiPresenter() {
+        };
+        final ArrayList<Runnable> pending = new ArrayList<>();
+
+        final String warmUpId = savior.warmUp(providerOf(presenter), queueExecutor(pending));
+        savior.discard(warmUpId);
+        pending.get(0).run();
+
+        // never created
+        assertThat(presenter.getState()).isEqualTo(TiPresenter.State.INITIALIZED);
+    }
+
+    @Test
+    public void warmUpParkDiscardedWhenActivityFinishes() throws Exception {
+        final TestPresenterSavior savior = new TestPresenterSavior();
+        final HostingActivity hostingActivity = new HostingActivity();
+        final TiPresenter presenter = new TiPresenter() {
+        };
+        final ArrayList<Runnable> pending = new ArrayList<>();
+
+        // Given a presenter created in the background which is parked for a recreated Activity
+        final TiPresenterSavior.WarmUp creation =
+                savior.create(providerOf(presenter), queueExecutor(pending));
+        final String warmUpId = savior.park(creation, hostingActivity.getMockActivityInstance());
+        assertThat(savior.mWarmPresenters).containsKey(warmUpId);
+        pending.get(0).run();
+
+        // When the Activity finishes instead
+        hostingActivity.setFinishing(true);
+        savior.mActivityInstanceObserver.onActivityDestroyed(
+                hostingActivity.getMockActivityInstance());
+
+        // Then the parked presenter is destroyed
+        assertThat(presenter.isDestroyed()).isTrue();
+        assertThat(savior.mWarmPresenters).isEmpty();
+        assertThat(savior.mScopes).isEmpty();
+    }
+
+    @Test
+    public void warmUpProviderThrows() throws Exception {
+        final TestPresenterSavior savior = new TestPresenterSavior();
+        final TiPresenter reused = new TiPresenter() {
+        };
+        reused.create();
+
+        final String warmUpId = savior.warmUp(providerOf(reused), directExecutor());
+        try {
+            savior.claim(warmUpId).await(0, TimeUnit.MILLISECONDS);
+            fail("did not throw");
+        } catch (IllegalStateException e) {
+            assertThat(e).hasMessageContaining("Presenter not in initialized state");
+        }
+    }
+
+    @NonNull
+    private static Executor directExecutor() {
+        return new Executor() {
+            @Override
+            public void execute(@NonNull final Runnable command) {
+                command.run();
+            }
+        };
+    }
+
+    @NonNull
+    private static TiPresenterProvider<TiPresenter> providerOf(final TiPresenter presenter) {
+        return new TiPresenterProvider<TiPresenter>() {
+            @NonNull
+            @Override
+            public TiPresenter providePresenter() {
+                return presenter;
+            }
+        };
+    }
+
+    @NonNull
+    private static Executor queueExecutor(final List<Runnable> queue) {
+        return new Executor() {
+            @Override
+            public void execute(@NonNull final Runnable command) {
+                queue.add(command);
+            }
+        };
+    }
+
     @NonNull
     private Answer getFromMap() {
         return new Answer() {
@@ -119,6 +119,45 @@ public class PresenterScopeTest {
         assertThat(removedPresenter).isNull();
     }
 
+    @Test
+    public void removedPresenterCanBeSavedWithDifferentId() throws Exception {
+
+        final PresenterScope scope = new PresenterScope();
+        final TiPresenter presenter = new TiPresenter() {
+        };
+        scope.save("a", presenter);
+        scope.remove("a");
+
+        // the presenter is not known anymore and can be saved again
+        scope.save("b", presenter);
+        assertThat(scope.get("b")).isSameAs(presenter);
+        assertThat(scope.get("a")).isNull();
+
+        // the reverse mapping was updated and the presenter can't be saved a third time
+        try {
+            scope.save("c", presenter);
+            fail("did not throw");
+        } catch (IllegalStateException e) {
+            assertThat(e).hasMessageContaining("'b'");
+        }
+    }
+
+    @Test
+    public void saveInClosedScopeThrows() throws Exception {
+        final PresenterScope scope = new PresenterScope();
+        scope.close();
+        assertThat(scope.isClosed()).isTrue();
+
+        try {
+            scope.save("a", new TiPresenter() {
+            });
+            fail("did not throw");
+        } catch (IllegalStateException e) {
+            assertThat(e).hasMessageContaining("closed");
+        }
+        assertThat(scope.isEmpty()).isTrue();
+    }
+
     @Test
     public void saveNullPresenterThrows() throws Exception {
         final PresenterScope scope = new PresenterScope();
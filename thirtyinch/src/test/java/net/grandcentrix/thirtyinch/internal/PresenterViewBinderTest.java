@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import androidx.annotation.NonNull;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import net.grandcentrix.thirtyinch.BindViewInterceptor;
+import net.grandcentrix.thirtyinch.FusableBindViewInterceptor;
+import net.grandcentrix.thirtyinch.SelectiveBindViewInterceptor;
+import net.grandcentrix.thirtyinch.TiPresenter;
+import net.grandcentrix.thirtyinch.TiView;
+import net.grandcentrix.thirtyinch.callonmainthread.CallOnMainThread;
+import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctUntilChanged;
+import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctUntilChangedInterceptor;
+import net.grandcentrix.thirtyinch.util.FusedInvocationHandler;
+import net.grandcentrix.thirtyinch.util.ViewClassInfo;
+import org.junit.*;
+
+public class PresenterViewBinderTest {
+
+    /**
+     * Implements the view interface for its subclasses, their {@link Class#getInterfaces()} is
+     * empty
+     */
+    private abstract static class BaseTestView implements TestView {
+
+    }
+
+    /**
+     * Records the calls passing the interceptor
+     */
+    private class RecordingInterceptor implements FusableBindViewInterceptor {
+
+        private final boolean mFusable;
+
+        private final String mName;
+
+        RecordingInterceptor(final String name, final boolean fusable) {
+            mName = name;
+            mFusable = fusable;
+        }
+
+        @Override
+        public Hook createHook(@NonNull final TiView view, @NonNull final Class<?> viewInterface) {
+            if (!mFusable) {
+                return null;
+            }
+            return new Hook() {
+                @Override
+                public Object handle(@NonNull final Chain next, @NonNull final Method method,
+                        @NonNull final Object[] args) throws Throwable {
+                    mCalls.add(mName);
+                    return next.proceed(method, args);
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <V extends TiView> V intercept(final V view) {
+            final TestView testView = (TestView) view;
+            return (V) new TestView() {
+                @Override
+                public void showText(final String text) {
+                    mCalls.add(mName);
+                    testView.showText(text);
+                }
+            };
+        }
+    }
+
+    /**
+     * Applies only to views with {@link CallOnMainThread} methods, counts the checks
+     */
+    private class SelectiveInterceptor extends RecordingInterceptor
+            implements SelectiveBindViewInterceptor {
+
+        int mAppliesToCount;
+
+        SelectiveInterceptor() {
+            super("selective", true);
+        }
+
+        @Override
+        public boolean appliesTo(@NonNull final Class<?> viewInterface) {
+            mAppliesToCount++;
+            return ViewClassInfo.of(viewInterface).hasMethodWithAnnotation(CallOnMainThread.class);
+        }
+    }
+
+    /**
+     * A third party interceptor without hook
+     */
+    private class WrappingInterceptor implements BindViewInterceptor {
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <V extends TiView> V intercept(final V view) {
+            final TestView testView = (TestView) view;
+            return (V) new TestView() {
+                @Override
+                public void showText(final String text) {
+                    mCalls.add("wrapper");
+                    testView.showText(text);
+                }
+            };
+        }
+    }
+
+    public interface TestView extends TiView {
+
+        @DistinctUntilChanged
+        void showText(String text);
+    }
+
+    private PresenterViewBinder<TestView> mBinder;
+
+    private final List<String> mCalls = new ArrayList<>();
+
+    private TiPresenter<TestView> mPresenter;
+
+    private final TiViewProvider<TestView> mViewProvider = new TiViewProvider<TestView>() {
+        @Override
+        public TestView provideView() {
+            return new TestView() {
+                @Override
+                public void showText(final String text) {
+                    mCalls.add("view " + text);
+                }
+            };
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        mBinder = new PresenterViewBinder<>(new TiLoggingTagProvider() {
+            @Override
+            public String getLoggingTag() {
+                return "PresenterViewBinderTest";
+            }
+        });
+        mPresenter = new TiPresenter<TestView>() {
+        };
+        mPresenter.create();
+    }
+
+    @Test
+    public void distinctUntilChanged_viewInheritingTheInterface() throws Exception {
+        mBinder.addBindViewInterceptor(new DistinctUntilChangedInterceptor());
+
+        mBinder.bindView(mPresenter, new TiViewProvider<TestView>() {
+            @Override
+            public TestView provideView() {
+                return new BaseTestView() {
+                    @Override
+                    public void showText(final String text) {
+                        mCalls.add("view " + text);
+                    }
+                };
+            }
+        });
+        final TestView view = mPresenter.getView();
+        view.showText("a");
+        view.showText("a");
+
+        // applies to the interface and therefore wraps the view
+        assertThat(mCalls).containsExactly("view a");
+    }
+
+    @Test
+    public void fuseConsecutiveInterceptors() throws Exception {
+        final RecordingInterceptor first = new RecordingInterceptor("first", true);
+        final RecordingInterceptor second = new RecordingInterceptor("second", true);
+        mBinder.addBindViewInterceptor(first);
+        mBinder.addBindViewInterceptor(second);
+
+        mBinder.bindView(mPresenter, mViewProvider);
+        final TestView view = mPresenter.getView();
+
+        assertThat(Proxy.getInvocationHandler(view)).isInstanceOf(FusedInvocationHandler.class);
+        assertThat(mBinder.getInterceptedViewOf(first)).isSameAs(view);
+        assertThat(mBinder.getInterceptedViewOf(second)).isSameAs(view);
+
+        view.showText("a");
+
+        // like nested proxies the last interceptor runs first
+        assertThat(mCalls).containsExactly("second", "first", "view a");
+    }
+
+    @Test
+    public void fusedDistinctUntilChanged_clearCache() throws Exception {
+        final DistinctUntilChangedInterceptor distinct = new DistinctUntilChangedInterceptor();
+        mBinder.addBindViewInterceptor(distinct);
+        mBinder.addBindViewInterceptor(new RecordingInterceptor("logging", true));
+
+        mBinder.bindView(mPresenter, mViewProvider);
+        final TestView view = mPresenter.getView();
+        view.showText("a");
+        view.showText("a");
+        assertThat(mCalls).containsExactly("logging", "view a", "logging");
+
+        distinct.clearCache(mBinder);
+        view.showText("a");
+        assertThat(mCalls).containsExactly("logging", "view a", "logging", "logging", "view a");
+    }
+
+    @Test
+    public void interceptWithoutHook() throws Exception {
+        final RecordingInterceptor notFusable = new RecordingInterceptor("intercept", false);
+        final RecordingInterceptor fusable = new RecordingInterceptor("hook", true);
+        mBinder.addBindViewInterceptor(notFusable);
+        mBinder.addBindViewInterceptor(fusable);
+
+        mBinder.bindView(mPresenter, mViewProvider);
+        mPresenter.getView().showText("a");
+
+        assertThat(Proxy.isProxyClass(mBinder.getInterceptedViewOf(notFusable).getClass()))
+                .isFalse();
+        assertThat(mCalls).containsExactly("hook", "intercept", "view a");
+    }
+
+    @Test
+    public void nestThirdPartyInterceptors() throws Exception {
+        final RecordingInterceptor inner = new RecordingInterceptor("inner", true);
+        final RecordingInterceptor outer = new RecordingInterceptor("outer", true);
+        mBinder.addBindViewInterceptor(inner);
+        mBinder.addBindViewInterceptor(new WrappingInterceptor());
+        mBinder.addBindViewInterceptor(outer);
+
+        mBinder.bindView(mPresenter, mViewProvider);
+        mPresenter.getView().showText("a");
+
+        assertThat(mBinder.getInterceptedViewOf(inner))
+                .isNotSameAs(mBinder.getInterceptedViewOf(outer));
+        assertThat(mCalls).containsExactly("outer", "wrapper", "inner", "view a");
+    }
+
+    @Test
+    public void skipNotApplyingInterceptor() throws Exception {
+        final SelectiveInterceptor selective = new SelectiveInterceptor();
+        mBinder.addBindViewInterceptor(selective);
+
+        mBinder.bindView(mPresenter, mViewProvider);
+        mPresenter.getView().showText("a");
+
+        // the view passes through the skipped interceptor
+        assertThat(mBinder.getInterceptedViewOf(selective)).isSameAs(mPresenter.getView());
+        assertThat(Proxy.isProxyClass(mPresenter.getView().getClass())).isFalse();
+        assertThat(mCalls).containsExactly("view a");
+
+        // binding a new view of the same interface doesn't ask again
+        mPresenter.detachView();
+        mBinder.invalidateView();
+        mBinder.bindView(mPresenter, mViewProvider);
+        assertThat(selective.mAppliesToCount).isEqualTo(1);
+    }
+
+    @Test
+    public void skipNotApplyingInterceptorBetweenFusedOnes() throws Exception {
+        final RecordingInterceptor first = new RecordingInterceptor("first", true);
+        final SelectiveInterceptor selective = new SelectiveInterceptor();
+        final RecordingInterceptor second = new RecordingInterceptor("second", true);
+        mBinder.addBindViewInterceptor(first);
+        mBinder.addBindViewInterceptor(selective);
+        mBinder.addBindViewInterceptor(second);
+
+        mBinder.bindView(mPresenter, mViewProvider);
+        final TestView view = mPresenter.getView();
+
+        // the skipped interceptor doesn't break the fusion, the fused view passes through it
+        assertThat(mBinder.getInterceptedViewOf(first)).isSameAs(view);
+        assertThat(mBinder.getInterceptedViewOf(selective)).isSameAs(view);
+        assertThat(mBinder.getInterceptedViewOf(second)).isSameAs(view);
+
+        view.showText("a");
+        assertThat(mCalls).containsExactly("second", "first", "view a");
+    }
+}
@@ -21,7 +21,10 @@ import static org.mockito.Mockito.*;
 import android.app.Activity;
 import android.os.Bundle;
 import androidx.annotation.NonNull;
+import java.util.List;
 import java.util.concurrent.Executor;
+import net.grandcentrix.thirtyinch.BindViewInterceptor;
+import net.grandcentrix.thirtyinch.Removable;
 import net.grandcentrix.thirtyinch.TiPresenter;
 import net.grandcentrix.thirtyinch.TiView;
 
@@ -79,6 +82,8 @@ public class TestTiActivity
 
     private final HostingActivity mHostingActivity = new HostingActivity();
 
+    private int mPresenterReadyCount = 0;
+
 
     private TestTiActivity(final TiPresenterProvider<TiPresenter<TiView>> presenterProvider,
             final TiPresenterSavior savior) {
@@ -91,11 +96,24 @@ public class TestTiActivity
                 }, savior);
     }
 
+    public Removable addBindViewInterceptor(final BindViewInterceptor interceptor) {
+        return mDelegate.addBindViewInterceptor(interceptor);
+    }
+
     @Override
     public Object getHostingContainer() {
         return mHostingActivity.getMockActivityInstance();
     }
 
+    public List<BindViewInterceptor> getInterceptors() {
+        return mDelegate.getInterceptors(new InterceptableViewBinder.Filter<BindViewInterceptor>() {
+            @Override
+            public boolean apply(final BindViewInterceptor it) {
+                return true;
+            }
+        });
+    }
+
     public Activity getMockActivityInstance() {
         return mHostingActivity.getMockActivityInstance();
     }
@@ -105,6 +123,10 @@ public class TestTiActivity
         return mDelegate.getPresenter();
     }
 
+    public int getPresenterReadyCount() {
+        return mPresenterReadyCount;
+    }
+
     @Override
     public Executor getUiThreadExecutor() {
         return new Executor() {
@@ -124,10 +146,19 @@ public class TestTiActivity
         mDelegate.onCreate_afterSuper(saveInstanceState);
     }
 
+    public void onCreate(final Bundle saveInstanceState, final String warmUpId) {
+        mDelegate.onCreate_afterSuper(saveInstanceState, warmUpId);
+    }
+
     public void onDestroy() {
         mDelegate.onDestroy_afterSuper();
     }
 
+    @Override
+    public void onPresenterReady() {
+        mPresenterReadyCount++;
+    }
+
     public void onSaveInstanceState(final Bundle outState) {
         mDelegate.onSaveInstanceState_afterSuper(outState);
     }
@@ -92,6 +92,8 @@ public class TestTiFragment
 
     private boolean mInBackstack;
 
+    private int mPresenterReadyCount = 0;
+
     private boolean mRemoving;
 
     private TestTiFragment(final TiPresenterProvider<TiPresenter<TiView>> presenterProvider,
@@ -119,6 +121,10 @@ public class TestTiFragment
         return mDelegate.getPresenter();
     }
 
+    public int getPresenterReadyCount() {
+        return mPresenterReadyCount;
+    }
+
     @Override
     public Executor getUiThreadExecutor() {
         return new Executor() {
@@ -166,6 +172,11 @@ public class TestTiFragment
         mDelegate.onDestroyView_beforeSuper();
     }
 
+    @Override
+    public void onPresenterReady() {
+        mPresenterReadyCount++;
+    }
+
     public void onSaveInstanceState(final Bundle outState) {
         mDelegate.onSaveInstanceState_afterSuper(outState);
     }
@@ -17,11 +17,236 @@ package net.grandcentrix.thirtyinch.internal;
 
 import static org.assertj.core.api.Assertions.*;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import net.grandcentrix.thirtyinch.BindViewInterceptor;
 import net.grandcentrix.thirtyinch.TiConfiguration;
+import net.grandcentrix.thirtyinch.TiPresenter;
+import net.grandcentrix.thirtyinch.TiView;
+import net.grandcentrix.thirtyinch.callonmainthread.CallOnMainThreadInterceptor;
+import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctUntilChangedInterceptor;
 import org.junit.*;
 
 public class TiActivityDelegateTest extends AbstractPresenterDestroyTest {
 
+    @Test
+    public void claimWarmedUpPresenter() throws Exception {
+        final TestPresenter warmPresenter = new TestPresenter(TiConfiguration.DEFAULT);
+        final String warmUpId = mSavior.warmUp(new TiPresenterProvider<TestPresenter>() {
+            @NonNull
+            @Override
+            public TestPresenter providePresenter() {
+                return warmPresenter;
+            }
+        }, new Executor() {
+            @Override
+            public void execute(@NonNull final Runnable command) {
+                command.run();
+            }
+        });
+
+        final TestTiActivity activity = new TestTiActivity.Builder()
+                .setSavior(mSavior)
+                .setPresenter(new TestPresenter(TiConfiguration.DEFAULT))
+                .build();
+        activity.onCreate(null, warmUpId);
+
+        assertThat(activity.getPresenter()).isSameAs(warmPresenter);
+        assertThat(activity.getPresenterReadyCount()).isEqualTo(1);
+        assertThat(warmPresenter.isDestroyed()).isFalse();
+        // retained in the scope of the Activity
+        assertThat(mSavior.getPresenterCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void claimWarmedUpPresenterAfterTimeout() throws Exception {
+        final TestPresenter warmPresenter = new TestPresenter(TiConfiguration.DEFAULT);
+        final CountDownLatch providing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final String warmUpId = mSavior.warmUp(new TiPresenterProvider<TestPresenter>() {
+            @NonNull
+            @Override
+            public TestPresenter providePresenter() {
+                providing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return warmPresenter;
+            }
+        }, new Executor() {
+            @Override
+            public void execute(@NonNull final Runnable command) {
+                new Thread(command).start();
+            }
+        });
+        assertThat(providing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        final TestPresenter otherPresenter = new TestPresenter(TiConfiguration.DEFAULT);
+        final TestTiActivity activity = new TestTiActivity.Builder()
+                .setSavior(mSavior)
+                .setPresenter(otherPresenter)
+                .build();
+        activity.onCreate(null, warmUpId);
+        activity.onStart();
+
+        // the main thread stopped waiting, the view gets bound once the warm up is done
+        assertThat(activity.getPresenter()).isNull();
+        release.countDown();
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (activity.getPresenter() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(activity.getPresenter()).isSameAs(warmPresenter);
+        assertThat(warmPresenter.isViewAttached()).isTrue();
+        assertThat(otherPresenter.getState()).isEqualTo(TiPresenter.State.INITIALIZED);
+        assertThat(mSavior.getPresenterCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void claimWarmedUpPresenterInBackground() throws Exception {
+        final TestPresenter warmPresenter = new TestPresenter(TiConfiguration.DEFAULT);
+        final List<Runnable> warmUp = new ArrayList<>();
+        final String warmUpId = mSavior.warmUp(new TiPresenterProvider<TestPresenter>() {
+            @NonNull
+            @Override
+            public TestPresenter providePresenter() {
+                return warmPresenter;
+            }
+        }, new Executor() {
+            @Override
+            public void execute(@NonNull final Runnable command) {
+                warmUp.add(command);
+            }
+        });
+
+        final TestPresenter otherPresenter = new TestPresenter(TiConfiguration.DEFAULT);
+        final List<Runnable> background = new ArrayList<>();
+        final TestTiActivity activity = new TestTiActivity.Builder()
+                .setSavior(mSavior)
+                .setPresenterProvider(asyncProviderOf(otherPresenter, background))
+                .build();
+        activity.onCreate(null, warmUpId);
+
+        // the warm up didn't start, the Activity creates its presenter in the background
+        assertThat(activity.getPresenter()).isNull();
+        background.remove(0).run();
+        assertThat(activity.getPresenter()).isSameAs(otherPresenter);
+        assertThat(mSavior.getPresenterCount()).isEqualTo(1);
+
+        // the cancelled warm up doesn't create a second presenter
+        warmUp.remove(0).run();
+        assertThat(warmPresenter.getState()).isEqualTo(TiPresenter.State.INITIALIZED);
+    }
+
+    @Test
+    public void createPresenterInBackground() throws Exception {
+        final TestPresenter presenter = new TestPresenter(TiConfiguration.DEFAULT);
+        final List<Runnable> background = new ArrayList<>();
+        final TestTiActivity activity = new TestTiActivity.Builder()
+                .setSavior(mSavior)
+                .setPresenterProvider(asyncProviderOf(presenter, background))
+                .build();
+
+        activity.onCreate(null);
+        activity.onStart();
+
+        // waits for the presenter without binding the view
+        assertThat(activity.getPresenter()).isNull();
+        assertThat(activity.getPresenterReadyCount()).isEqualTo(0);
+        assertThat(presenter.getState()).isEqualTo(TiPresenter.State.INITIALIZED);
+
+        background.remove(0).run();
+
+        assertThat(activity.getPresenter()).isSameAs(presenter);
+        assertThat(activity.getPresenterReadyCount()).isEqualTo(1);
+        assertThat(presenter.isViewAttached()).isTrue();
+        assertThat(mSavior.getPresenterCount()).isEqualTo(1);
+
+        activity.onStop();
+        assertThat(presenter.isViewAttached()).isFalse();
+    }
+
+    @Test
+    public void createPresenterInBackground_configInterceptorsFirst() throws Exception {
+        final TestPresenter presenter = new TestPresenter(TiConfiguration.DEFAULT);
+        final List<Runnable> background = new ArrayList<>();
+        final TestTiActivity activity = new TestTiActivity.Builder()
+                .setSavior(mSavior)
+                .setPresenterProvider(asyncProviderOf(presenter, background))
+                .build();
+        final BindViewInterceptor interceptor = new BindViewInterceptor() {
+            @Override
+            public <V extends TiView> V intercept(final V view) {
+                return view;
+            }
+        };
+
+        activity.onCreate(null);
+        activity.addBindViewInterceptor(interceptor);
+        background.remove(0).run();
+
+        // same order as for a synchronously created presenter
+        final List<BindViewInterceptor> interceptors = activity.getInterceptors();
+        assertThat(interceptors).hasSize(3);
+        assertThat(interceptors.get(0)).isInstanceOf(CallOnMainThreadInterceptor.class);
+        assertThat(interceptors.get(1)).isInstanceOf(DistinctUntilChangedInterceptor.class);
+        assertThat(interceptors.get(2)).isSameAs(interceptor);
+    }
+
+    @Test
+    public void createPresenterInBackground_errorIsThrownOnTheUiThread() throws Exception {
+        final List<Runnable> background = new ArrayList<>();
+        final TestTiActivity activity = new TestTiActivity.Builder()
+                .setPresenterProvider(asyncProviderOf(new TestPresenter(TiConfiguration.DEFAULT) {
+                    @Override
+                    protected void onCreate() {
+                        super.onCreate();
+                        throw new AssertionError("failed");
+                    }
+                }, background))
+                .build();
+        activity.onCreate(null);
+
+        try {
+            // the ui thread executor of the test Activity runs immediately
+            background.remove(0).run();
+            fail("did not throw");
+        } catch (AssertionError e) {
+            assertThat(e).hasMessage("failed");
+        }
+    }
+
+    @Test
+    public void destroyBeforePresenterCreatedInBackground() throws Exception {
+        final TestPresenter presenter = new TestPresenter(TiConfiguration.DEFAULT);
+        final List<Runnable> background = new ArrayList<>();
+        final TestTiActivity activity = new TestTiActivity.Builder()
+                .setSavior(mSavior)
+                .setPresenterProvider(asyncProviderOf(presenter, background))
+                .build();
+
+        activity.onCreate(null);
+        activity.onStart();
+        activity.onStop();
+        activity.setFinishing(true);
+        activity.onDestroy();
+
+        background.remove(0).run();
+
+        // the discarded presenter isn't created instead of leaking
+        assertThat(activity.getPresenter()).isNull();
+        assertThat(presenter.getState()).isEqualTo(TiPresenter.State.INITIALIZED);
+        assertThat(mSavior.getPresenterCount()).isEqualTo(0);
+    }
+
     @Test
     public void provideDestroyedPresenter() throws Exception {
         final TestPresenter destroyedPresenter = new TestPresenter(TiConfiguration.DEFAULT);
@@ -59,4 +284,72 @@ public class TiActivityDelegateTest extends AbstractPresenterDestroyTest {
                     .hasMessageContaining("providePresenter");
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void recreateBeforePresenterCreatedInBackground() throws Exception {
+        final TestPresenter presenter = new TestPresenter(TiConfiguration.DEFAULT);
+        final List<Runnable> background = new ArrayList<>();
+        final TestTiActivity activity = new TestTiActivity.Builder()
+                .setSavior(mSavior)
+                .setPresenterProvider(asyncProviderOf(presenter, background))
+                .build();
+
+        activity.onCreate(null);
+        activity.onStart();
+
+        // When the Activity changes configurations before the presenter is created
+        activity.setFinishing(false);
+        activity.onStop();
+        activity.onSaveInstanceState(mActivitySavedState);
+        mSavior.mActivityInstanceObserver.onActivitySaveInstanceState(
+                activity.getMockActivityInstance(), mActivitySavedState);
+        activity.onDestroy();
+        background.remove(0).run();
+
+        // Then the presenter isn't destroyed
+        assertThat(presenter.isDestroyed()).isFalse();
+
+        final TestPresenter presenter2 = new TestPresenter(TiConfiguration.DEFAULT);
+        final List<Runnable> background2 = new ArrayList<>();
+        final TestTiActivity activity2 = new TestTiActivity.Builder()
+                .setSavior(mSavior)
+                .setPresenterProvider(asyncProviderOf(presenter2, background2))
+                .build();
+        mSavior.mActivityInstanceObserver.onActivityCreated(
+                activity2.getMockActivityInstance(), mActivitySavedState);
+        activity2.onCreate(mActivitySavedState);
+        activity2.onStart();
+
+        // And handed over to the new instance
+        assertThat(activity2.getPresenter()).isSameAs(presenter);
+        assertThat(presenter.isViewAttached()).isTrue();
+        assertThat(background2).isEmpty();
+        assertThat(mSavior.mWarmPresenters).isEmpty();
+    }
+
+    /**
+     * provides the presenter in the background, the background tasks are queued in {@code
+     * background} until the test runs them
+     */
+    private static TiPresenterProvider<TiPresenter<TiView>> asyncProviderOf(
+            final TiPresenter<TiView> presenter, final List<Runnable> background) {
+        return new AsyncTiPresenterProvider<TiPresenter<TiView>>() {
+            @NonNull
+            @Override
+            public TiPresenter<TiView> providePresenter() {
+                return presenter;
+            }
+
+            @Nullable
+            @Override
+            public Executor providePresenterCreationExecutor() {
+                return new Executor() {
+                    @Override
+                    public void execute(@NonNull final Runnable command) {
+                        background.add(command);
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.tracing;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.*;
+
+public class HistogramTest {
+
+    @Test
+    public void bucketBoundsContainValue() throws Exception {
+        for (long value = 0; value < 100_000; value++) {
+            final int index = Histogram.getBucketIndex(value);
+            assertThat(Histogram.getBucketUpperBound(index)).isGreaterThanOrEqualTo(value);
+            if (index > 0) {
+                assertThat(Histogram.getBucketUpperBound(index - 1)).isLessThan(value);
+            }
+        }
+        assertThat(Histogram.getBucketUpperBound(Histogram.getBucketIndex(Long.MAX_VALUE)))
+                .isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void emptyHistogram() throws Exception {
+        final Histogram histogram = new Histogram();
+        assertThat(histogram.getCount()).isEqualTo(0);
+        assertThat(histogram.getMin()).isEqualTo(0);
+        assertThat(histogram.getMax()).isEqualTo(0);
+        assertThat(histogram.getMean()).isEqualTo(0);
+        assertThat(histogram.getPercentile(99)).isEqualTo(0);
+    }
+
+    @Test
+    public void percentilesWithinRelativeError() throws Exception {
+        final Histogram histogram = new Histogram();
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(10_000);
+        assertThat(histogram.getMin()).isEqualTo(1000);
+        assertThat(histogram.getMax()).isEqualTo(10_000_000);
+        assertThat(histogram.getMean()).isEqualTo(5_000_500);
+        assertThat(histogram.getPercentile(50)).isBetween(5_000_000L, 5_625_000L);
+        assertThat(histogram.getPercentile(99)).isBetween(9_900_000L, 10_000_000L);
+        assertThat(histogram.getPercentile(100)).isEqualTo(10_000_000);
+        assertThat(histogram.getPercentile(0)).isBetween(1000L, 1125L);
+    }
+
+    @Test
+    public void rejectInvalidArguments() throws Exception {
+        final Histogram histogram = new Histogram();
+        try {
+            histogram.record(-1);
+            fail("did not throw");
+        } catch (IllegalArgumentException e) {
+            assertThat(e).hasMessageContaining(">= 0");
+        }
+        try {
+            histogram.getPercentile(101);
+            fail("did not throw");
+        } catch (IllegalArgumentException e) {
+            assertThat(e).hasMessageContaining("percentile");
+        }
+    }
+
+    @Test
+    public void reset() throws Exception {
+        final Histogram histogram = new Histogram();
+        histogram.record(5);
+        histogram.reset();
+        histogram.record(3);
+
+        assertThat(histogram.getCount()).isEqualTo(1);
+        assertThat(histogram.getMin()).isEqualTo(3);
+        assertThat(histogram.getMax()).isEqualTo(3);
+        assertThat(histogram.getTotal()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.tracing;
+
+import static org.assertj.core.api.Assertions.*;
+
+import net.grandcentrix.thirtyinch.TiPresenter;
+import net.grandcentrix.thirtyinch.TiView;
+import net.grandcentrix.thirtyinch.internal.TestTiActivity;
+import net.grandcentrix.thirtyinch.tracing.TiTracer.Section;
+import org.junit.*;
+
+public class InMemoryTracerTest {
+
+    /**
+     * Advances the clock by 10ns on every read
+     */
+    private static class SteppingTracer extends InMemoryTracer {
+
+        private long mTime = 0;
+
+        @Override
+        long nanoTime() {
+            mTime += 10;
+            return mTime;
+        }
+    }
+
+    private static class TracedPresenter extends TiPresenter<TiView> {
+
+    }
+
+    private SteppingTracer mTracer;
+
+    @Before
+    public void setUp() throws Exception {
+        mTracer = new SteppingTracer();
+        TiTracing.setTracer(mTracer);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        TiTracing.setTracer(null);
+    }
+
+    @Test
+    public void activityLifecycle() throws Exception {
+        final TracedPresenter presenter = new TracedPresenter();
+        final TestTiActivity activity = new TestTiActivity.Builder()
+                .setPresenter(presenter)
+                .build();
+
+        activity.onCreate(null);
+        activity.onStart();
+        activity.onStop();
+        activity.setFinishing(true);
+        activity.onDestroy();
+
+        for (final Section section : Section.values()) {
+            final Histogram histogram = mTracer.getHistogram(TracedPresenter.class, section);
+            assertThat(histogram).as(section.name()).isNotNull();
+            assertThat(histogram.getCount()).as(section.name()).isEqualTo(1);
+        }
+        // ATTACH_VIEW is nested inside BIND_VIEW
+        assertThat(mTracer.getHistogram(TracedPresenter.class, Section.BIND_VIEW).getMax())
+                .isEqualTo(30);
+        assertThat(mTracer.getHistogram(TracedPresenter.class, Section.ATTACH_VIEW).getMax())
+                .isEqualTo(10);
+        assertThat(mTracer.getPresenterClasses()).containsExactly(TracedPresenter.class);
+    }
+
+    @Test
+    public void ignoreSectionsWhichBeganBeforeInstallation() throws Exception {
+        final TracedPresenter presenter = new TracedPresenter();
+        mTracer.endSection(Section.CREATE, presenter);
+        assertThat(mTracer.getHistogram(TracedPresenter.class, Section.CREATE)).isNull();
+
+        mTracer.beginSection(Section.CREATE, presenter);
+        mTracer.endSection(Section.CREATE, presenter);
+        mTracer.endSection(Section.CREATE, presenter);
+        assertThat(mTracer.getHistogram(TracedPresenter.class, Section.CREATE).getCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void noTracerInstalled() throws Exception {
+        TiTracing.setTracer(null);
+        final TracedPresenter presenter = new TracedPresenter();
+        presenter.create();
+        presenter.destroy();
+
+        assertThat(mTracer.getPresenterClasses()).isEmpty();
+    }
+
+    @Test
+    public void reset() throws Exception {
+        final TracedPresenter presenter = new TracedPresenter();
+        presenter.create();
+        mTracer.reset();
+
+        assertThat(mTracer.getPresenterClasses()).isEmpty();
+    }
+
+    @Test
+    public void sectionEndsWhenLifecycleMethodThrows() throws Exception {
+        final TiPresenter<TiView> presenter = new TiPresenter<TiView>() {
+            @Override
+            protected void onCreate() {
+                throw new IllegalStateException("broken");
+            }
+        };
+        try {
+            presenter.create();
+            fail("did not throw");
+        } catch (IllegalStateException e) {
+            assertThat(e).hasMessage("broken");
+        }
+
+        assertThat(mTracer.getHistogram(presenter.getClass(), Section.CREATE).getCount())
+                .isEqualTo(1);
+    }
+}
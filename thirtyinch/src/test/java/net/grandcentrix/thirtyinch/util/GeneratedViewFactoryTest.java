@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import net.grandcentrix.thirtyinch.TiView;
+import org.junit.*;
+
+public class GeneratedViewFactoryTest {
+
+    interface TestView extends TiView {
+
+        void showText(String text);
+    }
+
+    interface UnrelatedView extends TiView {
+
+    }
+
+    interface ViewWithoutDelegate extends TiView {
+
+    }
+
+    @Test
+    public void generatedClassName() throws Exception {
+        assertThat(GeneratedViewFactory.getGeneratedClassName(TestView.class, "Suffix"))
+                .isEqualTo("net.grandcentrix.thirtyinch.util"
+                        + ".GeneratedViewFactoryTest_TestView_Suffix");
+        assertThat(GeneratedViewFactory.getGeneratedClassName(TiView.class, "Suffix"))
+                .isEqualTo("net.grandcentrix.thirtyinch.TiView_Suffix");
+    }
+
+    @Test
+    public void newInstance() throws Exception {
+        final GeneratedViewFactory factory = new GeneratedViewFactory("Delegate", String.class);
+        final TestView view = new TestView() {
+            @Override
+            public void showText(final String text) {
+            }
+        };
+
+        final TestView generated = factory.newInstance(TestView.class, view, "extra");
+
+        assertThat(generated).isInstanceOf(GeneratedViewFactoryTest_TestView_Delegate.class);
+        final GeneratedViewFactoryTest_TestView_Delegate delegate =
+                (GeneratedViewFactoryTest_TestView_Delegate) generated;
+        assertThat(delegate.mView).isSameAs(view);
+        assertThat(delegate.mExtra).isEqualTo("extra");
+    }
+
+    @Test
+    public void noGeneratedClass_returnsNull() throws Exception {
+        final GeneratedViewFactory factory = new GeneratedViewFactory("Delegate", String.class);
+
+        assertThat(factory.getConstructor(ViewWithoutDelegate.class)).isNull();
+        assertThat(factory.<TiView>newInstance(ViewWithoutDelegate.class, null, "extra"))
+                .isNull();
+    }
+
+    @Test
+    public void notImplementingTheInterface_returnsNull() throws Exception {
+        // GeneratedViewFactoryTest_UnrelatedView_Delegate exists but doesn't implement UnrelatedView
+        final GeneratedViewFactory factory = new GeneratedViewFactory("Delegate");
+
+        assertThat(factory.getConstructor(UnrelatedView.class)).isNull();
+    }
+
+    @Test
+    public void wrongConstructor_returnsNull() throws Exception {
+        final GeneratedViewFactory factory = new GeneratedViewFactory("Delegate", Integer.class);
+
+        assertThat(factory.getConstructor(TestView.class)).isNull();
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.util;
+
+/**
+ * Hand written equivalent of a class generated by the {@code thirtyinch-compiler} for {@link
+ * GeneratedViewFactoryTest.TestView} with the suffix {@code Delegate}
+ */
+final class GeneratedViewFactoryTest_TestView_Delegate
+        implements GeneratedViewFactoryTest.TestView {
+
+    final String mExtra;
+
+    final GeneratedViewFactoryTest.TestView mView;
+
+    public GeneratedViewFactoryTest_TestView_Delegate(final GeneratedViewFactoryTest.TestView view,
+            final String extra) {
+        mView = view;
+        mExtra = extra;
+    }
+
+    @Override
+    public void showText(final String text) {
+        mView.showText(text);
+    }
+}
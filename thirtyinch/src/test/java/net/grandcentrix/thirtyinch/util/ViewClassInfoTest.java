@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.grandcentrix.thirtyinch.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import net.grandcentrix.thirtyinch.TiView;
+import net.grandcentrix.thirtyinch.callonmainthread.CallOnMainThread;
+import net.grandcentrix.thirtyinch.distinctuntilchanged.DistinctUntilChanged;
+import org.junit.*;
+
+public class ViewClassInfoTest {
+
+    interface TestView extends TiView {
+
+        @DistinctUntilChanged
+        void showText(String text);
+    }
+
+    private static class TestViewImpl implements TestView {
+
+        @Override
+        public void showText(final String text) {
+        }
+    }
+
+    private static class SubTestViewImpl extends TestViewImpl {
+
+    }
+
+    @Test
+    public void annotations() throws Exception {
+        final ViewClassInfo info = ViewClassInfo.of(TestViewImpl.class);
+
+        assertThat(info.hasMethodWithAnnotation(DistinctUntilChanged.class)).isTrue();
+        assertThat(info.hasMethodWithAnnotation(CallOnMainThread.class)).isFalse();
+        // cached results
+        assertThat(info.hasMethodWithAnnotation(DistinctUntilChanged.class)).isTrue();
+        assertThat(info.hasMethodWithAnnotation(CallOnMainThread.class)).isFalse();
+    }
+
+    @Test
+    public void newProxy() throws Exception {
+        final InvocationHandler handler = new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args)
+                    throws Throwable {
+                return null;
+            }
+        };
+        final ViewClassInfo info = ViewClassInfo.of(TestViewImpl.class);
+
+        final TestView first = info.newProxy(handler);
+        final TestView second = info.newProxy(handler);
+
+        assertThat(first).isNotSameAs(second);
+        assertThat(first.getClass()).isSameAs(second.getClass());
+        assertThat(Proxy.getInvocationHandler(first)).isSameAs(handler);
+    }
+
+    @Test
+    public void newProxy_withoutViewInterface() throws Exception {
+        try {
+            ViewClassInfo.of(Object.class).newProxy(null);
+            fail("did not throw");
+        } catch (IllegalStateException e) {
+            assertThat(e).hasMessageContaining("TiView");
+        }
+    }
+
+    @Test
+    public void sharedPerClass() throws Exception {
+        assertThat(ViewClassInfo.of(TestViewImpl.class))
+                .isSameAs(ViewClassInfo.of(TestViewImpl.class));
+    }
+
+    @Test
+    public void viewInterface() throws Exception {
+        assertThat(ViewClassInfo.of(TestViewImpl.class).getViewInterface())
+                .isEqualTo(TestView.class);
+        assertThat(ViewClassInfo.of(SubTestViewImpl.class).getViewInterface())
+                .isEqualTo(TestView.class);
+        assertThat(ViewClassInfo.of(Object.class).getViewInterface()).isNull();
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2017 grandcentrix GmbH
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.grandcentrix.thirtyinch.viewactionqueue;
+
+import static org.assertj.core.api.Assertions.*;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import net.grandcentrix.thirtyinch.TiView;
+import net.grandcentrix.thirtyinch.ViewAction;
+import org.junit.*;
+
+public class ViewActionQueuesTest {
+
+    private static class NamedAction implements ViewAction<TiView> {
+
+        final String mName;
+
+        NamedAction(final String name) {
+            mName = name;
+        }
+
+        @Override
+        public void call(final TiView view) {
+        }
+
+        @Override
+        public String toString() {
+            return mName;
+        }
+    }
+
+    /**
+     * a different class than {@link NamedAction}, therefore a different default key
+     */
+    private static class OtherAction extends NamedAction {
+
+        OtherAction(final String name) {
+            super(name);
+        }
+    }
+
+    @Test
+    public void conflating_keepsLatestActionPerKey() throws Exception {
+        final ConflatingViewActionQueue<TiView> queue = (ConflatingViewActionQueue<TiView>)
+                ViewActionQueues.conflating().<TiView>create();
+
+        queue.offer(new NamedAction("a1"));
+        queue.offer(new OtherAction("b1"));
+        queue.offer(new NamedAction("a2"));
+
+        assertThat(queue).hasSize(2);
+        assertThat(queue.getReplacedCount()).isEqualTo(1);
+        // the replacing action moves to the end
+        assertThat(drain(queue)).containsExactly("b1", "a2");
+    }
+
+    @Test
+    public void conflating_customKey() throws Exception {
+        final ConflatingViewActionQueue<TiView> queue = new ConflatingViewActionQueue<TiView>() {
+            @Override
+            protected Object keyOf(final ViewAction<TiView> action) {
+                return action.toString().charAt(0);
+            }
+        };
+
+        queue.offer(new NamedAction("a1"));
+        queue.offer(new OtherAction("a2"));
+        queue.offer(new NamedAction("b1"));
+
+        assertThat(drain(queue)).containsExactly("a2", "b1");
+    }
+
+    @Test
+    public void dropOldest_dropsOldestWhenFull() throws Exception {
+        final DropOldestViewActionQueue<TiView> queue = (DropOldestViewActionQueue<TiView>)
+                ViewActionQueues.dropOldest(3).<TiView>create();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(queue.offer(new NamedAction("" + i))).isTrue();
+        }
+
+        assertThat(queue).hasSize(3);
+        assertThat(queue.getDroppedCount()).isEqualTo(2);
+        assertThat(queue.peek().toString()).isEqualTo("2");
+        assertThat(drain(queue)).containsExactly("2", "3", "4");
+        assertThat(queue.poll()).isNull();
+
+        // wraps around the ring buffer
+        queue.offer(new NamedAction("5"));
+        queue.offer(new NamedAction("6"));
+        assertThat(drain(queue)).containsExactly("5", "6");
+    }
+
+    @Test
+    public void dropOldest_keyedOfferReplaces() throws Exception {
+        final ViewActionQueue<TiView> queue = ViewActionQueues.dropOldest(3).create();
+
+        queue.offer("a", new NamedAction("a1"));
+        queue.offer(new NamedAction("x"));
+        queue.offer("b", new NamedAction("b1"));
+        queue.offer("a", new NamedAction("a2"));
+        assertThat(queue).hasSize(3);
+
+        // full, drops x
+        queue.offer("c", new NamedAction("c1"));
+        assertThat(drain(queue)).containsExactly("b1", "a2", "c1");
+    }
+
+    @Test
+    public void dropOldest_notifiesDroppedActions() throws Exception {
+        final ViewActionQueue<TiView> queue = ViewActionQueues.dropOldest(2).create();
+        final List<String> dropped = new ArrayList<>();
+        queue.setOnDropListener(new ViewActionQueue.OnDropListener<TiView>() {
+            @Override
+            public void onDropped(@NonNull final ViewAction<TiView> action) {
+                dropped.add(action.toString());
+            }
+        });
+
+        queue.offer("a", new NamedAction("a1"));
+        queue.offer("a", new NamedAction("a2"));
+        queue.offer(new NamedAction("x"));
+        queue.offer(new NamedAction("y"));
+        assertThat(dropped).containsExactly("a1", "a2");
+
+        queue.clear();
+        assertThat(dropped).containsExactly("a1", "a2", "x", "y");
+    }
+
+    @Test
+    public void dropOldest_invalidCapacity() throws Exception {
+        try {
+            ViewActionQueues.dropOldest(0);
+            fail("did not throw");
+        } catch (IllegalArgumentException e) {
+            assertThat(e).hasMessageContaining("capacity");
+        }
+    }
+
+    @Test
+    public void factories() throws Exception {
+        assertThat(ViewActionQueues.unbounded().create())
+                .isInstanceOf(UnboundedViewActionQueue.class);
+        assertThat(ViewActionQueues.dropOldest(3)).isEqualTo(ViewActionQueues.dropOldest(3));
+        assertThat(ViewActionQueues.dropOldest(3)).isNotEqualTo(ViewActionQueues.dropOldest(4));
+
+        // every presenter gets its own queue
+        assertThat(ViewActionQueues.conflating().create())
+                .isNotSameAs(ViewActionQueues.conflating().create());
+    }
+
+    @Test
+    public void conflating_keyedOffer() throws Exception {
+        final ViewActionQueue<TiView> queue = ViewActionQueues.conflating().create();
+
+        queue.offer("a", new NamedAction("a1"));
+        queue.offer("a", new OtherAction("a2"));
+        queue.offer(new NamedAction("x"));
+
+        assertThat(drain(queue)).containsExactly("a2", "x");
+    }
+
+    @Test
+    public void unbounded_keyedOfferReplaces() throws Exception {
+        final ViewActionQueue<TiView> queue = ViewActionQueues.unbounded().create();
+
+        queue.offer("a", new NamedAction("a1"));
+        queue.offer(new NamedAction("x"));
+        queue.offer("a", new NamedAction("a2"));
+        queue.offer("b", new NamedAction("b1"));
+
+        assertThat(queue).hasSize(3);
+        assertThat(queue.peek().toString()).isEqualTo("x");
+        assertThat(drain(queue)).containsExactly("x", "a2", "b1");
+
+        // the key can be used again after its action was polled
+        queue.offer("a", new NamedAction("a3"));
+        assertThat(drain(queue)).containsExactly("a3");
+        assertThat(queue.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void unbounded_concurrentOffers() throws Exception {
+        final ViewActionQueue<TiView> queue = ViewActionQueues.unbounded().create();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    for (int i = 0; i < 1000; i++) {
+                        queue.offer(new NamedAction("" + i));
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(drain(queue)).hasSize(4000);
+        assertThat(queue.isEmpty()).isTrue();
+    }
+
+    private static List<String> drain(final ViewActionQueue<TiView> queue) {
+        final List<String> names = new ArrayList<>();
+        ViewAction<TiView> action;
+        while ((action = queue.poll()) != null) {
+            names.add(action.toString());
+        }
+        return names;
+    }
+}